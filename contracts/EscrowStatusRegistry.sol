@@ -58,6 +58,12 @@ contract EscrowStatusRegistry {
      */
     mapping(bytes32 => uint8) public finalStatus;
     
+    /**
+     * @dev Merkle roots of record batches => block timestamp they were anchored at
+     * 0 means the root was never anchored
+     */
+    mapping(bytes32 => uint256) public anchoredAt;
+    
     // ============ Events ============
     
     /**
@@ -70,6 +76,15 @@ contract EscrowStatusRegistry {
         uint256 timestamp
     );
     
+    /**
+     * @dev Emitted when a batch of records is anchored by its Merkle root
+     */
+    event BatchAnchored(
+        bytes32 indexed merkleRoot,
+        uint256 leafCount,
+        uint256 timestamp
+    );
+    
     /**
      * @dev Emitted when ownership is transferred
      */
@@ -161,6 +176,25 @@ contract EscrowStatusRegistry {
         emit StatusRecorded(dealHash, milestoneHash, status, block.timestamp);
     }
     
+    /**
+     * @dev Anchors a batch of records by the root of their Merkle tree
+     * 
+     * Batched records are not checked against the per-milestone rules of recordStatus;
+     * the backend enforces them before a record is created. Each record can be verified
+     * with its inclusion proof via verifyLeaf.
+     * 
+     * @param merkleRoot Root of the batch tree (sorted-pair keccak256, see verifyLeaf)
+     * @param leafCount Number of records in the batch
+     */
+    function anchorBatch(bytes32 merkleRoot, uint256 leafCount) external onlyOwner {
+        require(leafCount > 0, "EscrowStatusRegistry: empty batch");
+        require(anchoredAt[merkleRoot] == 0, "EscrowStatusRegistry: root already anchored");
+        
+        anchoredAt[merkleRoot] = block.timestamp;
+        
+        emit BatchAnchored(merkleRoot, leafCount, block.timestamp);
+    }
+    
     /**
      * @dev Transfers ownership of the contract to a new account
      * @param newOwner Address of the new owner
@@ -213,4 +247,46 @@ contract EscrowStatusRegistry {
         bytes32 milestoneKey = keccak256(abi.encodePacked(dealHash, milestoneHash));
         return finalStatus[milestoneKey];
     }
+    
+    /**
+     * @dev Leaf of a batched record
+     * @return keccak256(abi.encodePacked(dealHash, milestoneHash, status, timestamp))
+     */
+    function leafHash(
+        bytes32 dealHash,
+        bytes32 milestoneHash,
+        uint8 status,
+        uint64 timestamp
+    ) public pure returns (bytes32) {
+        return keccak256(abi.encodePacked(dealHash, milestoneHash, status, timestamp));
+    }
+    
+    /**
+     * @dev Verifies that a leaf belongs to an anchored batch
+     * 
+     * Pairs are hashed in sorted order, keccak256(min(a, b), max(a, b)), so the proof is
+     * just the list of sibling hashes from the leaf up to the root.
+     * 
+     * @param leaf Leaf hash (see leafHash)
+     * @param proof Sibling hashes from the leaf level up
+     * @param merkleRoot Anchored batch root
+     * @return true if the root is anchored and the proof leads from the leaf to it
+     */
+    function verifyLeaf(
+        bytes32 leaf,
+        bytes32[] calldata proof,
+        bytes32 merkleRoot
+    ) external view returns (bool) {
+        if (anchoredAt[merkleRoot] == 0) {
+            return false;
+        }
+        bytes32 computed = leaf;
+        for (uint256 i = 0; i < proof.length; i++) {
+            bytes32 sibling = proof[i];
+            computed = computed <= sibling
+                ? keccak256(abi.encodePacked(computed, sibling))
+                : keccak256(abi.encodePacked(sibling, computed));
+        }
+        return computed == merkleRoot;
+    }
 }
@@ -0,0 +1,87 @@
+package com.trustescrow.application.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of reading a Lemon order webhook, before and after {@link LemonWebhookPayloadParser}.
+ *
+ * {@code legacyParse} reproduces the previous code: the body decoded to a String, a full
+ * {@link JsonNode} tree, the fields read by path, and the tree converted to a Map for storage.
+ * The payload carries the unrelated subtrees a real order has (URLs, order items, timestamps),
+ * which the streaming parser skips: {@code orderItems} 20 is a typical order (about 2.5 KB),
+ * 460 a large one (about 50 KB). Run with {@code ./gradlew jmh}; the gc profiler's
+ * {@code gc.alloc.rate.norm} is bytes allocated per webhook.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LemonWebhookPayloadParserBenchmark {
+
+    @Param({"20", "460"})
+    public int orderItems;
+
+    private ObjectMapper objectMapper;
+    private byte[] body;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        StringBuilder items = new StringBuilder();
+        for (int i = 0; i < orderItems; i++) {
+            if (i > 0) {
+                items.append(',');
+            }
+            items.append("{\"id\":").append(i)
+                .append(",\"product_name\":\"Milestone payment ").append(i)
+                .append("\",\"price\":15000,\"created_at\":\"2026-10-17T03:42:36.000000Z\"}");
+        }
+        body = ("{\"meta\":{\"event_name\":\"order_created\",\"test_mode\":false,"
+            + "\"custom_data\":{\"dealId\":\"deal-1\",\"milestoneId\":\"ms-1\"}},"
+            + "\"data\":{\"type\":\"orders\",\"id\":\"1234\",\"attributes\":{"
+            + "\"store_id\":1,\"identifier\":\"" + "0f".repeat(16) + "\",\"status\":\"paid\","
+            + "\"total\":15000,\"currency\":\"KRW\",\"user_email\":\"buyer@example.com\","
+            + "\"first_order_item\":{\"id\":99,\"price\":15000},"
+            + "\"custom\":{\"checkout_data\":{\"deal_id\":\"deal-1\",\"milestoneId\":\"ms-1\"}},"
+            + "\"urls\":{\"receipt\":\"https://example.com/r/" + "ab".repeat(32) + "\"},"
+            + "\"created_at\":\"2026-10-17T03:42:36.000000Z\",\"updated_at\":\"2026-10-17T03:42:36.000000Z\"},"
+            + "\"relationships\":{\"checkout\":{\"data\":{\"type\":\"checkouts\",\"id\":\"chk-7\"}},"
+            + "\"order-items\":{\"data\":[" + items + "]}}}}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Object legacyParse() throws IOException {
+        JsonNode payload = objectMapper.readTree(new String(body, StandardCharsets.UTF_8));
+        ParsedWebhookData parsed = new ParsedWebhookData();
+        parsed.eventName = payload.path("meta").path("event_name").asText(null);
+        JsonNode data = payload.path("data");
+        JsonNode attributes = data.path("attributes");
+        JsonNode checkoutData = attributes.path("custom").path("checkout_data");
+        parsed.dealId = checkoutData.path("deal_id").asText(null);
+        parsed.milestoneId = checkoutData.path("milestoneId").asText(null);
+        parsed.orderId = data.path("id").asText(null);
+        parsed.checkoutId = data.path("relationships").path("checkout").path("data").path("id").asText(null);
+        parsed.orderStatus = attributes.path("status").asText(null);
+        parsed.currency = attributes.path("currency").asText(null);
+        parsed.totalAmount = attributes.path("total").decimalValue();
+        return objectMapper.convertValue(payload, Map.class);
+    }
+
+    @Benchmark
+    public ParsedWebhookData parse() {
+        return LemonWebhookPayloadParser.parse(body);
+    }
+}
@@ -0,0 +1,112 @@
+package com.trustescrow.domain.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hashing cost of ledger idempotency keys and registry event hashes, before and after
+ * {@link Sha256}.
+ *
+ * The {@code legacy*} methods reproduce the previous code (a digest lookup per hash, hex through
+ * {@code Integer.toHexString} and the key built with {@code String.format}). Run with
+ * {@code ./gradlew jmh}; the gc profiler's {@code gc.alloc.rate.norm} is bytes allocated per hash.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class Sha256Benchmark {
+
+    private UUID dealId;
+    private UUID referenceId;
+    private BigDecimal amount;
+    private byte[] eventPayload;
+    private List<byte[]> eventPayloads;
+
+    @Setup
+    public void setUp() {
+        dealId = UUID.randomUUID();
+        referenceId = UUID.randomUUID();
+        amount = new BigDecimal("1250.00");
+        eventPayload = ("{\"eventType\":\"VERSION_ADDED\",\"assetId\":\"" + UUID.randomUUID()
+            + "\",\"contentHash\":\"" + "ab".repeat(32) + "\"}").getBytes(StandardCharsets.UTF_8);
+        eventPayloads = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            eventPayloads.add(eventPayload);
+        }
+    }
+
+    @Benchmark
+    public String legacyIdempotencyKey() throws NoSuchAlgorithmException {
+        String input = String.format("%s|%s|%s|%s|%s",
+            dealId, referenceId, "RELEASE", amount.toPlainString(), "USD");
+        return legacyHex(MessageDigest.getInstance("SHA-256").digest(input.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Benchmark
+    public String idempotencyKey() {
+        String input = new StringBuilder(128)
+            .append(dealId).append('|')
+            .append(referenceId.toString()).append('|')
+            .append("RELEASE").append('|')
+            .append(amount.toPlainString()).append('|')
+            .append("USD")
+            .toString();
+        return Sha256.hashHex(input);
+    }
+
+    @Benchmark
+    public String legacyEventHash() throws NoSuchAlgorithmException {
+        return legacyHex(MessageDigest.getInstance("SHA-256").digest(eventPayload));
+    }
+
+    @Benchmark
+    public String eventHash() {
+        return Sha256.hashHex(eventPayload);
+    }
+
+    /**
+     * 64 event hashes per operation.
+     */
+    @Benchmark
+    public List<String> legacyEventHashes() throws NoSuchAlgorithmException {
+        List<String> hashes = new ArrayList<>(eventPayloads.size());
+        for (byte[] payload : eventPayloads) {
+            hashes.add(legacyHex(MessageDigest.getInstance("SHA-256").digest(payload)));
+        }
+        return hashes;
+    }
+
+    /**
+     * 64 event hashes per operation.
+     */
+    @Benchmark
+    public List<String> eventHashes() {
+        return Sha256.hashAll(eventPayloads);
+    }
+
+    private static String legacyHex(byte[] bytes) {
+        StringBuilder hexString = new StringBuilder();
+        for (byte b : bytes) {
+            String hex = Integer.toHexString(0xff & b);
+            if (hex.length() == 1) {
+                hexString.append('0');
+            }
+            hexString.append(hex);
+        }
+        return hexString.toString();
+    }
+}
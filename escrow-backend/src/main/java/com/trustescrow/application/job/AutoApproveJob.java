@@ -5,9 +5,11 @@ import com.trustescrow.domain.model.DealState;
 import com.trustescrow.domain.model.Timer;
 import com.trustescrow.domain.service.DealRepository;
 import com.trustescrow.domain.service.RulesEngineService;
+import com.trustescrow.domain.service.TimerElapsedEvent;
 import com.trustescrow.domain.service.TimerService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
@@ -16,7 +18,7 @@ import java.util.List;
 
 /**
  * Background job for auto-approving deals when inspection timer elapses.
- * Runs periodically and processes deals in INSPECTION state with elapsed timers.
+ * Driven by the timer wheel; the periodic run only catches timers the wheel did not handle.
  */
 @Component
 @RequiredArgsConstructor
@@ -24,48 +26,75 @@ import java.util.List;
 public class AutoApproveJob {
     
     private final TimerService timerService;
+    private final BatchExecutor batchExecutor;
+    private final WorkClaimService workClaimService;
     private final DealRepository dealRepository;
     private final RulesEngineService rulesEngineService;
     
     /**
-     * Runs every 5 minutes to check for elapsed auto-approve timers.
+     * Fires within one wheel tick of the timer deadline (see {@link TimerService}).
      */
-    @Scheduled(fixedRate = 300000) // 5 minutes
+    @EventListener(condition = "#event.timerType == 'AUTO_APPROVE'")
     @Transactional
+    public void onTimerElapsed(TimerElapsedEvent event) {
+        // Every node's wheel fires; only the node that claims the timer processes it
+        if (!workClaimService.claimTimer(event.getTimerId())) {
+            return;
+        }
+        Timer timer = timerService.findTimer(event.getTimerId());
+        if (timer == null || !timer.isElapsed()) {
+            // Not due after all (e.g. rescheduled): leave it to the wheel or sweep that sees it due
+            workClaimService.releaseTimers(List.of(event.getTimerId()));
+            return;
+        }
+        processTimer(timer);
+    }
+    
+    /**
+     * Fallback sweep every 5 minutes for timers the wheel missed (e.g. a failed handler).
+     * Reads only due, unleased rows via the (timerType, active, dueAt) index.
+     */
+    @Scheduled(fixedRate = 300000) // 5 minutes
     public void processAutoApprove() {
         log.info("Running auto-approve job");
         
-        // Find all elapsed AUTO_APPROVE timers
-        List<Timer> elapsedTimers = timerService.findElapsedTimers("AUTO_APPROVE");
+        // Claim elapsed AUTO_APPROVE timers page by page (SKIP LOCKED across nodes);
+        // each timer is settled in its own transaction
+        batchExecutor.run(
+            "auto-approve",
+            limit -> workClaimService.claimDueTimers("AUTO_APPROVE", limit),
+            Timer::getId,
+            this::processTimer,
+            timers -> workClaimService.releaseTimers(timers.stream().map(Timer::getId).toList())
+        );
+    }
+    
+    /**
+     * Settles one elapsed timer. Failures propagate so the caller can roll back and count them.
+     */
+    private void processTimer(Timer timer) {
+        // Acquire lock on deal
+        Deal deal = dealRepository.findByIdWithLock(timer.getDealId())
+            .orElse(null);
+        
+        if (deal == null) {
+            log.warn("Deal not found for timer: {}", timer.getId());
+            return;
+        }
         
-        for (Timer timer : elapsedTimers) {
-            try {
-                // Acquire lock on deal
-                Deal deal = dealRepository.findByIdWithLock(timer.getDealId())
-                    .orElse(null);
-                
-                if (deal == null) {
-                    log.warn("Deal not found for timer: {}", timer.getId());
-                    continue;
-                }
-                
-                // Only process if still in INSPECTION state
-                if (deal.getState() != DealState.INSPECTION) {
-                    log.info("Deal {} is no longer in INSPECTION state, skipping", deal.getId());
-                    timerService.markTimerFired(timer.getId());
-                    continue;
-                }
-                
-                // Evaluate rules (will transition to APPROVED and release holdback)
-                rulesEngineService.evaluateAndExecute(deal.getId(), "system");
-                
-                // Mark timer as fired
-                timerService.markTimerFired(timer.getId());
-                
-                log.info("Auto-approved deal {}", deal.getId());
-            } catch (Exception e) {
-                log.error("Error processing auto-approve for timer {}: {}", timer.getId(), e.getMessage(), e);
-            }
+        // Only process if still in INSPECTION state
+        if (deal.getState() != DealState.INSPECTION) {
+            log.info("Deal {} is no longer in INSPECTION state, skipping", deal.getId());
+            timerService.markTimerFired(timer.getId());
+            return;
         }
+        
+        // Evaluate rules (will transition to APPROVED and release holdback)
+        rulesEngineService.evaluateAndExecute(deal.getId(), "system");
+        
+        // Mark timer as fired
+        timerService.markTimerFired(timer.getId());
+        
+        log.info("Auto-approved deal {}", deal.getId());
     }
 }
@@ -0,0 +1,188 @@
+package com.trustescrow.application.job;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * Shared executor for the scheduled settlement jobs.
+ *
+ * Claims due work page by page (see {@link WorkClaimService}), fans each page out to a bounded
+ * worker pool and runs every item in its own short REQUIRES_NEW transaction, so deal locks are
+ * held for one deal at a time and a failing deal only rolls back itself. Claimed items stay
+ * leased until the run ends, so a run never claims the same item twice; the leases are then
+ * released. Each run produces a {@link RunReport}.
+ *
+ * Runs on Java 17, so the pool is a fixed platform-thread pool sized by
+ * {@code jobs.batch.parallelism}.
+ */
+@Component
+@Slf4j
+public class BatchExecutor {
+
+    private final TransactionTemplate requiresNew;
+    private final ExecutorService workers;
+    private final int pageSize;
+    private final Map<String, RunReport> lastReports = new ConcurrentHashMap<>();
+
+    public BatchExecutor(
+            PlatformTransactionManager transactionManager,
+            @Value("${jobs.batch.parallelism:4}") int parallelism,
+            @Value("${jobs.batch.page-size:100}") int pageSize) {
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(Math.max(1, parallelism), r -> {
+            Thread thread = new Thread(r, "batch-worker-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.pageSize = Math.max(1, pageSize);
+    }
+
+    /**
+     * Runs {@code task} for every item returned by {@code nextPage}.
+     *
+     * @param jobName name used in logs and reports
+     * @param claimNext claims up to the given number of items not yet leased
+     * @param itemId label for an item in failure logs
+     * @param task work for one item, executed in its own REQUIRES_NEW transaction
+     * @param release releases the leases of one claimed page once the run is over
+     */
+    public <T> RunReport run(
+        String jobName,
+        IntFunction<List<T>> claimNext,
+        Function<T, Object> itemId,
+        Consumer<T> task,
+        Consumer<List<T>> release
+    ) {
+        Instant startedAt = Instant.now();
+        List<List<T>> claimed = new ArrayList<>();
+        try {
+            return process(jobName, startedAt, claimNext, itemId, task, claimed);
+        } finally {
+            for (List<T> page : claimed) {
+                try {
+                    release.accept(page);
+                } catch (RuntimeException e) {
+                    log.warn("[{}] Could not release {} leases, they expire on their own: {}",
+                        jobName, page.size(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    private <T> RunReport process(
+        String jobName,
+        Instant startedAt,
+        IntFunction<List<T>> claimNext,
+        Function<T, Object> itemId,
+        Consumer<T> task,
+        List<List<T>> claimed
+    ) {
+        int processed = 0;
+        int failed = 0;
+        int pages = 0;
+
+        while (true) {
+            List<T> page = claimNext.apply(pageSize);
+            if (page.isEmpty()) {
+                break;
+            }
+            claimed.add(page);
+            pages++;
+
+            List<Future<?>> futures = new ArrayList<>(page.size());
+            for (T item : page) {
+                futures.add(workers.submit(() -> requiresNew.executeWithoutResult(status -> task.accept(item))));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                processed++;
+                try {
+                    futures.get(i).get();
+                } catch (ExecutionException e) {
+                    failed++;
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    log.error("[{}] Item {} failed: {}", jobName, itemId.apply(page.get(i)), cause.getMessage(), cause);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    log.warn("[{}] Interrupted, stopping run", jobName);
+                    return finish(jobName, startedAt, pages, processed, failed);
+                }
+            }
+
+            if (page.size() < pageSize) {
+                break;
+            }
+        }
+
+        return finish(jobName, startedAt, pages, processed, failed);
+    }
+
+    /**
+     * Last report of every job that has run since startup.
+     */
+    public Map<String, RunReport> getLastReports() {
+        return Map.copyOf(lastReports);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private RunReport finish(String jobName, Instant startedAt, int pages, int processed, int failed) {
+        long elapsedMillis = Duration.between(startedAt, Instant.now()).toMillis();
+        double throughput = elapsedMillis > 0 ? processed * 1000.0 / elapsedMillis : processed;
+        RunReport report = RunReport.builder()
+            .jobName(jobName)
+            .startedAt(startedAt)
+            .elapsedMillis(elapsedMillis)
+            .pages(pages)
+            .processed(processed)
+            .failed(failed)
+            .itemsPerSecond(throughput)
+            .build();
+        lastReports.put(jobName, report);
+
+        if (failed > 0) {
+            log.warn("[{}] Run finished: processed={}, failed={}, pages={}, elapsed={}ms, throughput={}/s",
+                jobName, processed, failed, pages, elapsedMillis, String.format("%.1f", throughput));
+        } else {
+            log.info("[{}] Run finished: processed={}, pages={}, elapsed={}ms, throughput={}/s",
+                jobName, processed, pages, elapsedMillis, String.format("%.1f", throughput));
+        }
+        return report;
+    }
+
+    @lombok.Value
+    @lombok.Builder
+    public static class RunReport {
+        String jobName;
+        Instant startedAt;
+        long elapsedMillis;
+        int pages;
+        int processed;
+        int failed;
+        double itemsPerSecond;
+    }
+}
@@ -0,0 +1,455 @@
+package com.trustescrow.application.job;
+
+import com.trustescrow.application.service.BlockchainContractService;
+import com.trustescrow.application.service.BlockchainService;
+import com.trustescrow.application.service.OnChainBatchService;
+import com.trustescrow.domain.model.OnChainBatch;
+import com.trustescrow.domain.model.OnChainRecord;
+import com.trustescrow.domain.model.OnChainSubmission;
+import com.trustescrow.domain.service.OnChainBatchRepository;
+import com.trustescrow.domain.service.OnChainBatchSealedEvent;
+import com.trustescrow.domain.service.OnChainRecordQueuedEvent;
+import com.trustescrow.domain.service.OnChainRecordRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.web3j.utils.Numeric;
+
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Sends queued on-chain records (see {@link BlockchainService#recordMilestoneStatus}) and sealed
+ * record batches (see {@link OnChainBatchService}) and confirms them from their receipts.
+ *
+ * A single writer thread owns the wallet nonce: it is read from the node once (pending block)
+ * and then incremented locally, so transactions are pipelined without waiting for receipts and
+ * without "nonce too low" races. A nonce rejection resynchronizes the counter from the node.
+ * Because the wallet nonce is local, the submitter must be enabled on exactly one node
+ * ({@code blockchain.submitter.enabled}, off by default); on the others records only queue up.
+ *
+ * Receipts of submitted transactions are fetched in JSON-RPC batches on a fixed poll. Success
+ * confirms the record (or the batch with all of its records); a revert puts it back in the queue
+ * until {@code blockchain.submitter.max-attempts}. A reverted batch whose root the contract
+ * already reports as anchored is confirmed instead, and the records of a batch that FAILED are
+ * returned to the batch queue. A transaction without a receipt after
+ * {@code blockchain.submitter.resubmit-after-minutes} is replaced: sent again with the same nonce
+ * and a higher gas price, so only one version can ever be mined, and the receipts of all versions
+ * are polled. If the node cannot be reached the round is skipped, as no receipt proves nothing.
+ */
+@Component
+@Slf4j
+public class BlockchainSubmitter {
+
+    private final OnChainRecordRepository onChainRecordRepository;
+    private final OnChainBatchRepository onChainBatchRepository;
+    private final BlockchainContractService contractService;
+    private final BlockchainService blockchainService;
+    private final OnChainBatchService onChainBatchService;
+    private final TransactionTemplate requiresNew;
+    private final ExecutorService writer;
+
+    @Value("${blockchain.submitter.enabled:false}")
+    private boolean submitterEnabled;
+
+    @Value("${blockchain.submitter.max-pending-txs:64}")
+    private int maxPendingTxs;
+
+    @Value("${blockchain.submitter.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${blockchain.submitter.resubmit-after-minutes:30}")
+    private long resubmitAfterMinutes;
+
+    @Value("${blockchain.submitter.receipt-batch-size:100}")
+    private int receiptBatchSize;
+
+    @Value("${blockchain.submitter.replace-gas-bump-percent:25}")
+    private int replaceGasBumpPercent;
+
+    @Value("${blockchain.submitter.max-gas-price-gwei:500}")
+    private long maxGasPriceGwei;
+
+    private final AtomicBoolean drainRequested = new AtomicBoolean();
+    private final AtomicBoolean resyncRequested = new AtomicBoolean(true);
+
+    /**
+     * Next nonce to use; only touched by the writer thread.
+     */
+    private BigInteger nextNonce;
+
+    public BlockchainSubmitter(
+            OnChainRecordRepository onChainRecordRepository,
+            OnChainBatchRepository onChainBatchRepository,
+            BlockchainContractService contractService,
+            BlockchainService blockchainService,
+            OnChainBatchService onChainBatchService,
+            PlatformTransactionManager transactionManager) {
+        this.onChainRecordRepository = onChainRecordRepository;
+        this.onChainBatchRepository = onChainBatchRepository;
+        this.contractService = contractService;
+        this.blockchainService = blockchainService;
+        this.onChainBatchService = onChainBatchService;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.writer = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "chain-submitter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void init() {
+        if (contractService.isEnabled()) {
+            log.info("[BLOCKCHAIN] Submitter {} on this node", submitterEnabled ? "enabled" : "disabled (records are queued only)");
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRecordQueued(OnChainRecordQueuedEvent event) {
+        requestDrain();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBatchSealed(OnChainBatchSealedEvent event) {
+        requestDrain();
+    }
+
+    /**
+     * Fallback poll: records queued before a restart, requeued records and retries.
+     */
+    @Scheduled(fixedDelayString = "${blockchain.submitter.poll-ms:10000}")
+    public void poll() {
+        requestDrain();
+    }
+
+    /**
+     * Fetches receipts of submitted transactions in one batch and confirms or requeues them.
+     */
+    @Scheduled(fixedDelayString = "${blockchain.submitter.receipt-poll-ms:15000}")
+    public void pollReceipts() {
+        if (!submitterEnabled || !contractService.isEnabled()) {
+            return;
+        }
+        try {
+            List<OnChainSubmission> submitted = new ArrayList<>(onChainBatchRepository.findBySubmissionStatusOrderByCreatedAtAsc(
+                OnChainRecord.SubmissionStatus.SUBMITTED, PageRequest.of(0, receiptBatchSize)));
+            submitted.addAll(onChainRecordRepository.findBySubmissionStatusOrderByCreatedAtAsc(
+                OnChainRecord.SubmissionStatus.SUBMITTED, PageRequest.of(0, receiptBatchSize)));
+            if (submitted.isEmpty()) {
+                return;
+            }
+            Map<String, TransactionReceipt> receipts;
+            try {
+                receipts = contractService.getTransactionReceipts(
+                    submitted.stream().flatMap(item -> item.getSentTxHashes().stream()).toList());
+            } catch (BlockchainContractService.RpcException e) {
+                log.warn("[BLOCKCHAIN] Receipt poll skipped: {}", e.getMessage());
+                return;
+            }
+
+            Instant staleBefore = Instant.now().minus(Duration.ofMinutes(resubmitAfterMinutes));
+            int confirmed = 0;
+            List<OnChainSubmission> stale = new ArrayList<>();
+            for (OnChainSubmission item : submitted) {
+                TransactionReceipt receipt = item.getSentTxHashes().stream()
+                    .map(receipts::get)
+                    .filter(Objects::nonNull)
+                    .findFirst()
+                    .orElse(null);
+                if (receipt != null && receipt.isStatusOK()) {
+                    confirm(item, receipt.getTransactionHash(), receipt.getBlockNumber().longValue());
+                    confirmed++;
+                } else if (receipt != null) {
+                    try {
+                        if (confirmIfAnchored(item)) {
+                            confirmed++;
+                            continue;
+                        }
+                    } catch (BlockchainContractService.RpcException e) {
+                        // The receipt is polled again
+                        log.warn("[BLOCKCHAIN] Anchor check skipped: {}={}, error={}", kind(item), item.getId(), e.getMessage());
+                        continue;
+                    }
+                    update(item, r -> r.recordSubmitFailure("Transaction reverted: " + receipt.getTransactionHash(), maxAttempts));
+                    log.warn("[BLOCKCHAIN] Transaction reverted: {}={}, txHash={}",
+                        kind(item), item.getId(), receipt.getTransactionHash());
+                } else if (item.getSubmittedAt() != null && item.getSubmittedAt().isBefore(staleBefore)) {
+                    stale.add(item);
+                }
+            }
+            if (!stale.isEmpty()) {
+                execute(() -> stale.forEach(this::replace));
+            }
+            if (confirmed > 0) {
+                log.info("[BLOCKCHAIN] Confirmed {} of {} submitted transactions", confirmed, submitted.size());
+                // Room for more in-flight transactions
+                requestDrain();
+            }
+        } catch (Exception e) {
+            log.error("[BLOCKCHAIN] Receipt poll failed: {}", e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writer.shutdownNow();
+    }
+
+    private void requestDrain() {
+        if (!submitterEnabled) {
+            return;
+        }
+        // Coalesce: at most one drain queued behind the running one
+        if (drainRequested.compareAndSet(false, true)) {
+            if (!execute(() -> {
+                drainRequested.set(false);
+                drain();
+            })) {
+                drainRequested.set(false);
+            }
+        }
+    }
+
+    private boolean execute(Runnable task) {
+        try {
+            writer.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Runs on the writer thread only.
+     */
+    private void drain() {
+        if (!contractService.isEnabled()) {
+            return;
+        }
+        try {
+            long capacity = maxPendingTxs
+                - onChainBatchRepository.countBySubmissionStatus(OnChainRecord.SubmissionStatus.SUBMITTED)
+                - onChainRecordRepository.countBySubmissionStatus(OnChainRecord.SubmissionStatus.SUBMITTED);
+            if (capacity <= 0) {
+                return;
+            }
+            // Batches first: one transaction anchors many records
+            List<OnChainSubmission> pending = new ArrayList<>(onChainBatchRepository.findBySubmissionStatusOrderByCreatedAtAsc(
+                OnChainRecord.SubmissionStatus.PENDING, PageRequest.of(0, (int) capacity)));
+            if (pending.size() < capacity) {
+                pending.addAll(onChainRecordRepository.findBySubmissionStatusOrderByCreatedAtAsc(
+                    OnChainRecord.SubmissionStatus.PENDING, PageRequest.of(0, (int) capacity - pending.size())));
+            }
+            for (OnChainSubmission item : pending) {
+                if (!submit(item)) {
+                    // Node unavailable or nonce out of sync: the next drain retries
+                    return;
+                }
+            }
+        } catch (Exception e) {
+            log.error("[BLOCKCHAIN] Submission drain failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Sends one record or batch with the next local nonce.
+     *
+     * @return false if draining should stop for now
+     */
+    private boolean submit(OnChainSubmission item) {
+        if (resyncRequested.getAndSet(false) || nextNonce == null) {
+            Optional<BigInteger> chainNonce = contractService.getPendingNonce();
+            if (chainNonce.isEmpty()) {
+                resyncRequested.set(true);
+                return false;
+            }
+            // Never below a nonce still held by a submitted transaction: one the node has not
+            // seen is re-sent at its own nonce by replace(), not overtaken by a new transaction
+            nextNonce = chainNonce.get().max(nextHeldNonce());
+            log.info("[BLOCKCHAIN] Wallet nonce synchronized: {}", nextNonce);
+        }
+
+        String data = encode(item);
+        BigInteger nonce = nextNonce;
+        BlockchainContractService.SendResult result = contractService.sendTransaction(nonce, data);
+
+        if (result.isAccepted() || result.isUnknown() || isAlreadyKnown(result.getError())) {
+            // An unknown outcome is tracked like a sent transaction: the receipt poll confirms
+            // it, or requeues it once it is overdue. The nonce is re-read so a transaction the
+            // node never received does not leave a gap.
+            nextNonce = nonce.add(BigInteger.ONE);
+            if (result.isUnknown()) {
+                resyncRequested.set(true);
+            }
+            update(item, r -> r.markSubmitted(result.getTxHash(), nonce.longValue(), r.getNetwork(),
+                result.getGasPrice().longValue()));
+            log.info("[BLOCKCHAIN] Transaction sent: {}={}, txHash={}, nonce={}{}",
+                kind(item), item.getId(), result.getTxHash(), nonce, result.isUnknown() ? " (response lost)" : "");
+            return !result.isUnknown();
+        }
+
+        if (isNonceError(result.getError())) {
+            resyncRequested.set(true);
+            log.warn("[BLOCKCHAIN] Nonce {} rejected ({}), resynchronizing", nonce, result.getError());
+            return false;
+        }
+
+        if (isAlreadyAnchored(result.getError())) {
+            try {
+                if (confirmIfAnchored(item)) {
+                    return true;
+                }
+            } catch (BlockchainContractService.RpcException e) {
+                log.warn("[BLOCKCHAIN] Anchor check skipped: {}={}, error={}", kind(item), item.getId(), e.getMessage());
+                return false;
+            }
+        }
+
+        update(item, r -> r.recordSubmitFailure(result.getError(), maxAttempts));
+        log.error("[BLOCKCHAIN] Transaction rejected: {}={}, nonce={}, error={}",
+            kind(item), item.getId(), nonce, result.getError());
+        return true;
+    }
+
+    /**
+     * Confirms a batch whose root is already anchored on-chain, so a reverted resubmission of
+     * an anchored root is not counted as a failure.
+     *
+     * @return true if confirmed, false if not anchored (or not a batch)
+     * @throws BlockchainContractService.RpcException if the node could not be asked
+     */
+    private boolean confirmIfAnchored(OnChainSubmission item) {
+        if (!(item instanceof OnChainBatch batch)) {
+            return false;
+        }
+        long anchoredAt = contractService.getAnchoredAt(Numeric.hexStringToByteArray(batch.getMerkleRoot()));
+        if (anchoredAt == 0) {
+            return false;
+        }
+        onChainBatchService.confirmAnchoredBatch(batch.getId(), batch.getNetwork(), Instant.ofEpochSecond(anchoredAt));
+        return true;
+    }
+
+    /**
+     * Sends a transaction that has no receipt again with the same nonce and a higher gas price.
+     * Runs on the writer thread only.
+     */
+    private void replace(OnChainSubmission item) {
+        BigInteger maxGasPrice = BigInteger.valueOf(maxGasPriceGwei).multiply(BigInteger.TEN.pow(9));
+        BigInteger previous = item.getGasPrice() != null
+            ? BigInteger.valueOf(item.getGasPrice())
+            : contractService.getDefaultGasPrice();
+        if (previous.compareTo(maxGasPrice) >= 0) {
+            log.error("[BLOCKCHAIN] No receipt at the maximum gas price: {}={}, txHash={}, nonce={}",
+                kind(item), item.getId(), item.getTransactionHash(), item.getNonce());
+            return;
+        }
+        BigInteger bumped = previous.multiply(BigInteger.valueOf(100L + replaceGasBumpPercent)).divide(BigInteger.valueOf(100));
+        BigInteger gasPrice = contractService.getNetworkGasPrice().map(bumped::max).orElse(bumped).min(maxGasPrice);
+
+        BlockchainContractService.SendResult result = contractService.sendTransaction(
+            BigInteger.valueOf(item.getNonce()), encode(item), gasPrice);
+        if (result.isAccepted() || result.isUnknown() || isAlreadyKnown(result.getError())) {
+            update(item, r -> r.markReplaced(result.getTxHash(), gasPrice.longValue()));
+            log.warn("[BLOCKCHAIN] No receipt after {} minutes, replaced: {}={}, txHash={}, nonce={}, gasPrice={}",
+                resubmitAfterMinutes, kind(item), item.getId(), result.getTxHash(), item.getNonce(), gasPrice);
+        } else if (isNonceTooLow(result.getError())) {
+            // One of the versions already sent was mined; its receipt confirms the item
+            log.info("[BLOCKCHAIN] Nonce {} already used, waiting for the receipt: {}={}",
+                item.getNonce(), kind(item), item.getId());
+        } else {
+            log.warn("[BLOCKCHAIN] Replacement rejected, retrying on the next poll: {}={}, nonce={}, error={}",
+                kind(item), item.getId(), item.getNonce(), result.getError());
+        }
+    }
+
+    private BigInteger nextHeldNonce() {
+        Long records = onChainRecordRepository.findMaxNonce(OnChainRecord.SubmissionStatus.SUBMITTED);
+        Long batches = onChainBatchRepository.findMaxNonce(OnChainRecord.SubmissionStatus.SUBMITTED);
+        long max = Math.max(records != null ? records : -1L, batches != null ? batches : -1L);
+        return BigInteger.valueOf(max + 1);
+    }
+
+    private String encode(OnChainSubmission item) {
+        if (item instanceof OnChainBatch batch) {
+            return contractService.encodeAnchorBatch(Numeric.hexStringToByteArray(batch.getMerkleRoot()), batch.getLeafCount());
+        }
+        OnChainRecord record = (OnChainRecord) item;
+        return contractService.encodeRecordStatus(record.getDealId().toString(),
+            record.getMilestoneId().toString(), BlockchainService.mapToContractStatus(record.getStatus()));
+    }
+
+    private void confirm(OnChainSubmission item, String txHash, long blockNumber) {
+        if (item instanceof OnChainBatch) {
+            onChainBatchService.confirmBatch(item.getId(), txHash, blockNumber, item.getNetwork());
+        } else {
+            blockchainService.confirmTransaction(item.getId(), txHash, blockNumber, item.getNetwork());
+        }
+    }
+
+    private void update(OnChainSubmission item, Consumer<OnChainSubmission> change) {
+        UUID id = item.getId();
+        requiresNew.executeWithoutResult(status -> {
+            if (item instanceof OnChainBatch) {
+                onChainBatchRepository.findById(id).ifPresent(batch -> {
+                    change.accept(batch);
+                    if (batch.getSubmissionStatus() == OnChainRecord.SubmissionStatus.FAILED) {
+                        onChainBatchService.releaseFailedBatch(id);
+                    }
+                });
+            } else {
+                onChainRecordRepository.findById(id).ifPresent(change);
+            }
+        });
+    }
+
+    private static String kind(OnChainSubmission item) {
+        return item instanceof OnChainBatch ? "batchId" : "recordId";
+    }
+
+    private static boolean isAlreadyKnown(String error) {
+        return error != null && error.toLowerCase().contains("already known");
+    }
+
+    private static boolean isAlreadyAnchored(String error) {
+        return error != null && error.toLowerCase().contains("already anchored");
+    }
+
+    private static boolean isNonceTooLow(String error) {
+        return error != null && error.toLowerCase().contains("nonce too low");
+    }
+
+    private static boolean isNonceError(String error) {
+        if (error == null) {
+            return false;
+        }
+        String message = error.toLowerCase();
+        return message.contains("nonce too low")
+            || message.contains("nonce too high")
+            || message.contains("replacement transaction underpriced");
+    }
+}
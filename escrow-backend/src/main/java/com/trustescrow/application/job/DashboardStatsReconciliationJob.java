@@ -0,0 +1,37 @@
+package com.trustescrow.application.job;
+
+import com.trustescrow.domain.service.DashboardStatsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Background job that recomputes the dashboard KPI counters with GROUP BY queries.
+ * Drift between the incremental counters and the source tables is repaired and logged as an error.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardStatsReconciliationJob {
+    
+    private final DashboardStatsService dashboardStatsService;
+    
+    /**
+     * Runs every 15 minutes by default.
+     */
+    @Scheduled(cron = "${dashboard.stats.reconcile-cron:0 */15 * * * ?}")
+    public void reconcileCounters() {
+        try {
+            DashboardStatsService.ReconcileReport report = dashboardStatsService.reconcile();
+            if (report.isConsistent()) {
+                log.info("Dashboard counter reconciliation checked {} counters, all consistent", report.getChecked());
+            } else {
+                log.error("Dashboard counter reconciliation found drift in {} of {} counters: {}",
+                    report.getDrift().size(), report.getChecked(), report.getDrift());
+            }
+        } catch (Exception e) {
+            log.error("Error reconciling dashboard counters: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -7,9 +7,11 @@ import com.trustescrow.domain.model.Timer;
 import com.trustescrow.domain.service.DealRepository;
 import com.trustescrow.domain.service.DisputeCaseRepository;
 import com.trustescrow.domain.service.RulesEngineService;
+import com.trustescrow.domain.service.TimerElapsedEvent;
 import com.trustescrow.domain.service.TimerService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
@@ -18,7 +20,7 @@ import java.util.List;
 
 /**
  * Background job for resolving disputes when TTL expires.
- * Runs periodically and processes expired disputes.
+ * Driven by the timer wheel; the periodic run only catches timers the wheel did not handle.
  */
 @Component
 @RequiredArgsConstructor
@@ -26,59 +28,86 @@ import java.util.List;
 public class DisputeTTLJob {
     
     private final TimerService timerService;
+    private final BatchExecutor batchExecutor;
+    private final WorkClaimService workClaimService;
     private final DealRepository dealRepository;
     private final DisputeCaseRepository disputeRepository;
     private final RulesEngineService rulesEngineService;
     
     /**
-     * Runs every 10 minutes to check for expired dispute TTLs.
+     * Fires within one wheel tick of the timer deadline (see {@link TimerService}).
      */
-    @Scheduled(fixedRate = 600000) // 10 minutes
+    @EventListener(condition = "#event.timerType == 'DISPUTE_TTL'")
     @Transactional
+    public void onTimerElapsed(TimerElapsedEvent event) {
+        // Every node's wheel fires; only the node that claims the timer processes it
+        if (!workClaimService.claimTimer(event.getTimerId())) {
+            return;
+        }
+        Timer timer = timerService.findTimer(event.getTimerId());
+        if (timer == null || !timer.isElapsed()) {
+            // Not due after all (e.g. rescheduled): leave it to the wheel or sweep that sees it due
+            workClaimService.releaseTimers(List.of(event.getTimerId()));
+            return;
+        }
+        processTimer(timer);
+    }
+    
+    /**
+     * Fallback sweep every 10 minutes for timers the wheel missed (e.g. a failed handler).
+     * Reads only due, unleased rows via the (timerType, active, dueAt) index.
+     */
+    @Scheduled(fixedRate = 600000) // 10 minutes
     public void processDisputeTTL() {
         log.info("Running dispute TTL job");
         
-        // Find all elapsed DISPUTE_TTL timers
-        List<Timer> elapsedTimers = timerService.findElapsedTimers("DISPUTE_TTL");
+        // Claim elapsed DISPUTE_TTL timers page by page (SKIP LOCKED across nodes);
+        // each timer is settled in its own transaction
+        batchExecutor.run(
+            "dispute-ttl",
+            limit -> workClaimService.claimDueTimers("DISPUTE_TTL", limit),
+            Timer::getId,
+            this::processTimer,
+            timers -> workClaimService.releaseTimers(timers.stream().map(Timer::getId).toList())
+        );
+    }
+    
+    /**
+     * Settles one elapsed timer. Failures propagate so the caller can roll back and count them.
+     */
+    private void processTimer(Timer timer) {
+        // Acquire lock on deal
+        Deal deal = dealRepository.findByIdWithLock(timer.getDealId())
+            .orElse(null);
+        
+        if (deal == null) {
+            log.warn("Deal not found for timer: {}", timer.getId());
+            return;
+        }
+        
+        // Only process if still in ISSUE state
+        if (deal.getState() != DealState.ISSUE) {
+            log.info("Deal {} is no longer in ISSUE state, skipping", deal.getId());
+            timerService.markTimerFired(timer.getId());
+            return;
+        }
+        
+        // Get dispute
+        DisputeCase dispute = disputeRepository.findByDealId(deal.getId())
+            .orElse(null);
         
-        for (Timer timer : elapsedTimers) {
-            try {
-                // Acquire lock on deal
-                Deal deal = dealRepository.findByIdWithLock(timer.getDealId())
-                    .orElse(null);
-                
-                if (deal == null) {
-                    log.warn("Deal not found for timer: {}", timer.getId());
-                    continue;
-                }
-                
-                // Only process if still in ISSUE state
-                if (deal.getState() != DealState.ISSUE) {
-                    log.info("Deal {} is no longer in ISSUE state, skipping", deal.getId());
-                    timerService.markTimerFired(timer.getId());
-                    continue;
-                }
-                
-                // Get dispute
-                DisputeCase dispute = disputeRepository.findByDealId(deal.getId())
-                    .orElse(null);
-                
-                if (dispute == null || dispute.getStatus() != DisputeCase.DisputeStatus.OPEN) {
-                    log.info("No open dispute found for deal {}, skipping", deal.getId());
-                    timerService.markTimerFired(timer.getId());
-                    continue;
-                }
-                
-                // Evaluate rules (will apply default resolution and settle)
-                rulesEngineService.evaluateAndExecute(deal.getId(), "system");
-                
-                // Mark timer as fired
-                timerService.markTimerFired(timer.getId());
-                
-                log.info("Resolved dispute TTL for deal {}", deal.getId());
-            } catch (Exception e) {
-                log.error("Error processing dispute TTL for timer {}: {}", timer.getId(), e.getMessage(), e);
-            }
+        if (dispute == null || dispute.getStatus() != DisputeCase.DisputeStatus.OPEN) {
+            log.info("No open dispute found for deal {}, skipping", deal.getId());
+            timerService.markTimerFired(timer.getId());
+            return;
         }
+        
+        // Evaluate rules (will apply default resolution and settle)
+        rulesEngineService.evaluateAndExecute(deal.getId(), "system");
+        
+        // Mark timer as fired
+        timerService.markTimerFired(timer.getId());
+        
+        log.info("Resolved dispute TTL for deal {}", deal.getId());
     }
 }
@@ -0,0 +1,27 @@
+package com.trustescrow.application.job;
+
+import com.trustescrow.application.service.EvidenceUploadService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Expires chunked evidence uploads that were abandoned (no chunk within {@code uploads.ttl-hours})
+ * and deletes their staged chunks.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EvidenceUploadCleanupJob {
+    
+    private final EvidenceUploadService evidenceUploadService;
+    
+    @Scheduled(fixedDelayString = "${uploads.cleanup-interval-ms:600000}")
+    public void expireUploads() {
+        int expired = evidenceUploadService.expireUploads();
+        if (expired > 0) {
+            log.info("Expired {} abandoned evidence uploads", expired);
+        }
+    }
+}
@@ -7,15 +7,19 @@ import com.trustescrow.domain.service.EscrowLedgerService;
 import com.trustescrow.domain.service.RulesEngineService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
 
 /**
- * Background job for releasing holdback on APPROVED deals.
- * Runs periodically and processes deals in APPROVED state with unreleased holdback.
+ * Reconciliation job for releasing holdback on APPROVED deals.
+ * Holdback is normally released right after approval via the outbox (see OutboxDispatcher);
+ * this pass only picks up APPROVED deals that have stayed unchanged longer than
+ * {@code jobs.holdback-release.stale-after-minutes}.
  */
 @Component
 @RequiredArgsConstructor
@@ -23,50 +27,61 @@ import java.util.List;
 public class HoldbackReleaseJob {
     
     private final DealRepository dealRepository;
+    private final BatchExecutor batchExecutor;
+    private final WorkClaimService workClaimService;
     private final EscrowLedgerService ledgerService;
     private final RulesEngineService rulesEngineService;
     
+    @Value("${jobs.holdback-release.stale-after-minutes:30}")
+    private long staleAfterMinutes;
+    
     /**
-     * Runs every 5 minutes to check for APPROVED deals with unreleased holdback.
+     * Runs every 30 minutes by default to reconcile APPROVED deals the outbox missed.
+     * Deals are claimed page by page (SKIP LOCKED across nodes) and each one is released
+     * in its own transaction.
      */
-    @Scheduled(fixedRate = 300000) // 5 minutes
-    @Transactional
+    @Scheduled(fixedRateString = "${jobs.holdback-release.interval-ms:1800000}")
     public void processHoldbackRelease() {
-        log.info("Running holdback release job");
+        log.info("Running holdback release reconciliation");
+        Instant updatedBefore = Instant.now().minus(Duration.ofMinutes(staleAfterMinutes));
+        
+        batchExecutor.run(
+            "holdback-release",
+            limit -> workClaimService.claimDeals(DealState.APPROVED, updatedBefore, limit),
+            dealId -> dealId,
+            this::releaseHoldback,
+            workClaimService::releaseDeals
+        );
+    }
+    
+    /**
+     * Releases holdback for one deal. Failures propagate so the caller can roll back and count them.
+     */
+    private void releaseHoldback(UUID dealId) {
+        // Acquire lock on deal
+        Deal lockedDeal = dealRepository.findByIdWithLock(dealId)
+            .orElse(null);
+        
+        if (lockedDeal == null) {
+            return;
+        }
+        
+        // Double-check state (might have changed)
+        if (lockedDeal.getState() != DealState.APPROVED) {
+            return;
+        }
         
-        // Find all deals in APPROVED state
-        List<Deal> approvedDeals = dealRepository.findByState(DealState.APPROVED);
+        // Check if holdback is unreleased
+        boolean holdbackUnreleased = ledgerService.isHoldbackUnreleased(
+            lockedDeal.getId(),
+            lockedDeal.getHoldbackAmount()
+        );
         
-        for (Deal deal : approvedDeals) {
-            try {
-                // Acquire lock on deal
-                Deal lockedDeal = dealRepository.findByIdWithLock(deal.getId())
-                    .orElse(null);
-                
-                if (lockedDeal == null) {
-                    continue;
-                }
-                
-                // Double-check state (might have changed)
-                if (lockedDeal.getState() != DealState.APPROVED) {
-                    continue;
-                }
-                
-                // Check if holdback is unreleased
-                boolean holdbackUnreleased = ledgerService.isHoldbackUnreleased(
-                    lockedDeal.getId(),
-                    lockedDeal.getHoldbackAmount()
-                );
-                
-                if (holdbackUnreleased) {
-                    // Evaluate rules (will release holdback and move to SETTLED)
-                    rulesEngineService.evaluateAndExecute(lockedDeal.getId(), "system");
-                    
-                    log.info("Released holdback for deal {}", lockedDeal.getId());
-                }
-            } catch (Exception e) {
-                log.error("Error processing holdback release for deal {}: {}", deal.getId(), e.getMessage(), e);
-            }
+        if (holdbackUnreleased) {
+            // Evaluate rules (will release holdback and move to SETTLED)
+            rulesEngineService.evaluateAndExecute(lockedDeal.getId(), "system");
+            
+            log.info("Released holdback for deal {} (reconciliation)", lockedDeal.getId());
         }
     }
 }
@@ -0,0 +1,55 @@
+package com.trustescrow.application.job;
+
+import com.trustescrow.domain.service.EscrowBalanceRepository;
+import com.trustescrow.domain.service.EscrowLedgerService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Background job that checks the escrow balance projection against the ledger.
+ * Only deals whose projection changed in the last day are replayed; drift is logged
+ * as an error and left for an operator to repair via the admin rebuild endpoint.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LedgerConsistencyJob {
+    
+    private final EscrowBalanceRepository balanceRepository;
+    private final EscrowLedgerService ledgerService;
+    
+    /**
+     * Runs daily at 03:00.
+     */
+    @Scheduled(cron = "0 0 3 * * ?")
+    public void checkBalanceProjections() {
+        log.info("Running ledger consistency job");
+        
+        List<UUID> dealIds = balanceRepository.findDealIdsUpdatedSince(
+            Instant.now().minus(Duration.ofHours(25)));
+        
+        int drifted = 0;
+        for (UUID dealId : dealIds) {
+            try {
+                if (!ledgerService.verifyBalance(dealId).isConsistent()) {
+                    drifted++;
+                }
+            } catch (Exception e) {
+                log.error("Error checking balance projection for deal {}: {}", dealId, e.getMessage(), e);
+            }
+        }
+        
+        if (drifted > 0) {
+            log.error("Ledger consistency job found {} of {} balance projections out of sync", drifted, dealIds.size());
+        } else {
+            log.info("Ledger consistency job checked {} balance projections, all consistent", dealIds.size());
+        }
+    }
+}
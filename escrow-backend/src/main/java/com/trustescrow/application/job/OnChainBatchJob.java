@@ -0,0 +1,66 @@
+package com.trustescrow.application.job;
+
+import com.trustescrow.application.service.OnChainBatchService;
+import com.trustescrow.domain.model.OnChainRecord;
+import com.trustescrow.domain.service.OnChainRecordRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Seals pending on-chain records into Merkle batches ({@code blockchain.anchor.mode=batch}).
+ *
+ * A batch is sealed as soon as {@code blockchain.anchor.batch-max-records} records are waiting,
+ * or when the oldest waiting record is older than {@code blockchain.anchor.batch-window-seconds}.
+ * Runs on the node that runs the submitter ({@code blockchain.submitter.enabled}).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OnChainBatchJob {
+
+    private final OnChainBatchService onChainBatchService;
+    private final OnChainRecordRepository onChainRecordRepository;
+
+    @Value("${blockchain.anchor.mode:direct}")
+    private String anchorMode;
+
+    @Value("${blockchain.submitter.enabled:false}")
+    private boolean submitterEnabled;
+
+    @Value("${blockchain.anchor.batch-max-records:256}")
+    private int batchMaxRecords;
+
+    @Value("${blockchain.anchor.batch-window-seconds:60}")
+    private long batchWindowSeconds;
+
+    @Scheduled(fixedDelayString = "${blockchain.anchor.poll-ms:5000}")
+    public void sealDueBatches() {
+        if (!submitterEnabled || !"batch".equalsIgnoreCase(anchorMode)) {
+            return;
+        }
+        try {
+            while (true) {
+                long waiting = onChainRecordRepository.countBySubmissionStatus(OnChainRecord.SubmissionStatus.BATCH_PENDING);
+                if (waiting == 0) {
+                    return;
+                }
+                Instant oldest = onChainRecordRepository.findOldestCreatedAt(OnChainRecord.SubmissionStatus.BATCH_PENDING);
+                boolean full = waiting >= batchMaxRecords;
+                boolean windowElapsed = oldest != null
+                    && oldest.isBefore(Instant.now().minus(Duration.ofSeconds(batchWindowSeconds)));
+                if (!full && !windowElapsed) {
+                    return;
+                }
+                onChainBatchService.sealBatch(batchMaxRecords);
+            }
+        } catch (Exception e) {
+            log.error("[BLOCKCHAIN] Sealing batches failed: {}", e.getMessage(), e);
+        }
+    }
+}
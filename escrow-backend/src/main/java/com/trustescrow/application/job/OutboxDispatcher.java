@@ -0,0 +1,161 @@
+package com.trustescrow.application.job;
+
+import com.trustescrow.domain.model.OutboxEvent;
+import com.trustescrow.domain.service.DealApprovedEvent;
+import com.trustescrow.domain.service.OutboxEventRepository;
+import com.trustescrow.domain.service.RulesEngineService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Dispatches outbox events written by {@code DealStateService}.
+ *
+ * A DEAL_APPROVED event is handed to a small worker pool as soon as the approving transaction
+ * commits, and the worker runs rule evaluation (holdback release) in its own transaction.
+ * Events that were not dispatched (crash between commit and dispatch, failed attempt) are
+ * picked up by {@link #pollPending()} {@code outbox.retry-delay-seconds} after they were written
+ * or last failed. An event that fails {@code outbox.max-attempts} times is dead-lettered: logged
+ * at error, no longer retried, and counted by the {@code outbox.events.dead} gauge until it is
+ * handled by hand.
+ */
+@Component
+@Slf4j
+public class OutboxDispatcher {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final RulesEngineService rulesEngineService;
+    private final TransactionTemplate requiresNew;
+    private final ExecutorService workers;
+    private final AtomicLong deadLettered = new AtomicLong();
+
+    @Value("${outbox.retry-delay-seconds:30}")
+    private long retryDelaySeconds;
+
+    @Value("${outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${outbox.poll-batch-size:100}")
+    private int pollBatchSize;
+
+    public OutboxDispatcher(
+            OutboxEventRepository outboxEventRepository,
+            RulesEngineService rulesEngineService,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${outbox.workers:2}") int workerCount) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.rulesEngineService = rulesEngineService;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(Math.max(1, workerCount), r -> {
+            Thread thread = new Thread(r, "outbox-worker-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("outbox.events.dead", deadLettered, AtomicLong::get)
+            .description("Outbox events that exhausted their retries")
+            .register(meterRegistry);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onDealApproved(DealApprovedEvent event) {
+        try {
+            workers.execute(() -> dispatch(event.getOutboxEventId()));
+        } catch (RejectedExecutionException e) {
+            // Shutting down; the poller picks the event up on the next start
+            log.warn("Outbox event {} not dispatched: {}", event.getOutboxEventId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Re-dispatches events that are still unprocessed after the retry delay, counted from
+     * creation for an event never attempted and from the last failed attempt otherwise.
+     */
+    @Scheduled(fixedDelayString = "${outbox.poll-ms:10000}")
+    public void pollPending() {
+        refreshDeadLettered();
+        Instant now = Instant.now();
+        List<OutboxEvent> pending = outboxEventRepository.findPending(
+            now.minus(Duration.ofSeconds(retryDelaySeconds)), now, PageRequest.of(0, pollBatchSize));
+        if (pending.isEmpty()) {
+            return;
+        }
+        log.info("Re-dispatching {} pending outbox events", pending.size());
+        for (OutboxEvent event : pending) {
+            dispatch(event.getId());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private void dispatch(UUID outboxEventId) {
+        try {
+            requiresNew.executeWithoutResult(status -> process(outboxEventId));
+        } catch (Exception e) {
+            log.error("Outbox event {} failed: {}", outboxEventId, e.getMessage(), e);
+            requiresNew.executeWithoutResult(status -> outboxEventRepository.findById(outboxEventId)
+                .ifPresent(event -> {
+                    event.markFailed(e.getMessage(), maxAttempts, Duration.ofSeconds(retryDelaySeconds));
+                    if (event.isDead()) {
+                        log.error("Outbox event {} ({}) for deal {} dead-lettered after {} attempts",
+                            outboxEventId, event.getEventType(), event.getDealId(), event.getAttempts());
+                    }
+                }));
+        }
+    }
+
+    private void refreshDeadLettered() {
+        try {
+            int exhausted = requiresNew.execute(status -> outboxEventRepository.markExhaustedDead(maxAttempts, Instant.now()));
+            if (exhausted > 0) {
+                log.error("{} outbox events dead-lettered after {} attempts", exhausted, maxAttempts);
+            }
+            deadLettered.set(outboxEventRepository.countDead());
+        } catch (Exception e) {
+            log.warn("Could not refresh dead-lettered outbox events: {}", e.getMessage());
+        }
+    }
+
+    private void process(UUID outboxEventId) {
+        // Row lock: the after-commit dispatch and the poller never handle the same event twice
+        OutboxEvent event = outboxEventRepository.findByIdWithLock(outboxEventId).orElse(null);
+        if (event == null || event.isProcessed()) {
+            return;
+        }
+
+        if (OutboxEvent.DEAL_APPROVED.equals(event.getEventType())) {
+            // Releases holdback and settles; a no-op if the deal has already moved on
+            rulesEngineService.evaluateAndExecute(event.getDealId(), "system");
+        } else {
+            log.warn("Unknown outbox event type {} for event {}", event.getEventType(), outboxEventId);
+        }
+
+        event.markProcessed();
+        log.info("Processed outbox event {} ({}) for deal {}", outboxEventId, event.getEventType(), event.getDealId());
+    }
+}
@@ -0,0 +1,230 @@
+package com.trustescrow.application.job;
+
+import com.trustescrow.application.service.LemonWebhookService;
+import com.trustescrow.domain.model.WebhookEvent;
+import com.trustescrow.domain.service.WebhookEventAcceptedEvent;
+import com.trustescrow.domain.service.WebhookEventRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background processor for webhook events stored by {@link LemonWebhookService#acceptWebhook}.
+ *
+ * Drains pending events from webhook_events into a bounded worker pool. Only the oldest pending
+ * event of each deal is eligible, so events of one deal are applied in order even across nodes;
+ * each event is claimed with a lease before it runs. A failed event is retried with exponential
+ * backoff and dead-lettered after {@code webhooks.ingest.max-attempts}.
+ *
+ * Draining runs when an event is accepted, when a worker finishes, and on a fixed poll.
+ * Queue depth and lag are published as the {@code webhook.queue.depth} and
+ * {@code webhook.queue.lag.seconds} gauges.
+ */
+@Component
+@Slf4j
+public class WebhookEventWorker {
+
+    private final WebhookEventRepository webhookEventRepository;
+    private final LemonWebhookService webhookService;
+    private final WorkClaimService workClaimService;
+    private final TransactionTemplate requiresNew;
+    private final ExecutorService workers;
+    private final ExecutorService drainer;
+    private final int maxInFlight;
+
+    @Value("${webhooks.ingest.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${webhooks.ingest.backoff-initial-seconds:5}")
+    private long backoffInitialSeconds;
+
+    @Value("${webhooks.ingest.backoff-max-seconds:900}")
+    private long backoffMaxSeconds;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicBoolean drainRequested = new AtomicBoolean();
+    private final AtomicLong queueDepth = new AtomicLong();
+    private final AtomicLong lagSeconds = new AtomicLong();
+    private final AtomicLong deadLettered = new AtomicLong();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    public WebhookEventWorker(
+            WebhookEventRepository webhookEventRepository,
+            LemonWebhookService webhookService,
+            WorkClaimService workClaimService,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${webhooks.ingest.workers:4}") int workerCount,
+            @Value("${webhooks.ingest.max-in-flight:64}") int maxInFlight) {
+        this.webhookEventRepository = webhookEventRepository;
+        this.webhookService = webhookService;
+        this.workClaimService = workClaimService;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.maxInFlight = Math.max(1, maxInFlight);
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(Math.max(1, workerCount), r -> {
+            Thread thread = new Thread(r, "webhook-worker-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.drainer = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "webhook-drain");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("webhook.queue.depth", queueDepth, AtomicLong::get)
+            .description("Pending webhook events")
+            .register(meterRegistry);
+        Gauge.builder("webhook.queue.lag.seconds", lagSeconds, AtomicLong::get)
+            .description("Age of the oldest pending webhook event")
+            .register(meterRegistry);
+        Gauge.builder("webhook.queue.in-flight", inFlight, AtomicInteger::get)
+            .register(meterRegistry);
+        Gauge.builder("webhook.queue.dead", deadLettered, AtomicLong::get)
+            .description("Webhook events that exhausted their retries")
+            .register(meterRegistry);
+    }
+
+    @EventListener
+    public void onWebhookEventAccepted(WebhookEventAcceptedEvent event) {
+        requestDrain();
+    }
+
+    /**
+     * Fallback poll: picks up retries whose backoff elapsed and events accepted on other nodes.
+     */
+    @Scheduled(fixedDelayString = "${webhooks.ingest.poll-ms:2000}")
+    public void poll() {
+        requestDrain();
+        refreshMetrics();
+    }
+
+    public QueueStats getStats() {
+        return QueueStats.builder()
+            .depth(queueDepth.get())
+            .lagSeconds(lagSeconds.get())
+            .inFlight(inFlight.get())
+            .processed(processed.get())
+            .failed(failed.get())
+            .deadLettered(deadLettered.get())
+            .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        drainer.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    private void requestDrain() {
+        // Coalesce: at most one drain queued behind the running one
+        if (drainRequested.compareAndSet(false, true)) {
+            drainer.execute(() -> {
+                drainRequested.set(false);
+                drain();
+            });
+        }
+    }
+
+    private void drain() {
+        try {
+            int capacity = maxInFlight - inFlight.get();
+            if (capacity <= 0) {
+                return;
+            }
+            List<WebhookEvent> ready = webhookEventRepository.findReady(Instant.now(), PageRequest.of(0, capacity));
+            for (WebhookEvent event : ready) {
+                UUID eventId = event.getId();
+                if (!workClaimService.claimWebhookEvent(eventId)) {
+                    continue;
+                }
+                inFlight.incrementAndGet();
+                workers.execute(() -> process(eventId));
+            }
+        } catch (Exception e) {
+            log.error("[WEBHOOK] Drain failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void process(UUID eventId) {
+        try {
+            requiresNew.executeWithoutResult(status -> webhookService.processStoredEvent(eventId));
+            processed.incrementAndGet();
+        } catch (Exception e) {
+            failed.incrementAndGet();
+            recordFailure(eventId, e);
+        } finally {
+            inFlight.decrementAndGet();
+            // The next event of the same deal (if any) is eligible now
+            requestDrain();
+        }
+    }
+
+    private void recordFailure(UUID eventId, Exception cause) {
+        try {
+            requiresNew.executeWithoutResult(status -> webhookEventRepository.findById(eventId).ifPresent(event -> {
+                event.recordFailure(cause.getMessage(), backoff(event.getAttemptCount()), maxAttempts);
+                if (event.isDead()) {
+                    log.error("[WEBHOOK] Event {} dead-lettered after {} attempts: {}",
+                        eventId, event.getAttemptCount(), cause.getMessage(), cause);
+                } else {
+                    log.warn("[WEBHOOK] Event {} failed (attempt {}), retry at {}: {}",
+                        eventId, event.getAttemptCount(), event.getNextAttemptAt(), cause.getMessage());
+                }
+            }));
+        } catch (Exception e) {
+            // Lease expiry makes the event eligible again
+            log.error("[WEBHOOK] Could not record failure for event {}: {}", eventId, e.getMessage(), e);
+        }
+    }
+
+    private Duration backoff(int previousAttempts) {
+        long seconds = backoffInitialSeconds << Math.min(previousAttempts, 20);
+        return Duration.ofSeconds(Math.min(seconds, backoffMaxSeconds));
+    }
+
+    private void refreshMetrics() {
+        try {
+            queueDepth.set(webhookEventRepository.countPending());
+            Instant oldest = webhookEventRepository.findOldestPendingCreatedAt();
+            lagSeconds.set(oldest != null ? Math.max(0, Duration.between(oldest, Instant.now()).getSeconds()) : 0);
+            deadLettered.set(webhookEventRepository.countDead());
+        } catch (Exception e) {
+            log.warn("[WEBHOOK] Could not refresh queue metrics: {}", e.getMessage());
+        }
+    }
+
+    @lombok.Value
+    @lombok.Builder
+    public static class QueueStats {
+        long depth;
+        long lagSeconds;
+        int inFlight;
+        long processed;
+        long failed;
+        long deadLettered;
+    }
+}
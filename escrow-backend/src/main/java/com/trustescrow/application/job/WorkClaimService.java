@@ -0,0 +1,175 @@
+package com.trustescrow.application.job;
+
+import com.trustescrow.domain.model.DealState;
+import com.trustescrow.domain.model.Timer;
+import com.trustescrow.domain.service.DealRepository;
+import com.trustescrow.domain.service.TimerRepository;
+import com.trustescrow.domain.service.WebhookEventRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.net.InetAddress;
+import java.sql.Connection;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Claim-based work queue for the settlement jobs and webhook processing, so several backend
+ * nodes can run them concurrently without processing the same timer, deal or webhook event.
+ *
+ * On PostgreSQL due rows are selected with {@code FOR UPDATE SKIP LOCKED LIMIT n} and stamped
+ * with a lease (owner + expiry) in the same short transaction; other nodes skip locked rows and
+ * ignore leased ones until the lease expires. On other databases (H2 dev profile) the select
+ * runs without row locks and the jobs behave as single-node.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WorkClaimService {
+
+    private final TimerRepository timerRepository;
+    private final DealRepository dealRepository;
+    private final WebhookEventRepository webhookEventRepository;
+    private final DataSource dataSource;
+
+    /**
+     * auto | skip-locked | single-node
+     */
+    @Value("${jobs.claim.mode:auto}")
+    private String mode;
+
+    @Value("${jobs.claim.lease-seconds:300}")
+    private long leaseSeconds;
+
+    @Value("${jobs.claim.node-id:}")
+    private String configuredNodeId;
+
+    private boolean skipLocked;
+    private String nodeId;
+
+    @PostConstruct
+    public void init() {
+        nodeId = configuredNodeId != null && !configuredNodeId.isBlank() ? configuredNodeId : defaultNodeId();
+        skipLocked = switch (mode) {
+            case "skip-locked" -> true;
+            case "single-node" -> false;
+            default -> isPostgres();
+        };
+        log.info("Work claiming: node={}, mode={}, lease={}s",
+            nodeId, skipLocked ? "skip-locked" : "single-node", leaseSeconds);
+    }
+
+    /**
+     * Claims up to {@code limit} due timers of a type for this node.
+     */
+    @Transactional
+    public List<Timer> claimDueTimers(String timerType, int limit) {
+        Instant now = Instant.now();
+        List<Timer> timers = skipLocked
+            ? timerRepository.lockDueForClaim(timerType, now, limit)
+            : timerRepository.findDueUnleased(timerType, now, PageRequest.of(0, limit));
+        if (!timers.isEmpty()) {
+            timerRepository.lease(timers.stream().map(Timer::getId).toList(), nodeId, leaseExpiry(now));
+        }
+        return timers;
+    }
+
+    /**
+     * Claims a single timer (e.g. one fired by the in-memory wheel on every node).
+     * Joins the caller's transaction so the claim and the work commit together.
+     *
+     * @return true if this node owns the timer now
+     */
+    @Transactional
+    public boolean claimTimer(UUID timerId) {
+        Instant now = Instant.now();
+        return timerRepository.claim(timerId, nodeId, now, leaseExpiry(now)) == 1;
+    }
+
+    /**
+     * Claims up to {@code limit} deals in a state that were last updated before {@code updatedBefore}.
+     */
+    @Transactional
+    public List<UUID> claimDeals(DealState state, Instant updatedBefore, int limit) {
+        Instant now = Instant.now();
+        List<UUID> dealIds = skipLocked
+            ? dealRepository.lockIdsForClaim(state.name(), updatedBefore, now, limit)
+            : dealRepository.findUnleasedIds(state, updatedBefore, now, PageRequest.of(0, limit));
+        if (!dealIds.isEmpty()) {
+            dealRepository.lease(dealIds, nodeId, leaseExpiry(now));
+        }
+        return dealIds;
+    }
+
+    /**
+     * Releases this node's leases on timers it has finished with, so a timer whose work failed
+     * can be claimed again without waiting for the lease to expire.
+     */
+    @Transactional
+    public void releaseTimers(Collection<UUID> timerIds) {
+        if (!timerIds.isEmpty()) {
+            timerRepository.releaseLease(timerIds, nodeId);
+        }
+    }
+
+    /**
+     * Releases this node's leases on deals it has finished with.
+     */
+    @Transactional
+    public void releaseDeals(Collection<UUID> dealIds) {
+        if (!dealIds.isEmpty()) {
+            dealRepository.releaseLease(dealIds, nodeId);
+        }
+    }
+
+    /**
+     * Claims a pending webhook event for this node.
+     *
+     * @return true if this node owns the event now
+     */
+    @Transactional
+    public boolean claimWebhookEvent(UUID eventId) {
+        Instant now = Instant.now();
+        return webhookEventRepository.claim(eventId, nodeId, now, leaseExpiry(now)) == 1;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public boolean isSkipLocked() {
+        return skipLocked;
+    }
+
+    private Instant leaseExpiry(Instant now) {
+        return now.plus(Duration.ofSeconds(leaseSeconds));
+    }
+
+    private boolean isPostgres() {
+        try (Connection connection = dataSource.getConnection()) {
+            return "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+        } catch (Exception e) {
+            log.warn("Could not detect database for work claiming, using single-node mode: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "node";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -0,0 +1,190 @@
+package com.trustescrow.application.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Local content-addressed blob store for asset versions and milestone files.
+ *
+ * A blob is stored once under its SHA-256 (the same hex hash as {@link HashService}), in
+ * directories sharded by the first two bytes: {@code <root>/ab/cd/abcd...}. Identical content
+ * uploaded for many assets or deals is therefore kept once.
+ *
+ * Uploads are written to {@code <root>/tmp} while they are hashed (one pass, through
+ * {@link ContentHashingService}), flushed to disk and then renamed into place atomically, so a
+ * blob path either does not exist or holds the complete content. A rename onto an existing blob
+ * replaces identical bytes and is harmless when two uploads race.
+ */
+@Service
+@Slf4j
+public class BlobStore {
+
+    private static final Pattern SHA256_HEX = Pattern.compile("[0-9a-f]{64}");
+
+    private final ContentHashingService contentHashingService;
+    private final Path root;
+    private final Path tmp;
+    private final Counter stored;
+    private final Counter deduplicated;
+
+    public BlobStore(
+            ContentHashingService contentHashingService,
+            MeterRegistry meterRegistry,
+            @Value("${storage.blobs.root:./data/blobs}") String root) {
+        this.contentHashingService = contentHashingService;
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+        this.tmp = this.root.resolve("tmp");
+        this.stored = Counter.builder("blob.store.writes")
+            .tag("result", "stored")
+            .register(meterRegistry);
+        this.deduplicated = Counter.builder("blob.store.writes")
+            .tag("result", "deduplicated")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        Files.createDirectories(tmp);
+        log.info("Blob store at {}", root);
+    }
+
+    /**
+     * Stores content read to its end and returns its digest; the blob key is the content hash.
+     *
+     * @param expectedLength content length if known, or -1
+     */
+    public ContentHashingService.ContentDigest put(InputStream content, long expectedLength) throws IOException {
+        return put(content, expectedLength, null);
+    }
+
+    /**
+     * Stores content only if it hashes to {@code expectedHash}.
+     *
+     * @throws ContentHashMismatchException if the content hash differs (nothing is stored)
+     */
+    public ContentHashingService.ContentDigest put(InputStream content, long expectedLength, String expectedHash)
+            throws IOException {
+        Path staged = Files.createTempFile(tmp, "upload-", ".part");
+        ContentHashingService.ContentDigest digest;
+        try {
+            try (FileChannel out = FileChannel.open(staged, StandardOpenOption.WRITE)) {
+                digest = contentHashingService.hash(new CopyingInputStream(content, out), expectedLength);
+                out.force(true);
+            }
+            if (expectedHash != null && !expectedHash.equalsIgnoreCase(digest.getContentHash())) {
+                throw new ContentHashMismatchException(expectedHash, digest.getContentHash());
+            }
+            commit(staged, digest.getContentHash());
+        } finally {
+            Files.deleteIfExists(staged);
+        }
+        return digest;
+    }
+
+    /**
+     * Path of a stored blob.
+     *
+     * @return empty if the hash is malformed or not stored
+     */
+    public Optional<Path> find(String contentHash) {
+        if (contentHash == null || !SHA256_HEX.matcher(contentHash).matches()) {
+            return Optional.empty();
+        }
+        Path path = pathOf(contentHash);
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    private void commit(Path staged, String contentHash) throws IOException {
+        Path target = pathOf(contentHash);
+        if (Files.exists(target)) {
+            deduplicated.increment();
+            log.debug("Blob {} already stored", contentHash);
+            return;
+        }
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(staged, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // Stored concurrently by another upload
+            deduplicated.increment();
+            return;
+        }
+        stored.increment();
+    }
+
+    private Path pathOf(String contentHash) {
+        return root.resolve(contentHash.substring(0, 2))
+            .resolve(contentHash.substring(2, 4))
+            .resolve(contentHash);
+    }
+
+    /**
+     * Stored content did not hash to the declared SHA-256.
+     */
+    public static class ContentHashMismatchException extends IllegalArgumentException {
+        public ContentHashMismatchException(String expectedHash, String actualHash) {
+            super("Content hash mismatch: expected " + expectedHash + ", got " + actualHash);
+        }
+    }
+
+    /**
+     * Writes everything read through it to a file channel.
+     */
+    private static final class CopyingInputStream extends FilterInputStream {
+
+        private final FileChannel out;
+
+        CopyingInputStream(InputStream in, FileChannel out) {
+            super(in);
+            this.out = out;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                write(ByteBuffer.wrap(new byte[] { (byte) b }));
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                write(ByteBuffer.wrap(buffer, offset, read));
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) {
+            // Skipped bytes would be missing from the copy
+            return 0;
+        }
+
+        private void write(ByteBuffer bytes) throws IOException {
+            while (bytes.hasRemaining()) {
+                out.write(bytes);
+            }
+        }
+    }
+}
@@ -1,13 +1,11 @@
 package com.trustescrow.application.service;
 
 import com.trustescrow.domain.model.RegistryLog;
-import com.trustescrow.domain.service.RegistryLogRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
-import java.util.List;
 import java.util.UUID;
 
 /**
@@ -26,41 +24,33 @@ import java.util.UUID;
 @Slf4j
 public class BlockchainAnchoringService {
     
-    private final RegistryLogRepository registryLogRepository;
+    private final RegistryMerkleService registryMerkleService;
     private final HashService hashService;
     
     /**
-     * Generate Merkle root from registry log entries in a date range.
+     * Generate Merkle root covering registry log entries up to a date.
      * 
-     * For Phase 9 MVP: Simple implementation (concatenate hashes and hash again).
-     * In production: Use proper Merkle tree implementation.
+     * The root is the registry Merkle log's tree head over every entry created before
+     * {@code toDate}; the entries of the range are the log positions from the size at
+     * {@code fromDate} to the size at {@code toDate}, provable with a consistency proof
+     * against the previous anchor. O(log n) node reads, no entries are loaded.
      * 
      * @param fromDate Start date
      * @param toDate End date
-     * @return Merkle root hash
+     * @return Merkle root hash, or null if the range is empty
      */
     public String generateMerkleRoot(Instant fromDate, Instant toDate) {
         log.info("Generating Merkle root for date range: {} to {}", fromDate, toDate);
         
-        // Get all registry log entries in date range
-        List<RegistryLog> entries = registryLogRepository.findByDateRange(fromDate, toDate);
-        
-        if (entries.isEmpty()) {
+        long fromSize = registryMerkleService.sizeBefore(fromDate);
+        long toSize = registryMerkleService.sizeBefore(toDate);
+        if (toSize <= fromSize) {
             log.warn("No entries found in date range");
             return null;
         }
         
-        // Simple Merkle root: concatenate all event hashes and hash the result
-        // In production, use proper Merkle tree
-        StringBuilder concatenated = new StringBuilder();
-        for (RegistryLog entry : entries) {
-            if (entry.getEventHash() != null) {
-                concatenated.append(entry.getEventHash());
-            }
-        }
-        
-        String merkleRoot = hashService.generateHash(concatenated.toString());
-        log.info("Merkle root generated: {} (from {} entries)", merkleRoot, entries.size());
+        String merkleRoot = registryMerkleService.getRoot(toSize);
+        log.info("Merkle root generated: {} (tree size {}, {} entries in range)", merkleRoot, toSize, toSize - fromSize);
         
         return merkleRoot;
     }
@@ -105,7 +95,8 @@ public class BlockchainAnchoringService {
      * @param txHash Transaction hash
      * @param fromDate Start date
      * @param toDate End date
-     * @param entryCount Number of entries
+     * @param fromTreeSize Merkle log size at the start date
+     * @param treeSize Merkle log size the root was computed over
      */
     public void recordAnchoringEvent(
             UUID escrowAccountId,
@@ -113,12 +104,13 @@ public class BlockchainAnchoringService {
             String txHash,
             Instant fromDate,
             Instant toDate,
-            long entryCount) {
+            long fromTreeSize,
+            long treeSize) {
         
         // Create event payload
         String eventPayload = String.format(
-            "{\"merkle_root\":\"%s\",\"tx_hash\":\"%s\",\"from_date\":\"%s\",\"to_date\":\"%s\",\"entry_count\":%d}",
-            merkleRoot, txHash, fromDate, toDate, entryCount
+            "{\"merkle_root\":\"%s\",\"tx_hash\":\"%s\",\"from_date\":\"%s\",\"to_date\":\"%s\",\"entry_count\":%d,\"from_tree_size\":%d,\"tree_size\":%d}",
+            merkleRoot, txHash, fromDate, toDate, treeSize - fromTreeSize, fromTreeSize, treeSize
         );
         
         String eventHash = hashService.generateHash(eventPayload);
@@ -132,7 +124,7 @@ public class BlockchainAnchoringService {
             .createdAt(Instant.now())
             .build();
         
-        registryLogRepository.save(logEntry);
+        registryMerkleService.append(logEntry);
         log.info("Anchoring event recorded: {}", logEntry.getId());
     }
     
@@ -145,22 +137,23 @@ public class BlockchainAnchoringService {
     public void performAnchoring(Instant fromDate, Instant toDate, UUID systemAccountId) {
         log.info("Performing blockchain anchoring for period: {} to {}", fromDate, toDate);
         
-        // Generate Merkle root
-        String merkleRoot = generateMerkleRoot(fromDate, toDate);
-        if (merkleRoot == null) {
+        // Range = Merkle log positions [fromTreeSize, treeSize)
+        long fromTreeSize = registryMerkleService.sizeBefore(fromDate);
+        long treeSize = registryMerkleService.sizeBefore(toDate);
+        if (treeSize <= fromTreeSize) {
             log.warn("No Merkle root generated, skipping anchoring");
             return;
         }
         
-        // Count entries
-        List<RegistryLog> entries = registryLogRepository.findByDateRange(fromDate, toDate);
-        long entryCount = entries.size();
+        // Persist the anchored tree head
+        String merkleRoot = registryMerkleService.checkpoint(treeSize).getRootHash();
+        long entryCount = treeSize - fromTreeSize;
         
         // Anchor to blockchain
         String txHash = anchorToBlockchain(merkleRoot, fromDate, toDate, entryCount);
         
         // Record anchoring event
-        recordAnchoringEvent(systemAccountId, merkleRoot, txHash, fromDate, toDate, entryCount);
+        recordAnchoringEvent(systemAccountId, merkleRoot, txHash, fromDate, toDate, fromTreeSize, treeSize);
         
         log.info("Blockchain anchoring completed: tx_hash={}", txHash);
     }
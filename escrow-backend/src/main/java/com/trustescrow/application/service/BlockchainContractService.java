@@ -12,18 +12,26 @@ import org.web3j.abi.datatypes.generated.Uint8;
 import org.web3j.crypto.Credentials;
 import org.web3j.crypto.Hash;
 import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.BatchResponse;
+import org.web3j.protocol.core.Response;
 import org.web3j.protocol.core.DefaultBlockParameterName;
 import org.web3j.protocol.core.methods.request.Transaction;
 import org.web3j.protocol.core.methods.response.EthCall;
+import org.web3j.protocol.core.methods.response.EthGetTransactionReceipt;
 import org.web3j.protocol.core.methods.response.EthSendTransaction;
 import org.web3j.protocol.core.methods.response.TransactionReceipt;
 import org.web3j.protocol.http.HttpService;
 import org.web3j.utils.Numeric;
 
+import java.io.IOException;
 import java.math.BigInteger;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -32,7 +40,7 @@ import java.util.Optional;
  * Handles direct interaction with EscrowStatusRegistry smart contract.
  * 
  * Responsibilities:
- * - Record milestone status on-chain (FUNDS_HELD, RELEASED, REFUNDED)
+ * - Encode and send status / batch anchor transactions (nonce chosen by BlockchainSubmitter)
  * - Check if status is already recorded (idempotency)
  * - Handle transaction confirmation
  * 
@@ -92,78 +100,128 @@ public class BlockchainContractService {
     }
     
     /**
-     * STEP 7-B: Record milestone status on-chain.
-     * 
-     * @param dealId deal ID (UUID string)
-     * @param milestoneId milestone ID (UUID string)
-     * @param status status to record (0: FUNDS_HELD, 1: RELEASED, 2: REFUNDED)
-     * @return transaction hash if successful, empty if disabled or failed
+     * True if the service is enabled and fully configured.
+     */
+    public boolean isEnabled() {
+        return enabled && web3j != null && credentials != null;
+    }
+    
+    /**
+     * ABI-encoded {@code recordStatus(bytes32,bytes32,uint8)} call data.
+     */
+    public String encodeRecordStatus(String dealId, String milestoneId, int status) {
+        // Convert dealId and milestoneId to bytes32 hashes
+        byte[] dealHashBytes = Hash.sha3(dealId.getBytes());
+        byte[] milestoneHashBytes = Hash.sha3(milestoneId.getBytes());
+        
+        org.web3j.abi.datatypes.generated.Bytes32 dealHash = 
+            new org.web3j.abi.datatypes.generated.Bytes32(dealHashBytes);
+        org.web3j.abi.datatypes.generated.Bytes32 milestoneHash = 
+            new org.web3j.abi.datatypes.generated.Bytes32(milestoneHashBytes);
+        Uint8 statusParam = new Uint8(BigInteger.valueOf(status));
+        
+        // Build function call
+        Function function = new Function(
+            "recordStatus",
+            Arrays.asList(dealHash, milestoneHash, statusParam),
+            Collections.emptyList()
+        );
+        
+        return FunctionEncoder.encode(function);
+    }
+    
+    /**
+     * ABI-encoded {@code anchorBatch(bytes32,uint256)} call data.
      */
-    public Optional<String> recordStatus(String dealId, String milestoneId, int status) {
-        if (!enabled || web3j == null || credentials == null) {
-            log.debug("[BLOCKCHAIN] Blockchain disabled or not configured, skipping on-chain record");
+    public String encodeAnchorBatch(byte[] merkleRoot, long leafCount) {
+        Function function = new Function(
+            "anchorBatch",
+            Arrays.asList(
+                new org.web3j.abi.datatypes.generated.Bytes32(merkleRoot),
+                new org.web3j.abi.datatypes.generated.Uint256(BigInteger.valueOf(leafCount))),
+            Collections.emptyList()
+        );
+        
+        return FunctionEncoder.encode(function);
+    }
+    
+    /**
+     * Next nonce of the backend wallet, counting transactions still in the mempool.
+     */
+    public Optional<BigInteger> getPendingNonce() {
+        if (!isEnabled()) {
             return Optional.empty();
         }
         
         try {
-            // Convert dealId and milestoneId to bytes32 hashes
-            byte[] dealHashBytes = Hash.sha3(dealId.getBytes());
-            byte[] milestoneHashBytes = Hash.sha3(milestoneId.getBytes());
-            
-            org.web3j.abi.datatypes.generated.Bytes32 dealHash = 
-                new org.web3j.abi.datatypes.generated.Bytes32(dealHashBytes);
-            org.web3j.abi.datatypes.generated.Bytes32 milestoneHash = 
-                new org.web3j.abi.datatypes.generated.Bytes32(milestoneHashBytes);
-            Uint8 statusParam = new Uint8(BigInteger.valueOf(status));
-            
-            // Build function call
-            Function function = new Function(
-                "recordStatus",
-                Arrays.asList(dealHash, milestoneHash, statusParam),
-                Collections.emptyList()
-            );
-            
-            String encodedFunction = FunctionEncoder.encode(function);
-            
-            // Get nonce
-            BigInteger nonce = web3j.ethGetTransactionCount(
+            return Optional.of(web3j.ethGetTransactionCount(
                 credentials.getAddress(), 
-                DefaultBlockParameterName.LATEST
-            ).send().getTransactionCount();
-            
-            // Build transaction
-            org.web3j.tx.gas.DefaultGasProvider gasProvider = 
-                new org.web3j.tx.gas.DefaultGasProvider();
-            
-            // Create and sign raw transaction
-            org.web3j.crypto.RawTransaction rawTransaction = org.web3j.crypto.RawTransaction.createTransaction(
-                nonce,
-                gasProvider.getGasPrice(),
-                gasProvider.getGasLimit(),
-                contractAddress,
-                encodedFunction
-            );
-            
-            byte[] signedMessage = org.web3j.crypto.TransactionEncoder.signMessage(rawTransaction, credentials);
-            String hexValue = Numeric.toHexString(signedMessage);
-            
-            EthSendTransaction ethSendTransaction = web3j.ethSendRawTransaction(hexValue).send();
-            
+                DefaultBlockParameterName.PENDING
+            ).send().getTransactionCount());
+        } catch (Exception e) {
+            log.error("[BLOCKCHAIN] Error getting nonce: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+    
+    /**
+     * Gas price of a first submission.
+     */
+    public BigInteger getDefaultGasPrice() {
+        return org.web3j.tx.gas.DefaultGasProvider.GAS_PRICE;
+    }
+    
+    /**
+     * Current gas price suggested by the node.
+     */
+    public Optional<BigInteger> getNetworkGasPrice() {
+        if (!isEnabled()) {
+            return Optional.empty();
+        }
+        
+        try {
+            return Optional.of(web3j.ethGasPrice().send().getGasPrice());
+        } catch (Exception e) {
+            log.warn("[BLOCKCHAIN] Error getting gas price: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+    
+    /**
+     * Signs and sends a contract call with the given nonce at the default gas price.
+     */
+    public SendResult sendTransaction(BigInteger nonce, String encodedFunction) {
+        return sendTransaction(nonce, encodedFunction, getDefaultGasPrice());
+    }
+    
+    /**
+     * Signs and sends a contract call with the given nonce and gas price.
+     * 
+     * The transaction hash is computed locally from the signed bytes, so it is known even when
+     * the node rejects the transaction as already known or the response is lost.
+     */
+    public SendResult sendTransaction(BigInteger nonce, String encodedFunction, BigInteger gasPrice) {
+        // Create and sign raw transaction
+        org.web3j.crypto.RawTransaction rawTransaction = org.web3j.crypto.RawTransaction.createTransaction(
+            nonce,
+            gasPrice,
+            org.web3j.tx.gas.DefaultGasProvider.GAS_LIMIT,
+            contractAddress,
+            encodedFunction
+        );
+        
+        byte[] signedMessage = org.web3j.crypto.TransactionEncoder.signMessage(rawTransaction, credentials);
+        String txHash = Numeric.toHexString(Hash.sha3(signedMessage));
+        
+        try {
+            EthSendTransaction ethSendTransaction = web3j.ethSendRawTransaction(Numeric.toHexString(signedMessage)).send();
             if (ethSendTransaction.hasError()) {
-                log.error("[BLOCKCHAIN] Transaction failed: {}", ethSendTransaction.getError().getMessage());
-                return Optional.empty();
+                return new SendResult(txHash, gasPrice, ethSendTransaction.getError().getMessage(), false);
             }
-            
-            String txHash = ethSendTransaction.getTransactionHash();
-            log.info("[BLOCKCHAIN] Transaction sent: txHash={}, dealId={}, milestoneId={}, status={}", 
-                txHash, dealId, milestoneId, status);
-            
-            return Optional.of(txHash);
-            
+            return new SendResult(txHash, gasPrice, null, false);
         } catch (Exception e) {
-            log.error("[BLOCKCHAIN] Error recording status on-chain: dealId={}, milestoneId={}, status={}, error={}", 
-                dealId, milestoneId, status, e.getMessage(), e);
-            return Optional.empty();
+            // Outcome unknown: the node may have accepted the transaction
+            return new SendResult(txHash, gasPrice, e.getMessage(), true);
         }
     }
     
@@ -228,6 +286,88 @@ public class BlockchainContractService {
         }
     }
     
+    /**
+     * Time a batch root was anchored ({@code anchoredAt(bytes32)}), in epoch seconds.
+     * 
+     * @return 0 if the root is not anchored
+     * @throws RpcException if the node could not be asked
+     */
+    public long getAnchoredAt(byte[] merkleRoot) {
+        if (!enabled || web3j == null) {
+            return 0;
+        }
+        Function function = new Function(
+            "anchoredAt",
+            List.of(new org.web3j.abi.datatypes.generated.Bytes32(merkleRoot)),
+            List.of(new TypeReference<org.web3j.abi.datatypes.generated.Uint256>() {})
+        );
+        try {
+            EthCall response = web3j.ethCall(
+                Transaction.createEthCallTransaction(null, contractAddress, FunctionEncoder.encode(function)),
+                DefaultBlockParameterName.LATEST
+            ).send();
+            if (response.hasError()) {
+                throw new RpcException("anchoredAt call failed: " + response.getError().getMessage(), null);
+            }
+            List<Type> decoded = FunctionReturnDecoder.decode(response.getValue(), function.getOutputParameters());
+            return decoded.isEmpty() ? 0 : ((BigInteger) decoded.get(0).getValue()).longValueExact();
+        } catch (IOException e) {
+            throw new RpcException("anchoredAt call failed: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Get receipts for several transactions in one JSON-RPC batch (for confirmation).
+     * 
+     * @return receipts by transaction hash; transactions not yet mined are absent
+     * @throws RpcException if the node could not be asked, so a missing receipt would mean nothing
+     */
+    public Map<String, TransactionReceipt> getTransactionReceipts(Collection<String> txHashes) {
+        Map<String, TransactionReceipt> receipts = new HashMap<>();
+        if (!enabled || web3j == null || txHashes.isEmpty()) {
+            return receipts;
+        }
+        
+        try {
+            BatchRequest batch = web3j.newBatch();
+            for (String txHash : txHashes) {
+                batch.add(web3j.ethGetTransactionReceipt(txHash));
+            }
+            BatchResponse response = batch.send();
+            for (Response<?> item : response.getResponses()) {
+                if (item.hasError()) {
+                    throw new RpcException("eth_getTransactionReceipt failed: " + item.getError().getMessage(), null);
+                }
+                if (item instanceof EthGetTransactionReceipt receiptResponse) {
+                    receiptResponse.getTransactionReceipt()
+                        .ifPresent(receipt -> receipts.put(receipt.getTransactionHash(), receipt));
+                }
+            }
+        } catch (UnsupportedOperationException e) {
+            // Transport without batch support: one call per transaction
+            for (String txHash : txHashes) {
+                fetchReceipt(txHash).ifPresent(receipt -> receipts.put(txHash, receipt));
+            }
+        } catch (RpcException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RpcException("Error getting " + txHashes.size() + " transaction receipts: " + e.getMessage(), e);
+        }
+        return receipts;
+    }
+    
+    private Optional<TransactionReceipt> fetchReceipt(String txHash) {
+        try {
+            EthGetTransactionReceipt response = web3j.ethGetTransactionReceipt(txHash).send();
+            if (response.hasError()) {
+                throw new RpcException("eth_getTransactionReceipt failed: " + response.getError().getMessage(), null);
+            }
+            return response.getTransactionReceipt();
+        } catch (IOException e) {
+            throw new RpcException("Error getting transaction receipt " + txHash + ": " + e.getMessage(), e);
+        }
+    }
+    
     /**
      * Get transaction receipt (for confirmation).
      */
@@ -244,4 +384,28 @@ public class BlockchainContractService {
             return Optional.empty();
         }
     }
+    
+    /**
+     * Result of {@link #sendTransaction}.
+     */
+    @lombok.Value
+    public static class SendResult {
+        String txHash;   // Locally computed hash of the signed transaction
+        BigInteger gasPrice;
+        String error;    // Node or transport error, null if accepted
+        boolean unknown; // Transport failure: the node may or may not have the transaction
+        
+        public boolean isAccepted() {
+            return error == null;
+        }
+    }
+    
+    /**
+     * The node could not be reached or answered with an error.
+     */
+    public static class RpcException extends RuntimeException {
+        public RpcException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
 }
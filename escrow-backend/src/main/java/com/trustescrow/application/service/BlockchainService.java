@@ -3,9 +3,12 @@ package com.trustescrow.application.service;
 import com.trustescrow.domain.model.DealMilestone;
 import com.trustescrow.domain.model.OnChainRecord;
 import com.trustescrow.domain.service.DealMilestoneRepository;
+import com.trustescrow.domain.service.OnChainRecordQueuedEvent;
 import com.trustescrow.domain.service.OnChainRecordRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,7 +21,7 @@ import java.util.UUID;
  * 
  * This service handles:
  * - Creating on-chain records for milestone state changes
- * - Triggering blockchain transactions (delegated to blockchain adapter)
+ * - Queueing them for blockchain submission (sent by BlockchainSubmitter)
  * - Confirming blockchain transactions
  * 
  * Note: Actual blockchain interaction is delegated to a blockchain adapter
@@ -31,7 +34,16 @@ public class BlockchainService {
     
     private final OnChainRecordRepository onChainRecordRepository;
     private final DealMilestoneRepository milestoneRepository;
-    private final BlockchainContractService contractService;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    @Value("${blockchain.network:sepolia}")
+    private String network;
+    
+    /**
+     * direct: one transaction per record | batch: records are anchored by Merkle root in batches
+     */
+    @Value("${blockchain.anchor.mode:direct}")
+    private String anchorMode;
     
     /**
      * STEP 7-2: Record milestone state change on blockchain.
@@ -74,32 +86,19 @@ public class BlockchainService {
                 .decidedBy(decidedBy)
                 .timestamp(Instant.now())
                 .createdAt(Instant.now())
+                .network(network)
+                .submissionStatus("batch".equalsIgnoreCase(anchorMode)
+                    ? OnChainRecord.SubmissionStatus.BATCH_PENDING
+                    : OnChainRecord.SubmissionStatus.PENDING)
+                .submitAttempts(0)
                 .build();
             
             onChainRecordRepository.save(record);
             
-            // STEP 7-B: Trigger actual blockchain transaction
-            int contractStatus = mapToContractStatus(status);
-            Optional<String> txHashOpt = contractService.recordStatus(
-                dealId.toString(),
-                milestoneId.toString(),
-                contractStatus
-            );
-            
-            if (txHashOpt.isPresent()) {
-                String txHash = txHashOpt.get();
-                record.setTransactionHash(txHash);
-                record.setNetwork("sepolia"); // TODO: Get from config
-                onChainRecordRepository.save(record);
-                log.info("[BLOCKCHAIN] On-chain transaction sent: recordId={}, txHash={}, status={}", 
-                    record.getId(), txHash, status);
-                
-                // TODO: Poll for confirmation in background
-                // For now, transaction is sent but not confirmed
-            } else {
-                log.warn("[BLOCKCHAIN] Failed to send on-chain transaction: recordId={}, status={}", 
-                    record.getId(), status);
-            }
+            // STEP 7-B: The transaction is sent by the background submitter after commit;
+            // business flows never wait on the RPC endpoint
+            eventPublisher.publishEvent(new OnChainRecordQueuedEvent(record.getId()));
+            log.info("[BLOCKCHAIN] On-chain record queued: recordId={}, status={}", record.getId(), status);
             
         } catch (Exception e) {
             log.error("[BLOCKCHAIN] Error recording milestone status: dealId={}, milestoneId={}, error={}", 
@@ -111,7 +110,7 @@ public class BlockchainService {
     /**
      * Map OnChainRecord.RecordStatus to contract status (0, 1, 2).
      */
-    private int mapToContractStatus(OnChainRecord.RecordStatus status) {
+    public static int mapToContractStatus(OnChainRecord.RecordStatus status) {
         return switch (status) {
             case FUNDS_HELD -> 0;
             case RELEASED -> 1;
@@ -0,0 +1,107 @@
+package com.trustescrow.application.service;
+
+import com.trustescrow.domain.service.ChatMessageSentEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Coalesces {@code chat_rooms.last_message_at} updates.
+ *
+ * Sending a message no longer reads and rewrites its room row. Instead the message time is kept
+ * here (the latest per room) once the message commits, and every
+ * {@code chat.rooms.last-message-flush-ms} the pending rooms are written with one JDBC batch.
+ * A busy room costs one row update per flush instead of one per message, and senders no longer
+ * wait on the room's row lock.
+ *
+ * The update only moves {@code last_message_at} forward, so nodes flushing out of order are
+ * harmless. The room list may show a room's last activity up to one flush interval late; a crash
+ * loses at most one interval of bumps (the messages themselves are committed).
+ */
+@Component
+@Slf4j
+public class ChatRoomActivityBuffer {
+
+    private static final String UPDATE_SQL =
+        "UPDATE chat_rooms SET last_message_at = ?, updated_at = ? " +
+        "WHERE id = ? AND (last_message_at IS NULL OR last_message_at < ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<UUID, Instant> pending = new ConcurrentHashMap<>();
+    private final Counter bumps;
+    private final Counter writes;
+
+    public ChatRoomActivityBuffer(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.bumps = Counter.builder("chat.rooms.last-message.bumps")
+            .register(meterRegistry);
+        this.writes = Counter.builder("chat.rooms.last-message.writes")
+            .description("Room rows written after coalescing")
+            .register(meterRegistry);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMessageSent(ChatMessageSentEvent event) {
+        touch(event.getMessage().getRoomId(), event.getMessage().getCreatedAt());
+    }
+
+    public void touch(UUID roomId, Instant lastMessageAt) {
+        pending.merge(roomId, lastMessageAt, (a, b) -> a.isAfter(b) ? a : b);
+        bumps.increment();
+    }
+
+    @Scheduled(fixedDelayString = "${chat.rooms.last-message-flush-ms:250}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<UUID, Instant>> batch = new ArrayList<>(pending.size());
+        for (Map.Entry<UUID, Instant> entry : pending.entrySet()) {
+            UUID roomId = entry.getKey();
+            Instant at = entry.getValue();
+            // Leaves a newer bump that raced in for the next flush
+            if (pending.remove(roomId, at)) {
+                batch.add(Map.entry(roomId, at));
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, batch, batch.size(), (ps, entry) -> {
+                OffsetDateTime at = OffsetDateTime.ofInstant(entry.getValue(), ZoneOffset.UTC);
+                ps.setObject(1, at);
+                ps.setObject(2, now);
+                ps.setObject(3, entry.getKey());
+                ps.setObject(4, at);
+            });
+            writes.increment(batch.size());
+        } catch (RuntimeException e) {
+            // Put the bumps back (unless newer ones arrived) and retry on the next flush
+            batch.forEach(entry -> pending.merge(entry.getKey(), entry.getValue(), (a, b) -> a.isAfter(b) ? a : b));
+            log.warn("Failed to flush last message times of {} chat rooms: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
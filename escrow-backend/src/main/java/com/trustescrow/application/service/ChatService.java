@@ -2,28 +2,71 @@ package com.trustescrow.application.service;
 
 import com.trustescrow.domain.model.ChatMessage;
 import com.trustescrow.domain.model.ChatRoom;
+import com.trustescrow.domain.model.ChatUnreadCounter;
 import com.trustescrow.domain.service.ChatMessageRepository;
+import com.trustescrow.domain.service.ChatMessageSentEvent;
 import com.trustescrow.domain.service.ChatRoomRepository;
+import com.trustescrow.domain.service.ChatUnreadCounterRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.Builder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 /**
  * Service for managing chat rooms and messages.
  * Chat is for status display, Escrow is separate domain.
+ * Every sent message is published as a {@link ChatMessageSentEvent}; {@link ChatStreamHub}
+ * pushes it to the room's connected clients after commit.
+ * Unread counts are kept per (room, participant) in {@link ChatUnreadCounter}; a room's
+ * last message time is written in batches by {@link ChatRoomActivityBuffer}, so sending a
+ * message does not read or lock the room row.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ChatService {
     
+    private static final UUID SYSTEM_SENDER_ID = UUID.fromString("00000000-0000-0000-0000-000000000000");
+    
     private final ChatRoomRepository chatRoomRepository;
     private final ChatMessageRepository chatMessageRepository;
+    private final ChatUnreadCounterRepository unreadCounterRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DataSource dataSource;
+    
+    @Value("${chat.history.max-page-size:200}")
+    private int maxPageSize;
+    
+    private boolean postgres;
+    
+    @PostConstruct
+    public void init() {
+        try (Connection connection = dataSource.getConnection()) {
+            postgres = "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+        } catch (Exception e) {
+            log.warn("Could not detect database for unread counter inserts: {}", e.getMessage());
+        }
+    }
     
     /**
      * Creates or gets a chat room for a deal.
@@ -40,7 +83,11 @@ public class ChatService {
                     .createdAt(Instant.now())
                     .updatedAt(Instant.now())
                     .build();
-                return chatRoomRepository.save(room);
+                room = chatRoomRepository.saveAndFlush(room);
+                for (UUID participant : participantsOf(room)) {
+                    insertCounter(room.getId(), participant, 0L);
+                }
+                return room;
             });
     }
     
@@ -49,9 +96,6 @@ public class ChatService {
      */
     @Transactional
     public ChatMessage sendMessage(UUID roomId, UUID senderId, String content) {
-        ChatRoom room = chatRoomRepository.findById(roomId)
-            .orElseThrow(() -> new IllegalArgumentException("Chat room not found: " + roomId));
-        
         ChatMessage message = ChatMessage.builder()
             .roomId(roomId)
             .senderId(senderId)
@@ -61,10 +105,9 @@ public class ChatService {
             .build();
         
         message = chatMessageRepository.save(message);
-        
-        // Update room's last message time
-        room.markLastMessage();
-        chatRoomRepository.save(room);
+        incrementUnread(roomId, message.getSenderId());
+        // Room's last message time is updated after commit (ChatRoomActivityBuffer)
+        eventPublisher.publishEvent(new ChatMessageSentEvent(message));
         
         return message;
     }
@@ -74,31 +117,74 @@ public class ChatService {
      */
     @Transactional
     public ChatMessage sendSystemMessage(UUID roomId, String content) {
-        ChatRoom room = chatRoomRepository.findById(roomId)
-            .orElseThrow(() -> new IllegalArgumentException("Chat room not found: " + roomId));
-        
         ChatMessage message = ChatMessage.builder()
             .roomId(roomId)
-            .senderId(UUID.fromString("00000000-0000-0000-0000-000000000000")) // System UUID
+            .senderId(SYSTEM_SENDER_ID)
             .content(content)
             .type(ChatMessage.MessageType.SYSTEM)
             .createdAt(Instant.now())
             .build();
         
         message = chatMessageRepository.save(message);
-        
-        room.markLastMessage();
-        chatRoomRepository.save(room);
+        incrementUnread(roomId, message.getSenderId());
+        eventPublisher.publishEvent(new ChatMessageSentEvent(message));
         
         return message;
     }
     
     /**
-     * Gets all messages for a chat room.
+     * Gets one page of a chat room's messages, oldest first.
+     * 
+     * Without a cursor this is the latest page; {@code before} pages back into older history and
+     * {@code after} fetches messages newer than a page already loaded. Cursors are opaque
+     * (createdAt, id) keyset positions, so every page is an index seek on (roomId, createdAt, id).
+     * 
+     * @param limit page size (capped by {@code chat.history.max-page-size})
+     * @throws IllegalArgumentException if both cursors are given or a cursor is malformed
      */
     @Transactional(readOnly = true)
-    public List<ChatMessage> getMessages(UUID roomId) {
-        return chatMessageRepository.findByRoomIdOrderByCreatedAtAsc(roomId);
+    public MessagePage getMessagePage(UUID roomId, String before, String after, int limit) {
+        if (before != null && after != null) {
+            throw new IllegalArgumentException("Only one of before and after can be given");
+        }
+        int pageSize = Math.max(1, Math.min(limit, maxPageSize));
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        
+        List<ChatMessage> rows;
+        boolean backward = after == null;
+        if (after != null) {
+            Cursor cursor = Cursor.decode(after);
+            rows = chatMessageRepository.findAfter(roomId, cursor.createdAt(), cursor.id(), page);
+        } else if (before != null) {
+            Cursor cursor = Cursor.decode(before);
+            rows = chatMessageRepository.findBefore(roomId, cursor.createdAt(), cursor.id(), page);
+        } else {
+            rows = chatMessageRepository.findLatest(roomId, page);
+        }
+        
+        boolean more = rows.size() > pageSize;
+        List<ChatMessage> messages = new ArrayList<>(more ? rows.subList(0, pageSize) : rows);
+        if (backward) {
+            Collections.reverse(messages);
+        }
+        
+        String olderCursor = null;
+        String newerCursor = after;
+        if (!messages.isEmpty()) {
+            ChatMessage first = messages.get(0);
+            ChatMessage last = messages.get(messages.size() - 1);
+            // Going forward there is always older history before the first message
+            if (!backward || more) {
+                olderCursor = Cursor.of(first).encode();
+            }
+            newerCursor = Cursor.of(last).encode();
+        }
+        
+        return MessagePage.builder()
+            .messages(messages)
+            .olderCursor(olderCursor)
+            .newerCursor(newerCursor)
+            .build();
     }
     
     /**
@@ -123,21 +209,45 @@ public class ChatService {
      */
     @Transactional(readOnly = true)
     public long getUnreadCount(UUID roomId, UUID userId) {
-        return chatMessageRepository.countUnreadMessages(roomId, userId);
+        return unreadCounterRepository.findByRoomIdAndUserId(roomId, userId)
+            .map(ChatUnreadCounter::getUnreadCount)
+            .orElseGet(() -> chatMessageRepository.countUnreadMessages(roomId, userId));
+    }
+    
+    /**
+     * Gets unread message counts of all of a user's rooms (room list badges), in one query.
+     * Rooms without a counter are absent.
+     */
+    @Transactional(readOnly = true)
+    public Map<UUID, Long> getUnreadCounts(UUID userId) {
+        return unreadCounterRepository.findByUserId(userId).stream()
+            .collect(Collectors.toMap(ChatUnreadCounter::getRoomId, ChatUnreadCounter::getUnreadCount));
     }
     
     /**
      * Marks messages as read.
+     * One UPDATE for all unread messages; the user's counter is locked first (created if missing),
+     * so a message committed concurrently is either marked read here or counted after the reset.
      */
     @Transactional
     public void markMessagesAsRead(UUID roomId, UUID userId) {
-        List<ChatMessage> messages = chatMessageRepository.findByRoomIdOrderByCreatedAtAsc(roomId);
-        for (ChatMessage message : messages) {
-            if (message.getReadAt() == null && !message.getSenderId().equals(userId)) {
-                message.markAsRead();
-                chatMessageRepository.save(message);
+        Optional<ChatUnreadCounter> locked = unreadCounterRepository.findByRoomIdAndUserIdWithLock(roomId, userId);
+        if (locked.isEmpty()) {
+            Optional<ChatRoom> room = chatRoomRepository.findById(roomId);
+            if (room.isEmpty() || !participantsOf(room.get()).contains(userId)) {
+                chatMessageRepository.markAsRead(roomId, userId, Instant.now());
+                return;
             }
+            ensureCounters(room.get());
+            locked = unreadCounterRepository.findByRoomIdAndUserIdWithLock(roomId, userId);
+        }
+        ChatUnreadCounter counter = locked
+            .orElseThrow(() -> new IllegalStateException("Unread counter missing for room " + roomId));
+        if (counter.getUnreadCount() == 0) {
+            return;
         }
+        chatMessageRepository.markAsRead(roomId, userId, Instant.now());
+        counter.reset();
     }
     
     /**
@@ -146,9 +256,6 @@ public class ChatService {
      */
     @Transactional
     public ChatMessage sendPaymentRequestMessage(UUID roomId, UUID senderId, String paymentRequestJson) {
-        ChatRoom room = chatRoomRepository.findById(roomId)
-            .orElseThrow(() -> new IllegalArgumentException("Chat room not found: " + roomId));
-        
         ChatMessage message = ChatMessage.builder()
             .roomId(roomId)
             .senderId(senderId)
@@ -158,10 +265,101 @@ public class ChatService {
             .build();
         
         message = chatMessageRepository.save(message);
-        
-        room.markLastMessage();
-        chatRoomRepository.save(room);
+        incrementUnread(roomId, message.getSenderId());
+        eventPublisher.publishEvent(new ChatMessageSentEvent(message));
         
         return message;
     }
+    
+    /**
+     * Counts a new message as unread for every participant but its sender
+     * (both participants for system messages).
+     * 
+     * @throws IllegalArgumentException if the room does not exist
+     */
+    private void incrementUnread(UUID roomId, UUID senderId) {
+        Instant now = Instant.now();
+        if (unreadCounterRepository.incrementOthers(roomId, senderId, now) > 0) {
+            return;
+        }
+        // Unknown room, or a room without counters yet: create them from the actual counts,
+        // which include this message
+        ChatRoom room = chatRoomRepository.findById(roomId)
+            .orElseThrow(() -> new IllegalArgumentException("Chat room not found: " + roomId));
+        Set<UUID> existing = ensureCounters(room);
+        for (UUID recipient : participantsOf(room)) {
+            // Created by a concurrent transaction after the increment above: count this message too
+            if (!recipient.equals(senderId) && existing.contains(recipient)) {
+                unreadCounterRepository.increment(roomId, recipient, now);
+            }
+        }
+    }
+    
+    /**
+     * Creates the counters of every participant of a room that has none, in participant order,
+     * so concurrent callers wait on each other instead of failing on the unique index.
+     * 
+     * @return participants whose counter already existed
+     */
+    private Set<UUID> ensureCounters(ChatRoom room) {
+        Set<UUID> existing = new LinkedHashSet<>();
+        for (UUID participant : participantsOf(room)) {
+            long unread = chatMessageRepository.countUnreadMessages(room.getId(), participant);
+            if (!insertCounter(room.getId(), participant, unread)) {
+                existing.add(participant);
+            }
+        }
+        return existing;
+    }
+    
+    /**
+     * @return true if the counter was created, false if the participant already had one
+     */
+    private boolean insertCounter(UUID roomId, UUID userId, long unreadCount) {
+        Instant now = Instant.now();
+        int created = postgres
+            ? unreadCounterRepository.insertIfAbsent(UUID.randomUUID(), roomId, userId, unreadCount, now)
+            : unreadCounterRepository.insertIfAbsentSingleNode(UUID.randomUUID(), roomId, userId, unreadCount, now);
+        return created == 1;
+    }
+    
+    private static Set<UUID> participantsOf(ChatRoom room) {
+        Set<UUID> participants = new LinkedHashSet<>();
+        participants.add(room.getBuyerId());
+        participants.add(room.getSellerId());
+        return participants;
+    }
+    
+    /**
+     * Keyset position: (createdAt, id) of a message.
+     */
+    private record Cursor(Instant createdAt, UUID id) {
+        
+        static Cursor of(ChatMessage message) {
+            return new Cursor(message.getCreatedAt(), message.getId());
+        }
+        
+        String encode() {
+            String raw = createdAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+        
+        static Cursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                String[] parts = raw.split("\\|", 2);
+                return new Cursor(Instant.parse(parts[0]), UUID.fromString(parts[1]));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid message cursor: " + cursor);
+            }
+        }
+    }
+    
+    @lombok.Value
+    @Builder
+    public static class MessagePage {
+        List<ChatMessage> messages; // oldest first
+        String olderCursor; // null when there is no older history
+        String newerCursor; // position of the newest message returned (or the "after" cursor if none)
+    }
 }
@@ -0,0 +1,387 @@
+package com.trustescrow.application.service;
+
+import com.trustescrow.application.dto.ChatMessageResponse;
+import com.trustescrow.domain.model.ChatMessage;
+import com.trustescrow.domain.service.ChatMessageRepository;
+import com.trustescrow.domain.service.ChatMessageSentEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes chat messages to connected clients over server-sent events, per room.
+ *
+ * Messages are fanned out after commit: the sending thread only offers the message to each
+ * subscriber's bounded queue, and a small sender pool writes the queues to the connections
+ * (one drain at a time per subscriber, so a room's messages arrive in order). A subscriber whose
+ * queue is full is disconnected rather than buffered without limit, and so is one whose write has
+ * blocked longer than {@code chat.stream.send-timeout-ms} (a client not reading its socket). The
+ * sender blocked in that write is replaced by an extra thread, up to
+ * {@code chat.stream.max-stalled-senders}, so stalled clients cannot starve the others until the
+ * container times the write out. The client reconnects with
+ * {@code Last-Event-ID} (the last message id it received) and the missed messages are replayed
+ * from the database. A reconnect too far behind gets a {@code resync} event and reloads history.
+ *
+ * Subscribers are local to this node: messages sent through another node reach them on their
+ * next reconnect, so clients should keep a slow polling fallback when running several nodes.
+ */
+@Component
+@Slf4j
+public class ChatStreamHub {
+
+    private final ChatMessageRepository chatMessageRepository;
+    private final Map<UUID, Set<Subscriber>> rooms = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ThreadPoolExecutor senders;
+    private final int senderThreads;
+    private final int maxStalledSenders;
+    private int stalledSenders;
+    private final Counter delivered;
+    private final Counter dropped;
+    private final Counter sendTimeouts;
+
+    @Value("${chat.stream.timeout-ms:1800000}")
+    private long timeoutMillis;
+
+    @Value("${chat.stream.queue-capacity:256}")
+    private int queueCapacity;
+
+    @Value("${chat.stream.replay-limit:500}")
+    private int replayLimit;
+
+    @Value("${chat.stream.max-subscribers:10000}")
+    private int maxSubscribers;
+
+    @Value("${chat.stream.send-timeout-ms:5000}")
+    private long sendTimeoutMillis;
+
+    public ChatStreamHub(
+            ChatMessageRepository chatMessageRepository,
+            MeterRegistry meterRegistry,
+            @Value("${chat.stream.sender-threads:4}") int senderThreads,
+            @Value("${chat.stream.max-stalled-senders:16}") int maxStalledSenders) {
+        this.chatMessageRepository = chatMessageRepository;
+        this.senderThreads = Math.max(1, senderThreads);
+        this.maxStalledSenders = Math.max(0, maxStalledSenders);
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.senders = new ThreadPoolExecutor(this.senderThreads, this.senderThreads + this.maxStalledSenders,
+            60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+                Thread thread = new Thread(r, "chat-stream-" + threadIndex.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+
+        Gauge.builder("chat.stream.subscribers", subscriberCount, AtomicInteger::get)
+            .description("Connected chat stream clients")
+            .register(meterRegistry);
+        this.delivered = Counter.builder("chat.stream.delivered")
+            .register(meterRegistry);
+        this.dropped = Counter.builder("chat.stream.dropped")
+            .description("Subscribers disconnected because they fell too far behind")
+            .register(meterRegistry);
+        this.sendTimeouts = Counter.builder("chat.stream.send-timeouts")
+            .description("Subscribers disconnected because a write to them blocked too long")
+            .register(meterRegistry);
+        Gauge.builder("chat.stream.stalled-senders", this, ChatStreamHub::getStalledSenders)
+            .description("Sender threads blocked in a write to a disconnected subscriber")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Opens a stream of a room's messages.
+     *
+     * @param lastMessageId last message the client received, to replay what it missed; or null
+     * @throws IllegalStateException if the node has no capacity for another subscriber
+     */
+    public SseEmitter subscribe(UUID roomId, UUID userId, UUID lastMessageId) {
+        if (subscriberCount.get() >= maxSubscribers) {
+            throw new IllegalStateException("Too many chat stream subscribers");
+        }
+        Subscriber subscriber = new Subscriber(roomId, userId, newEmitter(timeoutMillis), queueCapacity);
+        subscriber.emitter.onCompletion(() -> remove(subscriber));
+        subscriber.emitter.onTimeout(() -> remove(subscriber));
+        subscriber.emitter.onError(e -> remove(subscriber));
+
+        // Register before replaying so nothing committed in between is missed; live messages
+        // queue up until the replay has been sent
+        rooms.computeIfAbsent(roomId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        subscriberCount.incrementAndGet();
+
+        try {
+            if (lastMessageId != null) {
+                replay(subscriber, lastMessageId);
+            }
+            subscriber.emitter.send(SseEmitter.event().comment("connected"));
+        } catch (IOException | IllegalStateException e) {
+            disconnect(subscriber);
+            return subscriber.emitter;
+        }
+        subscriber.live = true;
+        scheduleDrain(subscriber);
+        log.debug("Chat stream opened: roomId={}, userId={}, resumeAfter={}", roomId, userId, lastMessageId);
+        return subscriber.emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMessageSent(ChatMessageSentEvent event) {
+        Set<Subscriber> subscribers = rooms.get(event.getMessage().getRoomId());
+        if (subscribers == null || subscribers.isEmpty()) {
+            return;
+        }
+        ChatMessageResponse message = toResponse(event.getMessage());
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.queue.offer(message)) {
+                dropped.increment();
+                log.info("Chat stream subscriber fell behind, disconnecting: roomId={}, userId={}",
+                    subscriber.roomId, subscriber.userId);
+                disconnect(subscriber);
+                continue;
+            }
+            scheduleDrain(subscriber);
+        }
+    }
+
+    /**
+     * Keeps idle connections open through proxies and detects clients that went away.
+     */
+    @Scheduled(fixedDelayString = "${chat.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        rooms.values().forEach(subscribers -> subscribers.forEach(subscriber -> {
+            if (subscriber.live && !subscriber.draining.get()) {
+                execute(subscriber, () -> send(subscriber, SseEmitter.event().comment("ping")));
+            }
+        }));
+    }
+
+    /**
+     * Disconnects subscribers whose current write has been blocked longer than the send timeout
+     * and lets the pool start a thread in place of each blocked sender.
+     */
+    @Scheduled(fixedDelayString = "${chat.stream.send-check-ms:1000}")
+    public void checkStalledSends() {
+        long now = System.nanoTime();
+        long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+        rooms.values().forEach(subscribers -> subscribers.forEach(subscriber -> {
+            long startedAt = subscriber.sendStartedAt;
+            if (startedAt == 0 || now - startedAt < timeoutNanos || !subscriber.stalled.compareAndSet(false, true)) {
+                return;
+            }
+            sendTimeouts.increment();
+            log.info("Chat stream write blocked for over {} ms, disconnecting: roomId={}, userId={}",
+                sendTimeoutMillis, subscriber.roomId, subscriber.userId);
+            remove(subscriber);
+            try {
+                subscriber.emitter.completeWithError(new IOException("Chat stream send timed out"));
+            } catch (IllegalStateException e) {
+                // already completed
+            }
+            if (addStalledSender()) {
+                subscriber.replaced.set(true);
+                // The write may have returned meanwhile; whichever side sees both flags releases
+                if (subscriber.sendStartedAt == 0) {
+                    releaseReplacement(subscriber);
+                }
+            }
+        }));
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    public synchronized int getStalledSenders() {
+        return stalledSenders;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rooms.values().forEach(subscribers -> subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+        senders.shutdownNow();
+    }
+
+    private void replay(Subscriber subscriber, UUID lastMessageId) throws IOException {
+        ChatMessage last = chatMessageRepository.findById(lastMessageId)
+            .filter(m -> m.getRoomId().equals(subscriber.roomId))
+            .orElse(null);
+        if (last == null) {
+            subscriber.emitter.send(SseEmitter.event().name("resync").data("unknown last message"));
+            return;
+        }
+        List<ChatMessage> missed = chatMessageRepository.findAfter(
+            subscriber.roomId, last.getCreatedAt(), last.getId(), PageRequest.of(0, replayLimit + 1));
+        if (missed.size() > replayLimit) {
+            subscriber.emitter.send(SseEmitter.event().name("resync").data("too many missed messages"));
+            return;
+        }
+        for (ChatMessage message : missed) {
+            subscriber.emitter.send(messageEvent(toResponse(message)));
+            subscriber.replayed.add(message.getId());
+        }
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (subscriber.live && subscriber.draining.compareAndSet(false, true)) {
+            execute(subscriber, () -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            ChatMessageResponse message;
+            while (!subscriber.closed && (message = subscriber.queue.poll()) != null) {
+                // Committed while the replay was being read: already sent
+                if (!subscriber.replayed.isEmpty() && subscriber.replayed.remove(message.getId())) {
+                    continue;
+                }
+                if (!send(subscriber, messageEvent(message))) {
+                    return;
+                }
+                delivered.increment();
+            }
+        } finally {
+            subscriber.draining.set(false);
+        }
+        // A message offered after the last poll but before draining was reset
+        if (!subscriber.queue.isEmpty()) {
+            scheduleDrain(subscriber);
+        }
+    }
+
+    private boolean send(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        subscriber.sendStartedAt = System.nanoTime();
+        try {
+            subscriber.emitter.send(event);
+            return !subscriber.closed;
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; the emitter callbacks may not fire for a broken connection
+            remove(subscriber);
+            return false;
+        } finally {
+            subscriber.sendStartedAt = 0;
+            releaseReplacement(subscriber);
+        }
+    }
+
+    /**
+     * Creates an emitter; a seam for tests.
+     */
+    SseEmitter newEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    private synchronized boolean addStalledSender() {
+        if (stalledSenders >= maxStalledSenders) {
+            return false;
+        }
+        stalledSenders++;
+        senders.setCorePoolSize(senderThreads + stalledSenders);
+        return true;
+    }
+
+    private void releaseReplacement(Subscriber subscriber) {
+        if (subscriber.replaced.compareAndSet(true, false)) {
+            synchronized (this) {
+                stalledSenders--;
+                senders.setCorePoolSize(senderThreads + stalledSenders);
+            }
+        }
+    }
+
+    private void execute(Subscriber subscriber, Runnable task) {
+        try {
+            senders.execute(task);
+        } catch (RejectedExecutionException e) {
+            subscriber.draining.set(false);
+        }
+    }
+
+    private void disconnect(Subscriber subscriber) {
+        remove(subscriber);
+        try {
+            subscriber.emitter.complete();
+        } catch (IllegalStateException e) {
+            // already completed
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (subscriber.closed) {
+            return;
+        }
+        subscriber.closed = true;
+        Set<Subscriber> subscribers = rooms.get(subscriber.roomId);
+        if (subscribers != null && subscribers.remove(subscriber)) {
+            subscriberCount.decrementAndGet();
+            if (subscribers.isEmpty()) {
+                rooms.remove(subscriber.roomId, subscribers);
+            }
+        }
+        subscriber.queue.clear();
+    }
+
+    private static SseEmitter.SseEventBuilder messageEvent(ChatMessageResponse message) {
+        return SseEmitter.event()
+            .id(message.getId().toString())
+            .name("message")
+            .data(message);
+    }
+
+    private static ChatMessageResponse toResponse(ChatMessage message) {
+        ChatMessageResponse response = new ChatMessageResponse();
+        response.setId(message.getId());
+        response.setRoomId(message.getRoomId());
+        response.setSenderId(message.getSenderId());
+        response.setContent(message.getContent());
+        response.setType(message.getType().name());
+        response.setCreatedAt(message.getCreatedAt());
+        response.setReadAt(message.getReadAt());
+        return response;
+    }
+
+    private static final class Subscriber {
+
+        private final UUID roomId;
+        private final UUID userId;
+        private final SseEmitter emitter;
+        private final Queue<ChatMessageResponse> queue;
+        private final Set<UUID> replayed = ConcurrentHashMap.newKeySet();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean stalled = new AtomicBoolean();
+        private final AtomicBoolean replaced = new AtomicBoolean(); // an extra sender stands in for the blocked one
+        private volatile long sendStartedAt; // System.nanoTime() of the write in progress, 0 if none
+        private volatile boolean live;
+        private volatile boolean closed;
+
+        Subscriber(UUID roomId, UUID userId, SseEmitter emitter, int queueCapacity) {
+            this.roomId = roomId;
+            this.userId = userId;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.trustescrow.application.service;
+
+import com.trustescrow.domain.service.MerkleLog;
+import com.trustescrow.domain.service.Sha256;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Streaming SHA-256 of asset content, for uploads too large to hold in memory.
+ *
+ * Content is read in fixed-size chunks ({@code registry.hashing.chunk-size-bytes}) through a
+ * {@link DigestInputStream} or a {@link FileChannel}; only the chunk buffers are in memory.
+ * The whole-file SHA-256 is the asset's content hash, as with {@link HashService#generateHash}.
+ *
+ * Content of at least {@code registry.hashing.chunk-tree-threshold-bytes} additionally gets a
+ * chunked hash tree: every chunk is hashed on a worker pool while the next one is read, and the
+ * chunk hashes are folded into an RFC 6962 Merkle root ({@link MerkleLog}), so a single chunk can
+ * later be verified without the whole file. At most {@code parallelism * 2} chunks are in flight;
+ * an upload that cannot get a chunk buffer within {@code registry.hashing.buffer-wait-ms} fails
+ * instead of queueing behind the others indefinitely.
+ *
+ * Every hash is recorded in the {@code asset.hash.throughput} summary (MB/s).
+ */
+@Service
+@Slf4j
+public class ContentHashingService {
+
+    private final int chunkSize;
+    private final long chunkTreeThreshold;
+    private final long bufferWaitMillis;
+    private final ExecutorService chunkHashers;
+    private final BlockingQueue<byte[]> buffers;
+    private final DistributionSummary throughput;
+    private final DistributionSummary contentSize;
+
+    public ContentHashingService(
+            MeterRegistry meterRegistry,
+            @Value("${registry.hashing.chunk-size-bytes:4194304}") int chunkSize,
+            @Value("${registry.hashing.chunk-tree-threshold-bytes:67108864}") long chunkTreeThreshold,
+            @Value("${registry.hashing.parallelism:0}") int parallelism,
+            @Value("${registry.hashing.buffer-wait-ms:30000}") long bufferWaitMillis) {
+        this.chunkSize = chunkSize;
+        this.chunkTreeThreshold = chunkTreeThreshold;
+        this.bufferWaitMillis = bufferWaitMillis;
+
+        int threads = parallelism > 0 ? parallelism : Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.chunkHashers = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "content-hash-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Shared by all uploads: bounds chunk memory to (threads * 2) * chunkSize
+        this.buffers = new ArrayBlockingQueue<>(threads * 2);
+        for (int i = 0; i < threads * 2; i++) {
+            buffers.add(new byte[chunkSize]);
+        }
+
+        this.throughput = DistributionSummary.builder("asset.hash.throughput")
+            .description("Content hashing throughput per upload")
+            .baseUnit("MB/s")
+            .register(meterRegistry);
+        this.contentSize = DistributionSummary.builder("asset.hash.size")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Hashes a stream to its end.
+     *
+     * @param expectedLength content length if known (e.g. the multipart size), or -1;
+     *                       decides whether a chunk tree is built
+     */
+    public ContentDigest hash(InputStream content, long expectedLength) throws IOException {
+        // Not the thread-local digest: MerkleLog uses that one on this thread meanwhile
+        MessageDigest digest = Sha256.newDigest();
+        DigestInputStream in = new DigestInputStream(content, digest);
+        return hash(digest, (buffer) -> in.readNBytes(buffer, 0, buffer.length), expectedLength);
+    }
+
+    /**
+     * Hashes a file through a {@link FileChannel}.
+     */
+    public ContentDigest hash(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MessageDigest digest = Sha256.newDigest();
+            return hash(digest, (buffer) -> {
+                ByteBuffer target = ByteBuffer.wrap(buffer);
+                while (target.hasRemaining() && channel.read(target) >= 0) {
+                    // fill the chunk
+                }
+                digest.update(buffer, 0, target.position());
+                return target.position();
+            }, channel.size());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        chunkHashers.shutdownNow();
+    }
+
+    @FunctionalInterface
+    private interface ChunkReader {
+        /**
+         * Fills the buffer (short only at the end of the content) and updates the whole-file digest.
+         */
+        int read(byte[] buffer) throws IOException;
+    }
+
+    private ContentDigest hash(MessageDigest digest, ChunkReader reader, long expectedLength) throws IOException {
+        long started = System.nanoTime();
+        boolean chunkTree = expectedLength >= chunkTreeThreshold;
+        List<byte[]> frontier = new ArrayList<>();
+        Deque<Future<byte[]>> pending = new ArrayDeque<>();
+        long length = 0;
+        long chunks = 0;
+
+        try {
+            if (!chunkTree) {
+                byte[] buffer = new byte[Math.min(chunkSize, 64 * 1024)];
+                for (int read; (read = reader.read(buffer)) > 0; ) {
+                    length += read;
+                }
+            } else {
+                while (true) {
+                    byte[] buffer = buffers.poll(bufferWaitMillis, TimeUnit.MILLISECONDS);
+                    if (buffer == null) {
+                        throw new IOException("No hashing buffer free after " + bufferWaitMillis + " ms");
+                    }
+                    int read;
+                    try {
+                        read = reader.read(buffer);
+                    } catch (IOException | RuntimeException e) {
+                        buffers.add(buffer);
+                        throw e;
+                    }
+                    if (read <= 0) {
+                        buffers.add(buffer);
+                        break;
+                    }
+                    length += read;
+                    int chunkLength = read;
+                    pending.add(chunkHashers.submit(() -> {
+                        try {
+                            return MerkleLog.leafHash(buffer, 0, chunkLength);
+                        } finally {
+                            buffers.add(buffer);
+                        }
+                    }));
+                    // Fold finished chunks in order
+                    while (!pending.isEmpty() && pending.peekFirst().isDone()) {
+                        MerkleLog.append(frontier, chunks++, pending.removeFirst().get(), (level, index, hash) -> { });
+                    }
+                }
+                while (!pending.isEmpty()) {
+                    MerkleLog.append(frontier, chunks++, pending.removeFirst().get(), (level, index, hash) -> { });
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while hashing content");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Chunk hashing failed", e.getCause());
+        } finally {
+            // On failure, let submitted chunks finish so their buffers go back to the pool
+            awaitQuietly(pending);
+        }
+
+        long elapsedNanos = Math.max(1, System.nanoTime() - started);
+        double mbPerSec = (length / (1024.0 * 1024.0)) / (elapsedNanos / 1_000_000_000.0);
+        throughput.record(mbPerSec);
+        contentSize.record(length);
+
+        ContentDigest result = ContentDigest.builder()
+            .contentHash(Sha256.hex(digest.digest()))
+            .contentSize(length)
+            .chunkSize(chunkTree ? chunkSize : null)
+            .chunkCount(chunkTree ? chunks : null)
+            .chunkTreeRoot(chunkTree ? Sha256.hex(MerkleLog.root(frontier)) : null)
+            .elapsedMillis(elapsedNanos / 1_000_000)
+            .throughputMbPerSec(mbPerSec)
+            .build();
+        log.info("Hashed {} bytes in {} ms ({} MB/s){}", length, result.getElapsedMillis(),
+            String.format("%.1f", mbPerSec), chunkTree ? ", " + chunks + " chunks" : "");
+        return result;
+    }
+
+    private static void awaitQuietly(Deque<Future<byte[]>> pending) {
+        for (Future<byte[]> future : pending) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                // already failing
+            }
+        }
+    }
+
+    @lombok.Value
+    @Builder
+    public static class ContentDigest {
+        String contentHash; // SHA-256 of the whole content (hex)
+        long contentSize;
+        Integer chunkSize; // null if no chunk tree was built
+        Long chunkCount;
+        String chunkTreeRoot; // RFC 6962 root over SHA-256(0x00 || chunk)
+        long elapsedMillis;
+        double throughputMbPerSec;
+
+        /**
+         * Digest of content that was hashed in memory.
+         */
+        public static ContentDigest of(String contentHash, long contentSize) {
+            return ContentDigest.builder()
+                .contentHash(contentHash)
+                .contentSize(contentSize)
+                .build();
+        }
+    }
+}
@@ -32,6 +32,7 @@ public class CreativeAssetRegistryService {
     private final RegistryLogRepository registryLogRepository;
     private final AssetReferenceRepository referenceRepository;
     private final HashService hashService;
+    private final RegistryMerkleService registryMerkleService;
     
     /**
      * Register a new creative asset.
@@ -54,10 +55,28 @@ public class CreativeAssetRegistryService {
             byte[] content,
             String payloadMeta) {
         
+        return registerAsset(escrowAccountId, assetType, visibility, declaredCreationType,
+            ContentHashingService.ContentDigest.of(hashService.generateHash(content), content.length), payloadMeta);
+    }
+    
+    /**
+     * Register a new creative asset whose content was already hashed
+     * (streamed through {@link ContentHashingService}, outside the transaction).
+     * 
+     * @param digest Content hash, size and optional chunk tree
+     */
+    @Transactional
+    public AssetRegistrationResult registerAsset(
+            UUID escrowAccountId,
+            CreativeAsset.AssetType assetType,
+            CreativeAsset.Visibility visibility,
+            CreativeAsset.DeclaredCreationType declaredCreationType,
+            ContentHashingService.ContentDigest digest,
+            String payloadMeta) {
+        
         log.info("Registering asset for account: {}, type: {}", escrowAccountId, assetType);
         
-        // Generate content hash
-        String contentHash = hashService.generateHash(content);
+        String contentHash = digest.getContentHash();
         
         // Check if this exact content already exists (idempotency check)
         // Note: Same content hash can exist for different assets (different owners)
@@ -79,6 +98,9 @@ public class CreativeAssetRegistryService {
         AssetVersion version = AssetVersion.builder()
             .assetId(asset.getId())
             .contentHash(contentHash)
+            .contentSize(digest.getContentSize())
+            .chunkSize(digest.getChunkSize())
+            .chunkTreeRoot(digest.getChunkTreeRoot())
             .payloadMeta(payloadMeta)
             .createdAt(Instant.now())
             .build();
@@ -106,6 +128,8 @@ public class CreativeAssetRegistryService {
             .assetId(asset.getId())
             .versionId(version.getId())
             .contentHash(contentHash)
+            .contentSize(digest.getContentSize())
+            .chunkTreeRoot(digest.getChunkTreeRoot())
             .createdAt(asset.getCreatedAt())
             .build();
     }
@@ -121,14 +145,24 @@ public class CreativeAssetRegistryService {
      */
     @Transactional
     public AssetVersion addVersion(UUID assetId, byte[] content, String payloadMeta) {
+        return addVersion(assetId,
+            ContentHashingService.ContentDigest.of(hashService.generateHash(content), content.length), payloadMeta);
+    }
+    
+    /**
+     * Add a new version whose content was already hashed.
+     * 
+     * @param digest Content hash, size and optional chunk tree
+     */
+    @Transactional
+    public AssetVersion addVersion(UUID assetId, ContentHashingService.ContentDigest digest, String payloadMeta) {
         log.info("Adding version to asset: {}", assetId);
         
         // Load asset
         CreativeAsset asset = assetRepository.findById(assetId)
             .orElseThrow(() -> new IllegalArgumentException("Asset not found: " + assetId));
         
-        // Generate content hash
-        String contentHash = hashService.generateHash(content);
+        String contentHash = digest.getContentHash();
         
         // Check if this exact version already exists (idempotency)
         // Note: Same content hash can exist multiple times for same asset
@@ -138,6 +172,9 @@ public class CreativeAssetRegistryService {
         AssetVersion version = AssetVersion.builder()
             .assetId(asset.getId())
             .contentHash(contentHash)
+            .contentSize(digest.getContentSize())
+            .chunkSize(digest.getChunkSize())
+            .chunkTreeRoot(digest.getChunkTreeRoot())
             .payloadMeta(payloadMeta)
             .createdAt(Instant.now())
             .build();
@@ -247,6 +284,15 @@ public class CreativeAssetRegistryService {
         return versionRepository.findByAssetIdOrderByCreatedAtDesc(assetId);
     }
     
+    /**
+     * Get a version of an asset.
+     */
+    public AssetVersion getAssetVersion(UUID assetId, UUID versionId) {
+        return versionRepository.findById(versionId)
+            .filter(version -> version.getAssetId().equals(assetId))
+            .orElseThrow(() -> new IllegalArgumentException("Version not found: " + versionId));
+    }
+    
     /**
      * Get registry log entries for an asset.
      */
@@ -282,7 +328,7 @@ public class CreativeAssetRegistryService {
             .createdAt(Instant.now())
             .build();
         
-        registryLogRepository.save(logEntry);
+        registryMerkleService.append(logEntry);
     }
     
     /**
@@ -314,6 +360,8 @@ public class CreativeAssetRegistryService {
         private UUID assetId;
         private UUID versionId;
         private String contentHash;
+        private Long contentSize;
+        private String chunkTreeRoot;
         private Instant createdAt;
     }
 }
@@ -81,7 +81,7 @@ public class DealApplicationService {
             .disputeOpen(false)
             .build();
         
-        deal = dealRepository.save(deal);
+        deal = dealRepository.save(deal.markCreated());
         
         // Create contract instance (immutable snapshot)
         ContractInstance instance = contractTemplateService.createInstance(
@@ -114,22 +114,19 @@ public class DealApplicationService {
         // Execute initial ledger actions: HOLD holdback, RELEASE immediate
         // Note: In real implementation, immediate might be held until delivery
         // For now, we'll hold both and release immediate at delivery
-        ledgerService.executeAction(dealId, 
+        ledgerService.executeActions(dealId, java.util.List.of(
             com.trustescrow.domain.rules.RulesEngine.EscrowAction.builder()
                 .type(com.trustescrow.domain.rules.RulesEngine.EscrowActionType.HOLD)
                 .amount(deal.getHoldbackAmount())
                 .fromAccount("buyer")
                 .toAccount("escrow")
                 .build(),
-            actorId.toString());
-        
-        ledgerService.executeAction(dealId,
             com.trustescrow.domain.rules.RulesEngine.EscrowAction.builder()
                 .type(com.trustescrow.domain.rules.RulesEngine.EscrowActionType.HOLD)
                 .amount(deal.getImmediateAmount())
                 .fromAccount("buyer")
                 .toAccount("escrow")
-                .build(),
+                .build()),
             actorId.toString());
     }
     
@@ -0,0 +1,102 @@
+package com.trustescrow.application.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Listens on PostgreSQL channel {@code escrow_state} and drops the deals other nodes changed
+ * from the local {@link EscrowStateService} cache.
+ *
+ * Holds one pooled connection for as long as the application runs. When the connection is lost,
+ * notifications sent in the meantime are gone, so after reconnecting the whole cache is dropped.
+ * Not started on other databases; the cache TTL bounds staleness there.
+ */
+@Component
+@Slf4j
+public class EscrowStateChangeListener {
+
+    private static final int POLL_TIMEOUT_MS = 10_000;
+
+    private final DataSource dataSource;
+    private final EscrowStateService escrowStateService;
+    private final ExecutorService listener;
+    private volatile boolean running;
+
+    @Value("${escrow.state-cache.listen-reconnect-ms:5000}")
+    private long reconnectMillis;
+
+    public EscrowStateChangeListener(DataSource dataSource, EscrowStateService escrowStateService) {
+        this.dataSource = dataSource;
+        this.escrowStateService = escrowStateService;
+        this.listener = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "escrow-state-listen");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!escrowStateService.isNotifySupported()) {
+            return;
+        }
+        running = true;
+        listener.execute(this::listen);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        listener.shutdownNow();
+    }
+
+    private void listen() {
+        boolean reconnect = false;
+        while (running) {
+            try (Connection connection = dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                statement.execute("LISTEN " + EscrowStateService.NOTIFY_CHANNEL);
+                if (reconnect) {
+                    escrowStateService.evictAll();
+                }
+                log.info("[ESCROW] Listening for state changes on {}", EscrowStateService.NOTIFY_CHANNEL);
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        escrowStateService.onNotification(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("[ESCROW] State change listener failed, reconnecting in {} ms: {}", reconnectMillis, e.getMessage());
+            }
+            reconnect = true;
+            try {
+                Thread.sleep(reconnectMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
@@ -1,277 +1,441 @@
 package com.trustescrow.application.service;
 
+import com.trustescrow.domain.model.DealMilestone;
+import com.trustescrow.domain.model.DealMilestone.MilestoneStatus;
+import com.trustescrow.domain.service.DealMilestoneRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 
 /**
- * In-memory escrow state service (temporary implementation).
- * 
- * Stores milestone status in memory:
- * - PENDING: Initial state
- * - FUNDED: Payment completed, funds held in escrow
- * - RELEASED: Funds released (not implemented yet)
- * 
- * ⚠️ This is a temporary implementation for proof of concept.
- * Production should use database persistence.
+ * Escrow milestone state, cached per deal over {@link DealMilestoneRepository}.
+ *
+ * Reads go through a bounded LRU cache ({@code escrow.state-cache.max-entries}) whose entries
+ * also expire after {@code escrow.state-cache.ttl-seconds}; a miss loads all milestones of the
+ * deal. Callers update the milestone row themselves and then call the matching {@code setMilestone*}
+ * method, which reads the row's status in the caller's transaction and writes it into the cached
+ * entry after commit. It never writes the row, so a legacy status such as PAID_HELD is kept.
+ *
+ * Other nodes are told to drop their entry through PostgreSQL {@code NOTIFY escrow_state}, sent in
+ * the same transaction so it is only delivered on commit (see {@link EscrowStateChangeListener}).
+ * Without PostgreSQL, other nodes converge within the TTL.
+ *
+ * Demo deals with non-UUID ids have no rows; their states live only in the cache and are lost
+ * when evicted.
+ *
+ * Metrics: {@code escrow.state.cache.requests} (result=hit|miss),
+ * {@code escrow.state.cache.evictions} (cause=size|expired|invalidated), {@code escrow.state.cache.size}.
  */
 @Service
 @Slf4j
 public class EscrowStateService {
-    
+
+    static final String NOTIFY_CHANNEL = "escrow_state";
+
     /**
-     * In-memory state storage.
-     * Structure: { dealId: { milestones: { milestoneId: { status: "PENDING" | "FUNDED" | "RELEASED" } } } }
+     * Status transitions of the {@code setMilestone*} methods. Applied to demo deals; for deals
+     * with rows they only decide what is logged.
      */
-    private static final Map<String, Map<String, MilestoneState>> STATE_STORAGE = new ConcurrentHashMap<>();
-    
+    private enum Transition {
+        FUNDS_HELD(MilestoneStatus.FUNDS_HELD, EnumSet.of(MilestoneStatus.PENDING), true),
+        REFUNDED(MilestoneStatus.REFUNDED, EnumSet.of(MilestoneStatus.FUNDS_HELD, MilestoneStatus.PAID_HELD), true),
+        RELEASE_REQUESTED(MilestoneStatus.RELEASE_REQUESTED,
+            EnumSet.of(MilestoneStatus.FUNDS_HELD, MilestoneStatus.PAID_HELD), true),
+        RELEASED(MilestoneStatus.RELEASED, EnumSet.of(MilestoneStatus.RELEASE_REQUESTED), false),
+        // MASTER TASK: FUNDS_HELD, EVIDENCE_SUBMITTED, or RELEASE_REQUESTED can be disputed
+        DISPUTED(MilestoneStatus.DISPUTED, EnumSet.of(MilestoneStatus.FUNDS_HELD, MilestoneStatus.PAID_HELD,
+            MilestoneStatus.EVIDENCE_SUBMITTED, MilestoneStatus.RELEASE_REQUESTED), true),
+        EVIDENCE_SUBMITTED(MilestoneStatus.EVIDENCE_SUBMITTED,
+            EnumSet.of(MilestoneStatus.FUNDS_HELD, MilestoneStatus.PAID_HELD), true);
+
+        private final MilestoneStatus target;
+        private final Set<MilestoneStatus> from;
+        private final boolean createIfMissing; // demo deals only
+
+        Transition(MilestoneStatus target, Set<MilestoneStatus> from, boolean createIfMissing) {
+            this.target = target;
+            this.from = from;
+            this.createIfMissing = createIfMissing;
+        }
+
+        boolean allows(MilestoneStatus current) {
+            return from.contains(current);
+        }
+
+        boolean satisfiedBy(MilestoneStatus current) {
+            // PAID_HELD is the legacy name of FUNDS_HELD
+            return current == target
+                || (target == MilestoneStatus.FUNDS_HELD && current == MilestoneStatus.PAID_HELD);
+        }
+    }
+
     /**
-     * Milestone state structure.
-     * STEP 4: Added RELEASE_REQUESTED status.
+     * Milestone state (immutable).
      */
     public static class MilestoneState {
-        private String status; // "PENDING" | "PAID_HELD" | "FUNDED" | "RELEASE_REQUESTED" | "RELEASED" | "REFUNDED"
-        
-        public MilestoneState(String status) {
+        private final MilestoneStatus status;
+
+        public MilestoneState(MilestoneStatus status) {
             this.status = status;
         }
-        
-        public String getStatus() {
+
+        public MilestoneStatus getStatus() {
             return status;
         }
-        
-        public void setStatus(String status) {
-            this.status = status;
-        }
     }
-    
+
+    private final DealMilestoneRepository milestoneRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final LinkedHashMap<String, DealEntry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    // Loads in flight per deal; a change to the deal drops its token, so a load that raced with it is not cached
+    private final Map<String, Object> loads = new HashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter expiredEvictions;
+    private final Counter invalidations;
+    private volatile boolean notifySupported;
+
+    @Value("${escrow.state-cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${escrow.state-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    public EscrowStateService(
+            DealMilestoneRepository milestoneRepository,
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry) {
+        this.milestoneRepository = milestoneRepository;
+        this.jdbcTemplate = jdbcTemplate;
+
+        this.hits = Counter.builder("escrow.state.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("escrow.state.cache.requests").tag("result", "miss").register(meterRegistry);
+        this.sizeEvictions = Counter.builder("escrow.state.cache.evictions").tag("cause", "size").register(meterRegistry);
+        this.expiredEvictions = Counter.builder("escrow.state.cache.evictions").tag("cause", "expired").register(meterRegistry);
+        this.invalidations = Counter.builder("escrow.state.cache.evictions").tag("cause", "invalidated").register(meterRegistry);
+        Gauge.builder("escrow.state.cache.size", this, EscrowStateService::size)
+            .description("Deals in the escrow state cache")
+            .register(meterRegistry);
+    }
+
     /**
      * Get milestone status.
-     * Returns "PENDING" if not found (default state).
+     * Returns PENDING if not found (default state).
      */
-    public String getMilestoneStatus(String dealId, String milestoneId) {
-        log.debug("===== STEP 2: GET MILESTONE STATUS =====");
-        log.debug("dealId: {}, milestoneId: {}", dealId, milestoneId);
-        
-        Map<String, MilestoneState> dealState = STATE_STORAGE.get(dealId);
-        if (dealState == null) {
-            log.debug("Deal {} not found in state storage, returning PENDING (default)", dealId);
-            return "PENDING"; // Default state
+    public MilestoneStatus getMilestoneStatus(String dealId, String milestoneId) {
+        MilestoneState state = getDealMilestones(dealId).get(milestoneId);
+        return state != null ? state.getStatus() : MilestoneStatus.PENDING;
+    }
+
+    /**
+     * Get all milestones for a deal, in milestone order.
+     */
+    public Map<String, MilestoneState> getDealMilestones(String dealId) {
+        DealEntry cached = lookup(dealId);
+        if (cached != null) {
+            hits.increment();
+            return cached.milestones;
+        }
+        misses.increment();
+
+        UUID dealUuid = parseUuid(dealId);
+        if (dealUuid == null) {
+            return Collections.emptyMap();
+        }
+        Object token = new Object();
+        synchronized (entries) {
+            loads.put(dealId, token);
         }
-        
-        MilestoneState milestone = dealState.get(milestoneId);
-        if (milestone == null) {
-            log.debug("Milestone {} not found for deal {}, returning PENDING (default)", milestoneId, dealId);
-            return "PENDING"; // Default state
+        DealEntry loaded = null;
+        try {
+            Map<String, MilestoneState> milestones = new LinkedHashMap<>();
+            for (DealMilestone milestone : milestoneRepository.findByDealIdOrderByOrderIndexAsc(dealUuid)) {
+                milestones.put(milestone.getId().toString(), new MilestoneState(milestone.getStatus()));
+            }
+            loaded = new DealEntry(Collections.unmodifiableMap(milestones), Instant.now(), true);
+            return loaded.milestones;
+        } finally {
+            synchronized (entries) {
+                if (loads.remove(dealId, token) && loaded != null) {
+                    store(dealId, loaded);
+                }
+            }
         }
-        
-        String status = milestone.getStatus();
-        log.debug("Found milestone status: {}", status);
-        log.debug("========================================");
-        return status;
     }
-    
+
     /**
-     * MASTER TASK: Set milestone status to FUNDS_HELD (escrow hold).
-     * Only transitions from PENDING to FUNDS_HELD.
-     * 
-     * Note: This method name is kept as setMilestonePaidHeld for backward compatibility,
-     * but internally uses FUNDS_HELD status.
+     * MASTER TASK: Milestone paid, funds held in escrow.
+     * A row already in PAID_HELD or FUNDS_HELD is left as it is; demo deals move from PENDING to FUNDS_HELD.
      */
+    @Transactional
     public void setMilestonePaidHeld(String dealId, String milestoneId) {
         log.info("[ESCROW] Payment received: dealId={}, milestoneId={}", dealId, milestoneId);
-        
-        STATE_STORAGE.computeIfAbsent(dealId, k -> {
-            log.info("[ESCROW] Creating new state entry for deal: {}", dealId);
-            return new ConcurrentHashMap<>();
-        }).compute(milestoneId, (key, existing) -> {
-            if (existing == null) {
-                log.info("[ESCROW] Milestone {} for deal {} set to FUNDS_HELD (from PENDING - new entry)", milestoneId, dealId);
-                return new MilestoneState("FUNDS_HELD");
-            } else {
-                String currentStatus = existing.getStatus();
-                
-                if ("PENDING".equals(currentStatus)) {
-                    log.info("[ESCROW] Milestone {} for deal {} transitioned from PENDING to FUNDS_HELD", milestoneId, dealId);
-                    existing.setStatus("FUNDS_HELD");
-                    return existing;
-                } else if ("FUNDS_HELD".equals(currentStatus) || "PAID_HELD".equals(currentStatus)) {
-                    log.info("[ESCROW] Milestone {} for deal {} already in FUNDS_HELD state, skipping", milestoneId, dealId);
-                    return existing;
-                } else {
-                    log.warn("[ESCROW] Milestone {} for deal {} is in state {}, cannot transition to FUNDS_HELD", 
-                        milestoneId, dealId, currentStatus);
-                    return existing;
-                }
-            }
-        });
+        apply(dealId, milestoneId, Transition.FUNDS_HELD);
     }
-    
+
     /**
-     * STEP 2: Set milestone status to REFUNDED.
-     * Only transitions from PAID_HELD to REFUNDED.
+     * STEP 2: Milestone refunded (demo deals: from FUNDS_HELD/PAID_HELD).
      */
+    @Transactional
     public void setMilestoneRefunded(String dealId, String milestoneId) {
-        log.info("===== STEP 2: MILESTONE REFUND TRANSITION =====");
-        log.info("dealId: {}, milestoneId: {}", dealId, milestoneId);
-        
-        STATE_STORAGE.computeIfAbsent(dealId, k -> new ConcurrentHashMap<>())
-            .compute(milestoneId, (key, existing) -> {
-                if (existing == null) {
-                    log.warn("Milestone {} for deal {} not found, cannot refund", milestoneId, dealId);
-                    return new MilestoneState("REFUNDED");
-                } else {
-                    String currentStatus = existing.getStatus();
-                    if ("PAID_HELD".equals(currentStatus)) {
-                        log.info("Milestone {} for deal {} transitioned from PAID_HELD to REFUNDED", milestoneId, dealId);
-                        existing.setStatus("REFUNDED");
-                        return existing;
-                    } else {
-                        log.warn("Milestone {} for deal {} is in state {}, cannot refund", 
-                            milestoneId, dealId, currentStatus);
-                        return existing;
-                    }
-                }
-            });
+        log.info("[ESCROW] Refund: dealId={}, milestoneId={}", dealId, milestoneId);
+        apply(dealId, milestoneId, Transition.REFUNDED);
     }
-    
+
     /**
-     * STEP 4: Set milestone status to RELEASE_REQUESTED.
-     * Only transitions from PAID_HELD/FUNDS_HELD to RELEASE_REQUESTED.
+     * STEP 4: Release requested (demo deals: from FUNDS_HELD/PAID_HELD).
      */
+    @Transactional
     public void setMilestoneReleaseRequested(String dealId, String milestoneId) {
         log.info("[ESCROW] Release request: dealId={}, milestoneId={}", dealId, milestoneId);
-        
-        STATE_STORAGE.computeIfAbsent(dealId, k -> new ConcurrentHashMap<>())
-            .compute(milestoneId, (key, existing) -> {
-                if (existing == null) {
-                    log.warn("[ESCROW] Milestone {} for deal {} not found, creating RELEASE_REQUESTED", milestoneId, dealId);
-                    return new MilestoneState("RELEASE_REQUESTED");
-                } else {
-                    String currentStatus = existing.getStatus();
-                    if ("PAID_HELD".equals(currentStatus) || "FUNDS_HELD".equals(currentStatus)) {
-                        log.info("[ESCROW] Milestone {} for deal {} transitioned from {} to RELEASE_REQUESTED", 
-                            milestoneId, dealId, currentStatus);
-                        existing.setStatus("RELEASE_REQUESTED");
-                        return existing;
-                    } else {
-                        log.warn("[ESCROW] Milestone {} for deal {} is in state {}, cannot request release", 
-                            milestoneId, dealId, currentStatus);
-                        return existing;
-                    }
-                }
-            });
+        apply(dealId, milestoneId, Transition.RELEASE_REQUESTED);
     }
-    
+
     /**
-     * STEP 4: Set milestone status to RELEASED (admin approval).
-     * Only transitions from RELEASE_REQUESTED to RELEASED.
+     * STEP 4: Release approved (demo deals: from RELEASE_REQUESTED).
      */
+    @Transactional
     public void setMilestoneReleased(String dealId, String milestoneId) {
         log.info("[ESCROW] Release approval: dealId={}, milestoneId={}", dealId, milestoneId);
-        
-        STATE_STORAGE.computeIfAbsent(dealId, k -> new ConcurrentHashMap<>())
-            .compute(milestoneId, (key, existing) -> {
-                if (existing == null) {
-                    log.warn("[ESCROW] Milestone {} for deal {} not found, cannot release", milestoneId, dealId);
-                    return null;
-                } else {
-                    String currentStatus = existing.getStatus();
-                    if ("RELEASE_REQUESTED".equals(currentStatus)) {
-                        log.info("[ESCROW] Milestone {} for deal {} transitioned from RELEASE_REQUESTED to RELEASED", 
-                            milestoneId, dealId);
-                        existing.setStatus("RELEASED");
-                        return existing;
-                    } else {
-                        log.warn("[ESCROW] Milestone {} for deal {} is in state {}, cannot release (must be RELEASE_REQUESTED)", 
-                            milestoneId, dealId, currentStatus);
-                        return existing;
-                    }
-                }
-            });
+        apply(dealId, milestoneId, Transition.RELEASED);
     }
-    
+
     /**
-     * STEP 6: Set milestone status to DISPUTED.
-     * Only transitions from PAID_HELD or RELEASE_REQUESTED to DISPUTED.
+     * STEP 6: Dispute raised (demo deals: from FUNDS_HELD, PAID_HELD, EVIDENCE_SUBMITTED or RELEASE_REQUESTED).
      */
+    @Transactional
     public void setMilestoneDisputed(String dealId, String milestoneId) {
         log.info("[ESCROW] Dispute raised: dealId={}, milestoneId={}", dealId, milestoneId);
-        
-        STATE_STORAGE.computeIfAbsent(dealId, k -> new ConcurrentHashMap<>())
-            .compute(milestoneId, (key, existing) -> {
-                if (existing == null) {
-                    log.warn("[ESCROW] Milestone {} for deal {} not found, creating DISPUTED", milestoneId, dealId);
-                    return new MilestoneState("DISPUTED");
-                } else {
-                    String currentStatus = existing.getStatus();
-                    // MASTER TASK: FUNDS_HELD, EVIDENCE_SUBMITTED, or RELEASE_REQUESTED can be disputed
-                    if ("FUNDS_HELD".equals(currentStatus) || "PAID_HELD".equals(currentStatus) ||
-                        "EVIDENCE_SUBMITTED".equals(currentStatus) || "RELEASE_REQUESTED".equals(currentStatus)) {
-                        log.info("[ESCROW] Milestone {} for deal {} transitioned from {} to DISPUTED", 
-                            milestoneId, dealId, currentStatus);
-                        existing.setStatus("DISPUTED");
-                        return existing;
-                    } else {
-                        log.warn("[ESCROW] Milestone {} for deal {} is in state {}, cannot dispute", 
-                            milestoneId, dealId, currentStatus);
-                        return existing;
-                    }
-                }
-            });
+        apply(dealId, milestoneId, Transition.DISPUTED);
     }
-    
+
     /**
-     * MASTER TASK: Set milestone status to EVIDENCE_SUBMITTED.
-     * Only transitions from FUNDS_HELD/PAID_HELD to EVIDENCE_SUBMITTED.
+     * MASTER TASK: Evidence submitted (demo deals: from FUNDS_HELD/PAID_HELD).
      */
+    @Transactional
     public void setMilestoneEvidenceSubmitted(String dealId, String milestoneId) {
         log.info("[ESCROW] Evidence submitted: dealId={}, milestoneId={}", dealId, milestoneId);
-        
-        STATE_STORAGE.computeIfAbsent(dealId, k -> new ConcurrentHashMap<>())
-            .compute(milestoneId, (key, existing) -> {
-                if (existing == null) {
-                    log.warn("[ESCROW] Milestone {} for deal {} not found, creating EVIDENCE_SUBMITTED", milestoneId, dealId);
-                    return new MilestoneState("EVIDENCE_SUBMITTED");
-                } else {
-                    String currentStatus = existing.getStatus();
-                    if ("FUNDS_HELD".equals(currentStatus) || "PAID_HELD".equals(currentStatus)) {
-                        log.info("[ESCROW] Milestone {} for deal {} transitioned from {} to EVIDENCE_SUBMITTED", 
-                            milestoneId, dealId, currentStatus);
-                        existing.setStatus("EVIDENCE_SUBMITTED");
-                        return existing;
-                    } else {
-                        log.warn("[ESCROW] Milestone {} for deal {} is in state {}, cannot submit evidence", 
-                            milestoneId, dealId, currentStatus);
-                        return existing;
-                    }
-                }
-            });
+        apply(dealId, milestoneId, Transition.EVIDENCE_SUBMITTED);
     }
-    
+
     /**
      * Legacy method for backward compatibility.
      */
     @Deprecated
+    @Transactional
     public void setMilestoneFunded(String dealId, String milestoneId) {
         setMilestonePaidHeld(dealId, milestoneId);
     }
-    
+
     /**
-     * Get all milestones for a deal.
+     * Drops a deal's cached state (a change made on another node).
      */
-    public Map<String, MilestoneState> getDealMilestones(String dealId) {
-        log.debug("===== STEP 2: GET DEAL MILESTONES =====");
-        log.debug("dealId: {}", dealId);
-        
-        Map<String, MilestoneState> milestones = STATE_STORAGE.getOrDefault(dealId, new ConcurrentHashMap<>());
-        log.debug("Found {} milestones for deal {}", milestones.size(), dealId);
-        milestones.forEach((id, state) -> {
-            log.debug("  - milestoneId: {}, status: {}", id, state.getStatus());
+    public void evict(String dealId) {
+        synchronized (entries) {
+            loads.remove(dealId);
+            if (entries.remove(dealId) != null) {
+                invalidations.increment();
+            }
+        }
+    }
+
+    /**
+     * Drops every cached deal backed by the database, e.g. after notifications may have been missed.
+     */
+    public void evictAll() {
+        synchronized (entries) {
+            loads.clear();
+            entries.values().removeIf(entry -> {
+                if (entry.persistent) {
+                    invalidations.increment();
+                    return true;
+                }
+                return false;
+            });
+        }
+    }
+
+    /**
+     * Handles an {@code escrow_state} notification; changes made by this node are skipped.
+     */
+    void onNotification(String payload) {
+        int separator = payload.indexOf('|');
+        if (separator < 0 || payload.substring(0, separator).equals(nodeId)) {
+            return;
+        }
+        evict(payload.substring(separator + 1));
+    }
+
+    boolean isNotifySupported() {
+        return notifySupported;
+    }
+
+    // Before EscrowStateChangeListener starts
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void detectDatabase() {
+        try {
+            String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            notifySupported = "PostgreSQL".equalsIgnoreCase(product);
+        } catch (RuntimeException e) {
+            log.warn("[ESCROW] Could not detect database for state notifications: {}", e.getMessage());
+        }
+        log.info("[ESCROW] State cache: maxEntries={}, ttl={}s, cross-node invalidation={}",
+            maxEntries, ttlSeconds, notifySupported ? "LISTEN/NOTIFY" : "TTL only");
+    }
+
+    private void apply(String dealId, String milestoneId, Transition transition) {
+        UUID dealUuid = parseUuid(dealId);
+        UUID milestoneUuid = parseUuid(milestoneId);
+        if (dealUuid == null || milestoneUuid == null) {
+            applyTransient(dealId, milestoneId, transition);
+            return;
+        }
+
+        // The caller has written the row (in this transaction or before); the cache follows it
+        Optional<MilestoneStatus> status = milestoneRepository.findByDealIdAndId(dealUuid, milestoneUuid)
+            .map(DealMilestone::getStatus);
+        if (status.isEmpty()) {
+            log.warn("[ESCROW] Milestone {} for deal {} not found, cannot set {}", milestoneId, dealId, transition.target);
+            return;
+        }
+        if (!transition.satisfiedBy(status.get())) {
+            log.info("[ESCROW] Milestone {} for deal {} is in state {}, not {}",
+                milestoneId, dealId, status.get(), transition.target);
+        }
+
+        if (notifySupported) {
+            // Delivered to listeners only if the transaction commits
+            jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", NOTIFY_CHANNEL, nodeId + "|" + dealId);
+        }
+        afterCommit(() -> update(dealId, milestoneId, status.get()));
+    }
+
+    /**
+     * Demo deals: the state exists only in the cache.
+     */
+    private void applyTransient(String dealId, String milestoneId, Transition transition) {
+        synchronized (entries) {
+            DealEntry entry = entries.get(dealId);
+            MilestoneState existing = entry != null ? entry.milestones.get(milestoneId) : null;
+            if (existing == null && !transition.createIfMissing) {
+                log.warn("[ESCROW] Milestone {} for deal {} not found, cannot set {}", milestoneId, dealId, transition.target);
+                return;
+            }
+            if (existing != null && transition.satisfiedBy(existing.getStatus())) {
+                return;
+            }
+            if (existing != null && !transition.allows(existing.getStatus())) {
+                log.warn("[ESCROW] Milestone {} for deal {} is in state {}, cannot transition to {}",
+                    milestoneId, dealId, existing.getStatus(), transition.target);
+                return;
+            }
+            Map<String, MilestoneState> milestones = new LinkedHashMap<>(entry != null ? entry.milestones : Map.of());
+            milestones.put(milestoneId, new MilestoneState(transition.target));
+            store(dealId, new DealEntry(Collections.unmodifiableMap(milestones), Instant.now(), false));
+        }
+        log.info("[ESCROW] Milestone {} for deal {} (not persisted) set to {}", milestoneId, dealId, transition.target);
+    }
+
+    /**
+     * Writes a committed status into the cached entry, if the deal is cached.
+     */
+    private void update(String dealId, String milestoneId, MilestoneStatus status) {
+        synchronized (entries) {
+            loads.remove(dealId);
+            DealEntry entry = entries.get(dealId);
+            if (entry == null) {
+                return;
+            }
+            Map<String, MilestoneState> milestones = new LinkedHashMap<>(entry.milestones);
+            milestones.put(milestoneId, new MilestoneState(status));
+            entries.put(dealId, new DealEntry(Collections.unmodifiableMap(milestones), entry.loadedAt, entry.persistent));
+        }
+    }
+
+    private DealEntry lookup(String dealId) {
+        synchronized (entries) {
+            DealEntry entry = entries.get(dealId);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.persistent && !Instant.now().isBefore(entry.loadedAt.plus(Duration.ofSeconds(ttlSeconds)))) {
+                entries.remove(dealId);
+                expiredEvictions.increment();
+                return null;
+            }
+            return entry;
+        }
+    }
+
+    /**
+     * Caller holds the lock on {@code entries}.
+     */
+    private void store(String dealId, DealEntry entry) {
+        entries.put(dealId, entry);
+        while (entries.size() > Math.max(1, maxEntries)) {
+            String eldest = entries.keySet().iterator().next();
+            entries.remove(eldest);
+            sizeEvictions.increment();
+        }
+    }
+
+    private int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
         });
-        log.debug("=======================================");
-        return milestones;
+    }
+
+    private static UUID parseUuid(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private record DealEntry(Map<String, MilestoneState> milestones, Instant loadedAt, boolean persistent) {
     }
 }
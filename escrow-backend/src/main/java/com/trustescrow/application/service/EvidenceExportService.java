@@ -31,6 +31,7 @@ public class EvidenceExportService {
     private final AssetVersionRepository versionRepository;
     private final RegistryLogRepository registryLogRepository;
     private final HashService hashService;
+    private final RegistryMerkleService registryMerkleService;
     
     /**
      * Generate evidence package for an asset.
@@ -38,7 +39,7 @@ public class EvidenceExportService {
      * @param assetId Asset ID
      * @return Evidence package data
      */
-    @Transactional(readOnly = true)
+    @Transactional // records an EVIDENCE_EXPORTED entry
     public EvidencePackage generateEvidence(UUID assetId) {
         log.info("Generating evidence package for asset: {}", assetId);
         
@@ -91,7 +92,7 @@ public class EvidenceExportService {
             .createdAt(Instant.now())
             .build();
         
-        registryLogRepository.save(logEntry);
+        registryMerkleService.append(logEntry);
         
         log.info("Evidence package generated for asset: {}", assetId);
         return evidence;
@@ -0,0 +1,523 @@
+package com.trustescrow.application.service;
+
+import com.trustescrow.domain.model.EvidenceMetadata;
+import com.trustescrow.domain.model.EvidenceType;
+import com.trustescrow.domain.model.EvidenceUpload;
+import com.trustescrow.domain.model.EvidenceUploadChunk;
+import com.trustescrow.domain.model.MilestoneFile;
+import com.trustescrow.domain.service.EvidenceUploadChunkRepository;
+import com.trustescrow.domain.service.EvidenceUploadRepository;
+import com.trustescrow.domain.service.TransactionMilestoneRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Resumable chunked uploads of milestone evidence.
+ *
+ * Chunks are verified against their own SHA-256 and staged on disk under
+ * {@code <uploads.root>/<uploadId>/<index>.part} (write, then atomic rename); each verified chunk
+ * is recorded in evidence_upload_chunks, so an upload survives restarts and a client can ask
+ * which chunks are still missing. Completion streams the chunks in order into the
+ * {@link BlobStore}, verifying the declared whole-file hash before anything is stored, and then
+ * creates the {@link EvidenceMetadata} (deal milestone) or {@link MilestoneFile} row. The
+ * assembly runs outside any transaction; only the final state change locks the upload row.
+ *
+ * Chunks are staged on the local disk: with several nodes, {@code uploads.root} must be shared
+ * or uploads pinned to one node.
+ */
+@Service
+@Slf4j
+public class EvidenceUploadService {
+
+    private static final int CLEANUP_PAGE_SIZE = 100;
+
+    private final EvidenceUploadRepository uploadRepository;
+    private final EvidenceUploadChunkRepository chunkRepository;
+    private final TransactionMilestoneRepository transactionMilestoneRepository;
+    private final MilestoneEvidenceService milestoneEvidenceService;
+    private final TransactionService transactionService;
+    private final BlobStore blobStore;
+    private final TransactionTemplate transactionTemplate;
+    private final Path root;
+
+    @Value("${uploads.ttl-hours:24}")
+    private long ttlHours;
+
+    @Value("${uploads.chunk-size-bytes:5242880}")
+    private int defaultChunkSize;
+
+    @Value("${uploads.max-chunk-size-bytes:33554432}")
+    private int maxChunkSize;
+
+    @Value("${uploads.max-file-size-bytes:4294967296}")
+    private long maxFileSize;
+
+    public EvidenceUploadService(
+            EvidenceUploadRepository uploadRepository,
+            EvidenceUploadChunkRepository chunkRepository,
+            TransactionMilestoneRepository transactionMilestoneRepository,
+            MilestoneEvidenceService milestoneEvidenceService,
+            TransactionService transactionService,
+            BlobStore blobStore,
+            PlatformTransactionManager transactionManager,
+            @Value("${uploads.root:./data/uploads}") String root) {
+        this.uploadRepository = uploadRepository;
+        this.chunkRepository = chunkRepository;
+        this.transactionMilestoneRepository = transactionMilestoneRepository;
+        this.milestoneEvidenceService = milestoneEvidenceService;
+        this.transactionService = transactionService;
+        this.blobStore = blobStore;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        Files.createDirectories(root);
+    }
+
+    /**
+     * Starts an upload.
+     *
+     * @throws IllegalArgumentException if the target or the declared file is invalid
+     */
+    public UploadStatus initUpload(InitUpload request, UUID userId) {
+        if (request.getTarget() == null || request.getMilestoneId() == null) {
+            throw new IllegalArgumentException("target and milestoneId are required");
+        }
+        if (request.getContentHash() == null || !request.getContentHash().matches("[0-9a-fA-F]{64}")) {
+            throw new IllegalArgumentException("contentHash must be a hex SHA-256");
+        }
+        if (request.getFileSize() == null || request.getFileSize() <= 0 || request.getFileSize() > maxFileSize) {
+            throw new IllegalArgumentException("fileSize must be between 1 and " + maxFileSize);
+        }
+        int chunkSize = request.getChunkSize() != null ? request.getChunkSize() : defaultChunkSize;
+        if (chunkSize < 64 * 1024 || chunkSize > maxChunkSize) {
+            throw new IllegalArgumentException("chunkSize must be between 65536 and " + maxChunkSize);
+        }
+
+        if (request.getTarget() == EvidenceUpload.Target.DEAL_EVIDENCE) {
+            if (request.getDealId() == null || request.getEvidenceType() == null) {
+                throw new IllegalArgumentException("dealId and evidenceType are required for deal evidence");
+            }
+            EvidenceType.valueOf(request.getEvidenceType());
+            // Fail before any bytes are sent; checked again on completion
+            milestoneEvidenceService.validateSubmission(request.getDealId(), request.getMilestoneId());
+        } else if (!transactionMilestoneRepository.existsById(request.getMilestoneId())) {
+            throw new IllegalArgumentException("Milestone not found: " + request.getMilestoneId());
+        }
+
+        long chunkCount = (request.getFileSize() + chunkSize - 1) / chunkSize;
+        EvidenceUpload upload = uploadRepository.save(EvidenceUpload.builder()
+            .target(request.getTarget())
+            .dealId(request.getDealId())
+            .milestoneId(request.getMilestoneId())
+            .uploadedBy(userId)
+            .evidenceType(request.getEvidenceType())
+            .uploaderRole("BUYER".equals(request.getUploaderRole()) ? "BUYER" : "SELLER")
+            .fileName(request.getFileName())
+            .mimeType(request.getMimeType())
+            .fileSize(request.getFileSize())
+            .contentHash(request.getContentHash().toLowerCase())
+            .chunkSize(chunkSize)
+            .chunkCount((int) chunkCount)
+            .status(EvidenceUpload.Status.IN_PROGRESS)
+            .createdAt(Instant.now())
+            .expiresAt(Instant.now().plus(ttl()))
+            .build());
+
+        log.info("[UPLOAD] Started: uploadId={}, target={}, milestoneId={}, size={}, chunks={}",
+            upload.getId(), upload.getTarget(), upload.getMilestoneId(), upload.getFileSize(), chunkCount);
+        return statusOf(upload, List.of());
+    }
+
+    /**
+     * @throws NoSuchElementException if the upload does not exist
+     */
+    public UploadStatus getStatus(UUID uploadId) {
+        EvidenceUpload upload = uploadRepository.findById(uploadId).orElseThrow();
+        return statusOf(upload, chunkRepository.findChunkIndexes(uploadId));
+    }
+
+    /**
+     * Stores one chunk. Re-sending a chunk (e.g. after a lost response) is allowed.
+     *
+     * @throws NoSuchElementException if the upload does not exist
+     * @throws IllegalStateException if the upload is no longer in progress
+     * @throws IllegalArgumentException if the index, length or hash does not match
+     */
+    public UploadStatus putChunk(UUID uploadId, int index, String chunkHash, InputStream body) throws IOException {
+        EvidenceUpload upload = uploadRepository.findById(uploadId).orElseThrow();
+        if (!upload.isOpen()) {
+            throw new IllegalStateException("Upload is " + describe(upload));
+        }
+        if (index < 0 || index >= upload.getChunkCount()) {
+            throw new IllegalArgumentException("Chunk index must be between 0 and " + (upload.getChunkCount() - 1));
+        }
+        if (chunkHash == null || !chunkHash.matches("[0-9a-fA-F]{64}")) {
+            throw new IllegalArgumentException("X-Chunk-Sha256 must be a hex SHA-256");
+        }
+        long expectedLength = upload.expectedChunkLength(index);
+
+        Path dir = Files.createDirectories(directoryOf(uploadId));
+        Path staged = Files.createTempFile(dir, index + "-", ".tmp");
+        try {
+            MessageDigest digest = sha256();
+            long length;
+            try (InputStream in = new DigestInputStream(body, digest)) {
+                // Read at most one byte past the expected length to detect oversized chunks
+                length = Files.copy(new BoundedInputStream(in, expectedLength + 1), staged,
+                    StandardCopyOption.REPLACE_EXISTING);
+            }
+            if (length != expectedLength) {
+                throw new IllegalArgumentException("Chunk " + index + " must be " + expectedLength + " bytes");
+            }
+            String actualHash = HexFormat.of().formatHex(digest.digest());
+            if (!actualHash.equalsIgnoreCase(chunkHash)) {
+                throw new IllegalArgumentException("Chunk " + index + " hash mismatch: got " + actualHash);
+            }
+            Files.move(staged, dir.resolve(index + ".part"),
+                StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(staged);
+        }
+
+        try {
+            recordChunk(uploadId, index, chunkHash, expectedLength);
+        } catch (DataIntegrityViolationException e) {
+            // The same chunk was recorded by a concurrent retry
+            log.debug("[UPLOAD] Chunk {} of upload {} already recorded", index, uploadId);
+        }
+        return getStatus(uploadId);
+    }
+
+    private void recordChunk(UUID uploadId, int index, String chunkHash, long expectedLength) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (chunkRepository.findByUploadIdAndChunkIndex(uploadId, index).isEmpty()) {
+                chunkRepository.save(EvidenceUploadChunk.builder()
+                    .uploadId(uploadId)
+                    .chunkIndex(index)
+                    .chunkHash(chunkHash.toLowerCase())
+                    .chunkLength(expectedLength)
+                    .receivedAt(Instant.now())
+                    .build());
+            }
+            uploadRepository.findById(uploadId).ifPresent(u -> u.touch(ttl()));
+        });
+    }
+
+    /**
+     * Assembles the chunks, verifies the whole-file hash and creates the evidence or file row.
+     * Completing a completed upload returns the same result.
+     *
+     * @throws NoSuchElementException if the upload does not exist
+     * @throws IllegalStateException if chunks are missing or the upload is no longer in progress
+     * @throws IllegalArgumentException if the whole-file hash does not match (the upload fails)
+     *         or the milestone no longer accepts evidence
+     */
+    public UploadStatus complete(UUID uploadId) {
+        EvidenceUpload upload = uploadRepository.findById(uploadId).orElseThrow();
+        if (upload.getStatus() == EvidenceUpload.Status.COMPLETED) {
+            return statusOf(upload, List.of());
+        }
+        if (!upload.isOpen()) {
+            throw new IllegalStateException("Upload is " + describe(upload));
+        }
+        long received = chunkRepository.countByUploadId(uploadId);
+        if (received < upload.getChunkCount()) {
+            throw new IllegalStateException("Missing " + (upload.getChunkCount() - received) + " of "
+                + upload.getChunkCount() + " chunks");
+        }
+
+        // Up to uploads.max-file-size-bytes are read here, so no transaction or row lock is held
+        try (InputStream assembled = new SequenceInputStream(chunksOf(uploadId, upload.getChunkCount()))) {
+            blobStore.put(assembled, upload.getFileSize(), upload.getContentHash());
+        } catch (BlobStore.ContentHashMismatchException e) {
+            fail(uploadId, e.getMessage());
+            throw e;
+        } catch (IOException | UncheckedIOException e) {
+            // Chunks are deleted once a concurrent completion of the same upload has finished
+            Optional<EvidenceUpload> current = uploadRepository.findById(uploadId)
+                .filter(u -> u.getStatus() == EvidenceUpload.Status.COMPLETED);
+            if (current.isPresent()) {
+                return statusOf(current.get(), List.of());
+            }
+            throw e instanceof UncheckedIOException unchecked ? unchecked : new UncheckedIOException((IOException) e);
+        }
+
+        UploadStatus result = transactionTemplate.execute(status -> {
+            // A concurrent completion or the expiry job may have moved the upload meanwhile
+            EvidenceUpload locked = uploadRepository.findByIdWithLock(uploadId).orElseThrow();
+            if (locked.getStatus() == EvidenceUpload.Status.COMPLETED) {
+                return statusOf(locked, List.of());
+            }
+            if (locked.getStatus() != EvidenceUpload.Status.IN_PROGRESS) {
+                throw new IllegalStateException("Upload is " + describe(locked));
+            }
+            locked.markCompleted(createTarget(locked));
+            chunkRepository.deleteByUploadId(uploadId);
+            return statusOf(locked, List.of());
+        });
+        deleteDirectory(uploadId);
+        log.info("[UPLOAD] Completed: uploadId={}, resultId={}", uploadId, result.getResultId());
+        return result;
+    }
+
+    /**
+     * Content of a completed upload.
+     */
+    public Optional<StoredContent> findContent(UUID uploadId) {
+        return uploadRepository.findById(uploadId)
+            .filter(upload -> upload.getStatus() == EvidenceUpload.Status.COMPLETED)
+            .flatMap(upload -> blobStore.find(upload.getContentHash())
+                .map(path -> new StoredContent(path, upload.getContentHash(), upload.getMimeType(), upload.getFileName())));
+    }
+
+    /**
+     * Expires in-progress uploads whose TTL elapsed and removes their chunks.
+     *
+     * @return number of uploads expired
+     */
+    public int expireUploads() {
+        int expired = 0;
+        while (true) {
+            List<UUID> batch = transactionTemplate.execute(status -> {
+                List<EvidenceUpload> uploads = uploadRepository.findByStatusAndExpiresAtBefore(
+                    EvidenceUpload.Status.IN_PROGRESS, Instant.now(), PageRequest.of(0, CLEANUP_PAGE_SIZE));
+                uploads.forEach(upload -> {
+                    upload.markExpired();
+                    chunkRepository.deleteByUploadId(upload.getId());
+                });
+                return uploads.stream().map(EvidenceUpload::getId).toList();
+            });
+            batch.forEach(this::deleteDirectory);
+            expired += batch.size();
+            if (batch.size() < CLEANUP_PAGE_SIZE) {
+                return expired;
+            }
+        }
+    }
+
+    private UUID createTarget(EvidenceUpload upload) {
+        String contentUrl = contentUrlOf(upload.getId());
+        if (upload.getTarget() == EvidenceUpload.Target.DEAL_EVIDENCE) {
+            EvidenceMetadata evidence = milestoneEvidenceService.submitEvidence(
+                upload.getDealId(),
+                upload.getMilestoneId(),
+                upload.getUploadedBy(),
+                EvidenceType.valueOf(upload.getEvidenceType()),
+                contentUrl,
+                upload.getContentHash());
+            return evidence.getId();
+        }
+        MilestoneFile file = transactionService.saveFile(
+            upload.getMilestoneId(),
+            contentUrl,
+            upload.getFileName(),
+            upload.getFileSize(),
+            upload.getMimeType() != null ? upload.getMimeType() : "application/octet-stream",
+            upload.getContentHash(),
+            MilestoneFile.UploaderRole.valueOf(upload.getUploaderRole()));
+        return file.getId();
+    }
+
+    private void fail(UUID uploadId, String error) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> uploadRepository.findById(uploadId).ifPresent(upload -> {
+                upload.markFailed(error);
+                chunkRepository.deleteByUploadId(uploadId);
+            }));
+            deleteDirectory(uploadId);
+        } catch (RuntimeException e) {
+            log.warn("[UPLOAD] Could not mark upload {} failed: {}", uploadId, e.getMessage());
+        }
+        log.warn("[UPLOAD] Failed: uploadId={}, error={}", uploadId, error);
+    }
+
+    /**
+     * Chunk files in order, opened one at a time.
+     */
+    private Enumeration<InputStream> chunksOf(UUID uploadId, int chunkCount) {
+        Path dir = directoryOf(uploadId);
+        return new Enumeration<>() {
+            private int next;
+
+            @Override
+            public boolean hasMoreElements() {
+                return next < chunkCount;
+            }
+
+            @Override
+            public InputStream nextElement() {
+                try {
+                    return Files.newInputStream(dir.resolve(next++ + ".part"));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+
+    private void deleteDirectory(UUID uploadId) {
+        Path dir = directoryOf(uploadId);
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    log.warn("[UPLOAD] Could not delete {}: {}", path, e.getMessage());
+                }
+            });
+        } catch (IOException e) {
+            log.warn("[UPLOAD] Could not delete chunks of upload {}: {}", uploadId, e.getMessage());
+        }
+    }
+
+    private Path directoryOf(UUID uploadId) {
+        return root.resolve(uploadId.toString());
+    }
+
+    private Duration ttl() {
+        return Duration.ofHours(ttlHours);
+    }
+
+    private static String contentUrlOf(UUID uploadId) {
+        return "/api/uploads/" + uploadId + "/content";
+    }
+
+    private static String describe(EvidenceUpload upload) {
+        return upload.getStatus() == EvidenceUpload.Status.IN_PROGRESS ? "expired" : upload.getStatus().name().toLowerCase();
+    }
+
+    private static UploadStatus statusOf(EvidenceUpload upload, List<Integer> receivedChunks) {
+        return UploadStatus.builder()
+            .uploadId(upload.getId())
+            .status(upload.getStatus().name())
+            .target(upload.getTarget().name())
+            .fileSize(upload.getFileSize())
+            .contentHash(upload.getContentHash())
+            .chunkSize(upload.getChunkSize())
+            .chunkCount(upload.getChunkCount())
+            .receivedChunks(receivedChunks)
+            .expiresAt(upload.getExpiresAt())
+            .resultId(upload.getResultId())
+            .contentUrl(upload.getStatus() == EvidenceUpload.Status.COMPLETED ? contentUrlOf(upload.getId()) : null)
+            .build();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Hash algorithm not available", e);
+        }
+    }
+
+    /**
+     * Stops after {@code limit} bytes.
+     */
+    private static final class BoundedInputStream extends java.io.FilterInputStream {
+
+        private long remaining;
+
+        BoundedInputStream(InputStream in, long limit) {
+            super(in);
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = super.read();
+            if (b >= 0) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int read = super.read(buffer, offset, (int) Math.min(length, remaining));
+            if (read > 0) {
+                remaining -= read;
+            }
+            return read;
+        }
+    }
+
+    @lombok.Value
+    @Builder
+    public static class InitUpload {
+        EvidenceUpload.Target target;
+        UUID dealId;
+        UUID milestoneId;
+        String evidenceType; // DEAL_EVIDENCE: EvidenceType
+        String uploaderRole; // MILESTONE_FILE: BUYER | SELLER
+        String fileName;
+        String mimeType;
+        Long fileSize;
+        String contentHash; // SHA-256 of the whole file (hex)
+        Integer chunkSize;
+    }
+
+    @lombok.Value
+    @Builder
+    public static class UploadStatus {
+        UUID uploadId;
+        String status;
+        String target;
+        long fileSize;
+        String contentHash;
+        int chunkSize;
+        int chunkCount;
+        List<Integer> receivedChunks;
+        Instant expiresAt;
+        UUID resultId; // EvidenceMetadata or MilestoneFile id
+        String contentUrl;
+    }
+
+    @lombok.Value
+    public static class StoredContent {
+        Path path;
+        String contentHash;
+        String mimeType;
+        String fileName;
+    }
+}
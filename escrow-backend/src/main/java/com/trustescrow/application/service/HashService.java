@@ -1,35 +1,26 @@
 package com.trustescrow.application.service;
 
+import com.trustescrow.domain.service.Sha256;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import java.util.List;
 
 /**
  * Hash Service for Registry Extension.
  * Generates SHA-256 hashes for asset content.
+ * Hashing is delegated to {@link Sha256} (per-thread digest, table-based hex).
  */
 @Service
 @Slf4j
 public class HashService {
     
-    private static final String ALGORITHM = "SHA-256";
-    
     /**
      * Generate SHA-256 hash from byte array.
      * Returns hex string (64 characters).
      */
     public String generateHash(byte[] content) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance(ALGORITHM);
-            byte[] hashBytes = digest.digest(content);
-            return bytesToHex(hashBytes);
-        } catch (NoSuchAlgorithmException e) {
-            log.error("SHA-256 algorithm not available", e);
-            throw new IllegalStateException("Hash algorithm not available", e);
-        }
+        return Sha256.hashHex(content);
     }
     
     /**
@@ -37,21 +28,13 @@ public class HashService {
      * Returns hex string (64 characters).
      */
     public String generateHash(String content) {
-        return generateHash(content.getBytes(StandardCharsets.UTF_8));
+        return Sha256.hashHex(content);
     }
     
     /**
-     * Convert byte array to hex string.
+     * Generate SHA-256 hashes of several contents, in order.
      */
-    private String bytesToHex(byte[] bytes) {
-        StringBuilder hexString = new StringBuilder(2 * bytes.length);
-        for (byte b : bytes) {
-            String hex = Integer.toHexString(0xff & b);
-            if (hex.length() == 1) {
-                hexString.append('0');
-            }
-            hexString.append(hex);
-        }
-        return hexString.toString();
+    public List<String> generateHashes(List<byte[]> contents) {
+        return Sha256.hashAll(contents);
     }
 }
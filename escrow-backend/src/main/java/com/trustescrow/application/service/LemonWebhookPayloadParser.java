@@ -0,0 +1,161 @@
+package com.trustescrow.application.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Single-pass streaming parser for Lemon webhook payloads.
+ *
+ * Reads the raw body with a Jackson {@link JsonParser} and keeps only the scalar fields the
+ * webhook flow needs; subtrees that cannot contain one of them (and all arrays) are skipped
+ * without being materialized. Fallback rules are the same as the former tree-based parser.
+ */
+@Slf4j
+final class LemonWebhookPayloadParser {
+    
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    
+    private static final String CHECKOUT_DATA = "data.attributes.custom.checkout_data.";
+    private static final String CUSTOM_DATA = "meta.custom_data.";
+    
+    /**
+     * Objects on the way to a needed field; everything else is skipped.
+     */
+    private static final Set<String> OBJECT_PATHS = Set.of(
+        "meta",
+        "meta.custom_data",
+        "data",
+        "data.attributes",
+        "data.attributes.custom",
+        "data.attributes.custom.checkout_data",
+        "data.relationships",
+        "data.relationships.checkout",
+        "data.relationships.checkout.data"
+    );
+    
+    private static final Set<String> FIELD_PATHS = Set.of(
+        "event_name",
+        "meta.event_name",
+        CUSTOM_DATA + "dealId",
+        CUSTOM_DATA + "deal_id",
+        CUSTOM_DATA + "milestoneId",
+        CUSTOM_DATA + "milestone_id",
+        CHECKOUT_DATA + "dealId",
+        CHECKOUT_DATA + "deal_id",
+        CHECKOUT_DATA + "milestoneId",
+        CHECKOUT_DATA + "milestone_id",
+        "data.id",
+        "data.relationships.checkout.data.id",
+        "data.attributes.checkout_id",
+        "data.attributes.status",
+        "data.attributes.total",
+        "data.attributes.currency"
+    );
+    
+    private LemonWebhookPayloadParser() {
+    }
+    
+    /**
+     * STEP 1: Parse webhook payload defensively.
+     * Extracts: event_name, dealId, milestoneId, orderId, checkoutId, orderStatus
+     *
+     * @return parsed data, or null if the body is not a JSON object
+     */
+    static ParsedWebhookData parse(byte[] body) {
+        Map<String, String> fields;
+        try {
+            fields = readFields(body);
+        } catch (IOException | RuntimeException e) {
+            log.warn("[WEBHOOK] Failed to parse payload: {}", e.getMessage());
+            return null;
+        }
+        if (fields == null) {
+            return null;
+        }
+        
+        ParsedWebhookData parsed = new ParsedWebhookData();
+        
+        // Parse event_name (meta.event_name or event_name)
+        parsed.eventName = firstPresent(fields, "meta.event_name", "event_name");
+        
+        // Primary path - data.attributes.custom.checkout_data (per spec)
+        parsed.dealId = firstPresent(fields, CHECKOUT_DATA + "dealId", CHECKOUT_DATA + "deal_id");
+        parsed.milestoneId = firstPresent(fields, CHECKOUT_DATA + "milestoneId", CHECKOUT_DATA + "milestone_id");
+        
+        // Fallback: meta.custom_data.dealId / milestoneId
+        if (isEmpty(parsed.dealId)) {
+            parsed.dealId = firstPresent(fields, CUSTOM_DATA + "dealId", CUSTOM_DATA + "deal_id");
+            parsed.milestoneId = firstPresent(fields, CUSTOM_DATA + "milestoneId", CUSTOM_DATA + "milestone_id");
+        }
+        
+        // Parse data.id (order ID)
+        parsed.orderId = fields.get("data.id");
+        
+        // Parse checkout_id (from relationships or attributes)
+        parsed.checkoutId = firstPresent(fields, "data.relationships.checkout.data.id", "data.attributes.checkout_id");
+        
+        // Parse data.attributes.status
+        parsed.orderStatus = fields.get("data.attributes.status");
+        
+        // Parse amount and currency
+        String totalStr = fields.get("data.attributes.total");
+        if (!isEmpty(totalStr)) {
+            try {
+                parsed.totalAmount = new BigDecimal(totalStr);
+            } catch (NumberFormatException e) {
+                log.warn("[WEBHOOK] Invalid total amount format: {}", totalStr);
+            }
+        }
+        parsed.currency = fields.get("data.attributes.currency");
+        
+        return parsed;
+    }
+    
+    private static Map<String, String> readFields(byte[] body) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            Map<String, String> fields = new HashMap<>();
+            readObject(parser, null, fields);
+            return fields;
+        }
+    }
+    
+    private static void readObject(JsonParser parser, String path, Map<String, String> fields) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            String childPath = path == null ? name : path + "." + name;
+            JsonToken value = parser.nextToken();
+            
+            if (value == JsonToken.START_OBJECT) {
+                if (OBJECT_PATHS.contains(childPath)) {
+                    readObject(parser, childPath, fields);
+                } else {
+                    parser.skipChildren();
+                }
+            } else if (value == JsonToken.START_ARRAY) {
+                parser.skipChildren();
+            } else if (value != JsonToken.VALUE_NULL && FIELD_PATHS.contains(childPath)) {
+                fields.put(childPath, parser.getValueAsString());
+            }
+        }
+    }
+    
+    private static String firstPresent(Map<String, String> fields, String primary, String fallback) {
+        String value = fields.get(primary);
+        return isEmpty(value) ? fields.get(fallback) : value;
+    }
+    
+    private static boolean isEmpty(String value) {
+        return value == null || value.isEmpty();
+    }
+}
@@ -1,30 +1,30 @@
 package com.trustescrow.application.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.trustescrow.domain.model.*;
 import com.trustescrow.domain.service.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
-import java.math.BigDecimal;
-import java.nio.charset.StandardCharsets;
-import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
-import java.util.Base64;
-import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 /**
  * Lemon Webhook Service - Safe and defensive implementation.
  * 
+ * Ingestion is split in two: {@link #acceptWebhook} verifies and durably stores the event on
+ * the HTTP thread, and {@link #processStoredEvent} applies it from a background worker
+ * (see WebhookEventWorker).
+ * 
+ * The request body is handled as the bytes received: the HMAC is computed over them, the
+ * needed fields are pulled out with a streaming parser, and the same bytes are stored.
+ * 
  * Principles:
  * - Never throw exceptions that crash the server
  * - Always return 200 OK to webhook
@@ -37,8 +37,7 @@ import java.util.UUID;
 @Slf4j
 public class LemonWebhookService {
     
-    @Value("${lemon.webhook.secret:}")
-    private String lemonWebhookSecret;
+    private static final String PROVIDER = "LEMON";
     
     private final WebhookEventRepository webhookEventRepository;
     private final DealRepository dealRepository;
@@ -47,25 +46,28 @@ public class LemonWebhookService {
     private final DealStateService dealStateService;
     private final EscrowStateService escrowStateService;
     private final BlockchainService blockchainService; // STEP 7
+    private final WebhookSignatureVerifier signatureVerifier;
+    private final WebhookIdempotencyGuard idempotencyGuard;
     private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
     
     /**
-     * Process Lemon webhook event (STEP 2-5).
+     * Accept Lemon webhook event (ingestion, runs on the HTTP thread).
+     * 
+     * Parses and validates the payload, verifies the signature and stores the event in
+     * webhook_events. State changes happen later in {@link #processStoredEvent(UUID)}.
      * 
      * @param signature Webhook signature (X-Signature header)
-     * @param rawBody Raw request body (for signature verification)
-     * @param payload Parsed JSON payload
-     * @return true if processed successfully, false if ignored
+     * @param rawBody Raw request body, exactly as received (signed and stored as-is)
+     * @return true if accepted (or already known), false if ignored
+     * @throws DataAccessException if the event could not be stored (the provider should retry)
      */
-    @Transactional
-    public boolean processWebhook(String signature, String rawBody, JsonNode payload) {
-        log.info("===== LEMON WEBHOOK PROCESSING START =====");
-        
+    public boolean acceptWebhook(String signature, byte[] rawBody) {
         try {
-            // STEP 1: Parse payload (defensive)
-            ParsedWebhookData parsed = parsePayload(payload);
+            // STEP 1: Parse payload (defensive, single streaming pass)
+            ParsedWebhookData parsed = LemonWebhookPayloadParser.parse(rawBody);
             if (parsed == null) {
-                log.warn("===== STEP 1: PARSING FAILED - IGNORING WEBHOOK =====");
+                log.warn("[WEBHOOK] Parsing failed - ignoring webhook");
                 return false;
             }
             
@@ -76,173 +78,149 @@ public class LemonWebhookService {
                 parsed.milestoneId != null ? parsed.milestoneId : "(missing)",
                 parsed.orderId != null ? parsed.orderId : "(missing)");
             
-            // STEP 1: Validate conditions - accept order_created, order_paid, or order_refunded
-            if (!"order_created".equals(parsed.eventName) && 
-                !"order_paid".equals(parsed.eventName) && 
-                !"order_refunded".equals(parsed.eventName)) {
-                log.info("[WEBHOOK] Ignoring event: {} (not order_created/order_paid/order_refunded)", parsed.eventName);
-                return false;
-            }
-            
-            if (parsed.dealId == null || parsed.dealId.isEmpty()) {
-                log.warn("[WEBHOOK] dealId not found in custom_data, ignoring");
+            if (!isAcceptedEvent(parsed)) {
                 return false;
             }
             
-            // For order_paid, status check is optional (order_paid itself means paid)
-            // For order_created, check status == "paid"
-            if ("order_created".equals(parsed.eventName) && !"paid".equalsIgnoreCase(parsed.orderStatus)) {
-                log.info("[WEBHOOK] Order status is not 'paid': {}, ignoring", parsed.orderStatus);
-                return false;
+            // STEP 3: Idempotency check (before signature verification for performance);
+            // the in-memory guard answers recent duplicates and never-seen events without a lookup
+            WebhookIdempotencyGuard.Answer known = idempotencyGuard.check(PROVIDER, parsed.orderId);
+            if (known == WebhookIdempotencyGuard.Answer.SEEN) {
+                log.info("[WEBHOOK] Duplicate event ignored (recently seen): orderId={}", parsed.orderId);
+                return true;
             }
             
-            log.info("[WEBHOOK] Validated: event={}, dealId={}, milestoneId={}, orderId={}", 
-                parsed.eventName, parsed.dealId, parsed.milestoneId, parsed.orderId);
-            
-            // STEP 3: Idempotency check (before signature verification for performance)
-            Optional<WebhookEvent> existingEvent = webhookEventRepository
-                .findByProviderAndEventId("LEMON", parsed.orderId);
-            
-            if (existingEvent.isPresent() && existingEvent.get().isProcessed()) {
-                log.info("[WEBHOOK] Duplicate event ignored (already processed): orderId={}", parsed.orderId);
-                return true; // Already processed, return success
+            if (known == WebhookIdempotencyGuard.Answer.UNKNOWN) {
+                Optional<WebhookEvent> existingEvent = webhookEventRepository
+                    .findByProviderAndEventId(PROVIDER, parsed.orderId);
+                
+                if (existingEvent.isPresent()) {
+                    idempotencyGuard.record(PROVIDER, parsed.orderId);
+                    log.info("[WEBHOOK] Duplicate event ignored (already {}): orderId={}", 
+                        existingEvent.get().isProcessed() ? "processed" : "queued", parsed.orderId);
+                    return true;
+                }
             }
             
             // STEP 3: Verify signature (before any DB operations)
-            if (!verifySignature(signature, rawBody)) {
+            if (!signatureVerifier.verify(signature, rawBody)) {
                 log.warn("[WEBHOOK] Invalid signature, ignoring (no DB changes)");
                 return false; // Return false but still 200 OK
             }
             
-            // Save webhook event for idempotency (before business logic)
-            WebhookEvent webhookEvent = existingEvent.orElseGet(() -> {
-                @SuppressWarnings("unchecked")
-                Map<String, Object> payloadMap = objectMapper.convertValue(payload, Map.class);
-                return WebhookEvent.builder()
-                    .provider("LEMON")
-                    .eventId(parsed.orderId)
-                    .eventName(parsed.eventName)
-                    .payload(payloadMap)
-                    .createdAt(Instant.now())
-                    .build();
-            });
-            
-            if (existingEvent.isEmpty()) {
-                webhookEventRepository.save(webhookEvent);
-            }
+            // Durable accept: append the event, processing happens in the background
+            WebhookEvent webhookEvent = WebhookEvent.builder()
+                .provider(PROVIDER)
+                .eventId(parsed.orderId)
+                .eventName(parsed.eventName)
+                .rawPayload(rawBody)
+                .dealKey(parsed.dealId)
+                .attempts(0)
+                .createdAt(Instant.now())
+                .build();
             
-            // STEP 2: Update Deal / Milestone State Machine
-            log.info("===== STEP 2: DEAL / MILESTONE STATE MACHINE START =====");
             try {
-                updateDealMilestoneState(parsed);
-                
-                // Mark as processed only after successful update
-                webhookEvent.markAsProcessed();
-                webhookEventRepository.save(webhookEvent);
-                
-                log.info("[WEBHOOK] Processing completed successfully");
+                webhookEvent = webhookEventRepository.saveAndFlush(webhookEvent);
+            } catch (DataIntegrityViolationException e) {
+                // Only a row with the same key (concurrent delivery) makes this a duplicate; any
+                // other violation must not be acknowledged, or the event is lost
+                if (webhookEventRepository.findByProviderAndEventId(PROVIDER, parsed.orderId).isEmpty()) {
+                    throw e;
+                }
+                idempotencyGuard.record(PROVIDER, parsed.orderId);
+                log.info("[WEBHOOK] Duplicate event ignored (concurrent delivery): orderId={}", parsed.orderId);
                 return true;
-            } catch (Exception e) {
-                log.error("Failed to update escrow state for dealId={}, orderId={}: {}", 
-                    parsed.dealId, parsed.orderId, e.getMessage(), e);
-                // Don't mark as processed - let Lemon retry
-                // Transaction will rollback automatically
-                throw e; // Re-throw to trigger rollback
             }
             
+            idempotencyGuard.record(PROVIDER, parsed.orderId);
+            eventPublisher.publishEvent(new WebhookEventAcceptedEvent(webhookEvent.getId(), PROVIDER));
+            log.info("[WEBHOOK] Event queued: id={}, orderId={}, dealId={}", 
+                webhookEvent.getId(), parsed.orderId, parsed.dealId);
+            return true;
+            
+        } catch (DataAccessException e) {
+            log.error("[WEBHOOK] Event could not be stored: {}", e.getMessage(), e);
+            throw e;
         } catch (Exception e) {
             // Catch all exceptions to prevent server crash
-            log.error("Unexpected error processing webhook (will return 200 OK): {}", e.getMessage(), e);
+            log.error("Unexpected error accepting webhook (will return 200 OK): {}", e.getMessage(), e);
             return false;
         }
     }
     
     /**
-     * STEP 1: Parse payload defensively with detailed logging.
+     * Process a stored webhook event (STEP 2, runs on a background worker).
      * 
-     * Supports multiple payload formats:
-     * - meta.event_name
-     * - meta.custom_data.dealId / milestoneId
-     * - data.attributes.custom.checkout_data (primary path per spec)
+     * Exceptions propagate so the caller can roll back and schedule a retry.
      */
+    @Transactional
+    public void processStoredEvent(UUID webhookEventId) {
+        WebhookEvent webhookEvent = webhookEventRepository.findById(webhookEventId)
+            .orElseThrow(() -> new IllegalArgumentException("Webhook event not found: " + webhookEventId));
+        
+        if (webhookEvent.isProcessed()) {
+            return;
+        }
+        
+        ParsedWebhookData parsed = LemonWebhookPayloadParser.parse(storedBody(webhookEvent));
+        if (parsed == null) {
+            throw new IllegalStateException("Stored webhook payload could not be parsed: " + webhookEventId);
+        }
+        
+        log.info("===== STEP 2: DEAL / MILESTONE STATE MACHINE START (event={}, attempt={}) =====", 
+            webhookEventId, webhookEvent.getAttemptCount() + 1);
+        updateDealMilestoneState(parsed);
+        
+        // Mark as processed only after successful update
+        webhookEvent.markAsProcessed();
+        webhookEventRepository.save(webhookEvent);
+        
+        log.info("[WEBHOOK] Processing completed successfully: orderId={}", parsed.orderId);
+    }
+    
     /**
-     * STEP 1: Parse webhook payload defensively.
-     * Extracts: event_name, dealId, milestoneId, orderId, checkoutId, orderStatus
+     * Body of a stored event; rows accepted before raw bodies were kept only have the JSON map.
      */
-    private ParsedWebhookData parsePayload(JsonNode payload) {
+    private byte[] storedBody(WebhookEvent webhookEvent) {
+        if (webhookEvent.getRawPayload() != null) {
+            return webhookEvent.getRawPayload();
+        }
         try {
-            ParsedWebhookData parsed = new ParsedWebhookData();
-            
-            // Parse event_name (meta.event_name or event_name)
-            JsonNode meta = payload.path("meta");
-            parsed.eventName = meta.path("event_name").asText(null);
-            if (parsed.eventName == null || parsed.eventName.isEmpty()) {
-                parsed.eventName = payload.path("event_name").asText(null);
-            }
-            
-            // STEP 1: Primary path - data.attributes.custom.checkout_data (per spec)
-            JsonNode data = payload.path("data");
-            JsonNode attributes = data.path("attributes");
-            JsonNode custom = attributes.path("custom");
-            JsonNode checkoutData = custom.path("checkout_data");
-            
-            if (checkoutData != null && !checkoutData.isMissingNode()) {
-                parsed.dealId = checkoutData.path("dealId").asText(null);
-                if (parsed.dealId == null || parsed.dealId.isEmpty()) {
-                    parsed.dealId = checkoutData.path("deal_id").asText(null);
-                }
-                
-                parsed.milestoneId = checkoutData.path("milestoneId").asText(null);
-                if (parsed.milestoneId == null || parsed.milestoneId.isEmpty()) {
-                    parsed.milestoneId = checkoutData.path("milestone_id").asText(null);
-                }
-            }
-            
-            // Fallback: meta.custom_data.dealId / milestoneId
-            if (parsed.dealId == null || parsed.dealId.isEmpty()) {
-                JsonNode customData = meta.path("custom_data");
-                parsed.dealId = customData.path("dealId").asText(null);
-                if (parsed.dealId == null || parsed.dealId.isEmpty()) {
-                    parsed.dealId = customData.path("deal_id").asText(null);
-                }
-                
-                parsed.milestoneId = customData.path("milestoneId").asText(null);
-                if (parsed.milestoneId == null || parsed.milestoneId.isEmpty()) {
-                    parsed.milestoneId = customData.path("milestone_id").asText(null);
-                }
-            }
-            
-            // Parse data.id (order ID)
-            parsed.orderId = data.path("id").asText(null);
-            
-            // STEP 1: Parse checkout_id (from relationships or attributes)
-            JsonNode relationships = data.path("relationships");
-            JsonNode checkout = relationships.path("checkout");
-            JsonNode checkoutDataNode = checkout.path("data");
-            parsed.checkoutId = checkoutDataNode.path("id").asText(null);
-            if (parsed.checkoutId == null || parsed.checkoutId.isEmpty()) {
-                parsed.checkoutId = attributes.path("checkout_id").asText(null);
-            }
-            
-            // Parse data.attributes.status
-            parsed.orderStatus = attributes.path("status").asText(null);
-            
-            // Parse amount and currency
-            String totalStr = attributes.path("total").asText(null);
-            if (totalStr != null && !totalStr.isEmpty()) {
-                try {
-                    parsed.totalAmount = new BigDecimal(totalStr);
-                } catch (NumberFormatException e) {
-                    log.warn("[WEBHOOK] Invalid total amount format: {}", totalStr);
-                }
-            }
-            parsed.currency = attributes.path("currency").asText(null);
-            
-            return parsed;
+            return objectMapper.writeValueAsBytes(webhookEvent.getPayload());
         } catch (Exception e) {
-            log.error("[WEBHOOK] Failed to parse payload: {}", e.getMessage(), e);
-            return null;
+            throw new IllegalStateException("Stored webhook payload could not be read: " + webhookEvent.getId(), e);
+        }
+    }
+    
+    /**
+     * STEP 1: Validate conditions - accept order_created, order_paid, or order_refunded.
+     */
+    private boolean isAcceptedEvent(ParsedWebhookData parsed) {
+        if (!"order_created".equals(parsed.eventName) && 
+            !"order_paid".equals(parsed.eventName) && 
+            !"order_refunded".equals(parsed.eventName)) {
+            log.info("[WEBHOOK] Ignoring event: {} (not order_created/order_paid/order_refunded)", parsed.eventName);
+            return false;
+        }
+        
+        if (parsed.dealId == null || parsed.dealId.isEmpty()) {
+            log.warn("[WEBHOOK] dealId not found in custom_data, ignoring");
+            return false;
+        }
+        
+        if (parsed.orderId == null || parsed.orderId.isEmpty()) {
+            log.warn("[WEBHOOK] data.id (orderId) missing, ignoring");
+            return false;
+        }
+        
+        // For order_paid, status check is optional (order_paid itself means paid)
+        // For order_created, check status == "paid"
+        if ("order_created".equals(parsed.eventName) && !"paid".equalsIgnoreCase(parsed.orderStatus)) {
+            log.info("[WEBHOOK] Order status is not 'paid': {}, ignoring", parsed.orderStatus);
+            return false;
         }
+        
+        return true;
     }
     
     /**
@@ -538,60 +516,4 @@ public class LemonWebhookService {
         paymentInfoRepository.save(payment);
         log.info("PaymentInfo updated/created for deal {} with orderId {}", dealId, parsed.orderId);
     }
-    
-    /**
-     * STEP 5: Verify webhook signature using HMAC-SHA256.
-     */
-    private boolean verifySignature(String signature, String payload) {
-        if (lemonWebhookSecret == null || lemonWebhookSecret.isEmpty()) {
-            log.warn("Lemon webhook secret not configured, skipping signature verification");
-            return true; // For development only - should fail in production
-        }
-        
-        if (signature == null || signature.isEmpty()) {
-            log.warn("Webhook signature is missing");
-            return false;
-        }
-        
-        try {
-            Mac mac = Mac.getInstance("HmacSHA256");
-            SecretKeySpec secretKey = new SecretKeySpec(
-                lemonWebhookSecret.getBytes(StandardCharsets.UTF_8), 
-                "HmacSHA256"
-            );
-            mac.init(secretKey);
-            byte[] hashBytes = mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
-            String computedSignature = Base64.getEncoder().encodeToString(hashBytes);
-            
-            // Lemon sends signature in format: "signature=<base64>" or just base64
-            String cleanSignature = signature;
-            if (signature.startsWith("signature=")) {
-                cleanSignature = signature.substring("signature=".length());
-            }
-            
-            boolean isValid = cleanSignature.equals(computedSignature);
-            if (!isValid) {
-                log.warn("Signature mismatch. Expected: {}, Got: {}", computedSignature, cleanSignature);
-            }
-            
-            return isValid;
-        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
-            log.error("Failed to verify webhook signature", e);
-            return false;
-        }
-    }
-    
-    /**
-     * Parsed webhook data structure.
-     */
-    private static class ParsedWebhookData {
-        String eventName;
-        String dealId;
-        String milestoneId;
-        String orderId;
-        String checkoutId; // STEP 1: Add checkout_id
-        String orderStatus;
-        BigDecimal totalAmount;
-        String currency;
-    }
 }
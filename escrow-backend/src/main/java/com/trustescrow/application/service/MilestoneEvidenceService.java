@@ -0,0 +1,130 @@
+package com.trustescrow.application.service;
+
+import com.trustescrow.domain.model.AuditEvent;
+import com.trustescrow.domain.model.AuditEventType;
+import com.trustescrow.domain.model.DealMilestone;
+import com.trustescrow.domain.model.EvidenceMetadata;
+import com.trustescrow.domain.model.EvidenceType;
+import com.trustescrow.domain.service.AuditEventRepository;
+import com.trustescrow.domain.service.DealMilestoneRepository;
+import com.trustescrow.domain.service.DealRepository;
+import com.trustescrow.domain.service.EvidenceRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * MASTER TASK STEP 2: Milestone evidence submission.
+ *
+ * Rules:
+ * - Upload allowed only when milestone.status === FUNDS_HELD or PAID_HELD
+ * - After upload: milestone.status → EVIDENCE_SUBMITTED
+ * - Evidence is immutable: no edit, no delete, no overwrite
+ *
+ * Shared by the URL-based evidence API and the chunked upload API.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MilestoneEvidenceService {
+
+    private final DealRepository dealRepository;
+    private final DealMilestoneRepository milestoneRepository;
+    private final EvidenceRepository evidenceRepository;
+    private final AuditEventRepository auditEventRepository;
+    private final EscrowStateService escrowStateService;
+
+    /**
+     * Checks that evidence can be submitted for a milestone.
+     *
+     * @throws IllegalArgumentException if the deal or milestone does not exist,
+     *         or the milestone is not in FUNDS_HELD or PAID_HELD status
+     */
+    @Transactional(readOnly = true)
+    public DealMilestone validateSubmission(UUID dealId, UUID milestoneId) {
+        if (!dealRepository.existsById(dealId)) {
+            throw new IllegalArgumentException("Deal not found: " + dealId);
+        }
+        DealMilestone milestone = milestoneRepository.findByDealIdAndId(dealId, milestoneId)
+            .orElseThrow(() -> new IllegalArgumentException("Milestone not found: " + milestoneId));
+
+        // MASTER TASK: Validate milestone status === FUNDS_HELD or PAID_HELD
+        if (milestone.getStatus() != DealMilestone.MilestoneStatus.FUNDS_HELD &&
+            milestone.getStatus() != DealMilestone.MilestoneStatus.PAID_HELD) {
+            throw new IllegalArgumentException(String.format(
+                "Evidence can only be uploaded when milestone is in FUNDS_HELD or PAID_HELD status. Current: %s",
+                milestone.getStatus()));
+        }
+        return milestone;
+    }
+
+    /**
+     * Records evidence for a milestone and moves it to EVIDENCE_SUBMITTED.
+     *
+     * @param checksum SHA-256 of the stored content (null for URL evidence)
+     * @throws IllegalArgumentException see {@link #validateSubmission}
+     */
+    @Transactional
+    public EvidenceMetadata submitEvidence(
+            UUID dealId,
+            UUID milestoneId,
+            UUID userId,
+            EvidenceType type,
+            String uri,
+            String checksum) {
+
+        DealMilestone milestone = validateSubmission(dealId, milestoneId);
+
+        // MASTER TASK: Create evidence record (immutable)
+        EvidenceMetadata evidence = EvidenceMetadata.builder()
+            .dealId(dealId)
+            .milestoneId(milestoneId)
+            .uploadedBy(userId != null ? userId : UUID.randomUUID()) // TODO: Get from auth
+            .type(type)
+            .uri(uri)
+            .checksum(checksum)
+            .createdAt(Instant.now())
+            .build();
+
+        evidenceRepository.save(evidence);
+
+        // MASTER TASK: Update milestone status → EVIDENCE_SUBMITTED
+        // Only if not already in EVIDENCE_SUBMITTED status
+        String beforeStatus = milestone.getStatus().name();
+        if (milestone.getStatus() != DealMilestone.MilestoneStatus.EVIDENCE_SUBMITTED) {
+            milestone.updateStatus(DealMilestone.MilestoneStatus.EVIDENCE_SUBMITTED);
+            milestoneRepository.save(milestone);
+
+            // Update in-memory state
+            escrowStateService.setMilestoneEvidenceSubmitted(dealId.toString(), milestoneId.toString());
+        }
+
+        // MASTER TASK STEP 6: Record audit log with before/after status
+        String actor = userId != null ? userId.toString() : "anonymous";
+        String payload = String.format(
+            "{\"action\":\"EVIDENCE_UPLOAD\",\"evidenceId\":\"%s\",\"milestoneId\":\"%s\",\"type\":\"%s\",\"url\":\"%s\",\"before\":\"%s\",\"after\":\"EVIDENCE_SUBMITTED\"}",
+            evidence.getId(), milestoneId, type.name(), uri, beforeStatus
+        );
+
+        AuditEvent auditEvent = AuditEvent.builder()
+            .dealId(dealId)
+            .type(AuditEventType.STATE_TRANSITION)
+            .actor(actor)
+            .payload(payload)
+            .createdAt(Instant.now())
+            .build();
+
+        auditEventRepository.save(auditEvent);
+        log.info("[AUDIT] Evidence upload logged: dealId={}, milestoneId={}, actor={}, before={}, after=EVIDENCE_SUBMITTED",
+            dealId, milestoneId, actor, beforeStatus);
+
+        log.info("[EVIDENCE] Evidence uploaded successfully: evidenceId={}, milestoneId={}, status={}",
+            evidence.getId(), milestoneId, milestone.getStatus());
+
+        return evidence;
+    }
+}
@@ -51,7 +51,7 @@ public class MilestoneService {
             .updatedAt(Instant.now())
             .build();
         
-        return milestoneRepository.save(milestone);
+        return milestoneRepository.save(milestone.markCreated());
     }
     
     /**
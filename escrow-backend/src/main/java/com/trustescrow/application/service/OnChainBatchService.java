@@ -0,0 +1,224 @@
+package com.trustescrow.application.service;
+
+import com.trustescrow.domain.model.OnChainBatch;
+import com.trustescrow.domain.model.OnChainRecord;
+import com.trustescrow.domain.service.MerkleTree;
+import com.trustescrow.domain.service.OnChainBatchRepository;
+import com.trustescrow.domain.service.OnChainBatchSealedEvent;
+import com.trustescrow.domain.service.OnChainRecordRepository;
+import lombok.Builder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.web3j.crypto.Hash;
+import org.web3j.utils.Numeric;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Merkle-batched anchoring of on-chain records ({@code blockchain.anchor.mode=batch}).
+ *
+ * Records waiting in BATCH_PENDING are sealed into an {@link OnChainBatch}: a Merkle tree is
+ * built over their leaves, each record stores its leaf and inclusion proof, and the root is
+ * submitted in one transaction by the background submitter. A record's leaf is
+ * {@code keccak256(dealHash || milestoneHash || status (uint8) || timestamp (uint64 seconds))},
+ * with the same deal/milestone hashes as the single-record {@code recordStatus} call.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OnChainBatchService {
+
+    private final OnChainRecordRepository onChainRecordRepository;
+    private final OnChainBatchRepository onChainBatchRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${blockchain.network:sepolia}")
+    private String network;
+
+    /**
+     * Seals up to {@code maxRecords} of the oldest pending records into a new batch.
+     *
+     * @return the batch, or empty if no record was pending
+     */
+    @Transactional
+    public Optional<OnChainBatch> sealBatch(int maxRecords) {
+        List<OnChainRecord> records = onChainRecordRepository.findBySubmissionStatusOrderByCreatedAtAsc(
+            OnChainRecord.SubmissionStatus.BATCH_PENDING, PageRequest.of(0, maxRecords));
+        if (records.isEmpty()) {
+            return Optional.empty();
+        }
+
+        List<byte[]> leaves = new ArrayList<>(records.size());
+        for (OnChainRecord record : records) {
+            leaves.add(leafOf(record));
+        }
+        MerkleTree tree = new MerkleTree(leaves);
+
+        OnChainBatch batch = onChainBatchRepository.save(OnChainBatch.builder()
+            .merkleRoot(Numeric.toHexString(tree.getRoot()))
+            .leafCount(records.size())
+            .createdAt(Instant.now())
+            .submissionStatus(OnChainRecord.SubmissionStatus.PENDING)
+            .submitAttempts(0)
+            .network(network)
+            .build());
+
+        for (int i = 0; i < records.size(); i++) {
+            String proof = tree.proof(i).stream()
+                .map(Numeric::toHexString)
+                .collect(Collectors.joining(","));
+            records.get(i).assignToBatch(batch.getId(), i, Numeric.toHexString(leaves.get(i)), proof);
+        }
+
+        eventPublisher.publishEvent(new OnChainBatchSealedEvent(batch.getId()));
+        log.info("[BLOCKCHAIN] Batch sealed: batchId={}, records={}, root={}",
+            batch.getId(), records.size(), batch.getMerkleRoot());
+        return Optional.of(batch);
+    }
+
+    /**
+     * Called when the batch transaction is mined: confirms the batch and all of its records.
+     */
+    @Transactional
+    public void confirmBatch(UUID batchId, String txHash, Long blockNumber, String network) {
+        OnChainBatch batch = onChainBatchRepository.findById(batchId)
+            .orElseThrow(() -> new IllegalArgumentException("Batch not found: " + batchId));
+        batch.markConfirmed(txHash, blockNumber, network);
+        int records = onChainRecordRepository.markBatchConfirmed(batchId, blockNumber, network, batch.getConfirmedAt());
+        log.info("[BLOCKCHAIN] Batch confirmed: batchId={}, txHash={}, blockNumber={}, records={}",
+            batchId, txHash, blockNumber, records);
+    }
+
+    /**
+     * Confirms a batch whose root the contract reports as anchored (its transaction reverted
+     * with "root already anchored": an earlier version of it was mined). The anchoring
+     * transaction is not known here, so the batch keeps no transaction hash or block number.
+     */
+    @Transactional
+    public void confirmAnchoredBatch(UUID batchId, String network, Instant anchoredAt) {
+        OnChainBatch batch = onChainBatchRepository.findById(batchId)
+            .orElseThrow(() -> new IllegalArgumentException("Batch not found: " + batchId));
+        batch.markConfirmed(null, null, network);
+        int records = onChainRecordRepository.markBatchConfirmed(batchId, null, network, batch.getConfirmedAt());
+        log.info("[BLOCKCHAIN] Batch root already anchored, confirmed: batchId={}, anchoredAt={}, records={}",
+            batchId, anchoredAt, records);
+    }
+
+    /**
+     * Called when a batch has FAILED: its records go back to BATCH_PENDING for the next batch.
+     */
+    @Transactional
+    public void releaseFailedBatch(UUID batchId) {
+        int records = onChainRecordRepository.releaseBatch(batchId);
+        log.warn("[BLOCKCHAIN] Batch failed, records returned to the batch queue: batchId={}, records={}",
+            batchId, records);
+    }
+
+    /**
+     * Inclusion proof of a batched record, verified against the batch root.
+     *
+     * @return empty if the record does not exist
+     * @throws IllegalStateException if the record has not been sealed into a batch yet
+     */
+    @Transactional(readOnly = true)
+    public Optional<RecordProof> getProof(UUID recordId) {
+        Optional<OnChainRecord> recordOpt = onChainRecordRepository.findById(recordId);
+        if (recordOpt.isEmpty()) {
+            return Optional.empty();
+        }
+        OnChainRecord record = recordOpt.get();
+        if (record.getBatchId() == null) {
+            throw new IllegalStateException("Record is not part of a batch: " + recordId);
+        }
+        OnChainBatch batch = onChainBatchRepository.findById(record.getBatchId())
+            .orElseThrow(() -> new IllegalStateException("Batch not found: " + record.getBatchId()));
+
+        List<String> proof = record.getMerkleProof() == null || record.getMerkleProof().isEmpty()
+            ? List.of()
+            : Arrays.asList(record.getMerkleProof().split(","));
+        byte[] leaf = leafOf(record);
+        boolean valid = Numeric.toHexString(leaf).equals(record.getLeafHash())
+            && MerkleTree.verify(leaf, proof.stream().map(Numeric::hexStringToByteArray).toList(),
+                Numeric.hexStringToByteArray(batch.getMerkleRoot()));
+
+        return Optional.of(RecordProof.builder()
+            .recordId(record.getId())
+            .dealId(record.getDealId())
+            .milestoneId(record.getMilestoneId())
+            .status(record.getStatus().name())
+            .contractStatus(BlockchainService.mapToContractStatus(record.getStatus()))
+            .timestamp(record.getTimestamp().getEpochSecond())
+            .dealHash(Numeric.toHexString(idHash(record.getDealId())))
+            .milestoneHash(Numeric.toHexString(idHash(record.getMilestoneId())))
+            .leafHash(record.getLeafHash())
+            .leafIndex(record.getLeafIndex())
+            .proof(proof)
+            .batchId(batch.getId())
+            .merkleRoot(batch.getMerkleRoot())
+            .leafCount(batch.getLeafCount())
+            .anchored(batch.isConfirmed())
+            .transactionHash(batch.getTransactionHash())
+            .blockNumber(batch.getBlockNumber())
+            .network(batch.getNetwork())
+            .confirmedAt(batch.getConfirmedAt())
+            .valid(valid)
+            .build());
+    }
+
+    /**
+     * Leaf of a record, matching the contract's {@code leafHash}.
+     */
+    static byte[] leafOf(OnChainRecord record) {
+        ByteBuffer packed = ByteBuffer.allocate(32 + 32 + 1 + 8);
+        packed.put(idHash(record.getDealId()));
+        packed.put(idHash(record.getMilestoneId()));
+        packed.put((byte) BlockchainService.mapToContractStatus(record.getStatus()));
+        packed.putLong(record.getTimestamp().getEpochSecond());
+        return Hash.sha3(packed.array());
+    }
+
+    /**
+     * Same id hash as {@link BlockchainContractService#encodeRecordStatus}.
+     */
+    private static byte[] idHash(UUID id) {
+        return Hash.sha3(id.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @lombok.Value
+    @Builder
+    public static class RecordProof {
+        UUID recordId;
+        UUID dealId;
+        UUID milestoneId;
+        String status;
+        int contractStatus;
+        long timestamp; // epoch seconds, as in the leaf
+        String dealHash;
+        String milestoneHash;
+        String leafHash;
+        Integer leafIndex;
+        List<String> proof; // sibling hashes, leaf level first
+        UUID batchId;
+        String merkleRoot;
+        Integer leafCount;
+        boolean anchored; // batch transaction confirmed
+        String transactionHash;
+        Long blockNumber;
+        String network;
+        Instant confirmedAt;
+        boolean valid; // proof recomputed from the record leads to the root
+    }
+}
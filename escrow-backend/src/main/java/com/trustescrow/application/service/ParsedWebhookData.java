@@ -0,0 +1,17 @@
+package com.trustescrow.application.service;
+
+import java.math.BigDecimal;
+
+/**
+ * Parsed webhook data structure.
+ */
+class ParsedWebhookData {
+    String eventName;
+    String dealId;
+    String milestoneId;
+    String orderId;
+    String checkoutId; // STEP 1: Add checkout_id
+    String orderStatus;
+    BigDecimal totalAmount;
+    String currency;
+}
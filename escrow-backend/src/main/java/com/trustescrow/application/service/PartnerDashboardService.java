@@ -30,88 +30,17 @@ public class PartnerDashboardService {
     private final DealRepository dealRepository;
     private final RevenueLedgerRepository revenueLedgerRepository;
     private final InvoiceRepository invoiceRepository;
+    private final PartnerOverviewCache overviewCache;
     
     /**
      * Get dashboard overview for partner.
+     * Served from a short-TTL per-partner cache; a miss costs a few seller-indexed aggregates.
      */
-    @Transactional(readOnly = true)
     public DashboardOverviewResponse getOverview(UUID partnerId) {
-        Partner partner = partnerRepository.findById(partnerId)
-            .orElseThrow(() -> new IllegalArgumentException("Partner not found: " + partnerId));
-        
-        // Get all deals for this partner (Phase 9: assume seller is partner)
-        List<Deal> allDeals = dealRepository.findAll().stream()
-            .filter(deal -> deal.getSellerId().equals(partnerId))
-            .collect(Collectors.toList());
-        
-        // Calculate metrics
-        long totalDeals = allDeals.size();
-        long activeDeals = allDeals.stream()
-            .filter(deal -> deal.getState() != DealState.SETTLED)
-            .count();
-        
-        LocalDate now = LocalDate.now();
-        LocalDate startOfMonth = now.withDayOfMonth(1);
-        Instant startOfMonthInstant = startOfMonth.atStartOfDay(ZoneId.systemDefault()).toInstant();
-        Instant endOfMonthInstant = now.atTime(23, 59, 59).atZone(ZoneId.systemDefault()).toInstant();
-        
-        long settledThisMonth = allDeals.stream()
-            .filter(deal -> deal.getState() == DealState.SETTLED)
-            .filter(deal -> deal.getUpdatedAt().isAfter(startOfMonthInstant) && 
-                           deal.getUpdatedAt().isBefore(endOfMonthInstant))
-            .count();
-        
-        BigDecimal totalSettledAmount = allDeals.stream()
-            .filter(deal -> deal.getState() == DealState.SETTLED)
-            .map(Deal::getTotalAmount)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        BigDecimal thisMonthSettledAmount = allDeals.stream()
-            .filter(deal -> deal.getState() == DealState.SETTLED)
-            .filter(deal -> deal.getUpdatedAt().isAfter(startOfMonthInstant) && 
-                           deal.getUpdatedAt().isBefore(endOfMonthInstant))
-            .map(Deal::getTotalAmount)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        List<RevenueLedgerEntry> allRevenue = revenueLedgerRepository.findByPartnerIdOrderByCreatedAtDesc(partnerId);
-        BigDecimal totalFees = allRevenue.stream()
-            .map(RevenueLedgerEntry::getAmount)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        List<RevenueLedgerEntry> thisMonthRevenue = revenueLedgerRepository.findByPartnerAndDateRange(
-            partnerId, startOfMonthInstant, endOfMonthInstant);
-        BigDecimal thisMonthFees = thisMonthRevenue.stream()
-            .map(RevenueLedgerEntry::getAmount)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        BigDecimal averageDealSize = totalDeals > 0 
-            ? totalSettledAmount.divide(BigDecimal.valueOf(totalDeals), 2, RoundingMode.HALF_UP)
-            : BigDecimal.ZERO;
-        
-        BigDecimal averageFeePerDeal = allRevenue.size() > 0
-            ? totalFees.divide(BigDecimal.valueOf(allRevenue.size()), 2, RoundingMode.HALF_UP)
-            : BigDecimal.ZERO;
-        
-        long totalDisputes = allDeals.stream()
-            .filter(deal -> deal.getState() == DealState.ISSUE)
-            .count();
-        
-        double disputeRate = totalDeals > 0 
-            ? (double) totalDisputes / totalDeals * 100.0
-            : 0.0;
-        
-        return DashboardOverviewResponse.builder()
-            .totalDeals(totalDeals)
-            .activeDeals(activeDeals)
-            .settledThisMonth(settledThisMonth)
-            .totalSettledAmount(totalSettledAmount)
-            .thisMonthSettledAmount(thisMonthSettledAmount)
-            .totalFees(totalFees)
-            .thisMonthFees(thisMonthFees)
-            .averageDealSize(averageDealSize)
-            .averageFeePerDeal(averageFeePerDeal)
-            .disputeRate(disputeRate)
-            .build();
+        if (!partnerRepository.existsById(partnerId)) {
+            throw new IllegalArgumentException("Partner not found: " + partnerId);
+        }
+        return overviewCache.get(partnerId, () -> computeOverview(partnerId));
     }
     
     /**
@@ -119,10 +48,16 @@ public class PartnerDashboardService {
      */
     @Transactional(readOnly = true)
     public List<DealResponse> getPartnerDeals(UUID partnerId, String status) {
-        List<Deal> deals = dealRepository.findAll().stream()
-            .filter(deal -> deal.getSellerId().equals(partnerId))
-            .filter(deal -> status == null || deal.getState().name().equals(status))
-            .collect(Collectors.toList());
+        List<Deal> deals;
+        if (status == null) {
+            deals = dealRepository.findBySellerIdOrderByCreatedAtDesc(partnerId);
+        } else {
+            DealState state = parseState(status);
+            if (state == null) {
+                return List.of();
+            }
+            deals = dealRepository.findBySellerIdAndStateOrderByCreatedAtDesc(partnerId, state);
+        }
         
         return deals.stream()
             .map(DealResponse::from)
@@ -134,25 +69,17 @@ public class PartnerDashboardService {
      */
     @Transactional(readOnly = true)
     public RevenueSummaryResponse getRevenueSummary(UUID partnerId) {
-        List<RevenueLedgerEntry> allRevenue = revenueLedgerRepository.findByPartnerIdOrderByCreatedAtDesc(partnerId);
-        
-        BigDecimal totalFees = allRevenue.stream()
-            .map(RevenueLedgerEntry::getAmount)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        RevenueLedgerRepository.Totals allRevenue = revenueLedgerRepository.sumByPartner(partnerId);
+        BigDecimal totalFees = allRevenue.getTotalAmount();
         
-        LocalDate now = LocalDate.now();
-        LocalDate startOfMonth = now.withDayOfMonth(1);
-        Instant startOfMonthInstant = startOfMonth.atStartOfDay(ZoneId.systemDefault()).toInstant();
-        Instant endOfMonthInstant = now.atTime(23, 59, 59).atZone(ZoneId.systemDefault()).toInstant();
+        MonthWindow month = MonthWindow.current();
+        BigDecimal thisMonthFees = revenueLedgerRepository
+            .sumByPartnerAndDateRange(partnerId, month.start, month.end)
+            .getTotalAmount();
         
-        List<RevenueLedgerEntry> thisMonthRevenue = revenueLedgerRepository.findByPartnerAndDateRange(
-            partnerId, startOfMonthInstant, endOfMonthInstant);
-        BigDecimal thisMonthFees = thisMonthRevenue.stream()
-            .map(RevenueLedgerEntry::getAmount)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        BigDecimal averageFeePerDeal = allRevenue.size() > 0
-            ? totalFees.divide(BigDecimal.valueOf(allRevenue.size()), 2, RoundingMode.HALF_UP)
+        long entryCount = allRevenue.getTotalCount();
+        BigDecimal averageFeePerDeal = entryCount > 0
+            ? totalFees.divide(BigDecimal.valueOf(entryCount), 2, RoundingMode.HALF_UP)
             : BigDecimal.ZERO;
         
         // Fee breakdown by category (simplified for Phase 9)
@@ -162,7 +89,7 @@ public class PartnerDashboardService {
             .totalFees(totalFees)
             .thisMonthFees(thisMonthFees)
             .averageFeePerDeal(averageFeePerDeal)
-            .totalDeals(allRevenue.size())
+            .totalDeals((int) entryCount)
             .build();
     }
     
@@ -177,4 +104,79 @@ public class PartnerDashboardService {
             .map(InvoiceResponse::from)
             .collect(Collectors.toList());
     }
+    
+    private DashboardOverviewResponse computeOverview(UUID partnerId) {
+        // Phase 9: assume seller is partner
+        long totalDeals = 0;
+        long settledDeals = 0;
+        long totalDisputes = 0;
+        BigDecimal totalSettledAmount = BigDecimal.ZERO;
+        for (DealRepository.StateTotals totals : dealRepository.sumBySellerGroupByState(partnerId)) {
+            totalDeals += totals.getTotalCount();
+            if (totals.getState() == DealState.SETTLED) {
+                settledDeals = totals.getTotalCount();
+                totalSettledAmount = totals.getTotalAmount();
+            } else if (totals.getState() == DealState.ISSUE) {
+                totalDisputes = totals.getTotalCount();
+            }
+        }
+        long activeDeals = totalDeals - settledDeals;
+        
+        MonthWindow month = MonthWindow.current();
+        DealRepository.Totals settledThisMonth = dealRepository.sumBySellerAndStateUpdatedBetween(
+            partnerId, DealState.SETTLED, month.start, month.end);
+        
+        RevenueLedgerRepository.Totals allRevenue = revenueLedgerRepository.sumByPartner(partnerId);
+        BigDecimal totalFees = allRevenue.getTotalAmount();
+        BigDecimal thisMonthFees = revenueLedgerRepository
+            .sumByPartnerAndDateRange(partnerId, month.start, month.end)
+            .getTotalAmount();
+        
+        BigDecimal averageDealSize = totalDeals > 0 
+            ? totalSettledAmount.divide(BigDecimal.valueOf(totalDeals), 2, RoundingMode.HALF_UP)
+            : BigDecimal.ZERO;
+        
+        BigDecimal averageFeePerDeal = allRevenue.getTotalCount() > 0
+            ? totalFees.divide(BigDecimal.valueOf(allRevenue.getTotalCount()), 2, RoundingMode.HALF_UP)
+            : BigDecimal.ZERO;
+        
+        double disputeRate = totalDeals > 0 
+            ? (double) totalDisputes / totalDeals * 100.0
+            : 0.0;
+        
+        return DashboardOverviewResponse.builder()
+            .totalDeals(totalDeals)
+            .activeDeals(activeDeals)
+            .settledThisMonth(settledThisMonth.getTotalCount())
+            .totalSettledAmount(totalSettledAmount)
+            .thisMonthSettledAmount(settledThisMonth.getTotalAmount())
+            .totalFees(totalFees)
+            .thisMonthFees(thisMonthFees)
+            .averageDealSize(averageDealSize)
+            .averageFeePerDeal(averageFeePerDeal)
+            .disputeRate(disputeRate)
+            .build();
+    }
+    
+    private static DealState parseState(String status) {
+        try {
+            return DealState.valueOf(status);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Current calendar month up to the end of today, in the server time zone.
+     */
+    private record MonthWindow(Instant start, Instant end) {
+        
+        static MonthWindow current() {
+            LocalDate now = LocalDate.now();
+            LocalDate startOfMonth = now.withDayOfMonth(1);
+            return new MonthWindow(
+                startOfMonth.atStartOfDay(ZoneId.systemDefault()).toInstant(),
+                now.atTime(23, 59, 59).atZone(ZoneId.systemDefault()).toInstant());
+        }
+    }
 }
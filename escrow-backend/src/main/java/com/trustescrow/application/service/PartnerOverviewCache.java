@@ -0,0 +1,70 @@
+package com.trustescrow.application.service;
+
+import com.trustescrow.application.dto.DashboardOverviewResponse;
+import com.trustescrow.domain.model.DealStateChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Per-partner cache of dashboard overviews with a short TTL.
+ *
+ * An entry is evicted after commit whenever one of the partner's deals changes state
+ * (settlement included). Revenue totals are left to the TTL: invoicing only assigns ledger
+ * entries to an invoice, which does not change them. Eviction is local to this node; other
+ * nodes see the change once their entry expires.
+ */
+@Component
+@Slf4j
+public class PartnerOverviewCache {
+    
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+    
+    @Value("${partners.dashboard.overview-ttl-seconds:30}")
+    private long ttlSeconds;
+    
+    @Value("${partners.dashboard.overview-max-entries:10000}")
+    private int maxEntries;
+    
+    public DashboardOverviewResponse get(UUID partnerId, Supplier<DashboardOverviewResponse> loader) {
+        Instant now = Instant.now();
+        Entry cached = entries.get(partnerId);
+        if (cached != null && now.isBefore(cached.expiresAt)) {
+            return cached.overview;
+        }
+        
+        DashboardOverviewResponse overview = loader.get();
+        if (entries.size() >= maxEntries) {
+            entries.values().removeIf(e -> !now.isBefore(e.expiresAt));
+        }
+        if (entries.size() < maxEntries) {
+            entries.put(partnerId, new Entry(overview, now.plus(Duration.ofSeconds(ttlSeconds))));
+        }
+        return overview;
+    }
+    
+    public void invalidate(UUID partnerId) {
+        if (entries.remove(partnerId) != null) {
+            log.debug("Invalidated dashboard overview for partner {}", partnerId);
+        }
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onDealStateChanged(DealStateChangedEvent event) {
+        if (event.getSellerId() != null) {
+            invalidate(event.getSellerId());
+        }
+    }
+    
+    private record Entry(DashboardOverviewResponse overview, Instant expiresAt) {
+    }
+}
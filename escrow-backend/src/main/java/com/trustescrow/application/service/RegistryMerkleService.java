@@ -0,0 +1,291 @@
+package com.trustescrow.application.service;
+
+import com.trustescrow.domain.model.RegistryLog;
+import com.trustescrow.domain.model.RegistryMerkleCheckpoint;
+import com.trustescrow.domain.model.RegistryMerkleNode;
+import com.trustescrow.domain.model.RegistryMerkleState;
+import com.trustescrow.domain.service.MerkleLog;
+import com.trustescrow.domain.service.RegistryLogRepository;
+import com.trustescrow.domain.service.RegistryMerkleCheckpointRepository;
+import com.trustescrow.domain.service.RegistryMerkleNodeRepository;
+import com.trustescrow.domain.service.RegistryMerkleStateRepository;
+import lombok.Builder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Incremental Merkle accumulator over registry_log (RFC 6962 tree shape, SHA-256).
+ *
+ * Every registry log entry is appended as a leaf when it is written: the entry gets the next
+ * leaf index, the O(log n) frontier in {@link RegistryMerkleState} is updated, and the perfect
+ * subtrees completed by the append are stored as {@link RegistryMerkleNode}s. The root of any
+ * prefix of the log, and inclusion/consistency proofs between any two sizes, are then built from
+ * O(log n) stored nodes without reloading the entries. Tree heads are persisted as
+ * {@link RegistryMerkleCheckpoint}s every {@code registry.merkle.checkpoint-interval} entries and
+ * whenever a range is anchored.
+ *
+ * Appends lock the state row, so registry writes are serialized across nodes.
+ * A leaf is {@code SHA-256(0x00 || eventHash bytes)}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RegistryMerkleService {
+
+    private static final int BACKFILL_PAGE_SIZE = 500;
+
+    private final RegistryLogRepository registryLogRepository;
+    private final RegistryMerkleStateRepository stateRepository;
+    private final RegistryMerkleNodeRepository nodeRepository;
+    private final RegistryMerkleCheckpointRepository checkpointRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${registry.merkle.checkpoint-interval:1000}")
+    private long checkpointInterval;
+
+    /**
+     * Saves a new registry log entry and appends it to the Merkle log.
+     * Joins the caller's transaction, so the entry and its leaf commit together.
+     */
+    @Transactional
+    public RegistryLog append(RegistryLog entry) {
+        RegistryMerkleState state = lockState();
+        RegistryLog saved = registryLogRepository.save(entry);
+        appendLeaf(state, saved);
+        return saved;
+    }
+
+    /**
+     * Current tree head.
+     */
+    @Transactional(readOnly = true)
+    public TreeHead getHead() {
+        RegistryMerkleState state = stateRepository.findById(RegistryMerkleState.HEAD_ID)
+            .orElse(RegistryMerkleState.empty());
+        return TreeHead.builder()
+            .treeSize(state.getTreeSize())
+            .rootHash(hex(MerkleLog.root(state.getFrontierHashes())))
+            .build();
+    }
+
+    /**
+     * Root over the first {@code treeSize} entries (null for the empty tree's range).
+     */
+    @Transactional(readOnly = true)
+    public String getRoot(long treeSize) {
+        if (treeSize <= 0) {
+            return null;
+        }
+        return hex(MerkleLog.subtreeHash(0, treeSize, nodeSource()));
+    }
+
+    /**
+     * Number of entries in the log before an instant, i.e. the tree size that covers them.
+     */
+    @Transactional(readOnly = true)
+    public long sizeBefore(Instant instant) {
+        List<Long> last = registryLogRepository.findLastLeafIndexBefore(instant, PageRequest.of(0, 1));
+        return last.isEmpty() ? 0 : last.get(0) + 1;
+    }
+
+    /**
+     * Persists the tree head at {@code treeSize} (idempotent).
+     */
+    @Transactional
+    public RegistryMerkleCheckpoint checkpoint(long treeSize) {
+        return checkpointRepository.findById(treeSize)
+            .orElseGet(() -> checkpointRepository.save(RegistryMerkleCheckpoint.builder()
+                .treeSize(treeSize)
+                .rootHash(getRoot(treeSize))
+                .createdAt(Instant.now())
+                .build()));
+    }
+
+    /**
+     * Inclusion proof of an entry in the tree of {@code treeSize} entries (current size if null).
+     *
+     * @return empty if the entry does not exist
+     * @throws IllegalStateException if the entry is not in the Merkle log yet or not covered by the size
+     */
+    @Transactional(readOnly = true)
+    public Optional<InclusionProof> getInclusionProof(UUID entryId, Long treeSize) {
+        Optional<RegistryLog> entryOpt = registryLogRepository.findById(entryId);
+        if (entryOpt.isEmpty()) {
+            return Optional.empty();
+        }
+        RegistryLog entry = entryOpt.get();
+        if (entry.getLeafIndex() == null) {
+            throw new IllegalStateException("Registry entry is not in the Merkle log yet: " + entryId);
+        }
+        long size = treeSize != null ? treeSize : getHead().getTreeSize();
+        if (entry.getLeafIndex() >= size) {
+            throw new IllegalStateException("Registry entry " + entryId + " is not covered by tree size " + size);
+        }
+
+        MerkleLog.NodeSource nodes = nodeSource();
+        byte[] leaf = leafOf(entry);
+        byte[] root = MerkleLog.subtreeHash(0, size, nodes);
+        List<byte[]> proof = MerkleLog.inclusionProof(entry.getLeafIndex(), size, nodes);
+        return Optional.of(InclusionProof.builder()
+            .entryId(entry.getId())
+            .leafIndex(entry.getLeafIndex())
+            .treeSize(size)
+            .leafHash(hex(leaf))
+            .proof(proof.stream().map(RegistryMerkleService::hex).toList())
+            .rootHash(hex(root))
+            .valid(MerkleLog.verifyInclusion(leaf, entry.getLeafIndex(), size, proof, root))
+            .build());
+    }
+
+    /**
+     * Proof that the tree of {@code fromSize} entries is a prefix of the tree of {@code toSize}.
+     *
+     * @throws IllegalArgumentException if the sizes are not 0 < fromSize <= toSize <= current size
+     */
+    @Transactional(readOnly = true)
+    public ConsistencyProof getConsistencyProof(long fromSize, long toSize) {
+        if (toSize > getHead().getTreeSize()) {
+            throw new IllegalArgumentException("Tree size " + toSize + " is beyond the log");
+        }
+        MerkleLog.NodeSource nodes = nodeSource();
+        List<byte[]> proof = MerkleLog.consistencyProof(fromSize, toSize, nodes);
+        return ConsistencyProof.builder()
+            .fromSize(fromSize)
+            .fromRoot(hex(MerkleLog.subtreeHash(0, fromSize, nodes)))
+            .toSize(toSize)
+            .toRoot(hex(MerkleLog.subtreeHash(0, toSize, nodes)))
+            .proof(proof.stream().map(RegistryMerkleService::hex).toList())
+            .build();
+    }
+
+    /**
+     * Creates the head row and appends entries written before the Merkle log existed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        TransactionTemplate requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            requiresNew.executeWithoutResult(status -> {
+                if (!stateRepository.existsById(RegistryMerkleState.HEAD_ID)) {
+                    stateRepository.saveAndFlush(RegistryMerkleState.empty());
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Created by another node
+        }
+
+        long backfilled = 0;
+        int appended;
+        do {
+            appended = requiresNew.execute(status -> {
+                RegistryMerkleState state = lockState();
+                List<RegistryLog> entries = registryLogRepository.findByLeafIndexIsNullOrderByCreatedAtAsc(
+                    PageRequest.of(0, BACKFILL_PAGE_SIZE));
+                entries.forEach(entry -> appendLeaf(state, entry));
+                return entries.size();
+            });
+            backfilled += appended;
+        } while (appended == BACKFILL_PAGE_SIZE);
+
+        TreeHead head = getHead();
+        if (backfilled > 0) {
+            log.info("[REGISTRY] Appended {} existing registry entries to the Merkle log", backfilled);
+        }
+        log.info("[REGISTRY] Merkle log ready: size={}, root={}", head.getTreeSize(), head.getRootHash());
+    }
+
+    private RegistryMerkleState lockState() {
+        return stateRepository.findByIdWithLock(RegistryMerkleState.HEAD_ID)
+            .orElseGet(() -> stateRepository.saveAndFlush(RegistryMerkleState.empty()));
+    }
+
+    private void appendLeaf(RegistryMerkleState state, RegistryLog entry) {
+        long index = state.getTreeSize();
+        List<byte[]> frontier = state.getFrontierHashes();
+        MerkleLog.append(frontier, index, leafOf(entry), (level, nodeIndex, hash) ->
+            nodeRepository.save(RegistryMerkleNode.builder()
+                .level(level)
+                .nodeIndex(nodeIndex)
+                .hash(hex(hash))
+                .build()));
+        entry.assignLeafIndex(index);
+        state.advance(index + 1, frontier);
+
+        if (checkpointInterval > 0 && (index + 1) % checkpointInterval == 0) {
+            checkpointRepository.save(RegistryMerkleCheckpoint.builder()
+                .treeSize(index + 1)
+                .rootHash(hex(MerkleLog.root(frontier)))
+                .createdAt(Instant.now())
+                .build());
+        }
+    }
+
+    /**
+     * Node reads for one proof, memoized (the same subtree roots recur across the proof).
+     */
+    private MerkleLog.NodeSource nodeSource() {
+        Map<String, byte[]> cache = new HashMap<>();
+        return (level, index) -> cache.computeIfAbsent(level + ":" + index, key ->
+            nodeRepository.findByLevelAndNodeIndex(level, index)
+                .map(node -> HexFormat.of().parseHex(node.getHash()))
+                .orElse(null));
+    }
+
+    private static byte[] leafOf(RegistryLog entry) {
+        return MerkleLog.leafHash(entry.getEventHash() != null
+            ? HexFormat.of().parseHex(entry.getEventHash())
+            : new byte[0]);
+    }
+
+    private static String hex(byte[] bytes) {
+        return HexFormat.of().formatHex(bytes);
+    }
+
+    @lombok.Value
+    @Builder
+    public static class TreeHead {
+        long treeSize;
+        String rootHash;
+    }
+
+    @lombok.Value
+    @Builder
+    public static class InclusionProof {
+        UUID entryId;
+        long leafIndex;
+        long treeSize;
+        String leafHash;
+        List<String> proof; // audit path, leaf level first
+        String rootHash;
+        boolean valid; // proof recomputed from the stored entry leads to the root
+    }
+
+    @lombok.Value
+    @Builder
+    public static class ConsistencyProof {
+        long fromSize;
+        String fromRoot;
+        long toSize;
+        String toRoot;
+        List<String> proof;
+    }
+}
@@ -83,12 +83,24 @@ public class TransactionService {
     @Transactional
     public MilestoneFile saveFile(UUID milestoneId, String fileUrl, String fileName, 
                                    Long fileSize, String mimeType, MilestoneFile.UploaderRole role) {
+        return saveFile(milestoneId, fileUrl, fileName, fileSize, mimeType, null, role);
+    }
+    
+    /**
+     * Records a milestone file whose content is kept in the blob store under {@code contentHash}
+     * (null for metadata-only uploads).
+     */
+    @Transactional
+    public MilestoneFile saveFile(UUID milestoneId, String fileUrl, String fileName, 
+                                   Long fileSize, String mimeType, String contentHash,
+                                   MilestoneFile.UploaderRole role) {
         MilestoneFile file = MilestoneFile.builder()
             .milestoneId(milestoneId)
             .fileUrl(fileUrl)
             .fileName(fileName)
             .fileSize(fileSize)
             .mimeType(mimeType)
+            .contentHash(contentHash)
             .uploaderRole(role)
             .createdAt(Instant.now())
             .build();
@@ -0,0 +1,152 @@
+package com.trustescrow.application.service;
+
+import com.trustescrow.domain.service.BloomFilter;
+import com.trustescrow.domain.service.WebhookEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * In-memory idempotency guard in front of {@link WebhookEventRepository#findByProviderAndEventId}.
+ *
+ * Keeps an LRU of recently seen (provider, eventId) pairs and a Bloom filter of every pair this
+ * node has seen, warmed from webhook_events at startup:
+ * - recent hit: the event is a known duplicate, no lookup needed
+ * - Bloom miss: this node has never seen the event, the lookup is skipped
+ * - otherwise: look it up in the DB
+ *
+ * The guard is an optimization only. Events stored by other nodes, or before the warm-up window,
+ * are not in the filter, so a "new" answer can still collide; the unique index on
+ * (provider, event_id) rejects the insert and the caller treats it as a duplicate.
+ */
+@Component
+@Slf4j
+public class WebhookIdempotencyGuard {
+
+    public enum Answer {
+        /** Recently seen on this node: duplicate. */
+        SEEN,
+        /** Never seen by this node: skip the lookup, the unique index still guards the insert. */
+        NEW,
+        /** Possibly seen: check the DB. */
+        UNKNOWN
+    }
+
+    private static final int WARM_PAGE_SIZE = 5_000;
+
+    private final WebhookEventRepository webhookEventRepository;
+    private final BloomFilter seen;
+    private final Map<String, Boolean> recent;
+    private final Counter recentHits;
+    private final Counter bloomMisses;
+    private final Counter lookups;
+
+    @Value("${webhooks.idempotency.warm-days:30}")
+    private long warmDays;
+
+    private volatile boolean warmed;
+
+    public WebhookIdempotencyGuard(
+            WebhookEventRepository webhookEventRepository,
+            MeterRegistry meterRegistry,
+            @Value("${webhooks.idempotency.bloom-expected-insertions:1000000}") long expectedInsertions,
+            @Value("${webhooks.idempotency.bloom-false-positive-rate:0.01}") double falsePositiveRate,
+            @Value("${webhooks.idempotency.recent-max-entries:10000}") int recentMaxEntries) {
+        this.webhookEventRepository = webhookEventRepository;
+        this.seen = new BloomFilter(expectedInsertions, falsePositiveRate);
+        this.recent = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > recentMaxEntries;
+            }
+        });
+        this.recentHits = Counter.builder("webhook.idempotency.guard")
+            .tag("result", "recent-hit")
+            .register(meterRegistry);
+        this.bloomMisses = Counter.builder("webhook.idempotency.guard")
+            .tag("result", "bloom-miss")
+            .register(meterRegistry);
+        this.lookups = Counter.builder("webhook.idempotency.guard")
+            .tag("result", "lookup")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Answers before the DB lookup. Until warm-up finished every answer is UNKNOWN.
+     */
+    public Answer check(String provider, String eventId) {
+        String key = key(provider, eventId);
+        if (recent.get(key) != null) {
+            recentHits.increment();
+            return Answer.SEEN;
+        }
+        if (warmed && !seen.mightContain(key)) {
+            bloomMisses.increment();
+            return Answer.NEW;
+        }
+        lookups.increment();
+        return Answer.UNKNOWN;
+    }
+
+    /**
+     * Records an event known to be stored (inserted by this node or found in the DB).
+     */
+    public void record(String provider, String eventId) {
+        String key = key(provider, eventId);
+        seen.put(key);
+        recent.put(key, Boolean.TRUE);
+    }
+
+    /**
+     * Loads the keys of recent events into the Bloom filter.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        Instant since = Instant.now().minus(Duration.ofDays(warmDays));
+        long loaded = 0;
+        try {
+            PageRequest page = PageRequest.of(0, WARM_PAGE_SIZE);
+            List<Object[]> keys = webhookEventRepository.findKeysCreatedSince(since, page);
+            while (true) {
+                for (Object[] row : keys) {
+                    seen.put(key((String) row[0], (String) row[1]));
+                }
+                loaded += keys.size();
+                if (keys.size() < WARM_PAGE_SIZE) {
+                    break;
+                }
+                // Keyset on (createdAt, id): every page is an index seek, however deep
+                Object[] last = keys.get(keys.size() - 1);
+                keys = webhookEventRepository.findKeysCreatedAfter((Instant) last[2], (UUID) last[3], page);
+            }
+        } catch (Exception e) {
+            // Without a complete filter a miss would not mean "never seen here"; keep looking up
+            log.warn("[WEBHOOK] Idempotency guard warm-up failed, using DB lookups only: {}", e.getMessage());
+            return;
+        }
+        warmed = true;
+        if (seen.isSaturated()) {
+            log.warn("[WEBHOOK] Idempotency Bloom filter holds {} keys, more than it is sized for; " +
+                "raise webhooks.idempotency.bloom-expected-insertions", seen.getInsertions());
+        }
+        log.info("[WEBHOOK] Idempotency guard warmed with {} events since {} ({} bits, {} hashes)",
+            loaded, since, seen.getBitCount(), seen.getHashCount());
+    }
+
+    private static String key(String provider, String eventId) {
+        return provider + ':' + eventId;
+    }
+}
@@ -36,6 +36,15 @@ public class AssetVersion {
     @Column(nullable = false, name = "content_hash", length = 64)
     private String contentHash; // SHA-256 hash (hex, 64 chars)
     
+    @Column(name = "content_size")
+    private Long contentSize; // bytes (null for versions registered before streaming hashing)
+    
+    @Column(name = "chunk_size")
+    private Integer chunkSize; // chunk size of the chunk hash tree (large content only)
+    
+    @Column(name = "chunk_tree_root", length = 64)
+    private String chunkTreeRoot; // RFC 6962 root over the chunk hashes (hex, 64 chars)
+    
     @Column(name = "payload_meta", columnDefinition = "TEXT")
     private String payloadMeta; // JSON: size, mime, checksum_meta (optional)
     
@@ -11,7 +11,7 @@ import java.util.UUID;
  */
 @Entity
 @Table(name = "chat_messages", indexes = {
-    @Index(name = "idx_chat_messages_room_created", columnList = "roomId,createdAt"),
+    @Index(name = "idx_chat_messages_room_created_id", columnList = "roomId,createdAt,id"),
     @Index(name = "idx_chat_messages_sender", columnList = "senderId")
 })
 @Getter
@@ -56,9 +56,4 @@ public class ChatRoom {
         this.status = newStatus;
         this.updatedAt = Instant.now();
     }
-    
-    public void markLastMessage() {
-        this.lastMessageAt = Instant.now();
-        this.updatedAt = Instant.now();
-    }
 }
@@ -0,0 +1,45 @@
+package com.trustescrow.domain.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Unread message count of one participant in a chat room.
+ * Incremented when someone else sends a message, reset when the participant reads the room,
+ * so the room list gets every badge of a user in one query.
+ */
+@Entity
+@Table(name = "chat_unread_counters", indexes = {
+    @Index(name = "idx_chat_unread_counters_room_user", columnList = "roomId,userId", unique = true),
+    @Index(name = "idx_chat_unread_counters_user", columnList = "userId")
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class ChatUnreadCounter {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+    
+    @Column(nullable = false)
+    private UUID roomId;
+    
+    @Column(nullable = false)
+    private UUID userId;
+    
+    @Column(nullable = false)
+    private Long unreadCount;
+    
+    @Column(nullable = false)
+    private Instant updatedAt;
+    
+    public void reset() {
+        this.unreadCount = 0L;
+        this.updatedAt = Instant.now();
+    }
+}
@@ -0,0 +1,34 @@
+package com.trustescrow.domain.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Pre-aggregated dashboard KPI counter (e.g. deals per state, milestones per status).
+ * Maintained incrementally from deal/milestone state changes and reconciled periodically.
+ */
+@Entity
+@Table(name = "dashboard_counters")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class DashboardCounter {
+    
+    @Id
+    @Column(length = 100)
+    private String counterKey;
+    
+    @Column(nullable = false)
+    private Long counterValue;
+    
+    @Column(nullable = false)
+    private Instant updatedAt;
+    
+    public void reset(long value) {
+        this.counterValue = value;
+        this.updatedAt = Instant.now();
+    }
+}
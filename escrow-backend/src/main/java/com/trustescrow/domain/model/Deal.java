@@ -2,6 +2,7 @@ package com.trustescrow.domain.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.springframework.data.domain.AbstractAggregateRoot;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -9,13 +10,15 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "deals", indexes = {
-    @Index(name = "idx_deals_state_updated", columnList = "state,updatedAt")
+    @Index(name = "idx_deals_state_updated", columnList = "state,updatedAt"),
+    @Index(name = "idx_deals_state_lease", columnList = "state,leaseUntil"),
+    @Index(name = "idx_deals_seller_state_updated", columnList = "sellerId,state,updatedAt")
 })
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @AllArgsConstructor
 @Builder
-public class Deal {
+public class Deal extends AbstractAggregateRoot<Deal> {
     
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -65,9 +68,24 @@ public class Deal {
     
     private Boolean disputeOpen;
     
+    // Work-queue lease: the node running a settlement job on this deal and until when
+    private String leaseOwner;
+    
+    private Instant leaseUntil;
+    
     public void transitionTo(DealState newState) {
+        DealState previous = this.state;
         this.state = newState;
         this.updatedAt = Instant.now();
+        registerEvent(new DealStateChangedEvent(id, sellerId, previous, newState));
+    }
+    
+    /**
+     * Registers the creation event for a newly built deal (published on save).
+     */
+    public Deal markCreated() {
+        registerEvent(new DealStateChangedEvent(id, sellerId, null, state));
+        return this;
     }
     
     public void markInspectionStarted() {
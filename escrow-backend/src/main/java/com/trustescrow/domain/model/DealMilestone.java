@@ -2,6 +2,7 @@ package com.trustescrow.domain.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.springframework.data.domain.AbstractAggregateRoot;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -13,13 +14,15 @@ import java.util.UUID;
  */
 @Entity
 @Table(name = "deal_milestones", indexes = {
-    @Index(name = "idx_deal_milestones_deal", columnList = "dealId,orderIndex")
+    @Index(name = "idx_deal_milestones_deal", columnList = "dealId,orderIndex"),
+    @Index(name = "idx_deal_milestones_status_created", columnList = "status,createdAt"),
+    @Index(name = "idx_deal_milestones_status_updated", columnList = "status,updatedAt")
 })
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @AllArgsConstructor
 @Builder
-public class DealMilestone {
+public class DealMilestone extends AbstractAggregateRoot<DealMilestone> {
     
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -104,11 +107,21 @@ public class DealMilestone {
     }
     
     public void updateStatus(MilestoneStatus newStatus) {
+        MilestoneStatus previous = this.status;
         this.status = newStatus;
         this.updatedAt = Instant.now();
         // STEP 2: Set completedAt for RELEASED or COMPLETED status
         if (newStatus == MilestoneStatus.COMPLETED || newStatus == MilestoneStatus.RELEASED) {
             this.completedAt = Instant.now();
         }
+        registerEvent(new MilestoneStatusChangedEvent(id, dealId, previous, newStatus, createdAt));
+    }
+    
+    /**
+     * Registers the creation event for a newly built milestone (published on save).
+     */
+    public DealMilestone markCreated() {
+        registerEvent(new MilestoneStatusChangedEvent(id, dealId, null, status, createdAt));
+        return this;
     }
 }
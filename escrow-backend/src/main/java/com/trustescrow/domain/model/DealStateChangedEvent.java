@@ -0,0 +1,17 @@
+package com.trustescrow.domain.model;
+
+import lombok.Value;
+
+import java.util.UUID;
+
+/**
+ * Registered by {@link Deal} on creation and on every state transition;
+ * published when the deal is saved.
+ */
+@Value
+public class DealStateChangedEvent {
+    UUID dealId;
+    UUID sellerId;
+    DealState fromState; // null on creation
+    DealState toState;
+}
@@ -0,0 +1,150 @@
+package com.trustescrow.domain.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Per-deal balance projection of the escrow ledger.
+ * Maintained incrementally by EscrowLedgerService in the same transaction as each append,
+ * so balance reads are a primary-key lookup instead of a ledger replay.
+ * The ledger stays the source of truth; this row can always be rebuilt from it.
+ */
+@Entity
+@Table(name = "escrow_balances", indexes = {
+    @Index(name = "idx_escrow_balances_updated", columnList = "updatedAt")
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class EscrowBalance {
+    
+    @Id
+    private UUID dealId;
+    
+    // Totals by entry type
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal heldTotal;
+    
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal releasedTotal;
+    
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal releasedFromEscrowTotal;
+    
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal refundedTotal;
+    
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal offsetTotal;
+    
+    // Net flow per account (credits to the account minus debits from it)
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal escrowAccount;
+    
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal sellerAccount;
+    
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal buyerAccount;
+    
+    @Column(nullable = false)
+    private Long entryCount;
+    
+    @Column(nullable = false)
+    private Instant updatedAt;
+    
+    @Version
+    private Long version;
+    
+    public static EscrowBalance empty(UUID dealId) {
+        return EscrowBalance.builder()
+            .dealId(dealId)
+            .heldTotal(BigDecimal.ZERO)
+            .releasedTotal(BigDecimal.ZERO)
+            .releasedFromEscrowTotal(BigDecimal.ZERO)
+            .refundedTotal(BigDecimal.ZERO)
+            .offsetTotal(BigDecimal.ZERO)
+            .escrowAccount(BigDecimal.ZERO)
+            .sellerAccount(BigDecimal.ZERO)
+            .buyerAccount(BigDecimal.ZERO)
+            .entryCount(0L)
+            .updatedAt(Instant.now())
+            .build();
+    }
+    
+    /**
+     * Folds one ledger entry into the projection.
+     */
+    public void apply(LedgerEntryType type, BigDecimal amount, String fromAccount, String toAccount) {
+        switch (type) {
+            case HOLD -> heldTotal = heldTotal.add(amount);
+            case RELEASE -> {
+                releasedTotal = releasedTotal.add(amount);
+                if ("escrow".equals(fromAccount)) {
+                    releasedFromEscrowTotal = releasedFromEscrowTotal.add(amount);
+                }
+            }
+            case REFUND -> refundedTotal = refundedTotal.add(amount);
+            case OFFSET -> offsetTotal = offsetTotal.add(amount);
+        }
+        adjustAccount(fromAccount, amount.negate());
+        adjustAccount(toAccount, amount);
+        entryCount++;
+        updatedAt = Instant.now();
+    }
+    
+    /**
+     * Escrow balance per SSOT: HOLD minus RELEASE/REFUND/OFFSET.
+     */
+    public BigDecimal getBalance() {
+        return heldTotal.subtract(releasedTotal).subtract(refundedTotal).subtract(offsetTotal);
+    }
+    
+    /**
+     * True if the projection carries the same figures as {@code other} (version and timestamps ignored).
+     */
+    public boolean sameTotals(EscrowBalance other) {
+        return heldTotal.compareTo(other.heldTotal) == 0
+            && releasedTotal.compareTo(other.releasedTotal) == 0
+            && releasedFromEscrowTotal.compareTo(other.releasedFromEscrowTotal) == 0
+            && refundedTotal.compareTo(other.refundedTotal) == 0
+            && offsetTotal.compareTo(other.offsetTotal) == 0
+            && escrowAccount.compareTo(other.escrowAccount) == 0
+            && sellerAccount.compareTo(other.sellerAccount) == 0
+            && buyerAccount.compareTo(other.buyerAccount) == 0
+            && entryCount.equals(other.entryCount);
+    }
+    
+    /**
+     * Replaces all totals with those of {@code rebuilt}.
+     */
+    public void resetTo(EscrowBalance rebuilt) {
+        this.heldTotal = rebuilt.heldTotal;
+        this.releasedTotal = rebuilt.releasedTotal;
+        this.releasedFromEscrowTotal = rebuilt.releasedFromEscrowTotal;
+        this.refundedTotal = rebuilt.refundedTotal;
+        this.offsetTotal = rebuilt.offsetTotal;
+        this.escrowAccount = rebuilt.escrowAccount;
+        this.sellerAccount = rebuilt.sellerAccount;
+        this.buyerAccount = rebuilt.buyerAccount;
+        this.entryCount = rebuilt.entryCount;
+        this.updatedAt = Instant.now();
+    }
+    
+    private void adjustAccount(String account, BigDecimal delta) {
+        if (account == null) {
+            return;
+        }
+        switch (account) {
+            case "escrow" -> escrowAccount = escrowAccount.add(delta);
+            case "seller" -> sellerAccount = sellerAccount.add(delta);
+            case "buyer" -> buyerAccount = buyerAccount.add(delta);
+            default -> { } // Accounts outside the escrow/seller/buyer triangle are not projected
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.trustescrow.domain.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Resumable chunked upload of a milestone evidence file.
+ * 
+ * The client declares the file (size, SHA-256, chunk size) up front, PUTs numbered chunks in
+ * any order and as often as needed, then completes the upload: the chunks are assembled, the
+ * whole-file hash is verified and the evidence (or milestone file) row is created.
+ * In-progress uploads expire {@code uploads.ttl-hours} after their last chunk.
+ */
+@Entity
+@Table(name = "evidence_uploads", indexes = {
+    @Index(name = "idx_evidence_uploads_status_expires", columnList = "status,expiresAt")
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class EvidenceUpload {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+    
+    @Column(nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    private Target target;
+    
+    private UUID dealId; // DEAL_EVIDENCE only
+    
+    @Column(nullable = false)
+    private UUID milestoneId;
+    
+    private UUID uploadedBy;
+    
+    @Column(length = 20)
+    private String evidenceType; // EvidenceType (DEAL_EVIDENCE)
+    
+    @Column(length = 20)
+    private String uploaderRole; // MilestoneFile.UploaderRole (MILESTONE_FILE)
+    
+    private String fileName;
+    
+    private String mimeType;
+    
+    @Column(nullable = false)
+    private Long fileSize;
+    
+    @Column(nullable = false, length = 64)
+    private String contentHash; // declared SHA-256 of the whole file (hex)
+    
+    @Column(nullable = false)
+    private Integer chunkSize;
+    
+    @Column(nullable = false)
+    private Integer chunkCount;
+    
+    @Column(nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    private Status status;
+    
+    private UUID resultId; // EvidenceMetadata or MilestoneFile id once completed
+    
+    @Column(columnDefinition = "TEXT")
+    private String lastError;
+    
+    @Column(nullable = false)
+    private Instant createdAt;
+    
+    @Column(nullable = false)
+    private Instant expiresAt;
+    
+    private Instant completedAt;
+    
+    public enum Target {
+        DEAL_EVIDENCE,   // EvidenceMetadata of a deal milestone
+        MILESTONE_FILE   // MilestoneFile of a transaction milestone
+    }
+    
+    public enum Status {
+        IN_PROGRESS,
+        COMPLETED,
+        FAILED,
+        EXPIRED
+    }
+    
+    public boolean isOpen() {
+        return status == Status.IN_PROGRESS && expiresAt.isAfter(Instant.now());
+    }
+    
+    /**
+     * Expected length of a chunk: the last one holds the remainder.
+     */
+    public long expectedChunkLength(int index) {
+        if (index < chunkCount - 1) {
+            return chunkSize;
+        }
+        return fileSize - (long) chunkSize * (chunkCount - 1);
+    }
+    
+    public void touch(Duration ttl) {
+        this.expiresAt = Instant.now().plus(ttl);
+    }
+    
+    public void markCompleted(UUID resultId) {
+        this.status = Status.COMPLETED;
+        this.resultId = resultId;
+        this.completedAt = Instant.now();
+    }
+    
+    public void markFailed(String error) {
+        this.status = Status.FAILED;
+        this.lastError = error;
+    }
+    
+    public void markExpired() {
+        this.status = Status.EXPIRED;
+    }
+}
@@ -0,0 +1,41 @@
+package com.trustescrow.domain.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Received chunk of an {@link EvidenceUpload}; the bytes live in the upload's staging directory.
+ * A chunk is recorded only after its SHA-256 and length were verified.
+ */
+@Entity
+@Table(name = "evidence_upload_chunks", indexes = {
+    @Index(name = "idx_evidence_upload_chunk", columnList = "uploadId,chunkIndex", unique = true)
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class EvidenceUploadChunk {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+    
+    @Column(nullable = false)
+    private UUID uploadId;
+    
+    @Column(nullable = false)
+    private Integer chunkIndex;
+    
+    @Column(nullable = false, length = 64)
+    private String chunkHash; // SHA-256 (hex)
+    
+    @Column(nullable = false)
+    private Long chunkLength;
+    
+    @Column(nullable = false)
+    private Instant receivedAt;
+}
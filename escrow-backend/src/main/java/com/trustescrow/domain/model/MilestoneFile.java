@@ -11,7 +11,8 @@ import java.util.UUID;
  */
 @Entity
 @Table(name = "milestone_files", indexes = {
-    @Index(name = "idx_milestone_files_milestone", columnList = "milestoneId")
+    @Index(name = "idx_milestone_files_milestone", columnList = "milestoneId"),
+    @Index(name = "idx_milestone_files_content_hash", columnList = "contentHash")
 })
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
@@ -39,6 +40,9 @@ public class MilestoneFile {
     
     private String mimeType;
     
+    @Column(length = 64)
+    private String contentHash; // SHA-256 blob key (null for metadata-only uploads)
+    
     @Column(nullable = false)
     private Instant createdAt;
     
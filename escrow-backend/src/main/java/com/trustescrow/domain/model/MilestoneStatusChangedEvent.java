@@ -0,0 +1,19 @@
+package com.trustescrow.domain.model;
+
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Registered by {@link DealMilestone} on creation and on every status change;
+ * published when the milestone is saved.
+ */
+@Value
+public class MilestoneStatusChangedEvent {
+    UUID milestoneId;
+    UUID dealId;
+    DealMilestone.MilestoneStatus fromStatus; // null on creation
+    DealMilestone.MilestoneStatus toStatus;
+    Instant milestoneCreatedAt;
+}
@@ -0,0 +1,102 @@
+package com.trustescrow.domain.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Batch of on-chain records anchored with a single transaction.
+ * 
+ * The Merkle root of the records' leaves is sent to the contract ({@code anchorBatch});
+ * each record keeps its own inclusion proof, so it can be verified against the root alone.
+ */
+@Entity
+@Table(name = "on_chain_batches", indexes = {
+    @Index(name = "idx_onchain_batch_submission", columnList = "submissionStatus,createdAt"),
+    @Index(name = "idx_onchain_batch_tx_hash", columnList = "transactionHash", unique = true)
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class OnChainBatch implements OnChainSubmission {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+    
+    @Column(nullable = false, length = 66)
+    private String merkleRoot; // 0x-prefixed hex
+    
+    @Column(nullable = false)
+    private Integer leafCount;
+    
+    @Column(nullable = false)
+    private Instant createdAt;
+    
+    // Blockchain transaction details (same lifecycle as OnChainRecord)
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private OnChainRecord.SubmissionStatus submissionStatus;
+    private String transactionHash;
+    private Long nonce;
+    private Long gasPrice;
+    private Integer submitAttempts;
+    private Instant submittedAt;
+    private Long blockNumber;
+    private String network;
+    private Instant confirmedAt;
+    
+    @Column(columnDefinition = "TEXT")
+    private String replacedTxHashes;
+    
+    @Column(columnDefinition = "TEXT")
+    private String lastError;
+    
+    @Override
+    public void markSubmitted(String txHash, long nonce, String network, long gasPrice) {
+        this.transactionHash = txHash;
+        this.nonce = nonce;
+        this.gasPrice = gasPrice;
+        this.replacedTxHashes = null;
+        this.network = network;
+        this.submittedAt = Instant.now();
+        this.submissionStatus = OnChainRecord.SubmissionStatus.SUBMITTED;
+    }
+    
+    @Override
+    public void markReplaced(String txHash, long gasPrice) {
+        this.replacedTxHashes = OnChainSubmission.appendHash(replacedTxHashes, transactionHash);
+        this.transactionHash = txHash;
+        this.gasPrice = gasPrice;
+        this.submittedAt = Instant.now();
+    }
+    
+    @Override
+    public void recordSubmitFailure(String error, int maxAttempts) {
+        this.submitAttempts = (submitAttempts != null ? submitAttempts : 0) + 1;
+        this.lastError = error;
+        this.transactionHash = null;
+        this.nonce = null;
+        this.gasPrice = null;
+        this.replacedTxHashes = null;
+        this.submissionStatus = submitAttempts >= maxAttempts
+            ? OnChainRecord.SubmissionStatus.FAILED
+            : OnChainRecord.SubmissionStatus.PENDING;
+    }
+    
+    public void markConfirmed(String txHash, Long blockNumber, String network) {
+        this.transactionHash = txHash;
+        this.blockNumber = blockNumber;
+        this.network = network;
+        this.confirmedAt = Instant.now();
+        this.submissionStatus = OnChainRecord.SubmissionStatus.CONFIRMED;
+        this.lastError = null;
+    }
+    
+    public boolean isConfirmed() {
+        return submissionStatus == OnChainRecord.SubmissionStatus.CONFIRMED;
+    }
+}
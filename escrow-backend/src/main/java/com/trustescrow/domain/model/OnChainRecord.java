@@ -15,17 +15,24 @@ import java.util.UUID;
  * Note: This is NOT for on-chain payment, but for on-chain proof/confirmation.
  * Payment is handled by Lemon Squeezy (off-chain).
  * Blockchain provides immutable record of state changes and decisions.
+ * 
+ * Rows double as the submission outbox: a record is saved PENDING and sent by the
+ * background submitter, which tracks nonce and transaction until the receipt confirms it.
+ * In batch anchor mode the record is sealed into an {@link OnChainBatch} instead and keeps
+ * its leaf hash and inclusion proof; the batch transaction confirms it.
  */
 @Entity
 @Table(name = "on_chain_records", indexes = {
     @Index(name = "idx_onchain_deal_milestone", columnList = "dealId,milestoneId"),
-    @Index(name = "idx_onchain_tx_hash", columnList = "transactionHash", unique = true)
+    @Index(name = "idx_onchain_tx_hash", columnList = "transactionHash", unique = true),
+    @Index(name = "idx_onchain_submission", columnList = "submissionStatus,createdAt"),
+    @Index(name = "idx_onchain_batch", columnList = "batchId,leafIndex")
 })
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @AllArgsConstructor
 @Builder
-public class OnChainRecord {
+public class OnChainRecord implements OnChainSubmission {
     
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -62,6 +69,31 @@ public class OnChainRecord {
     private String network;         // "ethereum" | "polygon" | "arbitrum" etc.
     private Instant confirmedAt;    // When transaction was confirmed
     
+    // Submission outbox state (null on records created before the outbox)
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private SubmissionStatus submissionStatus;
+    private Long nonce;             // Wallet nonce the transaction was sent with
+    private Long gasPrice;          // Wei, of the current transaction
+    private Integer submitAttempts;
+    private Instant submittedAt;
+    
+    @Column(columnDefinition = "TEXT")
+    private String replacedTxHashes; // Comma-separated, earlier transactions with the same nonce
+    
+    @Column(columnDefinition = "TEXT")
+    private String lastError;
+    
+    // Batch anchoring (null for records sent as their own transaction)
+    private UUID batchId;
+    private Integer leafIndex;
+    
+    @Column(length = 66)
+    private String leafHash;    // 0x-prefixed hex
+    
+    @Column(columnDefinition = "TEXT")
+    private String merkleProof; // Comma-separated 0x-prefixed sibling hashes, leaf level first
+    
     /**
      * STEP 7: On-chain record status.
      * These correspond to milestone statuses that should be recorded on-chain.
@@ -74,6 +106,18 @@ public class OnChainRecord {
         DISPUTE_RESOLVED_REFUND   // Dispute resolved - refund
     }
     
+    /**
+     * Submission state of the on-chain transaction.
+     */
+    public enum SubmissionStatus {
+        PENDING,       // Waiting for the submitter
+        SUBMITTED,     // Sent, waiting for a receipt
+        CONFIRMED,     // Receipt with success status
+        FAILED,        // Gave up after max attempts
+        BATCH_PENDING, // Waiting to be sealed into a batch
+        BATCHED        // Sealed into a batch, confirmed with the batch transaction
+    }
+    
     /**
      * Set transaction hash (before confirmation).
      */
@@ -96,5 +140,62 @@ public class OnChainRecord {
         this.blockNumber = blockNumber;
         this.network = network;
         this.confirmedAt = Instant.now();
+        this.submissionStatus = SubmissionStatus.CONFIRMED;
+        this.lastError = null;
+    }
+    
+    /**
+     * Seals the record into a batch with its leaf and inclusion proof.
+     */
+    public void assignToBatch(UUID batchId, int leafIndex, String leafHash, String merkleProof) {
+        this.batchId = batchId;
+        this.leafIndex = leafIndex;
+        this.leafHash = leafHash;
+        this.merkleProof = merkleProof;
+        this.submissionStatus = SubmissionStatus.BATCHED;
+    }
+    
+    /**
+     * Mark record as sent with the given nonce (not yet confirmed).
+     */
+    @Override
+    public void markSubmitted(String txHash, long nonce, String network, long gasPrice) {
+        this.transactionHash = txHash;
+        this.nonce = nonce;
+        this.gasPrice = gasPrice;
+        this.replacedTxHashes = null;
+        this.network = network;
+        this.submittedAt = Instant.now();
+        this.submissionStatus = SubmissionStatus.SUBMITTED;
+    }
+    
+    /**
+     * Records a replacement of the submitted transaction (same nonce, higher gas price).
+     */
+    @Override
+    public void markReplaced(String txHash, long gasPrice) {
+        this.replacedTxHashes = OnChainSubmission.appendHash(replacedTxHashes, transactionHash);
+        this.transactionHash = txHash;
+        this.gasPrice = gasPrice;
+        this.submittedAt = Instant.now();
+    }
+    
+    /**
+     * Records a failed attempt (rejected or reverted transaction). The record goes back to
+     * PENDING for another attempt, or to FAILED once {@code maxAttempts} is reached.
+     */
+    @Override
+    public void recordSubmitFailure(String error, int maxAttempts) {
+        this.submitAttempts = getSubmitAttemptCount() + 1;
+        this.lastError = error;
+        this.transactionHash = null;
+        this.nonce = null;
+        this.gasPrice = null;
+        this.replacedTxHashes = null;
+        this.submissionStatus = submitAttempts >= maxAttempts ? SubmissionStatus.FAILED : SubmissionStatus.PENDING;
+    }
+    
+    public int getSubmitAttemptCount() {
+        return submitAttempts != null ? submitAttempts : 0;
     }
 }
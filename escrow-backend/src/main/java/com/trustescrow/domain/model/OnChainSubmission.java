@@ -0,0 +1,56 @@
+package com.trustescrow.domain.model;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A row sent to the chain as one transaction by the background submitter:
+ * a single {@link OnChainRecord} or an {@link OnChainBatch} root.
+ */
+public interface OnChainSubmission {
+    
+    UUID getId();
+    
+    String getTransactionHash();
+    
+    Long getNonce();
+    
+    String getNetwork();
+    
+    Instant getSubmittedAt();
+    
+    Long getGasPrice();
+    
+    /**
+     * Earlier versions of the current transaction (same nonce, lower gas price), comma-separated.
+     */
+    String getReplacedTxHashes();
+    
+    void markSubmitted(String txHash, long nonce, String network, long gasPrice);
+    
+    /**
+     * Records a replacement sent with the same nonce; any version may still be the one mined.
+     */
+    void markReplaced(String txHash, long gasPrice);
+    
+    void recordSubmitFailure(String error, int maxAttempts);
+    
+    /**
+     * Current and replaced transaction hashes.
+     */
+    default List<String> getSentTxHashes() {
+        if (getReplacedTxHashes() == null || getReplacedTxHashes().isEmpty()) {
+            return List.of(getTransactionHash());
+        }
+        List<String> hashes = new ArrayList<>(Arrays.asList(getReplacedTxHashes().split(",")));
+        hashes.add(getTransactionHash());
+        return hashes;
+    }
+    
+    static String appendHash(String hashes, String txHash) {
+        return hashes == null || hashes.isEmpty() ? txHash : hashes + "," + txHash;
+    }
+}
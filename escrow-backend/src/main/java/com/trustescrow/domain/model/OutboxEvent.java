@@ -0,0 +1,80 @@
+package com.trustescrow.domain.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Transactional outbox entry.
+ * Written in the same transaction as the state change it describes and dispatched
+ * in-process after commit; unprocessed rows are re-dispatched by a poller.
+ */
+@Entity
+@Table(name = "outbox_events", indexes = {
+    @Index(name = "idx_outbox_events_pending", columnList = "processedAt,createdAt")
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+    
+    public static final String DEAL_APPROVED = "DEAL_APPROVED";
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+    
+    @Column(nullable = false)
+    private UUID dealId;
+    
+    @Column(nullable = false, length = 100)
+    private String eventType; // DEAL_APPROVED
+    
+    @Column(columnDefinition = "TEXT")
+    private String payload; // JSON
+    
+    @Column(nullable = false)
+    private Integer attempts;
+    
+    @Column(columnDefinition = "TEXT")
+    private String lastError;
+    
+    private Instant processedAt;
+    
+    @Column(nullable = false)
+    private Instant createdAt;
+    
+    private Instant nextAttemptAt; // set by a failed attempt; null until then
+    
+    private Instant deadAt; // set when retries are exhausted
+    
+    public void markProcessed() {
+        this.processedAt = Instant.now();
+    }
+    
+    /**
+     * Records a failed attempt and schedules the next one after {@code retryDelay}, or
+     * dead-letters the event once {@code maxAttempts} is reached.
+     */
+    public void markFailed(String error, int maxAttempts, Duration retryDelay) {
+        this.attempts = attempts + 1;
+        this.lastError = error;
+        Instant now = Instant.now();
+        this.nextAttemptAt = now.plus(retryDelay);
+        if (attempts >= maxAttempts) {
+            this.deadAt = now;
+        }
+    }
+    
+    public boolean isProcessed() {
+        return processedAt != null;
+    }
+    
+    public boolean isDead() {
+        return deadAt != null;
+    }
+}
@@ -14,13 +14,15 @@ import java.util.UUID;
  * visibility changes, evidence exports, references, etc.).
  * 
  * Used for audit trail and potential blockchain anchoring.
+ * Every entry is a leaf of the registry Merkle log ({@code leafIndex} is its position).
  */
 @Entity
 @Table(name = "registry_log", indexes = {
     @Index(name = "idx_registry_account", columnList = "escrowAccountId"),
     @Index(name = "idx_registry_asset", columnList = "assetId"),
     @Index(name = "idx_registry_event_type", columnList = "eventType"),
-    @Index(name = "idx_registry_created", columnList = "createdAt")
+    @Index(name = "idx_registry_created", columnList = "createdAt"),
+    @Index(name = "idx_registry_leaf_index", columnList = "leafIndex", unique = true)
 })
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
@@ -51,6 +53,9 @@ public class RegistryLog {
     @Column(nullable = false, name = "created_at", updatable = false)
     private Instant createdAt;
     
+    @Column(name = "leaf_index")
+    private Long leafIndex; // Position in the registry Merkle log, assigned on append
+    
     public enum EventType {
         ASSET_REGISTERED,      // Asset was registered
         VERSION_ADDED,         // New version added to asset
@@ -60,6 +65,16 @@ public class RegistryLog {
         ANCHORED               // Asset/version was anchored to blockchain
     }
     
+    /**
+     * Assigns the entry's position in the registry Merkle log (once).
+     */
+    public void assignLeafIndex(long leafIndex) {
+        if (this.leafIndex != null) {
+            throw new IllegalStateException("Leaf index already assigned: " + this.leafIndex);
+        }
+        this.leafIndex = leafIndex;
+    }
+    
     /**
      * Note: This entity is append-only.
      * No UPDATE/DELETE operations allowed.
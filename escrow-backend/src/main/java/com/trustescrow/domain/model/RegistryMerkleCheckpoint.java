@@ -0,0 +1,29 @@
+package com.trustescrow.domain.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Tree head of the registry log: the Merkle root over the first {@code treeSize}
+ * entries. Written periodically and for every anchored range; later heads are proven to extend
+ * earlier ones with consistency proofs.
+ */
+@Entity
+@Table(name = "registry_merkle_checkpoints")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class RegistryMerkleCheckpoint {
+    
+    @Id
+    private Long treeSize;
+    
+    @Column(nullable = false, length = 64)
+    private String rootHash; // SHA-256 hex
+    
+    @Column(nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,37 @@
+package com.trustescrow.domain.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.UUID;
+
+/**
+ * Stored node of the registry log Merkle tree: the root of the perfect subtree over leaves
+ * {@code [nodeIndex * 2^level, (nodeIndex + 1) * 2^level)}. Level 0 holds the leaf hashes.
+ * 
+ * Written once when the subtree is completed and never changed; any tree head and any
+ * inclusion/consistency proof is assembled from O(log n) of these.
+ */
+@Entity
+@Table(name = "registry_merkle_nodes", indexes = {
+    @Index(name = "idx_registry_merkle_node", columnList = "level,nodeIndex", unique = true)
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class RegistryMerkleNode {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+    
+    @Column(nullable = false)
+    private Integer level;
+    
+    @Column(nullable = false)
+    private Long nodeIndex;
+    
+    @Column(nullable = false, length = 64)
+    private String hash; // SHA-256 hex
+}
@@ -0,0 +1,58 @@
+package com.trustescrow.domain.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Head of the registry log Merkle accumulator (single row).
+ * 
+ * Holds the tree size and the frontier: the roots of the perfect subtrees that make up the
+ * tree, largest first (one per set bit of the size). Every append locks this row, so entries
+ * get gapless leaf indexes in the order they are committed.
+ */
+@Entity
+@Table(name = "registry_merkle_state")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class RegistryMerkleState {
+    
+    public static final int HEAD_ID = 1;
+    
+    @Id
+    private Integer id;
+    
+    @Column(nullable = false)
+    private Long treeSize;
+    
+    @Column(columnDefinition = "TEXT")
+    private String frontier; // comma-separated hex, largest subtree first
+    
+    @Column(nullable = false)
+    private Instant updatedAt;
+    
+    public static RegistryMerkleState empty() {
+        return new RegistryMerkleState(HEAD_ID, 0L, "", Instant.now());
+    }
+    
+    public List<byte[]> getFrontierHashes() {
+        List<byte[]> hashes = new ArrayList<>();
+        if (frontier != null && !frontier.isEmpty()) {
+            Arrays.stream(frontier.split(",")).map(HexFormat.of()::parseHex).forEach(hashes::add);
+        }
+        return hashes;
+    }
+    
+    public void advance(long treeSize, List<byte[]> frontier) {
+        this.treeSize = treeSize;
+        this.frontier = String.join(",", frontier.stream().map(HexFormat.of()::formatHex).toList());
+        this.updatedAt = Instant.now();
+    }
+}
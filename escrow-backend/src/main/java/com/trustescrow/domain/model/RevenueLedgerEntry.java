@@ -16,6 +16,7 @@ import java.util.UUID;
 @Entity
 @Table(name = "revenue_ledger_entries", indexes = {
     @Index(name = "idx_revenue_partner_created", columnList = "partnerId,createdAt"),
+    @Index(name = "idx_revenue_partner_settled", columnList = "partnerId,settledAt"),
     @Index(name = "idx_revenue_deal", columnList = "dealId"),
     @Index(name = "idx_revenue_invoice", columnList = "invoiceId")
 })
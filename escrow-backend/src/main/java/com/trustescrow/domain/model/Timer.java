@@ -8,7 +8,10 @@ import java.time.Instant;
 import java.util.UUID;
 
 @Entity
-@Table(name = "timers")
+@Table(name = "timers", indexes = {
+    @Index(name = "idx_timers_active_due", columnList = "active,dueAt"),
+    @Index(name = "idx_timers_type_active_due", columnList = "timerType,active,dueAt")
+})
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @AllArgsConstructor
@@ -31,17 +34,34 @@ public class Timer {
     @Column(nullable = false)
     private Duration duration;
     
+    /**
+     * Persisted deadline (startedAt + duration) so due timers can be found by index range scan.
+     * Nullable only for rows created before the column existed; see {@link #getExpiresAt()}.
+     */
+    private Instant dueAt;
+    
     private Instant firedAt;
     
     @Column(nullable = false)
     private Boolean active;
     
+    // Work-queue lease: the node processing this timer and until when (see WorkClaimService)
+    private String leaseOwner;
+    
+    private Instant leaseUntil;
+    
     public boolean isElapsed() {
-        return active && Instant.now().isAfter(startedAt.plus(duration));
+        return active && !Instant.now().isBefore(getExpiresAt());
     }
     
     public Instant getExpiresAt() {
-        return startedAt.plus(duration);
+        return dueAt != null ? dueAt : startedAt.plus(duration);
+    }
+    
+    public void backfillDueAt() {
+        if (dueAt == null) {
+            this.dueAt = startedAt.plus(duration);
+        }
     }
     
     public void markFired() {
@@ -5,6 +5,7 @@ import lombok.*;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Map;
 import java.util.UUID;
@@ -12,11 +13,17 @@ import java.util.UUID;
 /**
  * Webhook event storage for idempotency.
  * Prevents duplicate processing of webhook events.
+ *
+ * Also serves as the durable ingestion queue: events are stored on receipt and processed
+ * in the background, in order per deal, with retry/backoff state kept on the row.
  */
 @Entity
 @Table(name = "webhook_events", indexes = {
     @Index(name = "idx_webhook_events_provider_event_id", columnList = "provider,eventId", unique = true),
-    @Index(name = "idx_webhook_events_processed", columnList = "processedAt")
+    @Index(name = "idx_webhook_events_processed", columnList = "processedAt"),
+    @Index(name = "idx_webhook_events_pending", columnList = "processedAt,deadAt,nextAttemptAt"),
+    @Index(name = "idx_webhook_events_deal_created", columnList = "dealKey,createdAt"),
+    @Index(name = "idx_webhook_events_created", columnList = "createdAt,id")
 })
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
@@ -39,7 +46,10 @@ public class WebhookEvent {
     
     @Column(columnDefinition = "jsonb")
     @JdbcTypeCode(SqlTypes.JSON)
-    private Map<String, Object> payload; // Full webhook payload
+    private Map<String, Object> payload; // Full webhook payload (legacy rows; new rows keep rawPayload)
+    
+    @Column(length = 1_048_576)
+    private byte[] rawPayload; // Request body exactly as received and signed
     
     @Column
     private Instant processedAt; // When event was processed (null if not processed)
@@ -47,8 +57,50 @@ public class WebhookEvent {
     @Column(nullable = false)
     private Instant createdAt;
     
+    @Column(length = 255)
+    private String dealKey; // dealId from custom data; events of one deal are processed in order
+    
+    private Integer attempts;
+    
+    private Instant nextAttemptAt; // null or past: due
+    
+    @Column(columnDefinition = "TEXT")
+    private String lastError;
+    
+    private Instant deadAt; // set when retries are exhausted
+    
+    // Work-queue lease: the node processing this event and until when
+    private String leaseOwner;
+    
+    private Instant leaseUntil;
+    
     public void markAsProcessed() {
         this.processedAt = Instant.now();
+        this.lastError = null;
+    }
+    
+    /**
+     * Records a failed attempt and schedules the next one, or dead-letters the event
+     * once {@code maxAttempts} is reached.
+     */
+    public void recordFailure(String error, Duration backoff, int maxAttempts) {
+        this.attempts = (attempts != null ? attempts : 0) + 1;
+        this.lastError = error;
+        this.leaseOwner = null;
+        this.leaseUntil = null;
+        if (attempts >= maxAttempts) {
+            this.deadAt = Instant.now();
+        } else {
+            this.nextAttemptAt = Instant.now().plus(backoff);
+        }
+    }
+    
+    public int getAttemptCount() {
+        return attempts != null ? attempts : 0;
+    }
+    
+    public boolean isDead() {
+        return deadAt != null;
     }
     
     public boolean isProcessed() {
@@ -0,0 +1,203 @@
+package com.trustescrow.domain.rules;
+
+import com.trustescrow.domain.model.AuditEventType;
+import com.trustescrow.domain.model.DealState;
+import com.trustescrow.domain.model.IssueReasonCode;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable rule program compiled from one contract template policy.
+ *
+ * The template is resolved once at compile time: offset caps become an {@link EnumMap}
+ * and the default dispute resolution selects which ISSUE rule goes into the dispatch table.
+ * Evaluation is a single array lookup by {@link DealState#ordinal()} followed by the state rule,
+ * which only allocates the actions it returns. Safe to share across threads.
+ */
+public final class CompiledRules {
+
+    static final String RELEASE_HOLDBACK_MINUS_MINOR_CAP = "releaseHoldbackMinusMinorCap";
+
+    private static final List<String> NO_NOTIFICATIONS = List.of();
+
+    private static final RulesEngine.AuditEventDescription AUTO_APPROVE_AUDIT =
+        RulesEngine.AuditEventDescription.builder()
+            .type(AuditEventType.RULES_EVALUATION)
+            .description("Auto-approve timer elapsed, moving to APPROVED")
+            .build();
+
+    private static final RulesEngine.AuditEventDescription HOLDBACK_RELEASED_AUDIT =
+        RulesEngine.AuditEventDescription.builder()
+            .type(AuditEventType.RULES_EVALUATION)
+            .description("Holdback released, moving to SETTLED")
+            .build();
+
+    private static final RulesEngine.RulesEvaluationResult NO_OP = RulesEngine.RulesEvaluationResult.builder()
+        .nextState(null)
+        .actions(List.of())
+        .notifications(NO_NOTIFICATIONS)
+        .auditEvents(List.of())
+        .build();
+
+    private final RulesEngine.ContractTemplateData template;
+    private final String defaultResolution;
+    private final Map<IssueReasonCode, BigDecimal> offsetCaps;
+    private final List<RulesEngine.AuditEventDescription> disputeTTLAudit;
+    private final StateRule[] dispatch;
+
+    private CompiledRules(RulesEngine.ContractTemplateData template) {
+        this.template = template;
+        // No resolution (or no template) settles without moving funds, like any unknown resolution
+        this.defaultResolution = template != null ? template.getDefaultResolutionOnDisputeTTL() : null;
+
+        EnumMap<IssueReasonCode, BigDecimal> caps = new EnumMap<>(IssueReasonCode.class);
+        if (template != null && template.getOffsetCapsByReasonCode() != null) {
+            caps.putAll(template.getOffsetCapsByReasonCode());
+        }
+        this.offsetCaps = Collections.unmodifiableMap(caps);
+
+        this.disputeTTLAudit = List.of(RulesEngine.AuditEventDescription.builder()
+            .type(AuditEventType.RULES_EVALUATION)
+            .description("Dispute TTL elapsed, applying default resolution: " + defaultResolution)
+            .build());
+
+        this.dispatch = new StateRule[DealState.values().length];
+        for (DealState state : DealState.values()) {
+            dispatch[state.ordinal()] = CompiledRules::noOp;
+        }
+        dispatch[DealState.INSPECTION.ordinal()] = CompiledRules::inspection;
+        dispatch[DealState.APPROVED.ordinal()] = CompiledRules::approved;
+        dispatch[DealState.ISSUE.ordinal()] = RELEASE_HOLDBACK_MINUS_MINOR_CAP.equals(defaultResolution)
+            ? CompiledRules::issueReleaseHoldbackMinusMinorCap
+            : CompiledRules::issueSettleOnly;
+    }
+
+    /**
+     * Compiles a template policy into a rule program.
+     */
+    public static CompiledRules compile(RulesEngine.ContractTemplateData template) {
+        return new CompiledRules(template);
+    }
+
+    /**
+     * Evaluates the program for a deal. Pure function: no side effects.
+     */
+    public RulesEngine.RulesEvaluationResult evaluate(RulesEngine.RulesEvaluationContext context) {
+        return dispatch[context.getDealState().ordinal()].apply(this, context);
+    }
+
+    public RulesEngine.ContractTemplateData getTemplate() {
+        return template;
+    }
+
+    /**
+     * @return the template's dispute TTL resolution, or null if it has none
+     */
+    public String getDefaultResolution() {
+        return defaultResolution;
+    }
+
+    public Map<IssueReasonCode, BigDecimal> getOffsetCaps() {
+        return offsetCaps;
+    }
+
+    @FunctionalInterface
+    private interface StateRule {
+        RulesEngine.RulesEvaluationResult apply(CompiledRules rules, RulesEngine.RulesEvaluationContext context);
+    }
+
+    private RulesEngine.RulesEvaluationResult noOp(RulesEngine.RulesEvaluationContext context) {
+        return NO_OP;
+    }
+
+    private RulesEngine.RulesEvaluationResult inspection(RulesEngine.RulesEvaluationContext context) {
+        if (!context.isAutoApproveElapsed()) {
+            return NO_OP;
+        }
+        return result(DealState.APPROVED,
+            List.of(releaseToSeller(context.getHoldbackAmount())),
+            List.of(AUTO_APPROVE_AUDIT));
+    }
+
+    private RulesEngine.RulesEvaluationResult approved(RulesEngine.RulesEvaluationContext context) {
+        // Release holdback if not already released
+        if (!context.isHoldbackUnreleased()) {
+            return NO_OP;
+        }
+        return result(DealState.SETTLED,
+            List.of(releaseToSeller(context.getHoldbackAmount())),
+            List.of(HOLDBACK_RELEASED_AUDIT));
+    }
+
+    private RulesEngine.RulesEvaluationResult issueReleaseHoldbackMinusMinorCap(RulesEngine.RulesEvaluationContext context) {
+        RulesEngine.DisputeCaseData dispute = context.getDispute();
+        if (!context.isDisputeTTLElapsed() || dispute == null) {
+            return NO_OP;
+        }
+
+        BigDecimal holdbackAmount = context.getHoldbackAmount();
+
+        // Offset is the template cap for the reason code, bounded by the holdback
+        BigDecimal cap = dispute.getReasonCode() != null ? offsetCaps.get(dispute.getReasonCode()) : null;
+        BigDecimal offsetAmount = cap != null ? cap.min(holdbackAmount) : holdbackAmount;
+        BigDecimal remaining = holdbackAmount.subtract(offsetAmount);
+
+        boolean hasOffset = offsetAmount.signum() > 0;
+        boolean hasRemaining = remaining.signum() > 0;
+        List<RulesEngine.EscrowAction> actions;
+        if (hasOffset && hasRemaining) {
+            actions = List.of(offsetToBuyer(offsetAmount, dispute), releaseToSeller(remaining));
+        } else if (hasOffset) {
+            actions = List.of(offsetToBuyer(offsetAmount, dispute));
+        } else if (hasRemaining) {
+            actions = List.of(releaseToSeller(remaining));
+        } else {
+            actions = List.of();
+        }
+        return result(DealState.SETTLED, actions, disputeTTLAudit);
+    }
+
+    private RulesEngine.RulesEvaluationResult issueSettleOnly(RulesEngine.RulesEvaluationContext context) {
+        if (!context.isDisputeTTLElapsed() || context.getDispute() == null) {
+            return NO_OP;
+        }
+        // Unknown resolutions settle without moving funds, as before
+        return result(DealState.SETTLED, List.of(), disputeTTLAudit);
+    }
+
+    private static RulesEngine.EscrowAction releaseToSeller(BigDecimal amount) {
+        return RulesEngine.EscrowAction.builder()
+            .type(RulesEngine.EscrowActionType.RELEASE)
+            .amount(amount)
+            .fromAccount("escrow")
+            .toAccount("seller")
+            .build();
+    }
+
+    private static RulesEngine.EscrowAction offsetToBuyer(BigDecimal amount, RulesEngine.DisputeCaseData dispute) {
+        return RulesEngine.EscrowAction.builder()
+            .type(RulesEngine.EscrowActionType.OFFSET)
+            .amount(amount)
+            .fromAccount("escrow")
+            .toAccount("buyer")
+            .referenceId(dispute.getId())
+            .build();
+    }
+
+    private static RulesEngine.RulesEvaluationResult result(
+        DealState nextState,
+        List<RulesEngine.EscrowAction> actions,
+        List<RulesEngine.AuditEventDescription> auditEvents
+    ) {
+        return RulesEngine.RulesEvaluationResult.builder()
+            .nextState(nextState)
+            .actions(actions)
+            .notifications(NO_NOTIFICATIONS)
+            .auditEvents(auditEvents)
+            .build();
+    }
+}
@@ -1,20 +1,59 @@
 package com.trustescrow.domain.service;
 
 import com.trustescrow.domain.model.ChatMessage;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
 public interface ChatMessageRepository extends JpaRepository<ChatMessage, UUID> {
     
-    List<ChatMessage> findByRoomIdOrderByCreatedAtAsc(UUID roomId);
-    
     @Query("SELECT cm FROM ChatMessage cm WHERE cm.roomId = :roomId ORDER BY cm.createdAt DESC")
     List<ChatMessage> findByRoomIdOrderByCreatedAtDesc(@Param("roomId") UUID roomId);
     
+    /**
+     * Latest messages of a room, newest first.
+     */
+    @Query("SELECT cm FROM ChatMessage cm WHERE cm.roomId = :roomId ORDER BY cm.createdAt DESC, cm.id DESC")
+    List<ChatMessage> findLatest(@Param("roomId") UUID roomId, Pageable pageable);
+    
+    /**
+     * Messages before a (createdAt, id) position, newest first.
+     */
+    @Query("SELECT cm FROM ChatMessage cm WHERE cm.roomId = :roomId " +
+           "AND (cm.createdAt < :createdAt OR (cm.createdAt = :createdAt AND cm.id < :id)) " +
+           "ORDER BY cm.createdAt DESC, cm.id DESC")
+    List<ChatMessage> findBefore(
+        @Param("roomId") UUID roomId,
+        @Param("createdAt") Instant createdAt,
+        @Param("id") UUID id,
+        Pageable pageable);
+    
+    /**
+     * Messages after a (createdAt, id) position, oldest first.
+     */
+    @Query("SELECT cm FROM ChatMessage cm WHERE cm.roomId = :roomId " +
+           "AND (cm.createdAt > :createdAt OR (cm.createdAt = :createdAt AND cm.id > :id)) " +
+           "ORDER BY cm.createdAt ASC, cm.id ASC")
+    List<ChatMessage> findAfter(
+        @Param("roomId") UUID roomId,
+        @Param("createdAt") Instant createdAt,
+        @Param("id") UUID id,
+        Pageable pageable);
+    
     @Query("SELECT COUNT(cm) FROM ChatMessage cm WHERE cm.roomId = :roomId AND cm.readAt IS NULL AND cm.senderId != :userId")
     long countUnreadMessages(@Param("roomId") UUID roomId, @Param("userId") UUID userId);
+    
+    /**
+     * Marks every message of a room not sent by the user as read.
+     */
+    @Modifying
+    @Query("UPDATE ChatMessage cm SET cm.readAt = :now " +
+           "WHERE cm.roomId = :roomId AND cm.senderId <> :userId AND cm.readAt IS NULL")
+    int markAsRead(@Param("roomId") UUID roomId, @Param("userId") UUID userId, @Param("now") Instant now);
 }
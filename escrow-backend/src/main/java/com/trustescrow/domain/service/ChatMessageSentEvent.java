@@ -0,0 +1,12 @@
+package com.trustescrow.domain.service;
+
+import com.trustescrow.domain.model.ChatMessage;
+import lombok.Value;
+
+/**
+ * Published when a chat message (text, system or payment request) has been saved.
+ */
+@Value
+public class ChatMessageSentEvent {
+    ChatMessage message;
+}
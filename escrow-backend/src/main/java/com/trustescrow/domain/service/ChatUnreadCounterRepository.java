@@ -0,0 +1,72 @@
+package com.trustescrow.domain.service;
+
+import com.trustescrow.domain.model.ChatUnreadCounter;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface ChatUnreadCounterRepository extends JpaRepository<ChatUnreadCounter, UUID> {
+    
+    Optional<ChatUnreadCounter> findByRoomIdAndUserId(UUID roomId, UUID userId);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM ChatUnreadCounter c WHERE c.roomId = :roomId AND c.userId = :userId")
+    Optional<ChatUnreadCounter> findByRoomIdAndUserIdWithLock(@Param("roomId") UUID roomId, @Param("userId") UUID userId);
+    
+    List<ChatUnreadCounter> findByUserId(UUID userId);
+    
+    /**
+     * Increments the counters of every participant of a room except the sender.
+     * 
+     * @return number of counters incremented (0 if the room has no counters yet)
+     */
+    @Modifying
+    @Query("UPDATE ChatUnreadCounter c SET c.unreadCount = c.unreadCount + 1, c.updatedAt = :now " +
+           "WHERE c.roomId = :roomId AND c.userId <> :senderId")
+    int incrementOthers(@Param("roomId") UUID roomId, @Param("senderId") UUID senderId, @Param("now") Instant now);
+    
+    @Modifying
+    @Query("UPDATE ChatUnreadCounter c SET c.unreadCount = c.unreadCount + 1, c.updatedAt = :now " +
+           "WHERE c.roomId = :roomId AND c.userId = :userId")
+    int increment(@Param("roomId") UUID roomId, @Param("userId") UUID userId, @Param("now") Instant now);
+    
+    /**
+     * Creates a counter unless the participant has one; a concurrent insert of the same counter
+     * waits for the other transaction and then does nothing (PostgreSQL).
+     *
+     * @return 1 if the counter was created
+     */
+    @Modifying
+    @Query(value = "INSERT INTO chat_unread_counters (id, room_id, user_id, unread_count, updated_at) " +
+                   "VALUES (:id, :roomId, :userId, :unreadCount, :now) ON CONFLICT (room_id, user_id) DO NOTHING",
+           nativeQuery = true)
+    int insertIfAbsent(
+        @Param("id") UUID id,
+        @Param("roomId") UUID roomId,
+        @Param("userId") UUID userId,
+        @Param("unreadCount") long unreadCount,
+        @Param("now") Instant now);
+    
+    /**
+     * {@link #insertIfAbsent} for databases without ON CONFLICT (H2 dev profile, single node).
+     */
+    @Modifying
+    @Query(value = "INSERT INTO chat_unread_counters (id, room_id, user_id, unread_count, updated_at) " +
+                   "SELECT :id, :roomId, :userId, :unreadCount, :now " +
+                   "WHERE NOT EXISTS (SELECT 1 FROM chat_unread_counters WHERE room_id = :roomId AND user_id = :userId)",
+           nativeQuery = true)
+    int insertIfAbsentSingleNode(
+        @Param("id") UUID id,
+        @Param("roomId") UUID roomId,
+        @Param("userId") UUID userId,
+        @Param("unreadCount") long unreadCount,
+        @Param("now") Instant now);
+}
@@ -0,0 +1,91 @@
+package com.trustescrow.domain.service;
+
+import com.trustescrow.domain.model.ContractInstance;
+import com.trustescrow.domain.rules.CompiledRules;
+import com.trustescrow.domain.rules.RulesEngine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded LRU cache of compiled rule programs.
+ * 
+ * Contract instances snapshot their template, so every instance of the same (templateId, version)
+ * carries the same snapshot JSON and shares one compiled program. The key also includes the
+ * snapshot JSON itself, so an edited snapshot can never reuse a stale program.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CompiledRulesCache {
+    
+    private final TemplateParserService templateParserService;
+    
+    @Value("${rules.cache.max-entries:256}")
+    private int maxEntries;
+    
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    
+    private Map<Key, CompiledRules> cache;
+    
+    /**
+     * Returns the compiled rule program for a contract instance, compiling it on first use.
+     */
+    public CompiledRules get(ContractInstance instance) {
+        Key key = new Key(instance.getTemplateId(), instance.getTemplateVersion(), instance.getSnapshotJson());
+        
+        synchronized (this) {
+            CompiledRules cached = cache().get(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached;
+            }
+        }
+        
+        // Parse and compile outside the lock; a concurrent duplicate compile is harmless
+        misses.incrementAndGet();
+        RulesEngine.ContractTemplateData template = templateParserService.parseTemplateData(instance.getSnapshotJson());
+        CompiledRules compiled = RulesEngine.compile(template);
+        
+        synchronized (this) {
+            cache().putIfAbsent(key, compiled);
+        }
+        log.debug("Compiled rules for template {} v{}", instance.getTemplateId(), instance.getTemplateVersion());
+        return compiled;
+    }
+    
+    public long getHits() {
+        return hits.get();
+    }
+    
+    public long getMisses() {
+        return misses.get();
+    }
+    
+    public synchronized int size() {
+        return cache().size();
+    }
+    
+    private Map<Key, CompiledRules> cache() {
+        if (cache == null) {
+            int capacity = Math.max(1, maxEntries);
+            cache = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Key, CompiledRules> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+        return cache;
+    }
+    
+    private record Key(UUID templateId, Integer templateVersion, String snapshotJson) {
+    }
+}
@@ -0,0 +1,22 @@
+package com.trustescrow.domain.service;
+
+import com.trustescrow.domain.model.DashboardCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+
+public interface DashboardCounterRepository extends JpaRepository<DashboardCounter, String> {
+    
+    /**
+     * Atomically adds {@code delta} to a counter.
+     *
+     * @return number of rows updated (0 if the counter does not exist yet)
+     */
+    @Modifying
+    @Query("UPDATE DashboardCounter c SET c.counterValue = c.counterValue + :delta, c.updatedAt = :now " +
+           "WHERE c.counterKey = :key")
+    int increment(@Param("key") String key, @Param("delta") long delta, @Param("now") Instant now);
+}
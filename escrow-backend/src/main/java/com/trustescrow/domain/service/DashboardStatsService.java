@@ -0,0 +1,282 @@
+package com.trustescrow.domain.service;
+
+import com.trustescrow.domain.model.DashboardCounter;
+import com.trustescrow.domain.model.DealMilestone;
+import com.trustescrow.domain.model.DealState;
+import com.trustescrow.domain.model.DealStateChangedEvent;
+import com.trustescrow.domain.model.MilestoneStatusChangedEvent;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Pre-aggregated dashboard KPIs.
+ *
+ * Counters per {@link DealState} and per {@link DealMilestone.MilestoneStatus}, plus the sum of
+ * creation times of milestones holding funds (for the average holding time), are kept in
+ * {@code dashboard_counters}. Deltas come from the state-change events the entities publish on
+ * save; they are collected per transaction and applied after commit in one short transaction,
+ * in key order so concurrent writers never deadlock on counter rows.
+ *
+ * {@link #reconcile()} recomputes every counter with GROUP BY queries and overwrites drifted ones.
+ * A delta committed while reconciliation runs may be lost; the next reconciliation corrects it.
+ */
+@Service
+@Slf4j
+public class DashboardStatsService {
+
+    static final String DEAL_STATE_PREFIX = "deal.state.";
+    static final String MILESTONE_STATUS_PREFIX = "milestone.status.";
+    static final String HELD_CREATED_AT_SUM = "milestone.held.created-at-sum";
+
+    /**
+     * Milestone statuses counted as "funds held" for the average holding time.
+     */
+    static final Set<DealMilestone.MilestoneStatus> HELD_STATUSES = EnumSet.of(
+        DealMilestone.MilestoneStatus.PAID_HELD,
+        DealMilestone.MilestoneStatus.RELEASE_REQUESTED,
+        DealMilestone.MilestoneStatus.DISPUTED
+    );
+
+    private static final Duration DELAYED_AFTER = Duration.ofDays(7);
+    private static final double SECONDS_PER_DAY = 86_400.0;
+
+    private final DashboardCounterRepository counterRepository;
+    private final DealRepository dealRepository;
+    private final DealMilestoneRepository milestoneRepository;
+    private final TransactionTemplate requiresNew;
+
+    public DashboardStatsService(
+            DashboardCounterRepository counterRepository,
+            DealRepository dealRepository,
+            DealMilestoneRepository milestoneRepository,
+            PlatformTransactionManager transactionManager) {
+        this.counterRepository = counterRepository;
+        this.dealRepository = dealRepository;
+        this.milestoneRepository = milestoneRepository;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @EventListener
+    public void onDealStateChanged(DealStateChangedEvent event) {
+        Map<String, Long> deltas = new HashMap<>();
+        if (event.getFromState() != null) {
+            deltas.merge(DEAL_STATE_PREFIX + event.getFromState(), -1L, Long::sum);
+        }
+        deltas.merge(DEAL_STATE_PREFIX + event.getToState(), 1L, Long::sum);
+        record(deltas);
+    }
+
+    @EventListener
+    public void onMilestoneStatusChanged(MilestoneStatusChangedEvent event) {
+        Map<String, Long> deltas = new HashMap<>();
+        DealMilestone.MilestoneStatus from = event.getFromStatus();
+        DealMilestone.MilestoneStatus to = event.getToStatus();
+        if (from != null) {
+            deltas.merge(MILESTONE_STATUS_PREFIX + from, -1L, Long::sum);
+        }
+        deltas.merge(MILESTONE_STATUS_PREFIX + to, 1L, Long::sum);
+
+        boolean wasHeld = from != null && HELD_STATUSES.contains(from);
+        boolean isHeld = HELD_STATUSES.contains(to);
+        if (wasHeld != isHeld && event.getMilestoneCreatedAt() != null) {
+            long createdAt = event.getMilestoneCreatedAt().getEpochSecond();
+            deltas.merge(HELD_CREATED_AT_SUM, isHeld ? createdAt : -createdAt, Long::sum);
+        }
+        record(deltas);
+    }
+
+    /**
+     * Current KPI snapshot. Reads the counter rows plus one indexed count for delayed deals.
+     */
+    @Transactional(readOnly = true)
+    public Stats getStats() {
+        Map<String, Long> counters = counterRepository.findAll().stream()
+            .collect(Collectors.toMap(DashboardCounter::getCounterKey, DashboardCounter::getCounterValue));
+
+        long totalDeals = 0;
+        for (DealState state : DealState.values()) {
+            totalDeals += counters.getOrDefault(DEAL_STATE_PREFIX + state, 0L);
+        }
+
+        long heldCount = 0;
+        for (DealMilestone.MilestoneStatus status : HELD_STATUSES) {
+            heldCount += counters.getOrDefault(MILESTONE_STATUS_PREFIX + status, 0L);
+        }
+        Instant now = Instant.now();
+        double avgHoldingDays = 0.0;
+        if (heldCount > 0) {
+            double avgCreatedAt = (double) counters.getOrDefault(HELD_CREATED_AT_SUM, 0L) / heldCount;
+            avgHoldingDays = Math.max(0.0, (now.getEpochSecond() - avgCreatedAt) / SECONDS_PER_DAY);
+        }
+
+        long delayedDeals = milestoneRepository.countDealsByStatusCreatedBefore(
+            DealMilestone.MilestoneStatus.PAID_HELD, now.minus(DELAYED_AFTER));
+
+        return Stats.builder()
+            .totalDeals(totalDeals)
+            .fundsHeld(counters.getOrDefault(DEAL_STATE_PREFIX + DealState.FUNDS_HELD, 0L))
+            .releaseRequested(counters.getOrDefault(MILESTONE_STATUS_PREFIX + DealMilestone.MilestoneStatus.RELEASE_REQUESTED, 0L))
+            .disputed(counters.getOrDefault(MILESTONE_STATUS_PREFIX + DealMilestone.MilestoneStatus.DISPUTED, 0L)
+                + counters.getOrDefault(MILESTONE_STATUS_PREFIX + DealMilestone.MilestoneStatus.DISPUTE_REVIEWING, 0L))
+            .avgHoldingDays(avgHoldingDays)
+            .delayedDeals(delayedDeals)
+            .build();
+    }
+
+    /**
+     * Recomputes all counters from the source tables and repairs drifted ones.
+     */
+    @Transactional
+    public ReconcileReport reconcile() {
+        Map<String, Long> expected = new TreeMap<>();
+        for (Object[] row : dealRepository.countGroupByState()) {
+            expected.put(DEAL_STATE_PREFIX + row[0], (Long) row[1]);
+        }
+        for (Object[] row : milestoneRepository.countGroupByStatus()) {
+            expected.put(MILESTONE_STATUS_PREFIX + row[0], (Long) row[1]);
+        }
+        expected.put(HELD_CREATED_AT_SUM, milestoneRepository.sumCreatedAtEpochSecondsByStatusIn(
+            HELD_STATUSES.stream().map(Enum::name).toList()).longValue());
+
+        Map<String, DashboardCounter> actual = counterRepository.findAll().stream()
+            .collect(Collectors.toMap(DashboardCounter::getCounterKey, Function.identity()));
+
+        Set<String> keys = new TreeSet<>(expected.keySet());
+        keys.addAll(actual.keySet());
+
+        Map<String, Long> drift = new TreeMap<>();
+        for (String key : keys) {
+            long want = expected.getOrDefault(key, 0L);
+            DashboardCounter counter = actual.get(key);
+            long have = counter != null ? counter.getCounterValue() : 0L;
+            if (counter == null) {
+                counterRepository.save(DashboardCounter.builder()
+                    .counterKey(key)
+                    .counterValue(want)
+                    .updatedAt(Instant.now())
+                    .build());
+            } else if (want != have) {
+                counter.reset(want);
+            }
+            if (want != have) {
+                drift.put(key, want - have);
+            }
+        }
+
+        if (!drift.isEmpty() && !actual.isEmpty()) {
+            log.warn("[DASHBOARD] Counter drift detected and repaired: {}", drift);
+        }
+        return ReconcileReport.builder()
+            .checked(keys.size())
+            .drift(drift)
+            .build();
+    }
+
+    /**
+     * Seeds the counters on startup (a first reconcile on an empty table creates every row).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedCounters() {
+        try {
+            requiresNew.executeWithoutResult(status -> reconcile());
+        } catch (Exception e) {
+            // Another node may be seeding concurrently; the scheduled reconciliation catches up
+            log.warn("[DASHBOARD] Could not seed counters on startup: {}", e.getMessage());
+        }
+    }
+
+    private void record(Map<String, Long> deltas) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(deltas);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, Long> pending = (Map<String, Long>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Map<String, Long> created = new TreeMap<>();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(created);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(DashboardStatsService.this);
+                }
+            });
+            pending = created;
+        }
+        deltas.forEach((key, delta) -> pending.merge(key, delta, Long::sum));
+    }
+
+    private void apply(Map<String, Long> deltas) {
+        Map<String, Long> sorted = new TreeMap<>(deltas);
+        sorted.values().removeIf(delta -> delta == 0L);
+        if (sorted.isEmpty()) {
+            return;
+        }
+        try {
+            requiresNew.executeWithoutResult(status -> {
+                Instant now = Instant.now();
+                sorted.forEach((key, delta) -> {
+                    if (counterRepository.increment(key, delta, now) == 0) {
+                        counterRepository.save(DashboardCounter.builder()
+                            .counterKey(key)
+                            .counterValue(delta)
+                            .updatedAt(now)
+                            .build());
+                    }
+                });
+            });
+        } catch (Exception e) {
+            // Never fail the caller after its commit; reconciliation repairs the counters
+            log.error("[DASHBOARD] Failed to apply counter deltas {}: {}", sorted, e.getMessage(), e);
+        }
+    }
+
+    @Value
+    @Builder
+    public static class Stats {
+        long totalDeals;
+        long fundsHeld;
+        long releaseRequested;
+        long disputed;
+        double avgHoldingDays;
+        long delayedDeals;
+    }
+
+    @Value
+    @Builder
+    public static class ReconcileReport {
+        int checked;
+        Map<String, Long> drift;
+
+        public boolean isConsistent() {
+            return drift.isEmpty();
+        }
+    }
+}
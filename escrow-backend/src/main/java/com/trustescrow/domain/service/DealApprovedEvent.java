@@ -0,0 +1,15 @@
+package com.trustescrow.domain.service;
+
+import lombok.Value;
+
+import java.util.UUID;
+
+/**
+ * Published by {@link DealStateService} when a deal enters APPROVED.
+ * Carries the ID of the outbox row written in the same transaction.
+ */
+@Value
+public class DealApprovedEvent {
+    UUID outboxEventId;
+    UUID dealId;
+}
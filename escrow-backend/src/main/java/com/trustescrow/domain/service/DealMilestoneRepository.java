@@ -1,8 +1,13 @@
 package com.trustescrow.domain.service;
 
 import com.trustescrow.domain.model.DealMilestone;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -14,4 +19,81 @@ public interface DealMilestoneRepository extends JpaRepository<DealMilestone, UU
     
     // STEP 2: Find milestone by deal and milestone ID
     java.util.Optional<DealMilestone> findByDealIdAndId(UUID dealId, UUID milestoneId);
+    
+    /**
+     * Milestone count per status: rows of [MilestoneStatus, Long].
+     */
+    @Query("SELECT m.status, COUNT(m) FROM DealMilestone m GROUP BY m.status")
+    List<Object[]> countGroupByStatus();
+    
+    /**
+     * Sum of the creation times, in whole epoch seconds, of milestones in {@code statuses}
+     * (status names), aggregated in the database.
+     */
+    @Query(value = "SELECT COALESCE(SUM(FLOOR(EXTRACT(EPOCH FROM created_at))), 0) FROM deal_milestones " +
+                   "WHERE status IN (:statuses)",
+           nativeQuery = true)
+    Number sumCreatedAtEpochSecondsByStatusIn(@Param("statuses") Collection<String> statuses);
+    
+    /**
+     * Number of distinct deals with a milestone in {@code status} created before {@code before}.
+     * Served by idx_deal_milestones_status_created.
+     */
+    @Query("SELECT COUNT(DISTINCT m.dealId) FROM DealMilestone m WHERE m.status = :status AND m.createdAt < :before")
+    long countDealsByStatusCreatedBefore(
+        @Param("status") DealMilestone.MilestoneStatus status,
+        @Param("before") Instant before
+    );
+    
+    /**
+     * First keyset page of milestones in {@code statuses} created before {@code before},
+     * ordered by (createdAt, id). Range scan on idx_deal_milestones_status_created.
+     */
+    @Query("SELECT m FROM DealMilestone m WHERE m.status IN :statuses AND m.createdAt < :before " +
+           "ORDER BY m.createdAt, m.id")
+    List<DealMilestone> findByStatusCreatedBefore(
+        @Param("statuses") Collection<DealMilestone.MilestoneStatus> statuses,
+        @Param("before") Instant before,
+        Pageable pageable
+    );
+    
+    /**
+     * Next keyset page of {@link #findByStatusCreatedBefore}, strictly after (afterTime, afterId).
+     */
+    @Query("SELECT m FROM DealMilestone m WHERE m.status IN :statuses AND m.createdAt < :before " +
+           "AND (m.createdAt > :afterTime OR (m.createdAt = :afterTime AND m.id > :afterId)) " +
+           "ORDER BY m.createdAt, m.id")
+    List<DealMilestone> findByStatusCreatedBeforeAfter(
+        @Param("statuses") Collection<DealMilestone.MilestoneStatus> statuses,
+        @Param("before") Instant before,
+        @Param("afterTime") Instant afterTime,
+        @Param("afterId") UUID afterId,
+        Pageable pageable
+    );
+    
+    /**
+     * First keyset page of milestones in {@code statuses} last updated before {@code before},
+     * ordered by (updatedAt, id). Range scan on idx_deal_milestones_status_updated.
+     */
+    @Query("SELECT m FROM DealMilestone m WHERE m.status IN :statuses AND m.updatedAt < :before " +
+           "ORDER BY m.updatedAt, m.id")
+    List<DealMilestone> findByStatusUpdatedBefore(
+        @Param("statuses") Collection<DealMilestone.MilestoneStatus> statuses,
+        @Param("before") Instant before,
+        Pageable pageable
+    );
+    
+    /**
+     * Next keyset page of {@link #findByStatusUpdatedBefore}, strictly after (afterTime, afterId).
+     */
+    @Query("SELECT m FROM DealMilestone m WHERE m.status IN :statuses AND m.updatedAt < :before " +
+           "AND (m.updatedAt > :afterTime OR (m.updatedAt = :afterTime AND m.id > :afterId)) " +
+           "ORDER BY m.updatedAt, m.id")
+    List<DealMilestone> findByStatusUpdatedBeforeAfter(
+        @Param("statuses") Collection<DealMilestone.MilestoneStatus> statuses,
+        @Param("before") Instant before,
+        @Param("afterTime") Instant afterTime,
+        @Param("afterId") UUID afterId,
+        Pageable pageable
+    );
 }
@@ -2,12 +2,17 @@ package com.trustescrow.domain.service;
 
 import com.trustescrow.domain.model.Deal;
 import com.trustescrow.domain.model.DealState;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import jakarta.persistence.LockModeType;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -19,4 +24,83 @@ public interface DealRepository extends JpaRepository<Deal, UUID> {
     Optional<Deal> findByIdWithLock(@Param("id") UUID id);
     
     List<Deal> findByState(DealState state);
+    
+    List<Deal> findBySellerIdOrderByCreatedAtDesc(UUID sellerId);
+    
+    List<Deal> findBySellerIdAndStateOrderByCreatedAtDesc(UUID sellerId, DealState state);
+    
+    /**
+     * Deal count and total amount per state for one seller (idx_deals_seller_state_updated).
+     */
+    @Query("SELECT d.state AS state, COUNT(d) AS totalCount, COALESCE(SUM(d.totalAmount), 0) AS totalAmount " +
+           "FROM Deal d WHERE d.sellerId = :sellerId GROUP BY d.state")
+    List<StateTotals> sumBySellerGroupByState(@Param("sellerId") UUID sellerId);
+    
+    /**
+     * Deal count and total amount for one seller in a state, updated strictly inside (from, to).
+     */
+    @Query("SELECT COUNT(d) AS totalCount, COALESCE(SUM(d.totalAmount), 0) AS totalAmount FROM Deal d " +
+           "WHERE d.sellerId = :sellerId AND d.state = :state AND d.updatedAt > :from AND d.updatedAt < :to")
+    Totals sumBySellerAndStateUpdatedBetween(
+        @Param("sellerId") UUID sellerId,
+        @Param("state") DealState state,
+        @Param("from") Instant from,
+        @Param("to") Instant to
+    );
+    
+    /**
+     * Deal count per state: rows of [DealState, Long].
+     */
+    @Query("SELECT d.state, COUNT(d) FROM Deal d GROUP BY d.state")
+    List<Object[]> countGroupByState();
+    
+    /**
+     * Locks up to {@code limit} unleased deals in a state, last updated before {@code updatedBefore},
+     * for claiming (PostgreSQL). Rows locked by another node are skipped rather than waited on.
+     */
+    @Query(value = "SELECT id FROM deals WHERE state = :state AND updated_at < :updatedBefore " +
+                   "AND (lease_until IS NULL OR lease_until < :now) " +
+                   "ORDER BY updated_at LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<UUID> lockIdsForClaim(
+        @Param("state") String state,
+        @Param("updatedBefore") Instant updatedBefore,
+        @Param("now") Instant now,
+        @Param("limit") int limit
+    );
+    
+    /**
+     * Unleased deal IDs in a state, last updated before {@code updatedBefore}, without row locks
+     * (single-node fallback).
+     */
+    @Query("SELECT d.id FROM Deal d WHERE d.state = :state AND d.updatedAt < :updatedBefore " +
+           "AND (d.leaseUntil IS NULL OR d.leaseUntil < :now) ORDER BY d.updatedAt")
+    List<UUID> findUnleasedIds(
+        @Param("state") DealState state,
+        @Param("updatedBefore") Instant updatedBefore,
+        @Param("now") Instant now,
+        Pageable pageable
+    );
+    
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Deal d SET d.leaseOwner = :owner, d.leaseUntil = :until WHERE d.id IN :ids")
+    int lease(@Param("ids") Collection<UUID> ids, @Param("owner") String owner, @Param("until") Instant until);
+    
+    /**
+     * Clears the leases this node still holds on the given deals.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Deal d SET d.leaseOwner = NULL, d.leaseUntil = NULL WHERE d.id IN :ids AND d.leaseOwner = :owner")
+    int releaseLease(@Param("ids") Collection<UUID> ids, @Param("owner") String owner);
+    
+    interface StateTotals {
+        DealState getState();
+        Long getTotalCount();
+        BigDecimal getTotalAmount();
+    }
+    
+    interface Totals {
+        Long getTotalCount();
+        BigDecimal getTotalAmount();
+    }
 }
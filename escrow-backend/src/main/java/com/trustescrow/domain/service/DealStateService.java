@@ -4,8 +4,10 @@ import com.trustescrow.domain.model.AuditEvent;
 import com.trustescrow.domain.model.AuditEventType;
 import com.trustescrow.domain.model.Deal;
 import com.trustescrow.domain.model.DealState;
+import com.trustescrow.domain.model.OutboxEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -15,6 +17,7 @@ import java.util.UUID;
 /**
  * Service for managing Deal state transitions.
  * All transitions are server-authoritative and emit audit events.
+ * Entering APPROVED also writes an outbox event (see OutboxDispatcher).
  */
 @Service
 @RequiredArgsConstructor
@@ -23,6 +26,8 @@ public class DealStateService {
     
     private final DealRepository dealRepository;
     private final AuditEventRepository auditEventRepository;
+    private final OutboxEventRepository outboxEventRepository;
+    private final ApplicationEventPublisher eventPublisher;
     
     /**
      * Transitions a deal to a new state.
@@ -68,6 +73,18 @@ public class DealStateService {
         
         auditEventRepository.save(auditEvent);
         
+        // Outbox: holdback release is triggered right after commit instead of waiting for the sweep
+        if (newState == DealState.APPROVED) {
+            OutboxEvent outboxEvent = outboxEventRepository.save(OutboxEvent.builder()
+                .dealId(dealId)
+                .eventType(OutboxEvent.DEAL_APPROVED)
+                .payload(String.format("{\"from\":\"%s\",\"actor\":\"%s\"}", currentState, actor))
+                .attempts(0)
+                .createdAt(Instant.now())
+                .build());
+            eventPublisher.publishEvent(new DealApprovedEvent(outboxEvent.getId(), dealId));
+        }
+        
         log.info("Deal {} transitioned from {} to {} by {}", dealId, currentState, newState, actor);
     }
 }
@@ -0,0 +1,48 @@
+package com.trustescrow.domain.service;
+
+import com.trustescrow.domain.model.EscrowBalance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import jakarta.persistence.LockModeType;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface EscrowBalanceRepository extends JpaRepository<EscrowBalance, UUID> {
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM EscrowBalance b WHERE b.dealId = :dealId")
+    Optional<EscrowBalance> findByDealIdWithLock(@Param("dealId") UUID dealId);
+    
+    /**
+     * Creates an empty projection row unless one exists; a concurrent insert of the same deal
+     * waits for the other transaction and then does nothing (PostgreSQL).
+     *
+     * @return 1 if the row was created
+     */
+    @Modifying
+    @Query(value = "INSERT INTO escrow_balances (deal_id, held_total, released_total, released_from_escrow_total, " +
+                   "refunded_total, offset_total, escrow_account, seller_account, buyer_account, entry_count, updated_at, version) " +
+                   "VALUES (:dealId, 0, 0, 0, 0, 0, 0, 0, 0, 0, :now, 0) ON CONFLICT (deal_id) DO NOTHING",
+           nativeQuery = true)
+    int insertEmptyIfAbsent(@Param("dealId") UUID dealId, @Param("now") Instant now);
+    
+    /**
+     * {@link #insertEmptyIfAbsent} for databases without ON CONFLICT (H2 dev profile, single node).
+     */
+    @Modifying
+    @Query(value = "INSERT INTO escrow_balances (deal_id, held_total, released_total, released_from_escrow_total, " +
+                   "refunded_total, offset_total, escrow_account, seller_account, buyer_account, entry_count, updated_at, version) " +
+                   "SELECT :dealId, 0, 0, 0, 0, 0, 0, 0, 0, 0, :now, 0 " +
+                   "WHERE NOT EXISTS (SELECT 1 FROM escrow_balances WHERE deal_id = :dealId)",
+           nativeQuery = true)
+    int insertEmptyIfAbsentSingleNode(@Param("dealId") UUID dealId, @Param("now") Instant now);
+    
+    @Query("SELECT b.dealId FROM EscrowBalance b WHERE b.updatedAt >= :since ORDER BY b.updatedAt")
+    List<UUID> findDealIdsUpdatedSince(@Param("since") Instant since);
+}
@@ -1,8 +1,12 @@
 package com.trustescrow.domain.service;
 
 import com.trustescrow.domain.model.EscrowLedgerEntry;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -14,4 +18,18 @@ public interface EscrowLedgerRepository extends JpaRepository<EscrowLedgerEntry,
     boolean existsByIdempotencyKey(String idempotencyKey);
     
     Optional<EscrowLedgerEntry> findByIdempotencyKey(String idempotencyKey);
+    
+    List<EscrowLedgerEntry> findByIdempotencyKeyIn(Collection<String> idempotencyKeys);
+    
+    /**
+     * Deals with ledger entries, in id order (first page).
+     */
+    @Query("SELECT DISTINCT e.dealId FROM EscrowLedgerEntry e ORDER BY e.dealId")
+    List<UUID> findDistinctDealIds(Pageable pageable);
+    
+    /**
+     * Deals with ledger entries after {@code after}, in id order.
+     */
+    @Query("SELECT DISTINCT e.dealId FROM EscrowLedgerEntry e WHERE e.dealId > :after ORDER BY e.dealId")
+    List<UUID> findDistinctDealIdsAfter(@Param("after") UUID after, Pageable pageable);
 }
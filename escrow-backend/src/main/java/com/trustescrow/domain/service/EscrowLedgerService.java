@@ -2,34 +2,61 @@ package com.trustescrow.domain.service;
 
 import com.trustescrow.domain.model.AuditEvent;
 import com.trustescrow.domain.model.AuditEventType;
+import com.trustescrow.domain.model.EscrowBalance;
 import com.trustescrow.domain.model.EscrowLedgerEntry;
 import com.trustescrow.domain.model.LedgerEntryType;
 import com.trustescrow.domain.rules.RulesEngine;
+import lombok.Builder;
 import lombok.RequiredArgsConstructor;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
+import jakarta.annotation.PostConstruct;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.sql.DataSource;
 import java.math.BigDecimal;
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
  * Service for managing escrow ledger entries.
  * Ledger is append-only and idempotent.
+ * Each append also updates the per-deal {@link EscrowBalance} projection in the same transaction.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class EscrowLedgerService {
     
+    private static final int REBUILD_BATCH_SIZE = 500;
+    
     private final EscrowLedgerRepository ledgerRepository;
     private final DealRepository dealRepository;
     private final AuditEventRepository auditEventRepository;
+    private final EscrowBalanceRepository balanceRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final DataSource dataSource;
+    
+    private boolean postgres;
+    
+    @PostConstruct
+    public void init() {
+        try (Connection connection = dataSource.getConnection()) {
+            postgres = "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+        } catch (Exception e) {
+            log.warn("Could not detect database for balance projection inserts: {}", e.getMessage());
+        }
+    }
     
     /**
      * Executes an escrow action idempotently.
@@ -37,61 +64,107 @@ public class EscrowLedgerService {
      */
     @Transactional
     public EscrowLedgerEntry executeAction(UUID dealId, RulesEngine.EscrowAction action, String actor) {
+        return executeActions(dealId, List.of(action), actor).get(0);
+    }
+    
+    /**
+     * Executes several escrow actions for one deal idempotently, in bulk.
+     * The deal currency is resolved once, all idempotency keys are checked with a single IN query,
+     * and new ledger and audit rows are inserted through JDBC batching (hibernate.jdbc.batch_size).
+     * Actions that already executed, including duplicates within the list, are no-ops.
+     *
+     * @return the ledger entry for each action, in the order of {@code actions}
+     */
+    @Transactional
+    public List<EscrowLedgerEntry> executeActions(UUID dealId, List<RulesEngine.EscrowAction> actions, String actor) {
+        if (actions.isEmpty()) {
+            return List.of();
+        }
+        
         // Get currency from deal (SSOT requirement: idempotency key must include currency)
         String currency = dealRepository.findById(dealId)
             .map(deal -> deal.getCurrency())
             .orElseThrow(() -> new IllegalArgumentException("Deal not found: " + dealId));
         
-        // Generate idempotency key per SSOT: hash(dealId + referenceId + type + amount + currency)
-        String idempotencyKey = generateIdempotencyKey(
-            dealId,
-            action.getReferenceId(),
-            action.getType().name(),
-            action.getAmount(),
-            currency
-        );
-        
-        // Check if already exists
-        if (ledgerRepository.existsByIdempotencyKey(idempotencyKey)) {
-            log.info("Ledger action already executed (idempotent): {}", idempotencyKey);
-            return ledgerRepository.findByIdempotencyKey(idempotencyKey)
-                .orElseThrow(() -> new IllegalStateException("Idempotency key exists but entry not found"));
+        // Generate idempotency keys per SSOT: hash(dealId + referenceId + type + amount + currency)
+        List<String> idempotencyKeys = new ArrayList<>(actions.size());
+        for (RulesEngine.EscrowAction action : actions) {
+            idempotencyKeys.add(generateIdempotencyKey(
+                dealId,
+                action.getReferenceId(),
+                action.getType().name(),
+                action.getAmount(),
+                currency
+            ));
         }
         
-        // Map action type to ledger entry type
-        LedgerEntryType entryType = mapActionTypeToEntryType(action.getType());
-        
-        // Create ledger entry
-        EscrowLedgerEntry entry = EscrowLedgerEntry.builder()
-            .dealId(dealId)
-            .type(entryType)
-            .amount(action.getAmount())
-            .currency(currency)
-            .fromAccount(action.getFromAccount())
-            .toAccount(action.getToAccount())
-            .referenceId(action.getReferenceId())
-            .idempotencyKey(idempotencyKey)
-            .createdBy(actor)
-            .createdAt(Instant.now())
-            .build();
+        // Check all keys in one roundtrip
+        Map<String, EscrowLedgerEntry> entriesByKey = new HashMap<>();
+        for (EscrowLedgerEntry existing : ledgerRepository.findByIdempotencyKeyIn(new HashSet<>(idempotencyKeys))) {
+            log.info("Ledger action already executed (idempotent): {}", existing.getIdempotencyKey());
+            entriesByKey.put(existing.getIdempotencyKey(), existing);
+        }
         
-        EscrowLedgerEntry saved = ledgerRepository.save(entry);
-        log.info("Ledger entry created: {} for deal {}", saved.getId(), dealId);
+        List<EscrowLedgerEntry> newEntries = new ArrayList<>();
+        Instant now = Instant.now();
+        for (int i = 0; i < actions.size(); i++) {
+            String idempotencyKey = idempotencyKeys.get(i);
+            if (entriesByKey.containsKey(idempotencyKey)) {
+                continue;
+            }
+            RulesEngine.EscrowAction action = actions.get(i);
+            
+            // Create ledger entry
+            EscrowLedgerEntry entry = EscrowLedgerEntry.builder()
+                .dealId(dealId)
+                .type(mapActionTypeToEntryType(action.getType()))
+                .amount(action.getAmount())
+                .currency(currency)
+                .fromAccount(action.getFromAccount())
+                .toAccount(action.getToAccount())
+                .referenceId(action.getReferenceId())
+                .idempotencyKey(idempotencyKey)
+                .createdBy(actor)
+                .createdAt(now)
+                .build();
+            entriesByKey.put(idempotencyKey, entry);
+            newEntries.add(entry);
+        }
         
-        // Emit audit event per SSOT: all ledger actions must produce audit events
-        AuditEvent auditEvent = AuditEvent.builder()
-            .dealId(dealId)
-            .type(AuditEventType.LEDGER_ACTION_EXECUTED)
-            .actor(actor)
-            .payload(String.format(
-                "{\"ledgerEntryId\":\"%s\",\"type\":\"%s\",\"amount\":\"%s\",\"currency\":\"%s\",\"fromAccount\":\"%s\",\"toAccount\":\"%s\"}",
-                saved.getId(), entryType, action.getAmount(), currency, action.getFromAccount(), action.getToAccount()
-            ))
-            .createdAt(Instant.now())
-            .build();
-        auditEventRepository.save(auditEvent);
+        if (!newEntries.isEmpty()) {
+            // Lock (or initialize) the balance projection before the append so a replay never sees the new entries
+            EscrowBalance balance = lockBalance(dealId);
+            
+            List<EscrowLedgerEntry> saved = ledgerRepository.saveAll(newEntries);
+            
+            List<AuditEvent> auditEvents = new ArrayList<>(saved.size());
+            for (EscrowLedgerEntry entry : saved) {
+                log.info("Ledger entry created: {} for deal {}", entry.getId(), dealId);
+                entriesByKey.put(entry.getIdempotencyKey(), entry);
+                balance.apply(entry.getType(), entry.getAmount(), entry.getFromAccount(), entry.getToAccount());
+                
+                // Emit audit event per SSOT: all ledger actions must produce audit events
+                auditEvents.add(AuditEvent.builder()
+                    .dealId(dealId)
+                    .type(AuditEventType.LEDGER_ACTION_EXECUTED)
+                    .actor(actor)
+                    .payload(String.format(
+                        "{\"ledgerEntryId\":\"%s\",\"type\":\"%s\",\"amount\":\"%s\",\"currency\":\"%s\",\"fromAccount\":\"%s\",\"toAccount\":\"%s\"}",
+                        entry.getId(), entry.getType(), entry.getAmount(), currency, entry.getFromAccount(), entry.getToAccount()
+                    ))
+                    .createdAt(now)
+                    .build());
+            }
+            
+            balanceRepository.save(balance);
+            auditEventRepository.saveAll(auditEvents);
+        }
         
-        return saved;
+        List<EscrowLedgerEntry> result = new ArrayList<>(actions.size());
+        for (String idempotencyKey : idempotencyKeys) {
+            result.add(entriesByKey.get(idempotencyKey));
+        }
+        return result;
     }
     
     /**
@@ -105,29 +178,14 @@ public class EscrowLedgerService {
         BigDecimal amount,
         String currency
     ) {
-        String input = String.format("%s|%s|%s|%s|%s",
-            dealId,
-            referenceId != null ? referenceId : "",
-            type,
-            amount.toPlainString(),
-            currency
-        );
-        
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(input.getBytes(StandardCharsets.UTF_8));
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) {
-                    hexString.append('0');
-                }
-                hexString.append(hex);
-            }
-            return hexString.toString();
-        } catch (NoSuchAlgorithmException e) {
-            throw new IllegalStateException("SHA-256 algorithm not available", e);
-        }
+        String input = new StringBuilder(128)
+            .append(dealId).append('|')
+            .append(referenceId != null ? referenceId.toString() : "").append('|')
+            .append(type).append('|')
+            .append(amount.toPlainString()).append('|')
+            .append(currency)
+            .toString();
+        return Sha256.hashHex(input);
     }
     
     private LedgerEntryType mapActionTypeToEntryType(RulesEngine.EscrowActionType actionType) {
@@ -153,17 +211,7 @@ public class EscrowLedgerService {
      */
     @Transactional(readOnly = true)
     public BigDecimal calculateBalance(UUID dealId) {
-        List<EscrowLedgerEntry> entries = getLedgerEntries(dealId);
-        BigDecimal balance = BigDecimal.ZERO;
-        
-        for (EscrowLedgerEntry entry : entries) {
-            switch (entry.getType()) {
-                case HOLD -> balance = balance.add(entry.getAmount());
-                case RELEASE, REFUND, OFFSET -> balance = balance.subtract(entry.getAmount());
-            }
-        }
-        
-        return balance;
+        return getBalance(dealId).getBalance();
     }
     
     /**
@@ -171,21 +219,125 @@ public class EscrowLedgerService {
      */
     @Transactional(readOnly = true)
     public boolean isHoldbackUnreleased(UUID dealId, BigDecimal expectedHoldback) {
-        List<EscrowLedgerEntry> entries = getLedgerEntries(dealId);
-        
-        BigDecimal held = BigDecimal.ZERO;
-        BigDecimal released = BigDecimal.ZERO;
-        
-        for (EscrowLedgerEntry entry : entries) {
-            if (entry.getType() == LedgerEntryType.HOLD) {
-                held = held.add(entry.getAmount());
-            } else if (entry.getType() == LedgerEntryType.RELEASE && 
-                       "escrow".equals(entry.getFromAccount())) {
-                released = released.add(entry.getAmount());
+        EscrowBalance balance = getBalance(dealId);
+        BigDecimal netHoldback = balance.getHeldTotal().subtract(balance.getReleasedFromEscrowTotal());
+        return netHoldback.compareTo(expectedHoldback) >= 0;
+    }
+    
+    /**
+     * Gets the balance projection for a deal (single-row primary-key lookup).
+     * Deals without a projection row yet (pre-projection data) are replayed from the ledger.
+     */
+    @Transactional(readOnly = true)
+    public EscrowBalance getBalance(UUID dealId) {
+        return balanceRepository.findById(dealId)
+            .orElseGet(() -> replay(dealId));
+    }
+    
+    /**
+     * Rebuilds the balance projection of a deal from its ledger entries.
+     */
+    @Transactional
+    public EscrowBalance rebuildBalance(UUID dealId) {
+        EscrowBalance rebuilt = replay(dealId);
+        EscrowBalance balance = balanceRepository.findByDealIdWithLock(dealId).orElse(null);
+        if (balance == null) {
+            balance = rebuilt;
+        } else {
+            balance.resetTo(rebuilt);
+        }
+        log.info("Rebuilt balance projection for deal {} from {} ledger entries", dealId, rebuilt.getEntryCount());
+        return balanceRepository.save(balance);
+    }
+    
+    /**
+     * Rebuilds the balance projection of every deal that has ledger entries,
+     * {@value #REBUILD_BATCH_SIZE} deals per transaction.
+     *
+     * @return number of deals rebuilt
+     */
+    public int rebuildAllBalances() {
+        TransactionTemplate batchTransaction = new TransactionTemplate(transactionManager);
+        int rebuilt = 0;
+        UUID last = null;
+        while (true) {
+            UUID after = last;
+            List<UUID> dealIds = after == null
+                ? ledgerRepository.findDistinctDealIds(PageRequest.of(0, REBUILD_BATCH_SIZE))
+                : ledgerRepository.findDistinctDealIdsAfter(after, PageRequest.of(0, REBUILD_BATCH_SIZE));
+            if (dealIds.isEmpty()) {
+                return rebuilt;
             }
+            batchTransaction.executeWithoutResult(status -> dealIds.forEach(this::rebuildBalance));
+            rebuilt += dealIds.size();
+            last = dealIds.get(dealIds.size() - 1);
         }
-        
-        BigDecimal netHoldback = held.subtract(released);
-        return netHoldback.compareTo(expectedHoldback) >= 0;
+    }
+    
+    /**
+     * Compares the stored projection of a deal with a fresh replay of its ledger.
+     */
+    @Transactional(readOnly = true)
+    public BalanceCheck verifyBalance(UUID dealId) {
+        EscrowBalance replayed = replay(dealId);
+        EscrowBalance projected = balanceRepository.findById(dealId).orElse(null);
+        boolean consistent = projected != null
+            ? projected.sameTotals(replayed)
+            : replayed.getEntryCount() == 0;
+        if (!consistent) {
+            log.error("Balance projection drift for deal {}: projected={}, ledger={}",
+                dealId,
+                projected != null ? projected.getBalance() : null,
+                replayed.getBalance());
+        }
+        return BalanceCheck.builder()
+            .dealId(dealId)
+            .consistent(consistent)
+            .projectedBalance(projected != null ? projected.getBalance() : null)
+            .ledgerBalance(replayed.getBalance())
+            .projectedEntryCount(projected != null ? projected.getEntryCount() : 0L)
+            .ledgerEntryCount(replayed.getEntryCount())
+            .build();
+    }
+    
+    /**
+     * Locks the projection row of a deal, creating it first if needed. The row is inserted
+     * ON CONFLICT DO NOTHING, so two first appends of a deal serialize on it instead of one
+     * failing on the primary key. A newly created row is replayed from the ledger (deals that
+     * predate the projection).
+     */
+    private EscrowBalance lockBalance(UUID dealId) {
+        Instant now = Instant.now();
+        int created = postgres
+            ? balanceRepository.insertEmptyIfAbsent(dealId, now)
+            : balanceRepository.insertEmptyIfAbsentSingleNode(dealId, now);
+        EscrowBalance balance = balanceRepository.findByDealIdWithLock(dealId)
+            .orElseThrow(() -> new IllegalStateException("Balance projection missing for deal " + dealId));
+        if (created == 1) {
+            balance.resetTo(replay(dealId));
+        }
+        return balance;
+    }
+    
+    /**
+     * Folds the ledger of a deal into a fresh (unsaved) projection.
+     */
+    private EscrowBalance replay(UUID dealId) {
+        EscrowBalance balance = EscrowBalance.empty(dealId);
+        for (EscrowLedgerEntry entry : getLedgerEntries(dealId)) {
+            balance.apply(entry.getType(), entry.getAmount(), entry.getFromAccount(), entry.getToAccount());
+        }
+        return balance;
+    }
+    
+    @Value
+    @Builder
+    public static class BalanceCheck {
+        UUID dealId;
+        boolean consistent;
+        BigDecimal projectedBalance;
+        BigDecimal ledgerBalance;
+        long projectedEntryCount;
+        long ledgerEntryCount;
     }
 }
@@ -0,0 +1,27 @@
+package com.trustescrow.domain.service;
+
+import com.trustescrow.domain.model.EvidenceUploadChunk;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface EvidenceUploadChunkRepository extends JpaRepository<EvidenceUploadChunk, UUID> {
+    
+    Optional<EvidenceUploadChunk> findByUploadIdAndChunkIndex(UUID uploadId, Integer chunkIndex);
+    
+    @Query("SELECT c.chunkIndex FROM EvidenceUploadChunk c WHERE c.uploadId = :uploadId ORDER BY c.chunkIndex")
+    List<Integer> findChunkIndexes(@Param("uploadId") UUID uploadId);
+    
+    long countByUploadId(UUID uploadId);
+    
+    @Modifying
+    @Query("DELETE FROM EvidenceUploadChunk c WHERE c.uploadId = :uploadId")
+    int deleteByUploadId(@Param("uploadId") UUID uploadId);
+}
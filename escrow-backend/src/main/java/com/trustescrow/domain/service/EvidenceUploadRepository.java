@@ -0,0 +1,25 @@
+package com.trustescrow.domain.service;
+
+import com.trustescrow.domain.model.EvidenceUpload;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface EvidenceUploadRepository extends JpaRepository<EvidenceUpload, UUID> {
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM EvidenceUpload u WHERE u.id = :id")
+    Optional<EvidenceUpload> findByIdWithLock(@Param("id") UUID id);
+    
+    List<EvidenceUpload> findByStatusAndExpiresAtBefore(EvidenceUpload.Status status, Instant now, Pageable pageable);
+}
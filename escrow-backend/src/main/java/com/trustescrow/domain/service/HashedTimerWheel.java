@@ -0,0 +1,193 @@
+package com.trustescrow.domain.service;
+
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Hashed timer wheel (Varghese and Lauck) used by {@link TimerService}.
+ *
+ * The wheel is a ring of buckets, each covering one tick. A timer is hashed into
+ * the bucket of its deadline tick; deadlines further out than one rotation share the
+ * bucket and are skipped until their own rotation comes round. Scheduling and
+ * cancellation are O(1); advancing the wheel only touches the buckets whose ticks have passed.
+ *
+ * Pure data structure: no threads, no clock. The caller drives it with {@link #advance(long)}.
+ */
+public class HashedTimerWheel {
+
+    private final long tickMillis;
+    private final int mask;
+    private final Bucket[] buckets;
+    private final Map<UUID, Entry> entries = new HashMap<>();
+
+    /**
+     * Tick index of the next bucket to be processed.
+     */
+    private long currentTick;
+
+    /**
+     * @param tickMillis resolution of the wheel in milliseconds
+     * @param wheelSize number of buckets (rounded up to a power of two)
+     * @param startMillis epoch millis the wheel starts at
+     */
+    public HashedTimerWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis must be positive");
+        }
+        if (wheelSize <= 0 || wheelSize > (1 << 20)) {
+            throw new IllegalArgumentException("wheelSize must be in (0, 2^20]");
+        }
+        int size = 1;
+        while (size < wheelSize) {
+            size <<= 1;
+        }
+        this.tickMillis = tickMillis;
+        this.mask = size - 1;
+        this.buckets = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new Bucket();
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Schedules a timer. Deadlines in the past land in the next bucket to be processed.
+     *
+     * @return false if a timer with the same id is already scheduled
+     */
+    public synchronized boolean schedule(UUID timerId, String timerType, long deadlineMillis) {
+        if (entries.containsKey(timerId)) {
+            return false;
+        }
+        long deadlineTick = Math.max(ceilTick(deadlineMillis), currentTick);
+        Entry entry = new Entry(timerId, timerType, deadlineMillis);
+        buckets[(int) (deadlineTick & mask)].add(entry);
+        entries.put(timerId, entry);
+        return true;
+    }
+
+    /**
+     * Cancels a scheduled timer.
+     *
+     * @return true if the timer was scheduled and has been removed
+     */
+    public synchronized boolean cancel(UUID timerId) {
+        Entry entry = entries.remove(timerId);
+        if (entry == null) {
+            return false;
+        }
+        entry.bucket.remove(entry);
+        return true;
+    }
+
+    public synchronized boolean contains(UUID timerId) {
+        return entries.containsKey(timerId);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Advances the wheel up to {@code nowMillis} and returns every timer whose deadline has passed.
+     * Expired timers are removed from the wheel.
+     */
+    public synchronized List<Expired> advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        List<Expired> expired = new ArrayList<>();
+        // Never spin more than one rotation: after that every bucket has been visited once.
+        long stop = Math.min(targetTick, currentTick + buckets.length - 1);
+        while (currentTick <= stop) {
+            expireBucket(buckets[(int) (currentTick & mask)], nowMillis, expired);
+            currentTick++;
+        }
+        if (currentTick <= targetTick) {
+            currentTick = targetTick + 1;
+        }
+        return expired;
+    }
+
+    private void expireBucket(Bucket bucket, long nowMillis, List<Expired> expired) {
+        Entry entry = bucket.head;
+        while (entry != null) {
+            Entry next = entry.next;
+            // Entries from later rotations share the bucket; the deadline decides.
+            if (entry.deadlineMillis <= nowMillis) {
+                bucket.remove(entry);
+                entries.remove(entry.timerId);
+                expired.add(new Expired(entry.timerId, entry.timerType, entry.deadlineMillis));
+            }
+            entry = next;
+        }
+    }
+
+    private long ceilTick(long millis) {
+        return Math.floorDiv(millis + tickMillis - 1, tickMillis);
+    }
+
+    /**
+     * Timer removed from the wheel because its deadline passed.
+     */
+    @Value
+    public static class Expired {
+        UUID timerId;
+        String timerType;
+        long deadlineMillis;
+    }
+
+    private static final class Entry {
+        private final UUID timerId;
+        private final String timerType;
+        private final long deadlineMillis;
+        private Bucket bucket;
+        private Entry prev;
+        private Entry next;
+
+        private Entry(UUID timerId, String timerType, long deadlineMillis) {
+            this.timerId = timerId;
+            this.timerType = timerType;
+            this.deadlineMillis = deadlineMillis;
+        }
+    }
+
+    /**
+     * Intrusive doubly linked list so that cancel does not need to search the bucket.
+     */
+    private static final class Bucket {
+        private Entry head;
+        private Entry tail;
+
+        private void add(Entry entry) {
+            entry.bucket = this;
+            entry.prev = tail;
+            entry.next = null;
+            if (tail == null) {
+                head = entry;
+            } else {
+                tail.next = entry;
+            }
+            tail = entry;
+        }
+
+        private void remove(Entry entry) {
+            if (entry.prev == null) {
+                head = entry.next;
+            } else {
+                entry.prev.next = entry.next;
+            }
+            if (entry.next == null) {
+                tail = entry.prev;
+            } else {
+                entry.next.prev = entry.prev;
+            }
+            entry.prev = null;
+            entry.next = null;
+            entry.bucket = null;
+        }
+    }
+}
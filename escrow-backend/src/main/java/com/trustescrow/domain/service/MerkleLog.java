@@ -0,0 +1,266 @@
+package com.trustescrow.domain.service;
+
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Append-only Merkle log (RFC 6962 / RFC 9162 tree shape, SHA-256).
+ *
+ * Leaves are {@code SHA-256(0x00 || data)} and interior nodes {@code SHA-256(0x01 || left || right)};
+ * a tree of n leaves splits at the largest power of two below n. The accumulator state is the
+ * frontier: the roots of the perfect subtrees that make up the tree, one per set bit of its size,
+ * largest first. Appending touches O(log n) of them, and every perfect subtree completed on the way
+ * is handed to a {@link NodeSink} so proofs can later be built from O(log n) stored nodes.
+ *
+ * A stored node is addressed by (level, index): the root of leaves
+ * {@code [index * 2^level, (index + 1) * 2^level)}.
+ */
+public final class MerkleLog {
+
+    /**
+     * Read access to stored perfect-subtree roots.
+     */
+    public interface NodeSource {
+        byte[] get(int level, long index);
+    }
+
+    /**
+     * Receives every perfect-subtree root completed by an append.
+     */
+    public interface NodeSink {
+        void put(int level, long index, byte[] hash);
+    }
+
+    private MerkleLog() {
+    }
+
+    public static byte[] leafHash(byte[] data) {
+        return leafHash(data, 0, data.length);
+    }
+
+    public static byte[] leafHash(byte[] data, int offset, int length) {
+        MessageDigest digest = sha256();
+        digest.update((byte) 0x00);
+        digest.update(data, offset, length);
+        return digest.digest();
+    }
+
+    public static byte[] nodeHash(byte[] left, byte[] right) {
+        MessageDigest digest = sha256();
+        digest.update((byte) 0x01);
+        digest.update(left);
+        digest.update(right);
+        return digest.digest();
+    }
+
+    /**
+     * Appends a leaf hash to a tree of {@code size} leaves, updating {@code frontier} in place.
+     */
+    public static void append(List<byte[]> frontier, long size, byte[] leaf, NodeSink sink) {
+        if (frontier.size() != Long.bitCount(size)) {
+            throw new IllegalArgumentException("Frontier does not match tree size " + size);
+        }
+        byte[] node = leaf;
+        int level = 0;
+        long index = size;
+        sink.put(0, index, node);
+        // Every trailing 1 bit of the size is a left sibling waiting for this subtree
+        while ((index & 1) == 1) {
+            byte[] left = frontier.remove(frontier.size() - 1);
+            node = nodeHash(left, node);
+            level++;
+            index >>= 1;
+            sink.put(level, index, node);
+        }
+        frontier.add(node);
+    }
+
+    /**
+     * Root of the tree described by a frontier; the empty tree hashes to {@code SHA-256("")}.
+     */
+    public static byte[] root(List<byte[]> frontier) {
+        if (frontier.isEmpty()) {
+            return sha256().digest();
+        }
+        byte[] root = frontier.get(frontier.size() - 1);
+        for (int i = frontier.size() - 2; i >= 0; i--) {
+            root = nodeHash(frontier.get(i), root);
+        }
+        return root;
+    }
+
+    /**
+     * Root of leaves {@code [start, end)}, where {@code start} is aligned as in every subtree of
+     * the RFC 6962 split (a multiple of the largest power of two not above the range length).
+     * Costs O(log n) node reads.
+     */
+    public static byte[] subtreeHash(long start, long end, NodeSource nodes) {
+        long n = end - start;
+        if (n <= 0) {
+            throw new IllegalArgumentException("Empty range [" + start + ", " + end + ")");
+        }
+        if (Long.bitCount(n) == 1 && start % n == 0) {
+            int level = Long.numberOfTrailingZeros(n);
+            return require(nodes, level, start >> level);
+        }
+        long k = splitPoint(n);
+        return nodeHash(subtreeHash(start, start + k, nodes), subtreeHash(start + k, end, nodes));
+    }
+
+    /**
+     * Audit path of leaf {@code index} in the tree of {@code size} leaves, leaf level first.
+     */
+    public static List<byte[]> inclusionProof(long index, long size, NodeSource nodes) {
+        if (index < 0 || index >= size) {
+            throw new IllegalArgumentException("Leaf " + index + " is not in a tree of " + size);
+        }
+        List<byte[]> proof = new ArrayList<>();
+        path(index, 0, size, nodes, proof);
+        return proof;
+    }
+
+    /**
+     * Proof that the tree of {@code oldSize} leaves is a prefix of the tree of {@code newSize}.
+     */
+    public static List<byte[]> consistencyProof(long oldSize, long newSize, NodeSource nodes) {
+        if (oldSize <= 0 || oldSize > newSize) {
+            throw new IllegalArgumentException("Invalid sizes " + oldSize + " -> " + newSize);
+        }
+        List<byte[]> proof = new ArrayList<>();
+        if (oldSize < newSize) {
+            subproof(oldSize, 0, newSize, true, nodes, proof);
+        }
+        return proof;
+    }
+
+    /**
+     * RFC 9162 section 2.1.3.2.
+     */
+    public static boolean verifyInclusion(byte[] leaf, long index, long size, List<byte[]> proof, byte[] root) {
+        if (index < 0 || index >= size) {
+            return false;
+        }
+        long fn = index;
+        long sn = size - 1;
+        byte[] r = leaf;
+        for (byte[] p : proof) {
+            if (sn == 0) {
+                return false;
+            }
+            if ((fn & 1) == 1 || fn == sn) {
+                r = nodeHash(p, r);
+                while ((fn & 1) == 0 && fn != 0) {
+                    fn >>= 1;
+                    sn >>= 1;
+                }
+            } else {
+                r = nodeHash(r, p);
+            }
+            fn >>= 1;
+            sn >>= 1;
+        }
+        return sn == 0 && Arrays.equals(r, root);
+    }
+
+    /**
+     * RFC 9162 section 2.1.4.2.
+     */
+    public static boolean verifyConsistency(long oldSize, long newSize, byte[] oldRoot, byte[] newRoot,
+                                            List<byte[]> proof) {
+        if (oldSize <= 0 || oldSize > newSize) {
+            return false;
+        }
+        if (oldSize == newSize) {
+            return proof.isEmpty() && Arrays.equals(oldRoot, newRoot);
+        }
+        if (proof.isEmpty()) {
+            return false;
+        }
+        List<byte[]> path = new ArrayList<>(proof);
+        if (Long.bitCount(oldSize) == 1) {
+            path.add(0, oldRoot);
+        }
+        long fn = oldSize - 1;
+        long sn = newSize - 1;
+        while ((fn & 1) == 1) {
+            fn >>= 1;
+            sn >>= 1;
+        }
+        byte[] fr = path.get(0);
+        byte[] sr = path.get(0);
+        for (int i = 1; i < path.size(); i++) {
+            byte[] c = path.get(i);
+            if (sn == 0) {
+                return false;
+            }
+            if ((fn & 1) == 1 || fn == sn) {
+                fr = nodeHash(c, fr);
+                sr = nodeHash(c, sr);
+                while ((fn & 1) == 0 && fn != 0) {
+                    fn >>= 1;
+                    sn >>= 1;
+                }
+            } else {
+                sr = nodeHash(sr, c);
+            }
+            fn >>= 1;
+            sn >>= 1;
+        }
+        return sn == 0 && Arrays.equals(fr, oldRoot) && Arrays.equals(sr, newRoot);
+    }
+
+    private static void path(long m, long start, long end, NodeSource nodes, List<byte[]> proof) {
+        long n = end - start;
+        if (n == 1) {
+            return;
+        }
+        long k = splitPoint(n);
+        if (m < k) {
+            path(m, start, start + k, nodes, proof);
+            proof.add(subtreeHash(start + k, end, nodes));
+        } else {
+            path(m - k, start + k, end, nodes, proof);
+            proof.add(subtreeHash(start, start + k, nodes));
+        }
+    }
+
+    private static void subproof(long m, long start, long end, boolean complete, NodeSource nodes,
+                                 List<byte[]> proof) {
+        long n = end - start;
+        if (m == n) {
+            if (!complete) {
+                proof.add(subtreeHash(start, end, nodes));
+            }
+            return;
+        }
+        long k = splitPoint(n);
+        if (m <= k) {
+            subproof(m, start, start + k, complete, nodes, proof);
+            proof.add(subtreeHash(start + k, end, nodes));
+        } else {
+            subproof(m - k, start + k, end, false, nodes, proof);
+            proof.add(subtreeHash(start, start + k, nodes));
+        }
+    }
+
+    /**
+     * Largest power of two strictly below {@code n} (n > 1).
+     */
+    private static long splitPoint(long n) {
+        return Long.highestOneBit(n - 1);
+    }
+
+    private static byte[] require(NodeSource nodes, int level, long index) {
+        byte[] hash = nodes.get(level, index);
+        if (hash == null) {
+            throw new IllegalStateException("Missing Merkle node: level=" + level + ", index=" + index);
+        }
+        return hash;
+    }
+
+    private static MessageDigest sha256() {
+        return Sha256.digest();
+    }
+}
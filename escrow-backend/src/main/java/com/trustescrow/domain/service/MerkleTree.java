@@ -0,0 +1,81 @@
+package com.trustescrow.domain.service;
+
+import org.web3j.crypto.Hash;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Binary Merkle tree over 32-byte leaves, compatible with the contract's {@code verifyLeaf}.
+ *
+ * Inner nodes are {@code keccak256(min(a, b) || max(a, b))}: pairs are sorted before hashing,
+ * so an inclusion proof is just the sibling hashes from the leaf up, without left/right flags.
+ * A node without a sibling is promoted to the next level unchanged.
+ *
+ * Pure data structure: the whole tree is built once from the leaves.
+ */
+public class MerkleTree {
+
+    private final List<byte[][]> levels = new ArrayList<>();
+
+    public MerkleTree(List<byte[]> leaves) {
+        if (leaves.isEmpty()) {
+            throw new IllegalArgumentException("Merkle tree needs at least one leaf");
+        }
+        byte[][] level = leaves.toArray(new byte[0][]);
+        levels.add(level);
+        while (level.length > 1) {
+            byte[][] parent = new byte[(level.length + 1) / 2][];
+            for (int i = 0; i < parent.length; i++) {
+                int left = 2 * i;
+                parent[i] = left + 1 < level.length ? hashPair(level[left], level[left + 1]) : level[left];
+            }
+            levels.add(parent);
+            level = parent;
+        }
+    }
+
+    public byte[] getRoot() {
+        return levels.get(levels.size() - 1)[0];
+    }
+
+    public int size() {
+        return levels.get(0).length;
+    }
+
+    /**
+     * Sibling hashes from the leaf at {@code index} up to (excluding) the root.
+     */
+    public List<byte[]> proof(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Leaf index " + index + " of " + size());
+        }
+        List<byte[]> proof = new ArrayList<>();
+        for (int depth = 0; depth < levels.size() - 1; depth++) {
+            byte[][] level = levels.get(depth);
+            int sibling = index ^ 1;
+            if (sibling < level.length) {
+                proof.add(level[sibling]);
+            }
+            index >>= 1;
+        }
+        return proof;
+    }
+
+    public static boolean verify(byte[] leaf, List<byte[]> proof, byte[] root) {
+        byte[] computed = leaf;
+        for (byte[] sibling : proof) {
+            computed = hashPair(computed, sibling);
+        }
+        return Arrays.equals(computed, root);
+    }
+
+    static byte[] hashPair(byte[] a, byte[] b) {
+        byte[] packed = new byte[64];
+        boolean ordered = Arrays.compareUnsigned(a, b) <= 0;
+        System.arraycopy(ordered ? a : b, 0, packed, 0, 32);
+        System.arraycopy(ordered ? b : a, 0, packed, 32, 32);
+        return Hash.sha3(packed);
+    }
+}
@@ -0,0 +1,219 @@
+package com.trustescrow.domain.service;
+
+import com.trustescrow.domain.model.DealMilestone;
+import lombok.Builder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Milestone anomaly detection for the admin dashboard.
+ *
+ * Each rule is a range query on a (status, timestamp) index: milestones in the rule's statuses
+ * whose timestamp is older than the configured threshold. Results are returned in pages ordered
+ * by rule, then oldest first; the opaque cursor carries (rule, timestamp, id) of the last row so
+ * the next page continues with a keyset seek instead of an offset.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MilestoneAnomalyService {
+
+    private final DealMilestoneRepository milestoneRepository;
+
+    @Value("${dashboard.anomalies.funds-held-days:7}")
+    private long fundsHeldDays;
+
+    @Value("${dashboard.anomalies.release-requested-hours:48}")
+    private long releaseRequestedHours;
+
+    @Value("${dashboard.anomalies.disputed-days:3}")
+    private long disputedDays;
+
+    @Value("${dashboard.anomalies.max-page-size:500}")
+    private int maxPageSize;
+
+    /**
+     * Anomaly rules, in page order. Thresholds are configured under {@code dashboard.anomalies};
+     * the names are the {@code type} values clients already read, so they keep the default thresholds.
+     */
+    public enum Rule {
+        FUNDS_HELD_OVER_7_DAYS(EnumSet.of(DealMilestone.MilestoneStatus.PAID_HELD), false),
+        RELEASE_REQUESTED_OVER_48H(EnumSet.of(DealMilestone.MilestoneStatus.RELEASE_REQUESTED), true),
+        DISPUTED_OVER_3_DAYS(EnumSet.of(
+            DealMilestone.MilestoneStatus.DISPUTED,
+            DealMilestone.MilestoneStatus.DISPUTE_REVIEWING), true);
+
+        private final Set<DealMilestone.MilestoneStatus> statuses;
+        private final boolean byUpdatedAt;
+
+        Rule(Set<DealMilestone.MilestoneStatus> statuses, boolean byUpdatedAt) {
+            this.statuses = statuses;
+            this.byUpdatedAt = byUpdatedAt;
+        }
+    }
+
+    /**
+     * Finds every anomaly, reading it page by page.
+     *
+     * @param rule only this rule, or null for all rules
+     */
+    @Transactional(readOnly = true)
+    public List<Anomaly> findAllAnomalies(Rule rule) {
+        List<Anomaly> all = new ArrayList<>();
+        String cursor = null;
+        do {
+            AnomalyPage page = findAnomalies(rule, cursor, maxPageSize);
+            all.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return all;
+    }
+
+    /**
+     * Finds one page of anomalies.
+     *
+     * @param rule only this rule, or null for all rules
+     * @param cursor cursor from the previous page, or null for the first page
+     * @param limit page size (capped by {@code dashboard.anomalies.max-page-size})
+     */
+    @Transactional(readOnly = true)
+    public AnomalyPage findAnomalies(Rule rule, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, maxPageSize));
+        Instant now = Instant.now();
+        Cursor after = cursor != null && !cursor.isBlank() ? Cursor.decode(cursor) : null;
+
+        List<Anomaly> items = new ArrayList<>(pageSize);
+        Cursor next = null;
+        for (Rule current : Rule.values()) {
+            if (rule != null && current != rule) {
+                continue;
+            }
+            if (after != null && current.ordinal() < after.rule.ordinal()) {
+                continue;
+            }
+            Cursor seek = after != null && after.rule == current ? after : null;
+
+            int remaining = pageSize - items.size();
+            List<DealMilestone> rows = query(current, cutoff(current, now), seek, remaining);
+            for (DealMilestone m : rows) {
+                items.add(toAnomaly(current, m, now));
+            }
+            if (rows.size() == remaining) {
+                DealMilestone last = rows.get(rows.size() - 1);
+                next = new Cursor(current, timestamp(current, last), last.getId());
+                break;
+            }
+        }
+
+        return AnomalyPage.builder()
+            .items(items)
+            .nextCursor(next != null ? next.encode() : null)
+            .build();
+    }
+
+    private List<DealMilestone> query(Rule rule, Instant before, Cursor after, int limit) {
+        PageRequest page = PageRequest.of(0, limit);
+        if (rule.byUpdatedAt) {
+            return after == null
+                ? milestoneRepository.findByStatusUpdatedBefore(rule.statuses, before, page)
+                : milestoneRepository.findByStatusUpdatedBeforeAfter(rule.statuses, before, after.time, after.id, page);
+        }
+        return after == null
+            ? milestoneRepository.findByStatusCreatedBefore(rule.statuses, before, page)
+            : milestoneRepository.findByStatusCreatedBeforeAfter(rule.statuses, before, after.time, after.id, page);
+    }
+
+    private Instant cutoff(Rule rule, Instant now) {
+        return switch (rule) {
+            case FUNDS_HELD_OVER_7_DAYS -> now.minus(Duration.ofDays(fundsHeldDays));
+            case RELEASE_REQUESTED_OVER_48H -> now.minus(Duration.ofHours(releaseRequestedHours));
+            case DISPUTED_OVER_3_DAYS -> now.minus(Duration.ofDays(disputedDays));
+        };
+    }
+
+    private static Instant timestamp(Rule rule, DealMilestone m) {
+        return rule.byUpdatedAt ? m.getUpdatedAt() : m.getCreatedAt();
+    }
+
+    private static Anomaly toAnomaly(Rule rule, DealMilestone m, Instant now) {
+        Instant since = timestamp(rule, m);
+        Duration age = Duration.between(since, now);
+        long value;
+        String message;
+        switch (rule) {
+            case FUNDS_HELD_OVER_7_DAYS -> {
+                value = age.toDays();
+                message = "Funds held for " + value + " days";
+            }
+            case RELEASE_REQUESTED_OVER_48H -> {
+                value = age.toHours();
+                message = "Release requested " + value + " hours ago";
+            }
+            default -> {
+                value = age.toDays();
+                message = "Dispute open for " + value + " days";
+            }
+        }
+        return Anomaly.builder()
+            .type(rule.name())
+            .dealId(m.getDealId())
+            .milestoneId(m.getId())
+            .message(message)
+            .value(value)
+            .since(since)
+            .build();
+    }
+
+    /**
+     * Keyset position: rule plus (timestamp, id) of the last row returned.
+     */
+    private record Cursor(Rule rule, Instant time, UUID id) {
+
+        String encode() {
+            String raw = rule.name() + "|" + time + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                String[] parts = raw.split("\\|", 3);
+                return new Cursor(Rule.valueOf(parts[0]), Instant.parse(parts[1]), UUID.fromString(parts[2]));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid anomaly cursor: " + cursor);
+            }
+        }
+    }
+
+    @lombok.Value
+    @Builder
+    public static class Anomaly {
+        String type;
+        UUID dealId;
+        UUID milestoneId;
+        String message;
+        long value; // days or hours
+        Instant since;
+    }
+
+    @lombok.Value
+    @Builder
+    public static class AnomalyPage {
+        List<Anomaly> items;
+        String nextCursor; // null on the last page
+    }
+}
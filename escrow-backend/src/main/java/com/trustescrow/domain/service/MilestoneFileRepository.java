@@ -5,9 +5,12 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface MilestoneFileRepository extends JpaRepository<MilestoneFile, UUID> {
     List<MilestoneFile> findByMilestoneId(UUID milestoneId);
+    
+    Optional<MilestoneFile> findFirstByContentHash(String contentHash);
 }
@@ -0,0 +1,24 @@
+package com.trustescrow.domain.service;
+
+import com.trustescrow.domain.model.OnChainBatch;
+import com.trustescrow.domain.model.OnChainRecord;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository for anchored record batches.
+ */
+public interface OnChainBatchRepository extends JpaRepository<OnChainBatch, UUID> {
+    
+    List<OnChainBatch> findBySubmissionStatusOrderByCreatedAtAsc(OnChainRecord.SubmissionStatus status, Pageable pageable);
+    
+    long countBySubmissionStatus(OnChainRecord.SubmissionStatus status);
+    
+    @Query("SELECT MAX(b.nonce) FROM OnChainBatch b WHERE b.submissionStatus = :status")
+    Long findMaxNonce(@Param("status") OnChainRecord.SubmissionStatus status);
+}
@@ -0,0 +1,13 @@
+package com.trustescrow.domain.service;
+
+import lombok.Value;
+
+import java.util.UUID;
+
+/**
+ * Published when pending on-chain records have been sealed into a batch ready for submission.
+ */
+@Value
+public class OnChainBatchSealedEvent {
+    UUID batchId;
+}
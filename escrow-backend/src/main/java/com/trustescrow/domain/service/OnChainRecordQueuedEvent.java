@@ -0,0 +1,13 @@
+package com.trustescrow.domain.service;
+
+import lombok.Value;
+
+import java.util.UUID;
+
+/**
+ * Published when an on-chain record has been saved for background submission.
+ */
+@Value
+public class OnChainRecordQueuedEvent {
+    UUID recordId;
+}
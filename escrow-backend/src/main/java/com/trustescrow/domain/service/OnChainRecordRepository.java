@@ -1,8 +1,13 @@
 package com.trustescrow.domain.service;
 
 import com.trustescrow.domain.model.OnChainRecord;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -31,4 +36,39 @@ public interface OnChainRecordRepository extends JpaRepository<OnChainRecord, UU
      * Find unconfirmed records (not yet recorded on blockchain).
      */
     List<OnChainRecord> findByTransactionHashIsNullOrderByCreatedAtAsc();
+    
+    /**
+     * Submission outbox: records in a submission state, oldest first.
+     */
+    List<OnChainRecord> findBySubmissionStatusOrderByCreatedAtAsc(OnChainRecord.SubmissionStatus status, Pageable pageable);
+    
+    long countBySubmissionStatus(OnChainRecord.SubmissionStatus status);
+    
+    /**
+     * Highest wallet nonce held by a record in the given state (null if none).
+     */
+    @Query("SELECT MAX(r.nonce) FROM OnChainRecord r WHERE r.submissionStatus = :status")
+    Long findMaxNonce(@Param("status") OnChainRecord.SubmissionStatus status);
+    
+    @Query("SELECT MIN(r.createdAt) FROM OnChainRecord r WHERE r.submissionStatus = :status")
+    Instant findOldestCreatedAt(@Param("status") OnChainRecord.SubmissionStatus status);
+    
+    /**
+     * Confirms every record of a batch once the batch transaction is mined.
+     */
+    @Modifying
+    @Query("UPDATE OnChainRecord r SET r.submissionStatus = com.trustescrow.domain.model.OnChainRecord.SubmissionStatus.CONFIRMED, " +
+           "r.blockNumber = :blockNumber, r.network = :network, r.confirmedAt = :confirmedAt WHERE r.batchId = :batchId")
+    int markBatchConfirmed(@Param("batchId") UUID batchId, @Param("blockNumber") Long blockNumber,
+                           @Param("network") String network, @Param("confirmedAt") Instant confirmedAt);
+    
+    /**
+     * Returns the records of a batch that will not be anchored to BATCH_PENDING, so they are
+     * sealed into a later batch.
+     */
+    @Modifying
+    @Query("UPDATE OnChainRecord r SET r.submissionStatus = com.trustescrow.domain.model.OnChainRecord.SubmissionStatus.BATCH_PENDING, " +
+           "r.batchId = NULL, r.leafIndex = NULL, r.leafHash = NULL, r.merkleProof = NULL " +
+           "WHERE r.batchId = :batchId AND r.submissionStatus = com.trustescrow.domain.model.OnChainRecord.SubmissionStatus.BATCHED")
+    int releaseBatch(@Param("batchId") UUID batchId);
 }
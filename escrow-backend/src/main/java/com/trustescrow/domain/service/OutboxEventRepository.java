@@ -0,0 +1,46 @@
+package com.trustescrow.domain.service;
+
+import com.trustescrow.domain.model.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import jakarta.persistence.LockModeType;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, UUID> {
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM OutboxEvent e WHERE e.id = :id")
+    Optional<OutboxEvent> findByIdWithLock(@Param("id") UUID id);
+    
+    /**
+     * Unprocessed events that are not dead-lettered and are due: never attempted and created
+     * before {@code createdBefore}, or failed with their next attempt at or before {@code now}.
+     */
+    @Query("SELECT e FROM OutboxEvent e WHERE e.processedAt IS NULL AND e.deadAt IS NULL " +
+           "AND ((e.nextAttemptAt IS NULL AND e.createdAt < :createdBefore) OR e.nextAttemptAt <= :now) " +
+           "ORDER BY e.createdAt")
+    List<OutboxEvent> findPending(@Param("createdBefore") Instant createdBefore, @Param("now") Instant now,
+                                  Pageable pageable);
+    
+    /**
+     * Dead-letters unprocessed events that already used {@code maxAttempts} attempts
+     * (failed before dead-lettering existed, or the limit was lowered).
+     *
+     * @return number of events dead-lettered
+     */
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.deadAt = :now " +
+           "WHERE e.processedAt IS NULL AND e.deadAt IS NULL AND e.attempts >= :maxAttempts")
+    int markExhaustedDead(@Param("maxAttempts") int maxAttempts, @Param("now") Instant now);
+    
+    @Query("SELECT COUNT(e) FROM OutboxEvent e WHERE e.processedAt IS NULL AND e.deadAt IS NOT NULL")
+    long countDead();
+}
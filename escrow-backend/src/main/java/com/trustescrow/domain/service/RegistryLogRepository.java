@@ -1,6 +1,7 @@
 package com.trustescrow.domain.service;
 
 import com.trustescrow.domain.model.RegistryLog;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -8,6 +9,7 @@ import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
@@ -31,6 +33,20 @@ public interface RegistryLogRepository extends JpaRepository<RegistryLog, UUID>
         @Param("toDate") Instant toDate
     );
     
+    Optional<RegistryLog> findByLeafIndex(Long leafIndex);
+    
+    /**
+     * Entries written before the Merkle log existed, oldest first.
+     */
+    List<RegistryLog> findByLeafIndexIsNullOrderByCreatedAtAsc(Pageable pageable);
+    
+    /**
+     * Leaf index of the last entry created before an instant (first element only).
+     */
+    @Query("SELECT r.leafIndex FROM RegistryLog r WHERE r.createdAt < :before AND r.leafIndex IS NOT NULL " +
+           "ORDER BY r.createdAt DESC, r.leafIndex DESC")
+    List<Long> findLastLeafIndexBefore(@Param("before") Instant before, Pageable pageable);
+    
     /**
      * Note: No UPDATE or DELETE methods should be exposed.
      * This repository is for read-only queries and INSERT only.
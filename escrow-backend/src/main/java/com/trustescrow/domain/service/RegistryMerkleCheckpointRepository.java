@@ -0,0 +1,13 @@
+package com.trustescrow.domain.service;
+
+import com.trustescrow.domain.model.RegistryMerkleCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface RegistryMerkleCheckpointRepository extends JpaRepository<RegistryMerkleCheckpoint, Long> {
+    
+    Optional<RegistryMerkleCheckpoint> findTopByOrderByTreeSizeDesc();
+}
@@ -0,0 +1,14 @@
+package com.trustescrow.domain.service;
+
+import com.trustescrow.domain.model.RegistryMerkleNode;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface RegistryMerkleNodeRepository extends JpaRepository<RegistryMerkleNode, UUID> {
+    
+    Optional<RegistryMerkleNode> findByLevelAndNodeIndex(Integer level, Long nodeIndex);
+}
@@ -0,0 +1,19 @@
+package com.trustescrow.domain.service;
+
+import com.trustescrow.domain.model.RegistryMerkleState;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface RegistryMerkleStateRepository extends JpaRepository<RegistryMerkleState, Integer> {
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM RegistryMerkleState s WHERE s.id = :id")
+    Optional<RegistryMerkleState> findByIdWithLock(@Param("id") Integer id);
+}
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
@@ -24,4 +25,27 @@ public interface RevenueLedgerRepository extends JpaRepository<RevenueLedgerEntr
         @Param("fromDate") Instant fromDate,
         @Param("toDate") Instant toDate
     );
+
+    /**
+     * Entry count and fee total for a partner (idx_revenue_partner_created).
+     */
+    @Query("SELECT COUNT(r) AS totalCount, COALESCE(SUM(r.amount), 0) AS totalAmount FROM RevenueLedgerEntry r " +
+           "WHERE r.partnerId = :partnerId")
+    Totals sumByPartner(@Param("partnerId") UUID partnerId);
+
+    /**
+     * Entry count and fee total for a partner settled in [fromDate, toDate) (idx_revenue_partner_settled).
+     */
+    @Query("SELECT COUNT(r) AS totalCount, COALESCE(SUM(r.amount), 0) AS totalAmount FROM RevenueLedgerEntry r " +
+           "WHERE r.partnerId = :partnerId AND r.settledAt >= :fromDate AND r.settledAt < :toDate")
+    Totals sumByPartnerAndDateRange(
+        @Param("partnerId") UUID partnerId,
+        @Param("fromDate") Instant fromDate,
+        @Param("toDate") Instant toDate
+    );
+
+    interface Totals {
+        Long getTotalCount();
+        BigDecimal getTotalAmount();
+    }
 }
@@ -1,6 +1,7 @@
 package com.trustescrow.domain.service;
 
 import com.trustescrow.domain.model.*;
+import com.trustescrow.domain.rules.CompiledRules;
 import com.trustescrow.domain.rules.RulesEngine;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -8,7 +9,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -27,7 +30,7 @@ public class RulesEngineService {
     private final EscrowLedgerService ledgerService;
     private final DealStateService stateService;
     private final AuditEventRepository auditEventRepository;
-    private final TemplateParserService templateParserService;
+    private final CompiledRulesCache compiledRulesCache;
     
     /**
      * Evaluates rules for a deal and executes resulting actions.
@@ -38,41 +41,43 @@ public class RulesEngineService {
         Deal deal = dealRepository.findByIdWithLock(dealId)
             .orElseThrow(() -> new IllegalArgumentException("Deal not found: " + dealId));
         
+        ContractInstance instance = instanceRepository.findByDealId(deal.getId())
+            .orElseThrow(() -> new IllegalStateException("Contract instance not found for deal: " + deal.getId()));
+        
+        // Template policy compiled once per (templateId, version)
+        CompiledRules rules = compiledRulesCache.get(instance);
+        
         // Build evaluation context
-        RulesEngine.RulesEvaluationContext context = buildContext(deal);
+        RulesEngine.RulesEvaluationContext context = buildContext(deal, rules);
         
         // Evaluate rules (pure function)
-        RulesEngine.RulesEvaluationResult result = RulesEngine.evaluate(context);
+        RulesEngine.RulesEvaluationResult result = RulesEngine.evaluate(rules, context);
         
         // Execute actions
         if (result.getNextState() != null) {
             stateService.transitionDeal(dealId, result.getNextState(), actor, null);
         }
         
-        // Execute escrow actions
-        for (RulesEngine.EscrowAction action : result.getActions()) {
-            ledgerService.executeAction(dealId, action, actor);
-        }
+        // Execute escrow actions (single batch: one idempotency lookup, batched inserts)
+        ledgerService.executeActions(dealId, result.getActions(), actor);
         
         // Emit audit events
+        List<AuditEvent> events = new ArrayList<>(result.getAuditEvents().size());
         for (RulesEngine.AuditEventDescription auditDesc : result.getAuditEvents()) {
-            AuditEvent event = AuditEvent.builder()
+            events.add(AuditEvent.builder()
                 .dealId(dealId)
                 .type(auditDesc.getType())
                 .actor(actor)
                 .payload(auditDesc.getPayload())
                 .createdAt(java.time.Instant.now())
-                .build();
-            auditEventRepository.save(event);
+                .build());
         }
+        auditEventRepository.saveAll(events);
         
         return result;
     }
     
-    private RulesEngine.RulesEvaluationContext buildContext(Deal deal) {
-        ContractInstance instance = instanceRepository.findByDealId(deal.getId())
-            .orElseThrow(() -> new IllegalStateException("Contract instance not found for deal: " + deal.getId()));
-        
+    private RulesEngine.RulesEvaluationContext buildContext(Deal deal, CompiledRules rules) {
         // Check timers
         Timer autoApproveTimer = timerService.findActiveTimer(deal.getId(), "AUTO_APPROVE");
         boolean autoApproveElapsed = autoApproveTimer != null && autoApproveTimer.isElapsed();
@@ -93,15 +98,12 @@ public class RulesEngineService {
             }
         }
         
-        // Parse template data (Phase 4: proper JSON parsing with category-specific parameters)
-        RulesEngine.ContractTemplateData templateData = templateParserService.parseTemplateData(instance.getSnapshotJson());
-        
         // Check if holdback is unreleased
         boolean holdbackUnreleased = ledgerService.isHoldbackUnreleased(deal.getId(), deal.getHoldbackAmount());
         
         return RulesEngine.RulesEvaluationContext.builder()
             .dealState(deal.getState())
-            .template(templateData)
+            .template(rules.getTemplate())
             .holdbackAmount(deal.getHoldbackAmount())
             .autoApproveElapsed(autoApproveElapsed)
             .disputeTTLElapsed(disputeTTLElapsed)
@@ -0,0 +1,82 @@
+package com.trustescrow.domain.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SHA-256 with lowercase hex output, for hashes computed on hot paths (ledger idempotency keys,
+ * registry event hashes, Merkle nodes).
+ *
+ * Each thread reuses one {@link MessageDigest} instead of looking one up per hash, and hex is
+ * written through a lookup table into a single char array: hashing a small input allocates only
+ * the digest bytes, the char array and the resulting String.
+ *
+ * The digest is reset before every use, so callers must not keep it across calls to this class.
+ */
+public final class Sha256 {
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal.withInitial(Sha256::newDigest);
+
+    private Sha256() {
+    }
+
+    /**
+     * This thread's digest, reset.
+     */
+    public static MessageDigest digest() {
+        MessageDigest digest = DIGEST.get();
+        digest.reset();
+        return digest;
+    }
+
+    public static byte[] hash(byte[] content) {
+        return digest().digest(content);
+    }
+
+    public static String hashHex(byte[] content) {
+        return hex(hash(content));
+    }
+
+    public static String hashHex(String content) {
+        return hashHex(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Hex hashes of several inputs, in order, on one digest.
+     */
+    public static List<String> hashAll(List<byte[]> contents) {
+        MessageDigest digest = digest();
+        List<String> hashes = new ArrayList<>(contents.size());
+        for (byte[] content : contents) {
+            // digest(byte[]) resets the digest for the next input
+            hashes.add(hex(digest.digest(content)));
+        }
+        return hashes;
+    }
+
+    public static String hex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            int b = bytes[i] & 0xff;
+            chars[i * 2] = HEX_DIGITS[b >>> 4];
+            chars[i * 2 + 1] = HEX_DIGITS[b & 0x0f];
+        }
+        return new String(chars);
+    }
+
+    /**
+     * A digest of the caller's own, for hashes that span calls to this class (streamed content).
+     */
+    public static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 algorithm not available", e);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.trustescrow.domain.service;
+
+import lombok.Value;
+
+import java.util.UUID;
+
+/**
+ * Published by {@link TimerService} when a timer's deadline passes on the in-memory wheel.
+ * Listeners must re-check the timer row: the event is a wake-up, not a guarantee that the
+ * timer is still active.
+ */
+@Value
+public class TimerElapsedEvent {
+    UUID timerId;
+    String timerType;
+}
@@ -1,18 +1,69 @@
 package com.trustescrow.domain.service;
 
 import com.trustescrow.domain.model.Timer;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface TimerRepository extends JpaRepository<Timer, UUID> {
     
-    @Query("SELECT t FROM Timer t WHERE t.timerType = :type AND t.active = true")
-    List<Timer> findActiveByType(@Param("type") String type);
+    /**
+     * Locks up to {@code limit} due, unleased timers for claiming (PostgreSQL).
+     * Rows locked by another node are skipped rather than waited on.
+     */
+    @Query(value = "SELECT * FROM timers WHERE timer_type = :type AND active = true AND due_at <= :now " +
+                   "AND (lease_until IS NULL OR lease_until < :now) " +
+                   "ORDER BY due_at LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<Timer> lockDueForClaim(@Param("type") String type, @Param("now") Instant now, @Param("limit") int limit);
+    
+    /**
+     * Due, unleased timers without row locks (single-node fallback).
+     */
+    @Query("SELECT t FROM Timer t WHERE t.timerType = :type AND t.active = true AND t.dueAt <= :now " +
+           "AND (t.leaseUntil IS NULL OR t.leaseUntil < :now) ORDER BY t.dueAt")
+    List<Timer> findDueUnleased(@Param("type") String type, @Param("now") Instant now, Pageable pageable);
+    
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Timer t SET t.leaseOwner = :owner, t.leaseUntil = :until WHERE t.id IN :ids")
+    int lease(@Param("ids") Collection<UUID> ids, @Param("owner") String owner, @Param("until") Instant until);
+    
+    /**
+     * Clears the leases this node still holds on the given timers.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Timer t SET t.leaseOwner = NULL, t.leaseUntil = NULL WHERE t.id IN :ids AND t.leaseOwner = :owner")
+    int releaseLease(@Param("ids") Collection<UUID> ids, @Param("owner") String owner);
+    
+    /**
+     * Claims a single timer if it is active and not leased by another node.
+     *
+     * @return 1 if claimed, 0 otherwise
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Timer t SET t.leaseOwner = :owner, t.leaseUntil = :until " +
+           "WHERE t.id = :id AND t.active = true AND (t.leaseUntil IS NULL OR t.leaseUntil < :now OR t.leaseOwner = :owner)")
+    int claim(@Param("id") UUID id, @Param("owner") String owner, @Param("now") Instant now, @Param("until") Instant until);
+    
+    /**
+     * Active timers with a deadline inside [from, to), used to load the in-memory wheel horizon.
+     */
+    @Query("SELECT t FROM Timer t WHERE t.active = true AND t.dueAt >= :from AND t.dueAt < :to ORDER BY t.dueAt")
+    List<Timer> findActiveDueBetween(@Param("from") Instant from, @Param("to") Instant to);
+    
+    /**
+     * Legacy active timers created before dueAt was persisted.
+     */
+    @Query("SELECT t FROM Timer t WHERE t.active = true AND t.dueAt IS NULL")
+    List<Timer> findActiveWithoutDueAt();
     
     Optional<Timer> findByDealIdAndTimerTypeAndActive(UUID dealId, String timerType, boolean active);
 }
@@ -1,53 +1,85 @@
 package com.trustescrow.domain.service;
 
 import com.trustescrow.domain.model.Timer;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Service for managing timers.
  * Timers are used for auto-approve, dispute TTL, and holdback release.
+ *
+ * Timer engine: every timer persists its deadline in {@code dueAt}. Timers due within the
+ * next {@code timers.wheel.horizon-minutes} are kept on an in-memory {@link HashedTimerWheel}
+ * that ticks every {@code timers.wheel.tick-ms}; when one expires a {@link TimerElapsedEvent}
+ * is published. The horizon is refilled from the DB by index range scan, which is also how the
+ * wheel is rehydrated after a restart. The DB row stays the source of truth.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class TimerService {
-    
+
     private final TimerRepository timerRepository;
-    
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${timers.wheel.tick-ms:100}")
+    private long tickMillis;
+
+    @Value("${timers.wheel.size:512}")
+    private int wheelSize;
+
+    @Value("${timers.wheel.horizon-minutes:15}")
+    private long horizonMinutes;
+
+    private volatile HashedTimerWheel wheel;
+
+    /**
+     * Upper bound (exclusive) of deadlines already loaded onto the wheel.
+     */
+    private volatile Instant loadedUntil;
+
+    private ScheduledExecutorService ticker;
+    private ExecutorService dispatcher;
+
     /**
      * Creates a timer for a deal.
      */
     @Transactional
     public Timer createTimer(UUID dealId, String timerType, Duration duration) {
+        Instant startedAt = Instant.now();
         Timer timer = Timer.builder()
             .dealId(dealId)
             .timerType(timerType)
-            .startedAt(Instant.now())
+            .startedAt(startedAt)
             .duration(duration)
+            .dueAt(startedAt.plus(duration))
             .active(true)
             .build();
-        
-        return timerRepository.save(timer);
-    }
-    
-    /**
-     * Finds all active timers that have elapsed.
-     */
-    @Transactional(readOnly = true)
-    public List<Timer> findElapsedTimers(String timerType) {
-        return timerRepository.findActiveByType(timerType).stream()
-            .filter(Timer::isElapsed)
-            .toList();
+
+        Timer saved = timerRepository.save(timer);
+        afterCommit(() -> scheduleIfWithinHorizon(saved));
+        return saved;
     }
-    
+
     /**
      * Marks a timer as fired (no longer active).
      */
@@ -55,11 +87,12 @@ public class TimerService {
     public void markTimerFired(UUID timerId) {
         Timer timer = timerRepository.findById(timerId)
             .orElseThrow(() -> new IllegalArgumentException("Timer not found: " + timerId));
-        
+
         timer.markFired();
         timerRepository.save(timer);
+        afterCommit(() -> unschedule(timerId));
     }
-    
+
     /**
      * Finds active timer for a deal by type.
      */
@@ -68,4 +101,139 @@ public class TimerService {
         return timerRepository.findByDealIdAndTimerTypeAndActive(dealId, timerType, true)
             .orElse(null);
     }
+
+    /**
+     * Finds a timer by ID.
+     */
+    @Transactional(readOnly = true)
+    public Timer findTimer(UUID timerId) {
+        return timerRepository.findById(timerId).orElse(null);
+    }
+
+    /**
+     * Starts the wheel and rehydrates it from the DB (overdue timers fire on the first tick).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void startWheel() {
+        if (wheel != null) {
+            return;
+        }
+        backfillDueAt();
+
+        wheel = new HashedTimerWheel(tickMillis, wheelSize, System.currentTimeMillis());
+        loadedUntil = Instant.EPOCH;
+        loadHorizon();
+
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> daemon(r, "timer-wheel"));
+        dispatcher = Executors.newSingleThreadExecutor(r -> daemon(r, "timer-dispatch"));
+        ticker.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        log.info("Timer wheel started: tick={}ms, size={}, horizon={}min, scheduled={}",
+            tickMillis, wheelSize, horizonMinutes, wheel.size());
+    }
+
+    @PreDestroy
+    public synchronized void stopWheel() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+        if (dispatcher != null) {
+            dispatcher.shutdownNow();
+        }
+    }
+
+    /**
+     * Moves the horizon forward, loading only timers whose deadline falls in the new slice.
+     */
+    @Scheduled(fixedDelayString = "${timers.wheel.refresh-ms:60000}")
+    public void refreshHorizon() {
+        if (wheel != null) {
+            loadHorizon();
+        }
+    }
+
+    private synchronized void loadHorizon() {
+        Instant from = loadedUntil;
+        Instant to = Instant.now().plus(Duration.ofMinutes(horizonMinutes));
+        if (!to.isAfter(from)) {
+            return;
+        }
+        // Advance first: timers committed while the query runs are scheduled by createTimer's
+        // afterCommit hook instead of falling into the gap. Double scheduling is a no-op.
+        loadedUntil = to;
+        List<Timer> timers = timerRepository.findActiveDueBetween(from, to);
+        for (Timer timer : timers) {
+            wheel.schedule(timer.getId(), timer.getTimerType(), timer.getDueAt().toEpochMilli());
+        }
+        log.debug("Loaded {} timers onto wheel for [{}, {})", timers.size(), from, to);
+    }
+
+    private void scheduleIfWithinHorizon(Timer timer) {
+        HashedTimerWheel current = wheel;
+        if (current == null || timer.getDueAt() == null) {
+            return;
+        }
+        // Deadlines beyond the horizon are picked up by the next refresh
+        if (timer.getDueAt().isBefore(loadedUntil)) {
+            current.schedule(timer.getId(), timer.getTimerType(), timer.getDueAt().toEpochMilli());
+        }
+    }
+
+    private void unschedule(UUID timerId) {
+        HashedTimerWheel current = wheel;
+        if (current != null) {
+            current.cancel(timerId);
+        }
+    }
+
+    private void tick() {
+        try {
+            List<HashedTimerWheel.Expired> expired = wheel.advance(System.currentTimeMillis());
+            for (HashedTimerWheel.Expired e : expired) {
+                dispatcher.execute(() -> publish(e));
+            }
+        } catch (Exception e) {
+            log.error("Timer wheel tick failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void publish(HashedTimerWheel.Expired expired) {
+        try {
+            eventPublisher.publishEvent(new TimerElapsedEvent(expired.getTimerId(), expired.getTimerType()));
+        } catch (Exception e) {
+            // Timer row stays active; the fallback sweep in the job will retry it
+            log.error("Error handling elapsed timer {}: {}", expired.getTimerId(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * One-off migration of rows created before dueAt existed.
+     */
+    private void backfillDueAt() {
+        List<Timer> legacy = timerRepository.findActiveWithoutDueAt();
+        if (legacy.isEmpty()) {
+            return;
+        }
+        legacy.forEach(Timer::backfillDueAt);
+        timerRepository.saveAll(legacy);
+        log.info("Backfilled dueAt for {} legacy timers", legacy.size());
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static Thread daemon(Runnable r, String name) {
+        Thread thread = new Thread(r, name);
+        thread.setDaemon(true);
+        return thread;
+    }
 }
@@ -0,0 +1,14 @@
+package com.trustescrow.domain.service;
+
+import lombok.Value;
+
+import java.util.UUID;
+
+/**
+ * Published when a webhook event has been durably stored and is ready for background processing.
+ */
+@Value
+public class WebhookEventAcceptedEvent {
+    UUID webhookEventId;
+    String provider;
+}
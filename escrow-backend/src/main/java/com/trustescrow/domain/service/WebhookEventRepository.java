@@ -1,9 +1,15 @@
 package com.trustescrow.domain.service;
 
 import com.trustescrow.domain.model.WebhookEvent;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -14,4 +20,52 @@ public interface WebhookEventRepository extends JpaRepository<WebhookEvent, UUID
      * Find webhook event by provider and event ID (for idempotency check).
      */
     Optional<WebhookEvent> findByProviderAndEventId(String provider, String eventId);
+    
+    /**
+     * (provider, eventId, createdAt, id) of events received since {@code since}, oldest first;
+     * the first page of the idempotency guard warm-up.
+     */
+    @Query("SELECT e.provider, e.eventId, e.createdAt, e.id FROM WebhookEvent e " +
+           "WHERE e.createdAt >= :since ORDER BY e.createdAt, e.id")
+    List<Object[]> findKeysCreatedSince(@Param("since") Instant since, Pageable pageable);
+    
+    /**
+     * Next page of {@link #findKeysCreatedSince}: events after a (createdAt, id) position.
+     */
+    @Query("SELECT e.provider, e.eventId, e.createdAt, e.id FROM WebhookEvent e " +
+           "WHERE e.createdAt > :createdAt OR (e.createdAt = :createdAt AND e.id > :id) " +
+           "ORDER BY e.createdAt, e.id")
+    List<Object[]> findKeysCreatedAfter(@Param("createdAt") Instant createdAt, @Param("id") UUID id, Pageable pageable);
+    
+    /**
+     * Pending events that are due and unleased, limited to the oldest pending event of each deal
+     * so events of one deal are never processed concurrently or out of order.
+     */
+    @Query("SELECT e FROM WebhookEvent e WHERE e.processedAt IS NULL AND e.deadAt IS NULL " +
+           "AND (e.nextAttemptAt IS NULL OR e.nextAttemptAt <= :now) " +
+           "AND (e.leaseUntil IS NULL OR e.leaseUntil < :now) " +
+           "AND NOT EXISTS (SELECT p.id FROM WebhookEvent p WHERE p.dealKey = e.dealKey " +
+           "AND p.processedAt IS NULL AND p.deadAt IS NULL " +
+           "AND (p.createdAt < e.createdAt OR (p.createdAt = e.createdAt AND p.id < e.id))) " +
+           "ORDER BY e.createdAt, e.id")
+    List<WebhookEvent> findReady(@Param("now") Instant now, Pageable pageable);
+    
+    /**
+     * Claims a pending event for this node if it is not leased by another node.
+     *
+     * @return 1 if claimed, 0 otherwise
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE WebhookEvent e SET e.leaseOwner = :owner, e.leaseUntil = :until " +
+           "WHERE e.id = :id AND e.processedAt IS NULL AND (e.leaseUntil IS NULL OR e.leaseUntil < :now)")
+    int claim(@Param("id") UUID id, @Param("owner") String owner, @Param("now") Instant now, @Param("until") Instant until);
+    
+    @Query("SELECT COUNT(e) FROM WebhookEvent e WHERE e.processedAt IS NULL AND e.deadAt IS NULL")
+    long countPending();
+    
+    @Query("SELECT MIN(e.createdAt) FROM WebhookEvent e WHERE e.processedAt IS NULL AND e.deadAt IS NULL")
+    Instant findOldestPendingCreatedAt();
+    
+    @Query("SELECT COUNT(e) FROM WebhookEvent e WHERE e.processedAt IS NULL AND e.deadAt IS NOT NULL")
+    long countDead();
 }
@@ -1,10 +1,13 @@
 package com.trustescrow.presentation.controller;
 
 import com.trustescrow.application.dto.ApiResponse;
+import com.trustescrow.application.job.BatchExecutor;
+import com.trustescrow.application.job.WebhookEventWorker;
 import com.trustescrow.domain.model.DisputeCase;
 import com.trustescrow.domain.service.AdminService;
 import com.trustescrow.domain.service.ContractInstanceRepository;
 import com.trustescrow.domain.service.DisputeCaseRepository;
+import com.trustescrow.domain.service.EscrowLedgerService;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -12,6 +15,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
@@ -22,6 +26,9 @@ public class AdminController {
     private final AdminService adminService;
     private final DisputeCaseRepository disputeRepository;
     private final ContractInstanceRepository instanceRepository;
+    private final EscrowLedgerService ledgerService;
+    private final BatchExecutor batchExecutor;
+    private final WebhookEventWorker webhookEventWorker;
     
     @GetMapping("/disputes")
     public ResponseEntity<ApiResponse<List<DisputeCase>>> listDisputes(
@@ -95,6 +102,32 @@ public class AdminController {
         return ResponseEntity.ok(ApiResponse.success(null, meta));
     }
     
+    @GetMapping("/deals/{id}/balance/verify")
+    public ResponseEntity<ApiResponse<EscrowLedgerService.BalanceCheck>> verifyBalance(@PathVariable UUID id) {
+        return ResponseEntity.ok(ApiResponse.success(ledgerService.verifyBalance(id)));
+    }
+    
+    @PostMapping("/deals/{id}/balance/rebuild")
+    public ResponseEntity<ApiResponse<EscrowLedgerService.BalanceCheck>> rebuildBalance(@PathVariable UUID id) {
+        ledgerService.rebuildBalance(id);
+        return ResponseEntity.ok(ApiResponse.success(ledgerService.verifyBalance(id)));
+    }
+    
+    @PostMapping("/ledger/balances/rebuild")
+    public ResponseEntity<ApiResponse<Integer>> rebuildAllBalances() {
+        return ResponseEntity.ok(ApiResponse.success(ledgerService.rebuildAllBalances()));
+    }
+    
+    @GetMapping("/jobs/runs")
+    public ResponseEntity<ApiResponse<Map<String, BatchExecutor.RunReport>>> getJobRuns() {
+        return ResponseEntity.ok(ApiResponse.success(batchExecutor.getLastReports()));
+    }
+    
+    @GetMapping("/webhooks/queue")
+    public ResponseEntity<ApiResponse<WebhookEventWorker.QueueStats>> getWebhookQueue() {
+        return ResponseEntity.ok(ApiResponse.success(webhookEventWorker.getStats()));
+    }
+    
     @Data
     public static class ResolveDisputeRequest {
         private String outcome;
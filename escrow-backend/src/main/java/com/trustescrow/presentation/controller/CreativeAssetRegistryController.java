@@ -1,9 +1,13 @@
 package com.trustescrow.presentation.controller;
 
 import com.trustescrow.application.dto.ApiResponse;
+import com.trustescrow.application.service.BlobStore;
+import com.trustescrow.application.service.ContentHashingService;
 import com.trustescrow.application.service.CreativeAssetRegistryService;
 import com.trustescrow.application.service.EvidenceExportService;
 import com.trustescrow.domain.model.*;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -13,7 +17,12 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -32,6 +41,7 @@ public class CreativeAssetRegistryController {
     
     private final CreativeAssetRegistryService registryService;
     private final EvidenceExportService evidenceService;
+    private final BlobStore blobStore;
     
     /**
      * Register a new creative asset.
@@ -56,39 +66,37 @@ public class CreativeAssetRegistryController {
         CreativeAsset.DeclaredCreationType declaredCreationType = 
             CreativeAsset.DeclaredCreationType.valueOf(declaredCreationTypeStr.toUpperCase());
         
-        // Get content
-        byte[] content;
-        if (file != null && !file.isEmpty()) {
-            try {
-                content = file.getBytes();
-            } catch (Exception e) {
-                throw new IllegalArgumentException("Failed to read file content", e);
-            }
-        } else if (text != null && !text.isEmpty()) {
-            content = text.getBytes();
-        } else {
-            throw new IllegalArgumentException("Either 'file' or 'text' must be provided");
-        }
+        // Hash content (file is streamed, never loaded into memory)
+        ContentHashingService.ContentDigest digest = digestOf(file, text);
         
-        // Register asset
-        CreativeAssetRegistryService.AssetRegistrationResult result = 
-            registryService.registerAsset(
-                escrowAccountId,
-                assetType,
-                visibility,
-                declaredCreationType,
-                content,
-                payloadMeta
-            );
+        return register(escrowAccountId, assetType, visibility, declaredCreationType, digest, payloadMeta);
+    }
+    
+    /**
+     * Register a new creative asset from a raw request body (large files).
+     * The body is hashed as it arrives and staged to the blob store on disk; it is never held in memory.
+     * 
+     * POST /v1/assets (Content-Type: application/octet-stream)
+     */
+    @PostMapping(consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<ApiResponse<AssetRegistrationResponse>> registerAssetStream(
+            @RequestParam("escrow_account_id") UUID escrowAccountId,
+            @RequestParam("asset_type") String assetTypeStr,
+            @RequestParam("visibility") String visibilityStr,
+            @RequestParam("declared_creation_type") String declaredCreationTypeStr,
+            @RequestParam(value = "payload_meta", required = false) String payloadMeta,
+            HttpServletRequest request) {
         
-        AssetRegistrationResponse response = AssetRegistrationResponse.builder()
-            .assetId(result.getAssetId())
-            .versionId(result.getVersionId())
-            .contentHash(result.getContentHash())
-            .createdAt(result.getCreatedAt())
-            .build();
+        log.info("Registering streamed asset for account: {} ({} bytes)", escrowAccountId, request.getContentLengthLong());
         
-        return ResponseEntity.ok(ApiResponse.success(response));
+        CreativeAsset.AssetType assetType = CreativeAsset.AssetType.valueOf(assetTypeStr.toUpperCase());
+        CreativeAsset.Visibility visibility = CreativeAsset.Visibility.valueOf(visibilityStr.toUpperCase());
+        CreativeAsset.DeclaredCreationType declaredCreationType = 
+            CreativeAsset.DeclaredCreationType.valueOf(declaredCreationTypeStr.toUpperCase());
+        
+        ContentHashingService.ContentDigest digest = digestOf(request);
+        
+        return register(escrowAccountId, assetType, visibility, declaredCreationType, digest, payloadMeta);
     }
     
     /**
@@ -117,25 +125,55 @@ public class CreativeAssetRegistryController {
         
         log.info("Adding version to asset: {}", assetId);
         
-        // Get content
-        byte[] content;
-        if (file != null && !file.isEmpty()) {
-            try {
-                content = file.getBytes();
-            } catch (Exception e) {
-                throw new IllegalArgumentException("Failed to read file content", e);
-            }
-        } else if (text != null && !text.isEmpty()) {
-            content = text.getBytes();
-        } else {
-            throw new IllegalArgumentException("Either 'file' or 'text' must be provided");
-        }
+        ContentHashingService.ContentDigest digest = digestOf(file, text);
+        
+        AssetVersion version = registryService.addVersion(assetId, digest, payloadMeta);
+        VersionResponse response = VersionResponse.from(version);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+    
+    /**
+     * Add a new version from a raw request body (large files).
+     * 
+     * POST /v1/assets/{asset_id}/versions (Content-Type: application/octet-stream)
+     */
+    @PostMapping(value = "/{asset_id}/versions", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<ApiResponse<VersionResponse>> addVersionStream(
+            @PathVariable("asset_id") UUID assetId,
+            @RequestParam(value = "payload_meta", required = false) String payloadMeta,
+            HttpServletRequest request) {
         
-        AssetVersion version = registryService.addVersion(assetId, content, payloadMeta);
+        log.info("Adding streamed version to asset: {} ({} bytes)", assetId, request.getContentLengthLong());
+        
+        ContentHashingService.ContentDigest digest = digestOf(request);
+        
+        AssetVersion version = registryService.addVersion(assetId, digest, payloadMeta);
         VersionResponse response = VersionResponse.from(version);
         return ResponseEntity.ok(ApiResponse.success(response));
     }
     
+    /**
+     * Download the content of a version (supports Range requests).
+     * Versions registered before content was stored return 404.
+     * 
+     * GET /v1/assets/{asset_id}/versions/{version_id}/content
+     */
+    @GetMapping("/{asset_id}/versions/{version_id}/content")
+    public void getVersionContent(
+            @PathVariable("asset_id") UUID assetId,
+            @PathVariable("version_id") UUID versionId,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        
+        AssetVersion version = registryService.getAssetVersion(assetId, versionId);
+        Optional<Path> blob = blobStore.find(version.getContentHash());
+        if (blob.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        BlobDownloads.write(request, response, blob.get(), version.getContentHash(), null, null);
+    }
+    
     /**
      * Get evidence package (JSON or PDF).
      * 
@@ -194,6 +232,73 @@ public class CreativeAssetRegistryController {
         return ResponseEntity.ok(ApiResponse.success(response));
     }
     
+    private ResponseEntity<ApiResponse<AssetRegistrationResponse>> register(
+            UUID escrowAccountId,
+            CreativeAsset.AssetType assetType,
+            CreativeAsset.Visibility visibility,
+            CreativeAsset.DeclaredCreationType declaredCreationType,
+            ContentHashingService.ContentDigest digest,
+            String payloadMeta) {
+        
+        // Register asset
+        CreativeAssetRegistryService.AssetRegistrationResult result = 
+            registryService.registerAsset(
+                escrowAccountId,
+                assetType,
+                visibility,
+                declaredCreationType,
+                digest,
+                payloadMeta
+            );
+        
+        AssetRegistrationResponse response = AssetRegistrationResponse.builder()
+            .assetId(result.getAssetId())
+            .versionId(result.getVersionId())
+            .contentHash(result.getContentHash())
+            .contentSize(result.getContentSize())
+            .chunkTreeRoot(result.getChunkTreeRoot())
+            .hashThroughputMbPerSec(digest.getThroughputMbPerSec())
+            .createdAt(result.getCreatedAt())
+            .build();
+        
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+    
+    /**
+     * Stores the content in the blob store (hashing it on the way) and returns its digest.
+     */
+    private ContentHashingService.ContentDigest digestOf(MultipartFile file, String text) {
+        if (file != null && !file.isEmpty()) {
+            // Large parts are spooled to disk by the container; stream them from there
+            try (InputStream in = file.getInputStream()) {
+                return blobStore.put(in, file.getSize());
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Failed to read file content", e);
+            }
+        } else if (text != null && !text.isEmpty()) {
+            byte[] content = text.getBytes();
+            try {
+                return blobStore.put(new ByteArrayInputStream(content), content.length);
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to store text content", e);
+            }
+        } else {
+            throw new IllegalArgumentException("Either 'file' or 'text' must be provided");
+        }
+    }
+    
+    private ContentHashingService.ContentDigest digestOf(HttpServletRequest request) {
+        try (InputStream in = request.getInputStream()) {
+            ContentHashingService.ContentDigest digest = blobStore.put(in, request.getContentLengthLong());
+            if (digest.getContentSize() == 0) {
+                throw new IllegalArgumentException("Request body is empty");
+            }
+            return digest;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Failed to read request body", e);
+        }
+    }
+    
     // DTOs
     
     @Data
@@ -202,6 +307,9 @@ public class CreativeAssetRegistryController {
         private UUID assetId;
         private UUID versionId;
         private String contentHash;
+        private Long contentSize;
+        private String chunkTreeRoot;
+        private double hashThroughputMbPerSec;
         private java.time.Instant createdAt;
     }
     
@@ -233,6 +341,8 @@ public class CreativeAssetRegistryController {
         private UUID id;
         private UUID assetId;
         private String contentHash;
+        private Long contentSize;
+        private String chunkTreeRoot;
         private String payloadMeta;
         private java.time.Instant createdAt;
         
@@ -241,6 +351,8 @@ public class CreativeAssetRegistryController {
                 .id(version.getId())
                 .assetId(version.getAssetId())
                 .contentHash(version.getContentHash())
+                .contentSize(version.getContentSize())
+                .chunkTreeRoot(version.getChunkTreeRoot())
                 .payloadMeta(version.getPayloadMeta())
                 .createdAt(version.getCreatedAt())
                 .build();
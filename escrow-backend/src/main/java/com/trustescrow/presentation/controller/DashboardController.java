@@ -1,22 +1,14 @@
 package com.trustescrow.presentation.controller;
 
-import com.trustescrow.domain.model.Deal;
-import com.trustescrow.domain.model.DealMilestone;
-import com.trustescrow.domain.model.MilestoneDispute;
-import com.trustescrow.domain.service.DealRepository;
-import com.trustescrow.domain.service.DealMilestoneRepository;
-import com.trustescrow.domain.service.MilestoneDisputeRepository;
+import com.trustescrow.domain.service.DashboardStatsService;
+import com.trustescrow.domain.service.MilestoneAnomalyService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.time.Duration;
-import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
-import java.util.stream.Collectors;
 
 /**
  * STEP 7: Dashboard API for escrow operations.
@@ -32,51 +24,30 @@ import java.util.stream.Collectors;
 @Slf4j
 public class DashboardController {
     
-    private final DealRepository dealRepository;
-    private final DealMilestoneRepository milestoneRepository;
-    private final MilestoneDisputeRepository disputeRepository;
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int DEFAULT_ANOMALY_PAGE_SIZE = 100;
+    
+    private final DashboardStatsService dashboardStatsService;
+    private final MilestoneAnomalyService anomalyService;
     
     /**
      * GET /api/admin/dashboard/stats
-     * Returns KPI statistics.
+     * Returns KPI statistics from the pre-aggregated counters (no table scans).
      */
     @GetMapping("/stats")
     public ResponseEntity<DashboardStats> getStats() {
         log.info("[DASHBOARD] Fetching statistics");
         
         try {
-            List<Deal> allDeals = dealRepository.findAll();
-            
-            // Count deals by state
-            long totalDeals = allDeals.size();
-            long fundsHeld = allDeals.stream()
-                .filter(d -> d.getState() == com.trustescrow.domain.model.DealState.FUNDS_HELD)
-                .count();
-            
-            // Count milestones by status
-            List<DealMilestone> allMilestones = milestoneRepository.findAll();
-            long releaseRequested = allMilestones.stream()
-                .filter(m -> m.getStatus() == DealMilestone.MilestoneStatus.RELEASE_REQUESTED)
-                .count();
-            
-            long disputed = allMilestones.stream()
-                .filter(m -> m.getStatus() == DealMilestone.MilestoneStatus.DISPUTED ||
-                           m.getStatus() == DealMilestone.MilestoneStatus.DISPUTE_REVIEWING)
-                .count();
-            
-            // Calculate average holding days
-            double avgHoldingDays = calculateAverageHoldingDays(allMilestones);
-            
-            // Count delayed deals
-            long delayedDeals = countDelayedDeals(allMilestones);
+            DashboardStatsService.Stats counters = dashboardStatsService.getStats();
             
             DashboardStats stats = new DashboardStats(
-                totalDeals,
-                (int) fundsHeld,
-                (int) releaseRequested,
-                (int) disputed,
-                avgHoldingDays,
-                (int) delayedDeals
+                counters.getTotalDeals(),
+                (int) counters.getFundsHeld(),
+                (int) counters.getReleaseRequested(),
+                (int) counters.getDisputed(),
+                counters.getAvgHoldingDays(),
+                (int) counters.getDelayedDeals()
             );
             
             return ResponseEntity.ok(stats);
@@ -90,102 +61,47 @@ public class DashboardController {
     
     /**
      * GET /api/admin/dashboard/anomalies
-     * Returns anomaly detection results.
+     * Returns anomaly detection results, ordered by rule and oldest first.
+     * Without limit and cursor every anomaly is returned. With either, one page is returned and the
+     * cursor for the next page is in the X-Next-Cursor header (absent on the last page).
      */
     @GetMapping("/anomalies")
-    public ResponseEntity<List<Anomaly>> getAnomalies() {
-        log.info("[DASHBOARD] Fetching anomalies");
+    public ResponseEntity<List<Anomaly>> getAnomalies(
+            @RequestParam(required = false) MilestoneAnomalyService.Rule type,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        log.info("[DASHBOARD] Fetching anomalies: type={}, limit={}", type, limit);
         
         try {
-            List<Anomaly> anomalies = new ArrayList<>();
+            MilestoneAnomalyService.AnomalyPage page = limit == null && cursor == null
+                ? MilestoneAnomalyService.AnomalyPage.builder().items(anomalyService.findAllAnomalies(type)).build()
+                : anomalyService.findAnomalies(type, cursor, limit != null ? limit : DEFAULT_ANOMALY_PAGE_SIZE);
             
-            // Find FUNDS_HELD over 7 days
-            List<DealMilestone> milestones = milestoneRepository.findAll();
-            Instant sevenDaysAgo = Instant.now().minus(Duration.ofDays(7));
+            List<Anomaly> anomalies = page.getItems().stream()
+                .map(a -> new Anomaly(
+                    a.getType(),
+                    a.getDealId().toString(),
+                    a.getMilestoneId().toString(),
+                    a.getMessage(),
+                    a.getValue()
+                ))
+                .toList();
             
-            for (DealMilestone m : milestones) {
-                if (m.getStatus() == DealMilestone.MilestoneStatus.PAID_HELD) {
-                    if (m.getCreatedAt().isBefore(sevenDaysAgo)) {
-                        long days = Duration.between(m.getCreatedAt(), Instant.now()).toDays();
-                        anomalies.add(new Anomaly(
-                            "FUNDS_HELD_OVER_7_DAYS",
-                            m.getDealId().toString(),
-                            m.getId().toString(),
-                            "Funds held for " + days + " days",
-                            days
-                        ));
-                    }
-                }
-                
-                // Find RELEASE_REQUESTED over 48 hours
-                if (m.getStatus() == DealMilestone.MilestoneStatus.RELEASE_REQUESTED) {
-                    Instant twoDaysAgo = Instant.now().minus(Duration.ofHours(48));
-                    if (m.getUpdatedAt().isBefore(twoDaysAgo)) {
-                        long hours = Duration.between(m.getUpdatedAt(), Instant.now()).toHours();
-                        anomalies.add(new Anomaly(
-                            "RELEASE_REQUESTED_OVER_48H",
-                            m.getDealId().toString(),
-                            m.getId().toString(),
-                            "Release requested " + hours + " hours ago",
-                            hours
-                        ));
-                    }
-                }
-                
-                // Find DISPUTED over 3 days
-                if (m.getStatus() == DealMilestone.MilestoneStatus.DISPUTED ||
-                    m.getStatus() == DealMilestone.MilestoneStatus.DISPUTE_REVIEWING) {
-                    Instant threeDaysAgo = Instant.now().minus(Duration.ofDays(3));
-                    if (m.getUpdatedAt().isBefore(threeDaysAgo)) {
-                        long days = Duration.between(m.getUpdatedAt(), Instant.now()).toDays();
-                        anomalies.add(new Anomaly(
-                            "DISPUTED_OVER_3_DAYS",
-                            m.getDealId().toString(),
-                            m.getId().toString(),
-                            "Dispute open for " + days + " days",
-                            days
-                        ));
-                    }
-                }
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.getNextCursor() != null) {
+                response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
             }
+            return response.body(anomalies);
             
-            return ResponseEntity.ok(anomalies);
-            
+        } catch (IllegalArgumentException e) {
+            log.warn("[DASHBOARD] Invalid anomaly request: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(new ArrayList<>());
         } catch (Exception e) {
             log.error("[DASHBOARD] Error fetching anomalies: {}", e.getMessage(), e);
             return ResponseEntity.ok(new ArrayList<>());
         }
     }
     
-    private double calculateAverageHoldingDays(List<DealMilestone> milestones) {
-        List<DealMilestone> heldMilestones = milestones.stream()
-            .filter(m -> m.getStatus() == DealMilestone.MilestoneStatus.PAID_HELD ||
-                       m.getStatus() == DealMilestone.MilestoneStatus.RELEASE_REQUESTED ||
-                       m.getStatus() == DealMilestone.MilestoneStatus.DISPUTED)
-            .collect(Collectors.toList());
-        
-        if (heldMilestones.isEmpty()) {
-            return 0.0;
-        }
-        
-        double totalDays = heldMilestones.stream()
-            .mapToLong(m -> Duration.between(m.getCreatedAt(), Instant.now()).toDays())
-            .sum();
-        
-        return totalDays / heldMilestones.size();
-    }
-    
-    private long countDelayedDeals(List<DealMilestone> milestones) {
-        Instant sevenDaysAgo = Instant.now().minus(Duration.ofDays(7));
-        
-        return milestones.stream()
-            .filter(m -> m.getStatus() == DealMilestone.MilestoneStatus.PAID_HELD &&
-                       m.getCreatedAt().isBefore(sevenDaysAgo))
-            .map(DealMilestone::getDealId)
-            .distinct()
-            .count();
-    }
-    
     /**
      * DTO for dashboard statistics.
      */
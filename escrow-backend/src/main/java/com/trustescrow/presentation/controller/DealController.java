@@ -88,7 +88,7 @@ public class DealController {
         var milestoneList = milestones.entrySet().stream()
             .map(entry -> {
                 String milestoneId = entry.getKey();
-                String status = entry.getValue().getStatus();
+                String status = entry.getValue().getStatus().name();
                 
                 // Try to find DB milestone for amount/currency
                 var dbMilestone = dbMilestones.stream()
@@ -6,10 +6,14 @@ import com.trustescrow.domain.model.*;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -22,8 +26,12 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class EscrowController {
     
+    private static final String OLDER_CURSOR_HEADER = "X-Older-Cursor";
+    private static final String NEWER_CURSOR_HEADER = "X-Newer-Cursor";
+    
     private final DealApplicationService dealService;
     private final ChatService chatService;
+    private final ChatStreamHub chatStreamHub;
     private final PaymentService paymentService;
     private final MilestoneService milestoneService;
     private final ObjectMapper objectMapper = new ObjectMapper();
@@ -94,6 +102,7 @@ public class EscrowController {
         }
         
         List<ChatRoom> rooms = chatService.getUserChatRooms(userId);
+        Map<UUID, Long> unreadCounts = chatService.getUnreadCounts(userId);
         List<ChatRoomResponse> responses = rooms.stream()
             .map(room -> {
                 ChatRoomResponse response = new ChatRoomResponse();
@@ -104,7 +113,8 @@ public class EscrowController {
                 response.setStatus(room.getStatus().name());
                 response.setCreatedAt(room.getCreatedAt());
                 response.setLastMessageAt(room.getLastMessageAt());
-                response.setUnreadCount(chatService.getUnreadCount(room.getId(), userId));
+                Long unread = unreadCounts.get(room.getId());
+                response.setUnreadCount(unread != null ? unread : chatService.getUnreadCount(room.getId(), userId));
                 return response;
             })
             .collect(Collectors.toList());
@@ -113,16 +123,28 @@ public class EscrowController {
     }
     
     /**
-     * Gets messages for a chat room.
-     * GET /api/escrow/chat/rooms/{roomId}/messages
+     * Gets one page of messages for a chat room, oldest first.
+     * GET /api/escrow/chat/rooms/{roomId}/messages?before=&after=&limit=
+     * Without a cursor the latest page is returned. Older history is paged with the
+     * X-Older-Cursor header value as "before" (absent when there is none); newer messages
+     * with X-Newer-Cursor as "after".
      */
     @GetMapping("/chat/rooms/{roomId}/messages")
     public ResponseEntity<ApiResponse<List<ChatMessageResponse>>> getMessages(
         @PathVariable UUID roomId,
-        @RequestHeader(value = "X-User-Id", required = false) UUID userId
+        @RequestHeader(value = "X-User-Id", required = false) UUID userId,
+        @RequestParam(value = "before", required = false) String before,
+        @RequestParam(value = "after", required = false) String after,
+        @RequestParam(value = "limit", defaultValue = "50") int limit
     ) {
-        List<ChatMessage> messages = chatService.getMessages(roomId);
-        List<ChatMessageResponse> responses = messages.stream()
+        ChatService.MessagePage page;
+        try {
+            page = chatService.getMessagePage(roomId, before, after, limit);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+        
+        List<ChatMessageResponse> responses = page.getMessages().stream()
             .map(msg -> {
                 ChatMessageResponse response = new ChatMessageResponse();
                 response.setId(msg.getId());
@@ -136,12 +158,43 @@ public class EscrowController {
             })
             .collect(Collectors.toList());
         
-        // Mark messages as read
-        if (userId != null) {
+        // Mark messages as read (only when the newest messages are being viewed)
+        if (userId != null && before == null) {
             chatService.markMessagesAsRead(roomId, userId);
         }
         
-        return ResponseEntity.ok(ApiResponse.success(responses));
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getOlderCursor() != null) {
+            response.header(OLDER_CURSOR_HEADER, page.getOlderCursor());
+        }
+        if (page.getNewerCursor() != null) {
+            response.header(NEWER_CURSOR_HEADER, page.getNewerCursor());
+        }
+        return response.body(ApiResponse.success(responses));
+    }
+    
+    /**
+     * Streams new messages of a chat room (server-sent events, one "message" event per message).
+     * GET /api/escrow/chat/rooms/{roomId}/stream
+     * A reconnect resumes after the Last-Event-ID header (or the "after" parameter).
+     */
+    @GetMapping(value = "/chat/rooms/{roomId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamMessages(
+        @PathVariable UUID roomId,
+        @RequestHeader(value = "X-User-Id", required = false) UUID userId,
+        @RequestHeader(value = "Last-Event-ID", required = false) UUID lastEventId,
+        @RequestParam(value = "after", required = false) UUID after
+    ) {
+        try {
+            chatService.getChatRoom(roomId);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        try {
+            return ResponseEntity.ok(chatStreamHub.subscribe(roomId, userId, lastEventId != null ? lastEventId : after));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
     }
     
     /**
@@ -0,0 +1,103 @@
+package com.trustescrow.presentation.controller;
+
+import com.trustescrow.application.dto.ApiResponse;
+import com.trustescrow.application.service.EvidenceUploadService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Resumable chunked upload of milestone evidence.
+ *
+ * 1. POST /api/uploads declares the file (size, SHA-256, optional chunk size) and returns the upload id
+ * 2. PUT /api/uploads/{uploadId}/chunks/{index} with the raw chunk and its SHA-256 in X-Chunk-Sha256
+ * 3. GET /api/uploads/{uploadId} lists the received chunks (to resume after an interruption)
+ * 4. POST /api/uploads/{uploadId}/complete verifies the whole file and creates the evidence
+ */
+@RestController
+@RequestMapping("/api/uploads")
+@RequiredArgsConstructor
+@Slf4j
+public class EvidenceUploadController {
+
+    private final EvidenceUploadService evidenceUploadService;
+
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ApiResponse<EvidenceUploadService.UploadStatus>> initUpload(
+            @RequestBody EvidenceUploadService.InitUpload request,
+            @RequestHeader(value = "X-User-Id", required = false) UUID userId) {
+        try {
+            return ResponseEntity.ok(ApiResponse.success(evidenceUploadService.initUpload(request, userId)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    @PutMapping(value = "/{uploadId}/chunks/{index}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<ApiResponse<EvidenceUploadService.UploadStatus>> putChunk(
+            @PathVariable UUID uploadId,
+            @PathVariable int index,
+            @RequestHeader(value = "X-Chunk-Sha256", required = false) String chunkHash,
+            InputStream body) throws IOException {
+        return handle(uploadId, () -> evidenceUploadService.putChunk(uploadId, index, chunkHash, body));
+    }
+
+    @GetMapping("/{uploadId}")
+    public ResponseEntity<ApiResponse<EvidenceUploadService.UploadStatus>> getUpload(@PathVariable UUID uploadId) throws IOException {
+        return handle(uploadId, () -> evidenceUploadService.getStatus(uploadId));
+    }
+
+    @PostMapping("/{uploadId}/complete")
+    public ResponseEntity<ApiResponse<EvidenceUploadService.UploadStatus>> completeUpload(@PathVariable UUID uploadId) throws IOException {
+        return handle(uploadId, () -> evidenceUploadService.complete(uploadId));
+    }
+
+    /**
+     * Downloads the content of a completed upload (supports Range requests).
+     */
+    @GetMapping("/{uploadId}/content")
+    public void getContent(
+            @PathVariable UUID uploadId,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+
+        Optional<EvidenceUploadService.StoredContent> content = evidenceUploadService.findContent(uploadId);
+        if (content.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        BlobDownloads.write(request, response, content.get().getPath(), content.get().getContentHash(),
+            content.get().getMimeType(), content.get().getFileName());
+    }
+
+    @FunctionalInterface
+    private interface UploadCall {
+        EvidenceUploadService.UploadStatus call() throws IOException;
+    }
+
+    private ResponseEntity<ApiResponse<EvidenceUploadService.UploadStatus>> handle(UUID uploadId, UploadCall call)
+            throws IOException {
+        try {
+            return ResponseEntity.ok(ApiResponse.success(call.call()));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(ApiResponse.error("Upload not found: " + uploadId));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ApiResponse.error(e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+}
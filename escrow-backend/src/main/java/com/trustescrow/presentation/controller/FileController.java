@@ -1,16 +1,27 @@
 package com.trustescrow.presentation.controller;
 
 import com.trustescrow.application.dto.ApiResponse;
+import com.trustescrow.application.service.BlobStore;
+import com.trustescrow.application.service.ContentHashingService;
 import com.trustescrow.application.service.TransactionService;
 import com.trustescrow.domain.model.MilestoneFile;
+import com.trustescrow.domain.service.MilestoneFileRepository;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -21,6 +32,8 @@ import java.util.stream.Collectors;
 public class FileController {
     
     private final TransactionService transactionService;
+    private final BlobStore blobStore;
+    private final MilestoneFileRepository fileRepository;
     
     @Data
     public static class FileUploadRequest {
@@ -32,7 +45,10 @@ public class FileController {
         private Boolean simulated;
     }
     
-    @PostMapping("/upload")
+    /**
+     * Metadata-only upload (simulated): records the file without storing content.
+     */
+    @PostMapping(value = "/upload", consumes = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<ApiResponse<Object>> uploadFile(
             @RequestBody FileUploadRequest request,
             @RequestHeader(value = "X-User-Role", required = false) String userRole) {
@@ -60,6 +76,69 @@ public class FileController {
         )));
     }
     
+    /**
+     * Upload with content: the file is stored in the blob store (once per distinct content)
+     * and served from {@code /api/files/blob/{contentHash}}.
+     */
+    @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ApiResponse<Object>> uploadFileContent(
+            @RequestParam("milestoneId") UUID milestoneId,
+            @RequestParam(value = "uploaderRole", required = false) String uploaderRoleStr,
+            @RequestParam("file") MultipartFile file) {
+        
+        MilestoneFile.UploaderRole uploaderRole = "BUYER".equals(uploaderRoleStr) 
+            ? MilestoneFile.UploaderRole.BUYER 
+            : MilestoneFile.UploaderRole.SELLER;
+        
+        ContentHashingService.ContentDigest digest;
+        try (InputStream in = file.getInputStream()) {
+            digest = blobStore.put(in, file.getSize());
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Failed to store file content", e);
+        }
+        
+        MilestoneFile saved = transactionService.saveFile(
+            milestoneId,
+            "/api/files/blob/" + digest.getContentHash(),
+            file.getOriginalFilename(),
+            digest.getContentSize(),
+            file.getContentType() != null ? file.getContentType() : "application/octet-stream",
+            digest.getContentHash(),
+            uploaderRole
+        );
+        
+        return ResponseEntity.ok(ApiResponse.success(Map.of(
+            "id", saved.getId(),
+            "fileUrl", downloadUrl(saved),
+            "fileName", saved.getFileName() != null ? saved.getFileName() : "",
+            "contentHash", digest.getContentHash(),
+            "fileSize", digest.getContentSize()
+        )));
+    }
+    
+    /**
+     * Downloads stored milestone file content (supports Range requests).
+     * Several files may share one blob; {@code file} names the one whose name and type are served.
+     */
+    @GetMapping("/blob/{contentHash}")
+    public void downloadFile(
+            @PathVariable String contentHash,
+            @RequestParam(value = "file", required = false) UUID fileId,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        
+        Optional<MilestoneFile> file = fileId != null
+            ? fileRepository.findById(fileId).filter(f -> contentHash.equals(f.getContentHash()))
+            : fileRepository.findFirstByContentHash(contentHash);
+        Optional<Path> blob = file.flatMap(f -> blobStore.find(contentHash));
+        if (blob.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        BlobDownloads.write(request, response, blob.get(), contentHash,
+            file.get().getMimeType(), file.get().getFileName());
+    }
+    
     @GetMapping("/{milestoneId}")
     public ResponseEntity<ApiResponse<List<Object>>> getFiles(@PathVariable UUID milestoneId) {
         List<MilestoneFile> files = transactionService.getFiles(milestoneId);
@@ -68,7 +147,7 @@ public class FileController {
             .map(f -> Map.of(
                 "id", f.getId(),
                 "fileName", f.getFileName() != null ? f.getFileName() : "",
-                "fileUrl", f.getFileUrl(),
+                "fileUrl", downloadUrl(f),
                 "uploaderRole", f.getUploaderRole().name(),
                 "createdAt", f.getCreatedAt()
             ))
@@ -76,4 +155,8 @@ public class FileController {
         
         return ResponseEntity.ok(ApiResponse.success(responses));
     }
+    
+    private static String downloadUrl(MilestoneFile file) {
+        return file.getContentHash() != null ? file.getFileUrl() + "?file=" + file.getId() : file.getFileUrl();
+    }
 }
@@ -1,17 +1,15 @@
 package com.trustescrow.presentation.controller;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.trustescrow.application.service.LemonWebhookService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.StreamUtils;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.servlet.http.HttpServletRequest;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 
 /**
  * Lemon Webhook Controller - Safe and defensive implementation.
@@ -20,9 +18,11 @@ import java.nio.charset.StandardCharsets;
  * so server stability must never be compromised.
  * 
  * Principles:
- * - Always return 200 OK (even on errors)
+ * - Return 200 OK (even on errors), except when the event could not be stored:
+ *   500 then, so the provider delivers it again
  * - Never throw exceptions that crash the server
  * - Log all steps for traceability
+ * - Accept fast: the event is stored and processed asynchronously
  */
 @RestController
 @RequestMapping("/api/webhooks/lemonsqueezy")
@@ -31,7 +31,6 @@ import java.nio.charset.StandardCharsets;
 public class LemonWebhookController {
     
     private final LemonWebhookService webhookService;
-    private final ObjectMapper objectMapper;
     
     /**
      * Handle Lemon webhook event.
@@ -51,36 +50,22 @@ public class LemonWebhookController {
         log.info("[WEBHOOK] Received webhook event");
         
         try {
-            // STEP 1: Read raw body (required for signature verification)
-            String rawBody = StreamUtils.copyToString(
-                request.getInputStream(), 
-                StandardCharsets.UTF_8
-            );
+            // STEP 1: Read raw body once (signed, parsed and stored as these bytes)
+            byte[] rawBody = StreamUtils.copyToByteArray(request.getInputStream());
             
-            if (rawBody == null || rawBody.isEmpty()) {
+            if (rawBody.length == 0) {
                 log.warn("[WEBHOOK] Payload is empty");
                 return ResponseEntity.ok().build(); // Still 200 OK
             }
             
-            log.info("[WEBHOOK] Payload length: {} bytes", rawBody.length());
+            log.info("[WEBHOOK] Payload length: {} bytes", rawBody.length);
             
-            // Parse JSON payload (defensive)
-            JsonNode payload;
-            try {
-                payload = objectMapper.readTree(rawBody);
-                // Extract event name for logging
-                String eventName = payload.path("meta").path("event_name").asText("unknown");
-                log.info("[WEBHOOK] Event: {}", eventName);
-            } catch (Exception e) {
-                log.warn("[WEBHOOK] Failed to parse payload as JSON: {}", e.getMessage());
-                return ResponseEntity.ok().build(); // Still 200 OK
-            }
-            
-            // STEP 2: Process webhook (all steps inside service)
-            boolean processed = webhookService.processWebhook(signature, rawBody, payload);
+            // STEP 2: Verify and store (parsing, signature and idempotency inside service);
+            // state changes are applied by a background worker
+            boolean accepted = webhookService.acceptWebhook(signature, rawBody);
             
-            if (processed) {
-                log.info("[WEBHOOK] Processed successfully (200 OK)");
+            if (accepted) {
+                log.info("[WEBHOOK] Accepted (200 OK)");
             } else {
                 log.info("[WEBHOOK] Ignored (200 OK)");
             }
@@ -91,6 +76,9 @@ public class LemonWebhookController {
         } catch (IOException e) {
             log.error("Failed to read webhook request body: {}", e.getMessage());
             return ResponseEntity.ok().build(); // Still 200 OK
+        } catch (DataAccessException e) {
+            // Not stored: let the provider retry
+            return ResponseEntity.internalServerError().build();
         } catch (Exception e) {
             // Catch all exceptions to prevent server crash
             log.error("Unexpected error processing webhook (returning 200 OK): {}", e.getMessage(), e);
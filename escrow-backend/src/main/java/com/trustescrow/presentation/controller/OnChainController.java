@@ -0,0 +1,48 @@
+package com.trustescrow.presentation.controller;
+
+import com.trustescrow.application.dto.ApiResponse;
+import com.trustescrow.application.service.OnChainBatchService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Public verification API for on-chain records.
+ * 
+ * A record anchored in a batch can be verified by anyone: recompute the leaf from the
+ * returned fields, fold the proof into it and compare with the anchored root
+ * (or call the contract's {@code verifyLeaf}).
+ */
+@RestController
+@RequestMapping("/api/onchain")
+@RequiredArgsConstructor
+@Slf4j
+public class OnChainController {
+    
+    private final OnChainBatchService onChainBatchService;
+    
+    /**
+     * GET /api/onchain/{recordId}/proof
+     * Returns the record's leaf, inclusion proof, batch root and anchoring transaction.
+     */
+    @GetMapping("/{recordId}/proof")
+    public ResponseEntity<ApiResponse<OnChainBatchService.RecordProof>> getProof(@PathVariable UUID recordId) {
+        try {
+            Optional<OnChainBatchService.RecordProof> proof = onChainBatchService.getProof(recordId);
+            if (proof.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error("On-chain record not found: " + recordId));
+            }
+            return ResponseEntity.ok(ApiResponse.success(proof.get()));
+        } catch (IllegalStateException e) {
+            // Sent as its own transaction, or not sealed into a batch yet
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+}
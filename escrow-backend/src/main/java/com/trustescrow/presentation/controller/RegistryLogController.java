@@ -0,0 +1,72 @@
+package com.trustescrow.presentation.controller;
+
+import com.trustescrow.application.dto.ApiResponse;
+import com.trustescrow.application.service.RegistryMerkleService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Verification API for the registry log Merkle tree.
+ * 
+ * An entry is verified by folding its inclusion proof into the leaf
+ * {@code SHA-256(0x00 || eventHash)}; an anchored tree head is shown to extend an
+ * earlier one with a consistency proof (RFC 6962).
+ */
+@RestController
+@RequestMapping("/v1/registry-log")
+@RequiredArgsConstructor
+@Slf4j
+public class RegistryLogController {
+    
+    private final RegistryMerkleService registryMerkleService;
+    
+    /**
+     * GET /v1/registry-log/head
+     */
+    @GetMapping("/head")
+    public ResponseEntity<ApiResponse<RegistryMerkleService.TreeHead>> getHead() {
+        return ResponseEntity.ok(ApiResponse.success(registryMerkleService.getHead()));
+    }
+    
+    /**
+     * GET /v1/registry-log/{entry_id}/proof?tree_size=
+     * Inclusion proof of an entry (against the current head if no size is given).
+     */
+    @GetMapping("/{entry_id}/proof")
+    public ResponseEntity<ApiResponse<RegistryMerkleService.InclusionProof>> getInclusionProof(
+            @PathVariable("entry_id") UUID entryId,
+            @RequestParam(value = "tree_size", required = false) Long treeSize) {
+        try {
+            Optional<RegistryMerkleService.InclusionProof> proof =
+                registryMerkleService.getInclusionProof(entryId, treeSize);
+            if (proof.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error("Registry entry not found: " + entryId));
+            }
+            return ResponseEntity.ok(ApiResponse.success(proof.get()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+    
+    /**
+     * GET /v1/registry-log/consistency?from_size=&to_size=
+     */
+    @GetMapping("/consistency")
+    public ResponseEntity<ApiResponse<RegistryMerkleService.ConsistencyProof>> getConsistencyProof(
+            @RequestParam("from_size") long fromSize,
+            @RequestParam("to_size") long toSize) {
+        try {
+            return ResponseEntity.ok(ApiResponse.success(registryMerkleService.getConsistencyProof(fromSize, toSize)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+}
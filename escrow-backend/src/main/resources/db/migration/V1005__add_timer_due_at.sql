@@ -0,0 +1,13 @@
+-- Timer Engine: persisted deadlines for the in-memory timer wheel
+-- Due timers are found by index range scan instead of loading every active timer
+
+ALTER TABLE timers
+ADD COLUMN IF NOT EXISTS due_at TIMESTAMPTZ;
+
+CREATE INDEX IF NOT EXISTS idx_timers_active_due
+    ON timers(active, due_at);
+
+CREATE INDEX IF NOT EXISTS idx_timers_type_active_due
+    ON timers(timer_type, active, due_at);
+
+-- Legacy rows are backfilled by TimerService on startup (due_at = started_at + duration)
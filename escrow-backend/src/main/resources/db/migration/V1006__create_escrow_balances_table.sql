@@ -0,0 +1,22 @@
+-- Escrow Balance Projection
+-- Per-deal running totals of escrow_ledger_entries, updated in the same transaction as each append
+
+CREATE TABLE IF NOT EXISTS escrow_balances (
+    deal_id UUID PRIMARY KEY,
+    held_total NUMERIC(19, 2) NOT NULL DEFAULT 0,
+    released_total NUMERIC(19, 2) NOT NULL DEFAULT 0,
+    released_from_escrow_total NUMERIC(19, 2) NOT NULL DEFAULT 0,
+    refunded_total NUMERIC(19, 2) NOT NULL DEFAULT 0,
+    offset_total NUMERIC(19, 2) NOT NULL DEFAULT 0,
+    escrow_account NUMERIC(19, 2) NOT NULL DEFAULT 0,
+    seller_account NUMERIC(19, 2) NOT NULL DEFAULT 0,
+    buyer_account NUMERIC(19, 2) NOT NULL DEFAULT 0,
+    entry_count BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    version BIGINT
+);
+
+CREATE INDEX IF NOT EXISTS idx_escrow_balances_updated ON escrow_balances(updated_at);
+
+-- Existing deals are populated lazily on their next append, or in bulk via
+-- POST /api/admin/ledger/balances/rebuild
@@ -0,0 +1,12 @@
+-- Work Claiming: lease columns so several backend nodes can run the settlement jobs
+-- Rows are claimed with SELECT ... FOR UPDATE SKIP LOCKED and stamped with a lease
+
+ALTER TABLE timers
+ADD COLUMN IF NOT EXISTS lease_owner VARCHAR(255),
+ADD COLUMN IF NOT EXISTS lease_until TIMESTAMPTZ;
+
+ALTER TABLE deals
+ADD COLUMN IF NOT EXISTS lease_owner VARCHAR(255),
+ADD COLUMN IF NOT EXISTS lease_until TIMESTAMPTZ;
+
+CREATE INDEX IF NOT EXISTS idx_deals_state_lease ON deals(state, lease_until);
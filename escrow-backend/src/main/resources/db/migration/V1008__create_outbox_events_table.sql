@@ -0,0 +1,15 @@
+-- Transactional Outbox: events written in the same transaction as the deal state change
+-- DEAL_APPROVED events trigger holdback release right after commit
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id UUID PRIMARY KEY,
+    deal_id UUID NOT NULL,
+    event_type VARCHAR(100) NOT NULL,
+    payload TEXT,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    last_error TEXT,
+    processed_at TIMESTAMPTZ,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX IF NOT EXISTS idx_outbox_events_pending ON outbox_events(processed_at, created_at);
@@ -0,0 +1,10 @@
+-- Dashboard KPI counters: per deal state, per milestone status, and held-milestone creation time sum
+-- Maintained from state-change events and reconciled periodically with GROUP BY queries
+
+CREATE TABLE IF NOT EXISTS dashboard_counters (
+    counter_key VARCHAR(100) PRIMARY KEY,
+    counter_value BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX IF NOT EXISTS idx_deal_milestones_status_created ON deal_milestones(status, created_at);
@@ -0,0 +1,4 @@
+-- Milestone anomaly detection: range scans per rule on (status, updated_at)
+-- (status, created_at) is created in V1009
+
+CREATE INDEX IF NOT EXISTS idx_deal_milestones_status_updated ON deal_milestones(status, updated_at);
@@ -0,0 +1,5 @@
+-- Partner dashboard: seller-scoped deal aggregates and partner revenue by settlement date
+
+CREATE INDEX IF NOT EXISTS idx_deals_seller_state_updated ON deals(seller_id, state, updated_at);
+
+CREATE INDEX IF NOT EXISTS idx_revenue_partner_settled ON revenue_ledger_entries(partner_id, settled_at);
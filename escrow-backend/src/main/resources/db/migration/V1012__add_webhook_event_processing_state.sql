@@ -0,0 +1,17 @@
+-- Async Webhook Ingestion: webhook_events doubles as the durable processing queue
+-- Events are stored on receipt and processed in the background, in order per deal
+
+ALTER TABLE webhook_events
+ADD COLUMN IF NOT EXISTS deal_key VARCHAR(255),
+ADD COLUMN IF NOT EXISTS attempts INTEGER NOT NULL DEFAULT 0,
+ADD COLUMN IF NOT EXISTS next_attempt_at TIMESTAMPTZ,
+ADD COLUMN IF NOT EXISTS last_error TEXT,
+ADD COLUMN IF NOT EXISTS dead_at TIMESTAMPTZ,
+ADD COLUMN IF NOT EXISTS lease_owner VARCHAR(255),
+ADD COLUMN IF NOT EXISTS lease_until TIMESTAMPTZ;
+
+CREATE INDEX IF NOT EXISTS idx_webhook_events_pending 
+    ON webhook_events(processed_at, dead_at, next_attempt_at);
+
+CREATE INDEX IF NOT EXISTS idx_webhook_events_deal_created 
+    ON webhook_events(deal_key, created_at);
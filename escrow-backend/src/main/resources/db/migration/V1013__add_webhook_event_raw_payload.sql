@@ -0,0 +1,5 @@
+-- Raw Webhook Payloads: store the request body exactly as received and signed
+-- The JSONB payload column is kept for events accepted before this change
+
+ALTER TABLE webhook_events
+ADD COLUMN IF NOT EXISTS raw_payload BYTEA;
@@ -0,0 +1,12 @@
+-- On-Chain Submission Outbox: on_chain_records are sent by a background submitter
+-- which owns the wallet nonce and confirms transactions by polling receipts
+
+ALTER TABLE on_chain_records
+ADD COLUMN IF NOT EXISTS submission_status VARCHAR(20),
+ADD COLUMN IF NOT EXISTS nonce BIGINT,
+ADD COLUMN IF NOT EXISTS submit_attempts INTEGER NOT NULL DEFAULT 0,
+ADD COLUMN IF NOT EXISTS submitted_at TIMESTAMPTZ,
+ADD COLUMN IF NOT EXISTS last_error TEXT;
+
+CREATE INDEX IF NOT EXISTS idx_onchain_submission 
+    ON on_chain_records(submission_status, created_at);
@@ -0,0 +1,34 @@
+-- Merkle-Batched Anchoring: records are anchored in batches by the root of their Merkle tree
+-- Each record keeps its leaf hash and inclusion proof
+
+CREATE TABLE IF NOT EXISTS on_chain_batches (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    merkle_root VARCHAR(66) NOT NULL,
+    leaf_count INTEGER NOT NULL,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    submission_status VARCHAR(20) NOT NULL,
+    transaction_hash VARCHAR(255),
+    nonce BIGINT,
+    submit_attempts INTEGER NOT NULL DEFAULT 0,
+    submitted_at TIMESTAMPTZ,
+    block_number BIGINT,
+    network VARCHAR(50),
+    confirmed_at TIMESTAMPTZ,
+    last_error TEXT
+);
+
+CREATE INDEX IF NOT EXISTS idx_onchain_batch_submission 
+    ON on_chain_batches(submission_status, created_at);
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_onchain_batch_tx_hash 
+    ON on_chain_batches(transaction_hash) 
+    WHERE transaction_hash IS NOT NULL;
+
+ALTER TABLE on_chain_records
+ADD COLUMN IF NOT EXISTS batch_id UUID,
+ADD COLUMN IF NOT EXISTS leaf_index INTEGER,
+ADD COLUMN IF NOT EXISTS leaf_hash VARCHAR(66),
+ADD COLUMN IF NOT EXISTS merkle_proof TEXT;
+
+CREATE INDEX IF NOT EXISTS idx_onchain_batch 
+    ON on_chain_records(batch_id, leaf_index);
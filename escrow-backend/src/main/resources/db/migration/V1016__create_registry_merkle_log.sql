@@ -0,0 +1,30 @@
+-- Registry Merkle Log: registry_log entries are leaves of an append-only Merkle tree
+-- The head row holds the O(log n) frontier; completed subtree roots are stored for proofs
+
+CREATE TABLE IF NOT EXISTS registry_merkle_state (
+    id INTEGER PRIMARY KEY,
+    tree_size BIGINT NOT NULL,
+    frontier TEXT,
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+CREATE TABLE IF NOT EXISTS registry_merkle_nodes (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    level INTEGER NOT NULL,
+    node_index BIGINT NOT NULL,
+    hash VARCHAR(64) NOT NULL
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_registry_merkle_node 
+    ON registry_merkle_nodes(level, node_index);
+
+CREATE TABLE IF NOT EXISTS registry_merkle_checkpoints (
+    tree_size BIGINT PRIMARY KEY,
+    root_hash VARCHAR(64) NOT NULL,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+-- registry_log is created by the entity mapping (with its unique leaf_index index);
+-- existing entries get their leaf index when they are appended at startup
+ALTER TABLE IF EXISTS registry_log
+ADD COLUMN IF NOT EXISTS leaf_index BIGINT;
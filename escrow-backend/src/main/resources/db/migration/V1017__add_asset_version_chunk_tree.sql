@@ -0,0 +1,7 @@
+-- Streaming Asset Hashing: content size and chunk hash tree of asset versions
+-- chunk_tree_root is set for large content only (RFC 6962 root over the chunk hashes)
+
+ALTER TABLE IF EXISTS asset_versions
+ADD COLUMN IF NOT EXISTS content_size BIGINT,
+ADD COLUMN IF NOT EXISTS chunk_size INTEGER,
+ADD COLUMN IF NOT EXISTS chunk_tree_root VARCHAR(64);
@@ -0,0 +1,8 @@
+-- Content-Addressed Blob Store: milestone files reference their stored content by SHA-256
+-- Files recorded without content (metadata-only uploads) keep content_hash NULL
+
+ALTER TABLE milestone_files
+ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64);
+
+CREATE INDEX IF NOT EXISTS idx_milestone_files_content_hash 
+    ON milestone_files(content_hash);
@@ -0,0 +1,39 @@
+-- Resumable Evidence Uploads: declared file, received chunks and outcome of chunked uploads
+-- Chunk rows are deleted once an upload completes, fails or expires
+
+CREATE TABLE IF NOT EXISTS evidence_uploads (
+    id UUID PRIMARY KEY,
+    target VARCHAR(20) NOT NULL,
+    deal_id UUID,
+    milestone_id UUID NOT NULL,
+    uploaded_by UUID,
+    evidence_type VARCHAR(20),
+    uploader_role VARCHAR(20),
+    file_name VARCHAR(255),
+    mime_type VARCHAR(255),
+    file_size BIGINT NOT NULL,
+    content_hash VARCHAR(64) NOT NULL,
+    chunk_size INTEGER NOT NULL,
+    chunk_count INTEGER NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    result_id UUID,
+    last_error TEXT,
+    created_at TIMESTAMP NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    completed_at TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_evidence_uploads_status_expires 
+    ON evidence_uploads(status, expires_at);
+
+CREATE TABLE IF NOT EXISTS evidence_upload_chunks (
+    id UUID PRIMARY KEY,
+    upload_id UUID NOT NULL,
+    chunk_index INTEGER NOT NULL,
+    chunk_hash VARCHAR(64) NOT NULL,
+    chunk_length BIGINT NOT NULL,
+    received_at TIMESTAMP NOT NULL
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_evidence_upload_chunk 
+    ON evidence_upload_chunks(upload_id, chunk_index);
@@ -0,0 +1,7 @@
+-- Chat History Paging: keyset index for (created_at, id) seeks within a room
+-- Replaces the (room_id, created_at) index, which is a prefix of the new one
+
+CREATE INDEX IF NOT EXISTS idx_chat_messages_room_created_id 
+    ON chat_messages(room_id, created_at, id);
+
+DROP INDEX IF EXISTS idx_chat_messages_room_created;
@@ -0,0 +1,24 @@
+-- Chat Unread Counters: unread message count per (room, participant) for room list badges
+-- Backfilled from chat_messages for existing rooms (buyer and seller)
+
+CREATE TABLE IF NOT EXISTS chat_unread_counters (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    room_id UUID NOT NULL REFERENCES chat_rooms(id) ON DELETE CASCADE,
+    user_id UUID NOT NULL,
+    unread_count BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_chat_unread_counters_room_user 
+    ON chat_unread_counters(room_id, user_id);
+CREATE INDEX IF NOT EXISTS idx_chat_unread_counters_user 
+    ON chat_unread_counters(user_id);
+
+INSERT INTO chat_unread_counters (room_id, user_id, unread_count, updated_at)
+SELECT r.id, p.user_id,
+       (SELECT COUNT(*) FROM chat_messages m 
+        WHERE m.room_id = r.id AND m.read_at IS NULL AND m.sender_id <> p.user_id),
+       NOW()
+FROM chat_rooms r
+CROSS JOIN LATERAL (VALUES (r.buyer_id), (r.seller_id)) AS p(user_id)
+ON CONFLICT (room_id, user_id) DO NOTHING;
@@ -0,0 +1,8 @@
+-- On-Chain Transaction Replacement: gas price and replaced hashes of submitted transactions
+-- A transaction without a receipt is re-sent with the same nonce and a higher gas price
+
+ALTER TABLE on_chain_records ADD COLUMN IF NOT EXISTS gas_price BIGINT;
+ALTER TABLE on_chain_records ADD COLUMN IF NOT EXISTS replaced_tx_hashes TEXT;
+
+ALTER TABLE on_chain_batches ADD COLUMN IF NOT EXISTS gas_price BIGINT;
+ALTER TABLE on_chain_batches ADD COLUMN IF NOT EXISTS replaced_tx_hashes TEXT;
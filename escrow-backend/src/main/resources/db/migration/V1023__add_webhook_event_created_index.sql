@@ -0,0 +1,4 @@
+-- Webhook Idempotency Guard: warm-up pages through recent events by (created_at, id)
+
+CREATE INDEX IF NOT EXISTS idx_webhook_events_created 
+    ON webhook_events(created_at, id);
@@ -0,0 +1,5 @@
+-- Transactional Outbox: events that exhausted their retries are dead-lettered instead of
+-- silently dropping out of the poller; existing exhausted rows are marked on the next poll
+
+ALTER TABLE outbox_events
+ADD COLUMN IF NOT EXISTS dead_at TIMESTAMPTZ;
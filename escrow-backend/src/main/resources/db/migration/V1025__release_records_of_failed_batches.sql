@@ -0,0 +1,11 @@
+-- Merkle Batch Anchoring: records of a FAILED batch go back to BATCH_PENDING for a later batch
+-- Releases records left BATCHED in batches that failed before this was done by the submitter
+
+UPDATE on_chain_records
+SET submission_status = 'BATCH_PENDING',
+    batch_id = NULL,
+    leaf_index = NULL,
+    leaf_hash = NULL,
+    merkle_proof = NULL
+WHERE submission_status = 'BATCHED'
+  AND batch_id IN (SELECT id FROM on_chain_batches WHERE submission_status = 'FAILED');
@@ -0,0 +1,5 @@
+-- Transactional Outbox: the retry delay of a failed event counts from its last attempt, not from
+-- creation, so an old event is not retried on every poll; null until the first failure
+
+ALTER TABLE outbox_events
+ADD COLUMN IF NOT EXISTS next_attempt_at TIMESTAMPTZ;
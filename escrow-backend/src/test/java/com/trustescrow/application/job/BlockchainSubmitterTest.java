@@ -0,0 +1,222 @@
+package com.trustescrow.application.job;
+
+import com.trustescrow.application.service.BlockchainContractService;
+import com.trustescrow.application.service.BlockchainService;
+import com.trustescrow.application.service.OnChainBatchService;
+import com.trustescrow.domain.model.OnChainRecord;
+import com.trustescrow.domain.service.OnChainBatchRepository;
+import com.trustescrow.domain.service.OnChainRecordRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BlockchainSubmitterTest {
+
+    private static final BigInteger GWEI = BigInteger.TEN.pow(9);
+
+    private final OnChainRecordRepository recordRepository = mock(OnChainRecordRepository.class);
+    private final OnChainBatchRepository batchRepository = mock(OnChainBatchRepository.class);
+    private final BlockchainContractService contractService = mock(BlockchainContractService.class);
+    private final List<OnChainRecord> records = new ArrayList<>();
+    private BlockchainSubmitter submitter;
+
+    @BeforeEach
+    void setUp() {
+        submitter = new BlockchainSubmitter(recordRepository, batchRepository, contractService,
+            mock(BlockchainService.class), mock(OnChainBatchService.class), mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(submitter, "submitterEnabled", true);
+        ReflectionTestUtils.setField(submitter, "maxPendingTxs", 64);
+        ReflectionTestUtils.setField(submitter, "maxAttempts", 5);
+        ReflectionTestUtils.setField(submitter, "resubmitAfterMinutes", 30L);
+        ReflectionTestUtils.setField(submitter, "receiptBatchSize", 100);
+        ReflectionTestUtils.setField(submitter, "replaceGasBumpPercent", 25);
+        ReflectionTestUtils.setField(submitter, "maxGasPriceGwei", 500L);
+
+        when(contractService.isEnabled()).thenReturn(true);
+        when(contractService.encodeRecordStatus(anyString(), anyString(), anyInt())).thenReturn("0xdata");
+        when(contractService.getDefaultGasPrice()).thenReturn(GWEI);
+        when(recordRepository.findBySubmissionStatusOrderByCreatedAtAsc(any(), any())).thenAnswer(invocation -> {
+            Pageable page = invocation.getArgument(1);
+            return records.stream()
+                .filter(r -> r.getSubmissionStatus() == invocation.getArgument(0))
+                .limit(page.getPageSize())
+                .toList();
+        });
+        when(recordRepository.countBySubmissionStatus(any())).thenAnswer(invocation ->
+            records.stream().filter(r -> r.getSubmissionStatus() == invocation.getArgument(0)).count());
+        when(recordRepository.findMaxNonce(any())).thenAnswer(invocation -> records.stream()
+            .filter(r -> r.getSubmissionStatus() == invocation.getArgument(0))
+            .map(OnChainRecord::getNonce)
+            .max(Long::compare)
+            .orElse(null));
+        when(recordRepository.findById(any())).thenAnswer(invocation ->
+            records.stream().filter(r -> r.getId().equals(invocation.getArgument(0))).findFirst());
+    }
+
+    @AfterEach
+    void tearDown() {
+        submitter.shutdown();
+    }
+
+    @Test
+    void testNoncesArePipelinedInOrder() {
+        OnChainRecord first = pending();
+        OnChainRecord second = pending();
+        OnChainRecord third = pending();
+        when(contractService.getPendingNonce()).thenReturn(Optional.of(BigInteger.valueOf(7)));
+        when(contractService.sendTransaction(any(BigInteger.class), anyString()))
+            .thenAnswer(invocation -> accepted("0xtx" + invocation.getArgument(0)));
+
+        drain();
+
+        InOrder order = inOrder(contractService);
+        order.verify(contractService).sendTransaction(BigInteger.valueOf(7), "0xdata");
+        order.verify(contractService).sendTransaction(BigInteger.valueOf(8), "0xdata");
+        order.verify(contractService).sendTransaction(BigInteger.valueOf(9), "0xdata");
+        // Read from the node once, then counted locally without waiting for receipts
+        verify(contractService, times(1)).getPendingNonce();
+        assertEquals(List.of(7L, 8L, 9L), List.of(first.getNonce(), second.getNonce(), third.getNonce()));
+        assertEquals(OnChainRecord.SubmissionStatus.SUBMITTED, third.getSubmissionStatus());
+        assertEquals("0xtx9", third.getTransactionHash());
+    }
+
+    @Test
+    void testNonceTooLowResynchronizes() {
+        OnChainRecord first = pending();
+        OnChainRecord second = pending();
+        // Another sender used nonces 3 and 4 meanwhile
+        when(contractService.getPendingNonce())
+            .thenReturn(Optional.of(BigInteger.valueOf(3)), Optional.of(BigInteger.valueOf(5)));
+        when(contractService.sendTransaction(eq(BigInteger.valueOf(3)), anyString()))
+            .thenReturn(new BlockchainContractService.SendResult(null, GWEI, "nonce too low", false));
+        when(contractService.sendTransaction(eq(BigInteger.valueOf(5)), anyString())).thenReturn(accepted("0xa"));
+        when(contractService.sendTransaction(eq(BigInteger.valueOf(6)), anyString())).thenReturn(accepted("0xb"));
+
+        drain();
+
+        // The rejection is not counted against the record
+        assertEquals(OnChainRecord.SubmissionStatus.PENDING, first.getSubmissionStatus());
+        assertEquals(0, first.getSubmitAttemptCount());
+        verify(contractService, times(1)).sendTransaction(any(BigInteger.class), anyString());
+
+        drain();
+
+        verify(contractService, times(2)).getPendingNonce();
+        assertEquals(5L, first.getNonce());
+        assertEquals(6L, second.getNonce());
+        assertEquals(OnChainRecord.SubmissionStatus.SUBMITTED, second.getSubmissionStatus());
+    }
+
+    @Test
+    void testUnknownResultIsNotResentWithNewNonce() {
+        OnChainRecord lost = pending();
+        OnChainRecord next = pending();
+        // The node never saw the lost transaction, so it still reports nonce 4 as pending
+        when(contractService.getPendingNonce()).thenReturn(Optional.of(BigInteger.valueOf(4)));
+        when(contractService.sendTransaction(eq(BigInteger.valueOf(4)), anyString()))
+            .thenReturn(new BlockchainContractService.SendResult("0xlost", GWEI, "connection reset", true));
+        when(contractService.sendTransaction(eq(BigInteger.valueOf(5)), anyString())).thenReturn(accepted("0xnext"));
+
+        drain();
+
+        assertEquals(OnChainRecord.SubmissionStatus.SUBMITTED, lost.getSubmissionStatus());
+        assertEquals("0xlost", lost.getTransactionHash());
+        assertEquals(OnChainRecord.SubmissionStatus.PENDING, next.getSubmissionStatus());
+
+        drain();
+
+        // Nonce 4 stays with the lost transaction: it is replaced at that nonce, not overtaken
+        verify(contractService, times(1)).sendTransaction(eq(BigInteger.valueOf(4)), anyString());
+        assertEquals(4L, lost.getNonce());
+        assertEquals(5L, next.getNonce());
+    }
+
+    @Test
+    void testRevertedReceiptIsRequeued() {
+        OnChainRecord record = pending();
+        record.markSubmitted("0xreverted", 2, "polygon", GWEI.longValue());
+        TransactionReceipt receipt = new TransactionReceipt();
+        receipt.setTransactionHash("0xreverted");
+        receipt.setStatus("0x0");
+        when(contractService.getTransactionReceipts(List.of("0xreverted"))).thenReturn(Map.of("0xreverted", receipt));
+
+        submitter.pollReceipts();
+
+        assertEquals(OnChainRecord.SubmissionStatus.PENDING, record.getSubmissionStatus());
+        assertEquals(1, record.getSubmitAttemptCount());
+        assertNull(record.getNonce());
+        assertNull(record.getTransactionHash());
+        assertTrue(record.getLastError().contains("0xreverted"));
+    }
+
+    @Test
+    void testStuckTransactionIsReplacedWithSameNonceAndHigherGasPrice() {
+        OnChainRecord record = pending();
+        record.markSubmitted("0xstuck", 9, "polygon", 10 * GWEI.longValue());
+        ReflectionTestUtils.setField(record, "submittedAt", Instant.now().minus(Duration.ofMinutes(31)));
+        when(contractService.getTransactionReceipts(any())).thenReturn(Map.of());
+        when(contractService.getNetworkGasPrice()).thenReturn(Optional.of(BigInteger.valueOf(11).multiply(GWEI)));
+        BigInteger bumped = BigInteger.valueOf(125).multiply(GWEI).divide(BigInteger.TEN);
+        when(contractService.sendTransaction(BigInteger.valueOf(9), "0xdata", bumped))
+            .thenReturn(new BlockchainContractService.SendResult("0xreplacement", bumped, null, false));
+
+        submitter.pollReceipts();
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> "0xreplacement".equals(record.getTransactionHash()));
+        verify(contractService, never()).sendTransaction(any(BigInteger.class), anyString());
+        assertEquals(9L, record.getNonce());
+        assertEquals(bumped.longValue(), record.getGasPrice());
+        assertEquals(OnChainRecord.SubmissionStatus.SUBMITTED, record.getSubmissionStatus());
+        // Either version may be mined: the receipts of both are polled
+        assertEquals(List.of("0xstuck", "0xreplacement"), record.getSentTxHashes());
+    }
+
+    private void drain() {
+        ReflectionTestUtils.invokeMethod(submitter, "drain");
+    }
+
+    private OnChainRecord pending() {
+        OnChainRecord record = OnChainRecord.builder()
+            .id(UUID.randomUUID())
+            .dealId(UUID.randomUUID())
+            .milestoneId(UUID.randomUUID())
+            .status(OnChainRecord.RecordStatus.RELEASED)
+            .network("polygon")
+            .submissionStatus(OnChainRecord.SubmissionStatus.PENDING)
+            .createdAt(Instant.now())
+            .build();
+        records.add(record);
+        return record;
+    }
+
+    private static BlockchainContractService.SendResult accepted(String txHash) {
+        return new BlockchainContractService.SendResult(txHash, GWEI, null, false);
+    }
+}
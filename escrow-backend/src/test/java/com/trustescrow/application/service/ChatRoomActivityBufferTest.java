@@ -0,0 +1,98 @@
+package com.trustescrow.application.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+class ChatRoomActivityBufferTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<List<Map.Entry<UUID, Instant>>> flushed = new ArrayList<>();
+    private ChatRoomActivityBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        buffer = new ChatRoomActivityBuffer(jdbcTemplate, meterRegistry);
+    }
+
+    @Test
+    void testBumpsOfRoomAreCoalescedToLatest() {
+        recordFlushes();
+        UUID busy = UUID.randomUUID();
+        UUID quiet = UUID.randomUUID();
+        Instant base = Instant.parse("2026-10-17T00:00:00Z");
+
+        buffer.touch(busy, base.plusSeconds(1));
+        buffer.touch(busy, base.plusSeconds(3));
+        // Committed out of order: an older message time never wins
+        buffer.touch(busy, base.plusSeconds(2));
+        buffer.touch(quiet, base);
+        buffer.flush();
+
+        assertEquals(1, flushed.size());
+        assertEquals(Map.of(busy, base.plusSeconds(3), quiet, base), toMap(flushed.get(0)));
+        assertEquals(4.0, meterRegistry.get("chat.rooms.last-message.bumps").counter().count());
+        assertEquals(2.0, meterRegistry.get("chat.rooms.last-message.writes").counter().count());
+
+        // Nothing pending: no write
+        buffer.flush();
+        assertEquals(1, flushed.size());
+    }
+
+    @Test
+    void testFailedFlushIsMergedBackAndRetried() {
+        UUID roomId = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        Instant base = Instant.parse("2026-10-17T00:00:00Z");
+        doThrow(new DataAccessResourceFailureException("connection refused"))
+            .when(jdbcTemplate).batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+
+        buffer.touch(roomId, base.plusSeconds(5));
+        buffer.touch(other, base.plusSeconds(5));
+        buffer.flush();
+        assertEquals(0.0, meterRegistry.get("chat.rooms.last-message.writes").counter().count());
+
+        // Bumps while the database was down: a newer one replaces the put-back time, an older one does not
+        buffer.touch(roomId, base.plusSeconds(9));
+        buffer.touch(other, base.plusSeconds(1));
+        recordFlushes();
+        buffer.flush();
+
+        assertEquals(1, flushed.size());
+        assertEquals(Map.of(roomId, base.plusSeconds(9), other, base.plusSeconds(5)), toMap(flushed.get(0)));
+        assertEquals(2.0, meterRegistry.get("chat.rooms.last-message.writes").counter().count());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void recordFlushes() {
+        doAnswer(invocation -> {
+            flushed.add(new ArrayList<>((Collection<Map.Entry<UUID, Instant>>) invocation.getArgument(1)));
+            return new int[0][];
+        }).when(jdbcTemplate).batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    private static Map<UUID, Instant> toMap(List<Map.Entry<UUID, Instant>> entries) {
+        return entries.stream().collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+}
@@ -0,0 +1,129 @@
+package com.trustescrow.application.service;
+
+import com.trustescrow.domain.model.ChatRoom;
+import com.trustescrow.domain.model.ChatUnreadCounter;
+import com.trustescrow.domain.service.ChatMessageRepository;
+import com.trustescrow.domain.service.ChatRoomRepository;
+import com.trustescrow.domain.service.ChatUnreadCounterRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.context.ApplicationEventPublisher;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ChatServiceTest {
+
+    private final UUID buyerId = UUID.randomUUID();
+    private final UUID sellerId = UUID.randomUUID();
+    private final ChatRoom room = ChatRoom.builder()
+        .id(UUID.randomUUID())
+        .dealId(UUID.randomUUID())
+        .buyerId(buyerId)
+        .sellerId(sellerId)
+        .status(ChatRoom.ChatRoomStatus.ACTIVE)
+        .createdAt(Instant.now())
+        .updatedAt(Instant.now())
+        .build();
+
+    private final ChatRoomRepository roomRepository = mock(ChatRoomRepository.class);
+    private final ChatMessageRepository messageRepository = mock(ChatMessageRepository.class);
+    private final ChatUnreadCounterRepository counterRepository = mock(ChatUnreadCounterRepository.class);
+    private final ChatService chatService = new ChatService(
+        roomRepository, messageRepository, counterRepository, mock(ApplicationEventPublisher.class), mock(DataSource.class));
+
+    @Test
+    void testReadLocksCounterBeforeBulkUpdateAndResetsAfter() {
+        ChatUnreadCounter counter = counter(sellerId, 3L);
+        when(counterRepository.findByRoomIdAndUserIdWithLock(room.getId(), sellerId)).thenReturn(Optional.of(counter));
+        // The reset must not happen before the messages are marked read
+        doAnswer(invocation -> {
+            assertEquals(3L, counter.getUnreadCount());
+            return 3;
+        }).when(messageRepository).markAsRead(eq(room.getId()), eq(sellerId), any());
+
+        chatService.markMessagesAsRead(room.getId(), sellerId);
+
+        InOrder order = inOrder(counterRepository, messageRepository);
+        order.verify(counterRepository).findByRoomIdAndUserIdWithLock(room.getId(), sellerId);
+        order.verify(messageRepository).markAsRead(eq(room.getId()), eq(sellerId), any());
+        assertEquals(0L, counter.getUnreadCount());
+    }
+
+    @Test
+    void testReadWithoutUnreadSkipsBulkUpdate() {
+        when(counterRepository.findByRoomIdAndUserIdWithLock(room.getId(), sellerId))
+            .thenReturn(Optional.of(counter(sellerId, 0L)));
+
+        chatService.markMessagesAsRead(room.getId(), sellerId);
+
+        verify(messageRepository, never()).markAsRead(any(), any(), any());
+    }
+
+    @Test
+    void testReadCreatesMissingCounterBeforeLocking() {
+        ChatUnreadCounter created = counter(sellerId, 2L);
+        when(roomRepository.findById(room.getId())).thenReturn(Optional.of(room));
+        when(messageRepository.countUnreadMessages(room.getId(), sellerId)).thenReturn(2L);
+        when(counterRepository.insertIfAbsentSingleNode(any(), eq(room.getId()), any(), anyLong(), any())).thenReturn(1);
+        when(counterRepository.findByRoomIdAndUserIdWithLock(room.getId(), sellerId))
+            .thenReturn(Optional.empty(), Optional.of(created));
+
+        chatService.markMessagesAsRead(room.getId(), sellerId);
+
+        InOrder order = inOrder(counterRepository, messageRepository);
+        order.verify(counterRepository).insertIfAbsentSingleNode(any(), eq(room.getId()), eq(sellerId), eq(2L), any());
+        order.verify(counterRepository).findByRoomIdAndUserIdWithLock(room.getId(), sellerId);
+        order.verify(messageRepository).markAsRead(eq(room.getId()), eq(sellerId), any());
+        assertEquals(0L, created.getUnreadCount());
+    }
+
+    @Test
+    void testMessageIsCountedInCounterCreatedConcurrently() {
+        when(counterRepository.incrementOthers(eq(room.getId()), eq(buyerId), any())).thenReturn(0);
+        when(roomRepository.findById(room.getId())).thenReturn(Optional.of(room));
+        // The buyer's counter is created here; the seller's was committed by another sender meanwhile
+        when(counterRepository.insertIfAbsentSingleNode(any(), eq(room.getId()), eq(buyerId), anyLong(), any())).thenReturn(1);
+        when(counterRepository.insertIfAbsentSingleNode(any(), eq(room.getId()), eq(sellerId), anyLong(), any())).thenReturn(0);
+        when(messageRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        chatService.sendMessage(room.getId(), buyerId, "hello");
+
+        verify(counterRepository).increment(eq(room.getId()), eq(sellerId), any());
+        verify(counterRepository, never()).increment(eq(room.getId()), eq(buyerId), any());
+    }
+
+    @Test
+    void testExistingCountersAreIncrementedInPlace() {
+        when(counterRepository.incrementOthers(eq(room.getId()), eq(buyerId), any())).thenReturn(1);
+        when(messageRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        chatService.sendMessage(room.getId(), buyerId, "hello");
+
+        verify(counterRepository, never()).insertIfAbsentSingleNode(any(), any(), any(), anyLong(), any());
+        verify(roomRepository, never()).findById(any());
+    }
+
+    private ChatUnreadCounter counter(UUID userId, long unreadCount) {
+        return ChatUnreadCounter.builder()
+            .id(UUID.randomUUID())
+            .roomId(room.getId())
+            .userId(userId)
+            .unreadCount(unreadCount)
+            .updatedAt(Instant.now())
+            .build();
+    }
+}
@@ -0,0 +1,187 @@
+package com.trustescrow.application.service;
+
+import com.trustescrow.application.dto.ChatMessageResponse;
+import com.trustescrow.domain.model.ChatMessage;
+import com.trustescrow.domain.service.ChatMessageRepository;
+import com.trustescrow.domain.service.ChatMessageSentEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ChatStreamHubTest {
+
+    private final UUID roomId = UUID.randomUUID();
+    private final ChatMessageRepository repository = mock(ChatMessageRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<RecordingEmitter> emitters = new CopyOnWriteArrayList<>();
+    private ChatStreamHub hub;
+
+    @BeforeEach
+    void setUp() {
+        hub = new ChatStreamHub(repository, meterRegistry, 1, 4) {
+            @Override
+            SseEmitter newEmitter(long timeoutMillis) {
+                RecordingEmitter emitter = new RecordingEmitter();
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+        ReflectionTestUtils.setField(hub, "queueCapacity", 256);
+        ReflectionTestUtils.setField(hub, "replayLimit", 500);
+        ReflectionTestUtils.setField(hub, "maxSubscribers", 100);
+        ReflectionTestUtils.setField(hub, "sendTimeoutMillis", 5000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        emitters.forEach(RecordingEmitter::unblock);
+        hub.shutdown();
+    }
+
+    @Test
+    void testResumeReplaysMissedMessagesOnce() {
+        ChatMessage last = message(Instant.now().minusSeconds(30));
+        ChatMessage missed = message(Instant.now().minusSeconds(20));
+        ChatMessage committedDuringReplay = message(Instant.now().minusSeconds(10));
+        when(repository.findById(last.getId())).thenReturn(Optional.of(last));
+        when(repository.findAfter(eq(roomId), eq(last.getCreatedAt()), eq(last.getId()), any()))
+            .thenReturn(List.of(missed, committedDuringReplay));
+
+        hub.subscribe(roomId, UUID.randomUUID(), last.getId());
+        RecordingEmitter emitter = emitters.get(0);
+        assertEquals(List.of(missed.getId(), committedDuringReplay.getId()), emitter.messageIds);
+
+        // The live copy of a replayed message is skipped
+        ChatMessage live = message(Instant.now());
+        hub.onMessageSent(new ChatMessageSentEvent(committedDuringReplay));
+        hub.onMessageSent(new ChatMessageSentEvent(live));
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> emitter.messageIds.size() == 3);
+        assertEquals(List.of(missed.getId(), committedDuringReplay.getId(), live.getId()), emitter.messageIds);
+    }
+
+    @Test
+    void testUnknownLastMessageAsksForResync() {
+        UUID unknown = UUID.randomUUID();
+        when(repository.findById(unknown)).thenReturn(Optional.empty());
+
+        hub.subscribe(roomId, UUID.randomUUID(), unknown);
+
+        assertTrue(emitters.get(0).text.toString().contains("event:resync"));
+        assertEquals(1, hub.getSubscriberCount());
+    }
+
+    @Test
+    void testSlowConsumerIsDisconnectedWhenQueueIsFull() {
+        ReflectionTestUtils.setField(hub, "queueCapacity", 2);
+        hub.subscribe(roomId, UUID.randomUUID(), null);
+        RecordingEmitter emitter = emitters.get(0);
+        emitter.block();
+
+        for (int i = 0; i < 4; i++) {
+            hub.onMessageSent(new ChatMessageSentEvent(message(Instant.now())));
+        }
+
+        assertEquals(1.0, meterRegistry.get("chat.stream.dropped").counter().count());
+        assertEquals(0, hub.getSubscriberCount());
+    }
+
+    @Test
+    void testBlockedSendIsTimedOutAndItsSenderReplaced() throws InterruptedException {
+        ReflectionTestUtils.setField(hub, "sendTimeoutMillis", 50L);
+        hub.subscribe(roomId, UUID.randomUUID(), null);
+        hub.subscribe(roomId, UUID.randomUUID(), null);
+        RecordingEmitter stuck = emitters.get(0);
+        RecordingEmitter healthy = emitters.get(1);
+        stuck.block();
+
+        ChatMessage message = message(Instant.now());
+        hub.onMessageSent(new ChatMessageSentEvent(message));
+        await().atMost(Duration.ofSeconds(5)).until(() -> stuck.writing);
+        Thread.sleep(100);
+
+        // The only sender thread is blocked on the stuck client
+        hub.checkStalledSends();
+        assertEquals(1.0, meterRegistry.get("chat.stream.send-timeouts").counter().count());
+        assertEquals(1, hub.getSubscriberCount());
+        assertEquals(1, hub.getStalledSenders());
+
+        // The replacement thread serves the healthy client
+        await().atMost(Duration.ofSeconds(5)).until(() -> healthy.messageIds.contains(message.getId()));
+
+        stuck.unblock();
+        await().atMost(Duration.ofSeconds(5)).until(() -> hub.getStalledSenders() == 0);
+    }
+
+    private ChatMessage message(Instant createdAt) {
+        return ChatMessage.builder()
+            .id(UUID.randomUUID())
+            .roomId(roomId)
+            .senderId(UUID.randomUUID())
+            .content("hello")
+            .type(ChatMessage.MessageType.TEXT)
+            .createdAt(createdAt)
+            .build();
+    }
+
+    /**
+     * Records what would be written to the client; can block writes like a client not reading.
+     */
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<UUID> messageIds = new CopyOnWriteArrayList<>();
+        private final StringBuffer text = new StringBuffer();
+        private volatile CountDownLatch gate;
+        private volatile boolean writing;
+
+        void block() {
+            gate = new CountDownLatch(1);
+        }
+
+        void unblock() {
+            CountDownLatch current = gate;
+            if (current != null) {
+                current.countDown();
+            }
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            CountDownLatch current = gate;
+            if (current != null) {
+                writing = true;
+                try {
+                    current.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            for (ResponseBodyEmitter.DataWithMediaType data : builder.build()) {
+                if (data.getData() instanceof ChatMessageResponse message) {
+                    messageIds.add(message.getId());
+                } else {
+                    text.append(data.getData());
+                }
+            }
+        }
+    }
+}
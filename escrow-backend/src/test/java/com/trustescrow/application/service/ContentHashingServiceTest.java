@@ -0,0 +1,210 @@
+package com.trustescrow.application.service;
+
+import com.trustescrow.domain.service.MerkleLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentHashingServiceTest {
+
+    private static final int CHUNK_SIZE = 1024;
+
+    private ContentHashingService service;
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void testSmallContentHasNoChunkTree() throws Exception {
+        service = new ContentHashingService(new SimpleMeterRegistry(), CHUNK_SIZE, 4 * CHUNK_SIZE, 2, 1000);
+        byte[] content = content(3 * CHUNK_SIZE + 7);
+
+        ContentHashingService.ContentDigest digest = service.hash(new ByteArrayInputStream(content), content.length);
+
+        assertEquals(sha256(content), digest.getContentHash());
+        assertEquals(content.length, digest.getContentSize());
+        assertNull(digest.getChunkTreeRoot());
+        assertNull(digest.getChunkCount());
+    }
+
+    @Test
+    void testChunkTreeMatchesSequentialTree(@TempDir Path dir) throws Exception {
+        service = new ContentHashingService(new SimpleMeterRegistry(), CHUNK_SIZE, 4 * CHUNK_SIZE, 2, 1000);
+        byte[] content = content(13 * CHUNK_SIZE + 100);
+        Path file = Files.write(dir.resolve("content.bin"), content);
+
+        ContentHashingService.ContentDigest fromStream = service.hash(new ByteArrayInputStream(content), content.length);
+        ContentHashingService.ContentDigest fromFile = service.hash(file);
+
+        assertEquals(sha256(content), fromStream.getContentHash());
+        assertEquals(14L, fromStream.getChunkCount());
+        assertEquals(CHUNK_SIZE, fromStream.getChunkSize());
+        assertEquals(chunkTreeRoot(content, CHUNK_SIZE), fromStream.getChunkTreeRoot());
+        assertEquals(fromStream.getContentHash(), fromFile.getContentHash());
+        assertEquals(fromStream.getChunkCount(), fromFile.getChunkCount());
+        assertEquals(fromStream.getChunkTreeRoot(), fromFile.getChunkTreeRoot());
+    }
+
+    @Test
+    void testConcurrentHashesShareBufferPool() throws Exception {
+        service = new ContentHashingService(new SimpleMeterRegistry(), CHUNK_SIZE, 4 * CHUNK_SIZE, 2, 10_000);
+        ExecutorService uploads = Executors.newFixedThreadPool(4);
+        try {
+            List<byte[]> contents = new ArrayList<>();
+            List<Future<ContentHashingService.ContentDigest>> digests = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                byte[] content = content(20 * CHUNK_SIZE + i);
+                contents.add(content);
+                digests.add(uploads.submit(() -> service.hash(new ByteArrayInputStream(content), content.length)));
+            }
+            for (int i = 0; i < contents.size(); i++) {
+                assertEquals(chunkTreeRoot(contents.get(i), CHUNK_SIZE), digests.get(i).get().getChunkTreeRoot());
+            }
+        } finally {
+            uploads.shutdownNow();
+        }
+        assertEquals(4, buffers().size());
+    }
+
+    @Test
+    void testFailedReadReturnsBuffers() {
+        service = new ContentHashingService(new SimpleMeterRegistry(), CHUNK_SIZE, 4 * CHUNK_SIZE, 2, 1000);
+        byte[] content = content(10 * CHUNK_SIZE);
+        InputStream failing = new ByteArrayInputStream(content) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                if (pos >= 6 * CHUNK_SIZE) {
+                    throw new IllegalStateException("connection reset");
+                }
+                return super.read(b, off, len);
+            }
+        };
+
+        assertThrows(IllegalStateException.class, () -> service.hash(failing, content.length));
+        assertEquals(4, buffers().size());
+    }
+
+    @Test
+    void testNoFreeBufferTimesOut() throws Exception {
+        service = new ContentHashingService(new SimpleMeterRegistry(), CHUNK_SIZE, 4 * CHUNK_SIZE, 1, 50);
+        BlockingQueue<byte[]> buffers = buffers();
+        List<byte[]> taken = new ArrayList<>();
+        buffers.drainTo(taken);
+        byte[] content = content(8 * CHUNK_SIZE);
+
+        IOException e = assertThrows(IOException.class, () -> service.hash(new ByteArrayInputStream(content), content.length));
+        assertTrue(e.getMessage().contains("No hashing buffer free"));
+
+        buffers.addAll(taken);
+        assertEquals(chunkTreeRoot(content, CHUNK_SIZE),
+            service.hash(new ByteArrayInputStream(content), content.length).getChunkTreeRoot());
+    }
+
+    /**
+     * Content at the default threshold (64 MB) with the default 4 MB chunks.
+     */
+    @Test
+    void testDefaultThresholdBuildsChunkTree() throws Exception {
+        int chunkSize = 4 * 1024 * 1024;
+        long length = 64L * 1024 * 1024;
+        service = new ContentHashingService(new SimpleMeterRegistry(), chunkSize, length, 0, 30_000);
+
+        ContentHashingService.ContentDigest digest = service.hash(new PatternStream(length), length);
+
+        MessageDigest whole = MessageDigest.getInstance("SHA-256");
+        List<byte[]> frontier = new ArrayList<>();
+        byte[] chunk = new byte[chunkSize];
+        try (InputStream in = new PatternStream(length)) {
+            for (long i = 0; in.readNBytes(chunk, 0, chunkSize) > 0; i++) {
+                whole.update(chunk);
+                MerkleLog.append(frontier, i, MerkleLog.leafHash(chunk), (level, index, hash) -> { });
+            }
+        }
+        assertEquals(HexFormat.of().formatHex(whole.digest()), digest.getContentHash());
+        assertEquals(length, digest.getContentSize());
+        assertEquals(16L, digest.getChunkCount());
+        assertEquals(HexFormat.of().formatHex(MerkleLog.root(frontier)), digest.getChunkTreeRoot());
+
+        // One byte less stays on the whole-file hash only
+        assertNull(service.hash(new PatternStream(length - 1), length - 1).getChunkTreeRoot());
+    }
+
+    @SuppressWarnings("unchecked")
+    private BlockingQueue<byte[]> buffers() {
+        return (BlockingQueue<byte[]>) ReflectionTestUtils.getField(service, "buffers");
+    }
+
+    private static String chunkTreeRoot(byte[] content, int chunkSize) {
+        List<byte[]> frontier = new ArrayList<>();
+        long index = 0;
+        for (int offset = 0; offset < content.length; offset += chunkSize) {
+            byte[] chunk = Arrays.copyOfRange(content, offset, Math.min(content.length, offset + chunkSize));
+            MerkleLog.append(frontier, index++, MerkleLog.leafHash(chunk), (level, i, hash) -> { });
+        }
+        return HexFormat.of().formatHex(MerkleLog.root(frontier));
+    }
+
+    private static byte[] content(int length) {
+        byte[] content = new byte[length];
+        new Random(length).nextBytes(content);
+        return content;
+    }
+
+    private static String sha256(byte[] content) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    }
+
+    /**
+     * Generated content of a given length, without holding it in memory.
+     */
+    private static class PatternStream extends InputStream {
+
+        private final long length;
+        private long position;
+
+        PatternStream(long length) {
+            this.length = length;
+        }
+
+        @Override
+        public int read() {
+            return position < length ? (int) (position++ * 31 % 251) : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (position >= length) {
+                return -1;
+            }
+            int n = (int) Math.min(len, length - position);
+            for (int i = 0; i < n; i++) {
+                b[off + i] = (byte) (position++ * 31 % 251);
+            }
+            return n;
+        }
+    }
+}
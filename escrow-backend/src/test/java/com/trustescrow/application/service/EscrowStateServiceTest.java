@@ -0,0 +1,162 @@
+package com.trustescrow.application.service;
+
+import com.trustescrow.domain.model.DealMilestone;
+import com.trustescrow.domain.model.DealMilestone.MilestoneStatus;
+import com.trustescrow.domain.model.MilestoneStatusChangedEvent;
+import com.trustescrow.domain.service.DealMilestoneRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({EscrowStateService.class, EscrowStateServiceTest.Metrics.class})
+@RecordApplicationEvents
+class EscrowStateServiceTest {
+
+    @Autowired
+    private EscrowStateService stateService;
+
+    @Autowired
+    private DealMilestoneRepository milestoneRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @Test
+    void testPaymentWebhookKeepsPaidHeld() {
+        DealMilestone milestone = saveMilestone(UUID.randomUUID(), MilestoneStatus.PENDING);
+        String dealId = milestone.getDealId().toString();
+        String milestoneId = milestone.getId().toString();
+
+        // Webhook: PENDING -> PAID_HELD, then the state service; redelivery repeats both
+        milestone.updateStatus(MilestoneStatus.PAID_HELD);
+        milestoneRepository.saveAndFlush(milestone);
+        stateService.setMilestonePaidHeld(dealId, milestoneId);
+        stateService.setMilestonePaidHeld(dealId, milestoneId);
+        milestoneRepository.flush();
+
+        assertEquals(MilestoneStatus.PAID_HELD, milestoneRepository.findById(milestone.getId()).orElseThrow().getStatus());
+        List<MilestoneStatusChangedEvent> changes = events.stream(MilestoneStatusChangedEvent.class).toList();
+        assertEquals(1, changes.size());
+        assertEquals(MilestoneStatus.PAID_HELD, changes.get(0).getToStatus());
+        assertEquals(MilestoneStatus.PAID_HELD, stateService.getMilestoneStatus(dealId, milestoneId));
+    }
+
+    @Test
+    void testReadThroughHitsAndMisses() {
+        DealMilestone milestone = saveMilestone(UUID.randomUUID(), MilestoneStatus.FUNDS_HELD);
+        String dealId = milestone.getDealId().toString();
+
+        assertEquals(MilestoneStatus.FUNDS_HELD, stateService.getMilestoneStatus(dealId, milestone.getId().toString()));
+        assertEquals(MilestoneStatus.FUNDS_HELD, stateService.getMilestoneStatus(dealId, milestone.getId().toString()));
+
+        assertEquals(1.0, count("escrow.state.cache.requests", "result", "miss"));
+        assertEquals(1.0, count("escrow.state.cache.requests", "result", "hit"));
+    }
+
+    @Test
+    void testLeastRecentlyUsedDealIsEvicted() {
+        ReflectionTestUtils.setField(stateService, "maxEntries", 2);
+        String first = saveMilestone(UUID.randomUUID(), MilestoneStatus.PENDING).getDealId().toString();
+        String second = saveMilestone(UUID.randomUUID(), MilestoneStatus.PENDING).getDealId().toString();
+        String third = saveMilestone(UUID.randomUUID(), MilestoneStatus.PENDING).getDealId().toString();
+
+        stateService.getDealMilestones(first);
+        stateService.getDealMilestones(second);
+        stateService.getDealMilestones(first); // second is now the eldest
+        stateService.getDealMilestones(third);
+
+        assertEquals(1.0, count("escrow.state.cache.evictions", "cause", "size"));
+        stateService.getDealMilestones(first);
+        assertEquals(2.0, count("escrow.state.cache.requests", "result", "hit"));
+        stateService.getDealMilestones(second);
+        assertEquals(4.0, count("escrow.state.cache.requests", "result", "miss"));
+    }
+
+    @Test
+    void testExpiredEntryIsReloaded() {
+        ReflectionTestUtils.setField(stateService, "ttlSeconds", 0L);
+        String dealId = saveMilestone(UUID.randomUUID(), MilestoneStatus.PENDING).getDealId().toString();
+
+        stateService.getDealMilestones(dealId);
+        stateService.getDealMilestones(dealId);
+
+        assertEquals(2.0, count("escrow.state.cache.requests", "result", "miss"));
+        assertEquals(1.0, count("escrow.state.cache.evictions", "cause", "expired"));
+    }
+
+    @Test
+    void testNotificationFromOtherNodeEvicts() {
+        DealMilestone milestone = saveMilestone(UUID.randomUUID(), MilestoneStatus.PENDING);
+        String dealId = milestone.getDealId().toString();
+        String nodeId = (String) ReflectionTestUtils.getField(stateService, "nodeId");
+        stateService.getDealMilestones(dealId);
+
+        // Own notifications are skipped
+        stateService.onNotification(nodeId + "|" + dealId);
+        assertEquals(0.0, count("escrow.state.cache.evictions", "cause", "invalidated"));
+
+        // Another node moved the milestone
+        milestone.updateStatus(MilestoneStatus.PAID_HELD);
+        milestoneRepository.saveAndFlush(milestone);
+        stateService.onNotification(UUID.randomUUID() + "|" + dealId);
+
+        assertEquals(1.0, count("escrow.state.cache.evictions", "cause", "invalidated"));
+        assertEquals(MilestoneStatus.PAID_HELD, stateService.getMilestoneStatus(dealId, milestone.getId().toString()));
+    }
+
+    @Test
+    void testDemoDealStateIsCacheOnly() {
+        stateService.setMilestonePaidHeld("demo-deal", "m1");
+        stateService.setMilestoneReleased("demo-deal", "m2"); // not created by a release
+
+        assertEquals(MilestoneStatus.FUNDS_HELD, stateService.getMilestoneStatus("demo-deal", "m1"));
+        assertNull(stateService.getDealMilestones("demo-deal").get("m2"));
+
+        stateService.setMilestoneReleased("demo-deal", "m1"); // FUNDS_HELD cannot be released directly
+        assertEquals(MilestoneStatus.FUNDS_HELD, stateService.getMilestoneStatus("demo-deal", "m1"));
+    }
+
+    private double count(String name, String tag, String value) {
+        return meterRegistry.get(name).tag(tag, value).counter().count();
+    }
+
+    private DealMilestone saveMilestone(UUID dealId, MilestoneStatus status) {
+        return milestoneRepository.saveAndFlush(DealMilestone.builder()
+            .dealId(dealId)
+            .orderIndex(1)
+            .title("Milestone")
+            .amount(new BigDecimal("100"))
+            .status(status)
+            .createdAt(Instant.now())
+            .updatedAt(Instant.now())
+            .build());
+    }
+
+    @TestConfiguration
+    static class Metrics {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
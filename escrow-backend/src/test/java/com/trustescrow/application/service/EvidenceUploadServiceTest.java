@@ -0,0 +1,227 @@
+package com.trustescrow.application.service;
+
+import com.trustescrow.domain.model.EvidenceMetadata;
+import com.trustescrow.domain.model.EvidenceType;
+import com.trustescrow.domain.model.EvidenceUpload;
+import com.trustescrow.domain.model.MilestoneFile;
+import com.trustescrow.domain.model.TransactionMilestone;
+import com.trustescrow.domain.service.EvidenceUploadRepository;
+import com.trustescrow.domain.service.TransactionMilestoneRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@Import({EvidenceUploadService.class, BlobStore.class, ContentHashingService.class, EvidenceUploadServiceTest.Metrics.class})
+class EvidenceUploadServiceTest {
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    @Autowired
+    private EvidenceUploadService uploadService;
+
+    @Autowired
+    private EvidenceUploadRepository uploadRepository;
+
+    @Autowired
+    private TransactionMilestoneRepository transactionMilestoneRepository;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @MockBean
+    private MilestoneEvidenceService milestoneEvidenceService;
+
+    @MockBean
+    private TransactionService transactionService;
+
+    @DynamicPropertySource
+    static void storage(DynamicPropertyRegistry registry) throws IOException {
+        Path dir = Files.createTempDirectory("evidence-upload-test");
+        registry.add("uploads.root", () -> dir.resolve("uploads").toString());
+        registry.add("storage.blobs.root", () -> dir.resolve("blobs").toString());
+        registry.add("registry.hashing.parallelism", () -> "1");
+    }
+
+    @Test
+    void testChunkIsVerified() throws IOException {
+        byte[] content = content(CHUNK_SIZE + 100);
+        UUID uploadId = init(content, sha256(content)).getUploadId();
+        byte[] first = Arrays.copyOfRange(content, 0, CHUNK_SIZE);
+
+        // Declared hash of other bytes
+        assertThrows(IllegalArgumentException.class,
+            () -> uploadService.putChunk(uploadId, 0, sha256(content(16)), new ByteArrayInputStream(first)));
+        // Short chunk
+        byte[] shortChunk = Arrays.copyOf(first, CHUNK_SIZE - 1);
+        assertThrows(IllegalArgumentException.class,
+            () -> uploadService.putChunk(uploadId, 0, sha256(shortChunk), new ByteArrayInputStream(shortChunk)));
+        // Index past the last chunk
+        assertThrows(IllegalArgumentException.class,
+            () -> uploadService.putChunk(uploadId, 2, sha256(first), new ByteArrayInputStream(first)));
+
+        assertEquals(List.of(), uploadService.getStatus(uploadId).getReceivedChunks());
+    }
+
+    @Test
+    void testUploadResumesAndCompletes() throws IOException {
+        byte[] content = content(CHUNK_SIZE + 100);
+        String contentHash = sha256(content);
+        UUID evidenceId = UUID.randomUUID();
+        when(milestoneEvidenceService.submitEvidence(any(), any(), any(), eq(EvidenceType.PHOTO), anyString(), eq(contentHash)))
+            .thenReturn(EvidenceMetadata.builder().id(evidenceId).build());
+        UUID uploadId = init(content, contentHash).getUploadId();
+
+        putChunk(uploadId, 0, content);
+        // Re-sent after a lost response
+        putChunk(uploadId, 0, content);
+        assertEquals(List.of(0), uploadService.getStatus(uploadId).getReceivedChunks());
+        assertThrows(IllegalStateException.class, () -> uploadService.complete(uploadId));
+
+        putChunk(uploadId, 1, content);
+        EvidenceUploadService.UploadStatus completed = uploadService.complete(uploadId);
+
+        assertEquals("COMPLETED", completed.getStatus());
+        assertEquals(evidenceId, completed.getResultId());
+        assertTrue(blobStore.find(contentHash).isPresent());
+        assertArrayEquals(content, Files.readAllBytes(uploadService.findContent(uploadId).orElseThrow().getPath()));
+
+        // Completing again returns the same result without a second evidence row
+        assertEquals(evidenceId, uploadService.complete(uploadId).getResultId());
+        verify(milestoneEvidenceService, times(1))
+            .submitEvidence(any(), any(), any(), any(), anyString(), anyString());
+    }
+
+    @Test
+    void testMilestoneFileKeepsContentHash() throws IOException {
+        byte[] content = content(CHUNK_SIZE + 100);
+        String contentHash = sha256(content);
+        UUID milestoneId = transactionMilestoneRepository.save(TransactionMilestone.builder()
+            .transactionId(UUID.randomUUID())
+            .title("Draft")
+            .amount(BigDecimal.TEN)
+            .status(TransactionMilestone.MilestoneStatus.PENDING)
+            .orderIndex(0)
+            .createdAt(Instant.now())
+            .updatedAt(Instant.now())
+            .build()).getId();
+        UUID fileId = UUID.randomUUID();
+        when(transactionService.saveFile(eq(milestoneId), anyString(), eq("draft.bin"), eq((long) content.length),
+                anyString(), eq(contentHash), eq(MilestoneFile.UploaderRole.BUYER)))
+            .thenReturn(MilestoneFile.builder().id(fileId).build());
+        UUID uploadId = uploadService.initUpload(EvidenceUploadService.InitUpload.builder()
+            .target(EvidenceUpload.Target.MILESTONE_FILE)
+            .milestoneId(milestoneId)
+            .uploaderRole("BUYER")
+            .fileName("draft.bin")
+            .fileSize((long) content.length)
+            .contentHash(contentHash)
+            .chunkSize(CHUNK_SIZE)
+            .build(), UUID.randomUUID()).getUploadId();
+
+        putChunk(uploadId, 0, content);
+        putChunk(uploadId, 1, content);
+
+        assertEquals(fileId, uploadService.complete(uploadId).getResultId());
+    }
+
+    @Test
+    void testWholeFileMismatchFailsUpload() throws IOException {
+        byte[] content = content(CHUNK_SIZE);
+        String declared = sha256(content(CHUNK_SIZE + 1));
+        UUID uploadId = init(content, declared).getUploadId();
+        putChunk(uploadId, 0, content);
+
+        assertThrows(BlobStore.ContentHashMismatchException.class, () -> uploadService.complete(uploadId));
+
+        assertEquals(EvidenceUpload.Status.FAILED, uploadRepository.findById(uploadId).orElseThrow().getStatus());
+        assertTrue(blobStore.find(declared).isEmpty());
+        assertThrows(IllegalStateException.class, () -> putChunk(uploadId, 0, content));
+    }
+
+    @Test
+    void testExpiredUploadIsClosed() throws IOException {
+        byte[] content = content(CHUNK_SIZE);
+        ReflectionTestUtils.setField(uploadService, "ttlHours", -1L);
+        UUID uploadId = init(content, sha256(content)).getUploadId();
+
+        assertThrows(IllegalStateException.class, () -> putChunk(uploadId, 0, content));
+        assertEquals(1, uploadService.expireUploads());
+
+        assertEquals(EvidenceUpload.Status.EXPIRED, uploadRepository.findById(uploadId).orElseThrow().getStatus());
+        assertThrows(IllegalStateException.class, () -> uploadService.complete(uploadId));
+        assertEquals(0, uploadService.expireUploads());
+    }
+
+    private EvidenceUploadService.UploadStatus init(byte[] content, String contentHash) {
+        return uploadService.initUpload(EvidenceUploadService.InitUpload.builder()
+            .target(EvidenceUpload.Target.DEAL_EVIDENCE)
+            .dealId(UUID.randomUUID())
+            .milestoneId(UUID.randomUUID())
+            .evidenceType(EvidenceType.PHOTO.name())
+            .fileName("evidence.bin")
+            .fileSize((long) content.length)
+            .contentHash(contentHash)
+            .chunkSize(CHUNK_SIZE)
+            .build(), UUID.randomUUID());
+    }
+
+    private void putChunk(UUID uploadId, int index, byte[] content) throws IOException {
+        byte[] chunk = Arrays.copyOfRange(content, index * CHUNK_SIZE, Math.min(content.length, (index + 1) * CHUNK_SIZE));
+        uploadService.putChunk(uploadId, index, sha256(chunk), new ByteArrayInputStream(chunk));
+    }
+
+    private static byte[] content(int length) {
+        byte[] content = new byte[length];
+        new Random(length).nextBytes(content);
+        return content;
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @TestConfiguration
+    static class Metrics {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
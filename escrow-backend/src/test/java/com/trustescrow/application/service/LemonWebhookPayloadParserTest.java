@@ -0,0 +1,82 @@
+package com.trustescrow.application.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LemonWebhookPayloadParserTest {
+
+    private static final String ORDER_CREATED = """
+        {
+          "meta": {
+            "event_name": "order_created",
+            "custom_data": {"dealId": "ignored-when-checkout-data-present"}
+          },
+          "data": {
+            "type": "orders",
+            "id": "1234",
+            "attributes": {
+              "status": "paid",
+              "total": 15000,
+              "currency": "KRW",
+              "first_order_item": {"id": 99, "price": 15000},
+              "custom": {
+                "checkout_data": {"deal_id": "deal-1", "milestoneId": "ms-1"}
+              },
+              "urls": {"receipt": "https://example.com/r"}
+            },
+            "relationships": {
+              "checkout": {"data": {"type": "checkouts", "id": "chk-7"}},
+              "order-items": {"data": [{"id": "nested-id"}]}
+            }
+          }
+        }
+        """;
+
+    @Test
+    void testExtractsFieldsFromPrimaryPaths() {
+        ParsedWebhookData parsed = LemonWebhookPayloadParser.parse(bytes(ORDER_CREATED));
+
+        assertNotNull(parsed);
+        assertEquals("order_created", parsed.eventName);
+        assertEquals("deal-1", parsed.dealId);
+        assertEquals("ms-1", parsed.milestoneId);
+        assertEquals("1234", parsed.orderId);
+        assertEquals("chk-7", parsed.checkoutId);
+        assertEquals("paid", parsed.orderStatus);
+        assertEquals(new BigDecimal("15000"), parsed.totalAmount);
+        assertEquals("KRW", parsed.currency);
+    }
+
+    @Test
+    void testFallsBackToCustomDataAndTopLevelEventName() {
+        String body = """
+            {"event_name": "order_refunded",
+             "meta": {"custom_data": {"dealId": "deal-2", "milestone_id": "ms-2"}},
+             "data": {"id": "55", "attributes": {"checkout_id": "chk-9", "total": "n/a"}}}
+            """;
+
+        ParsedWebhookData parsed = LemonWebhookPayloadParser.parse(bytes(body));
+
+        assertNotNull(parsed);
+        assertEquals("order_refunded", parsed.eventName);
+        assertEquals("deal-2", parsed.dealId);
+        assertEquals("ms-2", parsed.milestoneId);
+        assertEquals("55", parsed.orderId);
+        assertEquals("chk-9", parsed.checkoutId);
+        assertNull(parsed.totalAmount);
+    }
+
+    @Test
+    void testRejectsNonObjectOrMalformedBody() {
+        assertNull(LemonWebhookPayloadParser.parse(bytes("[1, 2]")));
+        assertNull(LemonWebhookPayloadParser.parse(bytes("{\"meta\": {")));
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,42 @@
+package com.trustescrow.application.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WebhookSignatureVerifierTest {
+
+    private static final String BODY = """
+        {"meta": {"event_name": "order_created"}, "data": {"id": "1234", "attributes": {"total": 15000}}}
+        """;
+
+    @Test
+    void testSignatureVerifiedOverRawBytes() throws Exception {
+        WebhookSignatureVerifier verifier = new WebhookSignatureVerifier();
+        ReflectionTestUtils.setField(verifier, "lemonWebhookSecret", "secret");
+        verifier.init();
+
+        byte[] body = bytes(BODY);
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(bytes("secret"), "HmacSHA256"));
+        String signature = Base64.getEncoder().encodeToString(mac.doFinal(body));
+
+        assertTrue(verifier.verify(signature, body));
+        assertTrue(verifier.verify("signature=" + signature, body));
+        // The thread-local Mac is reset between calls
+        assertTrue(verifier.verify(signature, body));
+        assertFalse(verifier.verify(signature, bytes(BODY.replace("1234", "1235"))));
+        assertFalse(verifier.verify("not base64!", body));
+        assertFalse(verifier.verify(null, body));
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -80,4 +80,86 @@ class RulesEngineTest {
         assertEquals(result1.getNextState(), result2.getNextState());
         assertEquals(result1.getActions().size(), result2.getActions().size());
     }
+    
+    @Test
+    void testCompiledRulesMatchOffsetCapPolicy() {
+        HashMap<IssueReasonCode, BigDecimal> caps = new HashMap<>();
+        caps.put(IssueReasonCode.DAMAGE_MINOR, new BigDecimal("100"));
+        CompiledRules rules = RulesEngine.compile(RulesEngine.ContractTemplateData.builder()
+            .defaultResolutionOnDisputeTTL("releaseHoldbackMinusMinorCap")
+            .offsetCapsByReasonCode(caps)
+            .build());
+        
+        RulesEngine.RulesEvaluationContext context = RulesEngine.RulesEvaluationContext.builder()
+            .dealState(DealState.ISSUE)
+            .template(rules.getTemplate())
+            .holdbackAmount(new BigDecimal("300"))
+            .autoApproveElapsed(false)
+            .disputeTTLElapsed(true)
+            .holdbackUnreleased(true)
+            .dispute(RulesEngine.DisputeCaseData.builder()
+                .id(UUID.randomUUID())
+                .reasonCode(IssueReasonCode.DAMAGE_MINOR)
+                .build())
+            .build();
+        
+        RulesEngine.RulesEvaluationResult result = RulesEngine.evaluate(rules, context);
+        
+        assertEquals(DealState.SETTLED, result.getNextState());
+        assertEquals(2, result.getActions().size());
+        assertEquals(RulesEngine.EscrowActionType.OFFSET, result.getActions().get(0).getType());
+        assertEquals(new BigDecimal("100"), result.getActions().get(0).getAmount());
+        assertEquals(RulesEngine.EscrowActionType.RELEASE, result.getActions().get(1).getType());
+        assertEquals(new BigDecimal("200"), result.getActions().get(1).getAmount());
+        
+        // Compiled and one-shot evaluation agree
+        assertEquals(result, RulesEngine.evaluate(context));
+    }
+    
+    @Test
+    void testDisputeTTLWithoutDefaultResolutionSettlesOnly() {
+        RulesEngine.RulesEvaluationContext context = RulesEngine.RulesEvaluationContext.builder()
+            .dealState(DealState.ISSUE)
+            .template(RulesEngine.ContractTemplateData.builder()
+                .defaultResolutionOnDisputeTTL(null)
+                .offsetCapsByReasonCode(new HashMap<>())
+                .build())
+            .holdbackAmount(new BigDecimal("300"))
+            .autoApproveElapsed(false)
+            .disputeTTLElapsed(true)
+            .holdbackUnreleased(true)
+            .dispute(RulesEngine.DisputeCaseData.builder()
+                .id(UUID.randomUUID())
+                .reasonCode(IssueReasonCode.DAMAGE_MINOR)
+                .build())
+            .build();
+        
+        RulesEngine.RulesEvaluationResult result = RulesEngine.evaluate(context);
+        
+        assertEquals(DealState.SETTLED, result.getNextState());
+        assertTrue(result.getActions().isEmpty());
+        assertNull(RulesEngine.compile(context.getTemplate()).getDefaultResolution());
+    }
+    
+    @Test
+    void testNoRulesForOtherStates() {
+        RulesEngine.RulesEvaluationContext context = RulesEngine.RulesEvaluationContext.builder()
+            .dealState(DealState.FUNDED)
+            .template(RulesEngine.ContractTemplateData.builder()
+                .defaultResolutionOnDisputeTTL("releaseHoldbackMinusMinorCap")
+                .offsetCapsByReasonCode(new HashMap<>())
+                .build())
+            .holdbackAmount(new BigDecimal("300"))
+            .autoApproveElapsed(true)
+            .disputeTTLElapsed(true)
+            .holdbackUnreleased(true)
+            .dispute(null)
+            .build();
+        
+        RulesEngine.RulesEvaluationResult result = RulesEngine.evaluate(context);
+        
+        assertNull(result.getNextState());
+        assertTrue(result.getActions().isEmpty());
+        assertTrue(result.getAuditEvents().isEmpty());
+    }
 }
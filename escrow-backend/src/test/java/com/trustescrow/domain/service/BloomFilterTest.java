@@ -0,0 +1,36 @@
+package com.trustescrow.domain.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    void testNoFalseNegatives() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("LEMON:" + i);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("LEMON:" + i));
+        }
+        assertFalse(filter.isSaturated());
+    }
+
+    @Test
+    void testFalsePositiveRateNearTarget() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("LEMON:" + i);
+        }
+        int falsePositives = 0;
+        for (int i = 10_000; i < 110_000; i++) {
+            if (filter.mightContain("LEMON:" + i)) {
+                falsePositives++;
+            }
+        }
+        // 1% target; allow generous slack for hash variance
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+    }
+}
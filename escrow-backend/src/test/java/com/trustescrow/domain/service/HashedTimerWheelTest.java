@@ -0,0 +1,85 @@
+package com.trustescrow.domain.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashedTimerWheelTest {
+
+    private static final long START = 1_000_000L;
+
+    @Test
+    void testFiresOnlyAfterDeadline() {
+        HashedTimerWheel wheel = new HashedTimerWheel(100, 8, START);
+        UUID timerId = UUID.randomUUID();
+        wheel.schedule(timerId, "AUTO_APPROVE", START + 250);
+
+        assertTrue(wheel.advance(START + 200).isEmpty());
+
+        List<HashedTimerWheel.Expired> expired = wheel.advance(START + 300);
+        assertEquals(1, expired.size());
+        assertEquals(timerId, expired.get(0).getTimerId());
+        assertEquals("AUTO_APPROVE", expired.get(0).getTimerType());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testDeadlineBeyondOneRotation() {
+        // 8 buckets x 100ms = 800ms per rotation
+        HashedTimerWheel wheel = new HashedTimerWheel(100, 8, START);
+        UUID timerId = UUID.randomUUID();
+        wheel.schedule(timerId, "DISPUTE_TTL", START + 2_050);
+
+        assertTrue(wheel.advance(START + 900).isEmpty());
+        assertTrue(wheel.advance(START + 2_000).isEmpty());
+        assertEquals(1, wheel.advance(START + 2_100).size());
+    }
+
+    @Test
+    void testOverdueTimerFiresOnNextAdvance() {
+        HashedTimerWheel wheel = new HashedTimerWheel(100, 8, START);
+        wheel.schedule(UUID.randomUUID(), "AUTO_APPROVE", START - 60_000);
+
+        assertEquals(1, wheel.advance(START).size());
+    }
+
+    @Test
+    void testCancel() {
+        HashedTimerWheel wheel = new HashedTimerWheel(100, 8, START);
+        UUID kept = UUID.randomUUID();
+        UUID cancelled = UUID.randomUUID();
+        wheel.schedule(kept, "AUTO_APPROVE", START + 100);
+        wheel.schedule(cancelled, "AUTO_APPROVE", START + 100);
+
+        assertTrue(wheel.cancel(cancelled));
+        assertFalse(wheel.cancel(cancelled));
+
+        List<HashedTimerWheel.Expired> expired = wheel.advance(START + 100);
+        assertEquals(1, expired.size());
+        assertEquals(kept, expired.get(0).getTimerId());
+    }
+
+    @Test
+    void testScheduleIsIdempotent() {
+        HashedTimerWheel wheel = new HashedTimerWheel(100, 8, START);
+        UUID timerId = UUID.randomUUID();
+
+        assertTrue(wheel.schedule(timerId, "AUTO_APPROVE", START + 100));
+        assertFalse(wheel.schedule(timerId, "AUTO_APPROVE", START + 100));
+        assertEquals(1, wheel.advance(START + 100).size());
+    }
+
+    @Test
+    void testLongPauseCatchesUpInOneAdvance() {
+        HashedTimerWheel wheel = new HashedTimerWheel(100, 8, START);
+        for (int i = 0; i < 20; i++) {
+            wheel.schedule(UUID.randomUUID(), "AUTO_APPROVE", START + i * 150L);
+        }
+
+        assertEquals(20, wheel.advance(START + 10_000).size());
+        assertEquals(0, wheel.size());
+    }
+}
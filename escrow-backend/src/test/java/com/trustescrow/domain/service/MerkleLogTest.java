@@ -0,0 +1,90 @@
+package com.trustescrow.domain.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MerkleLogTest {
+
+    private final Map<String, byte[]> nodes = new HashMap<>();
+    private final MerkleLog.NodeSource source = (level, index) -> nodes.get(level + ":" + index);
+    private final MerkleLog.NodeSink sink = (level, index, hash) -> nodes.put(level + ":" + index, hash);
+
+    @Test
+    void testFrontierRootMatchesRecomputedRoot() {
+        List<byte[]> frontier = new ArrayList<>();
+        for (int size = 0; size < 40; size++) {
+            MerkleLog.append(frontier, size, leaf(size), sink);
+            assertEquals(Long.bitCount(size + 1), frontier.size());
+            assertArrayEquals(naiveRoot(0, size + 1), MerkleLog.root(frontier), "size " + (size + 1));
+            assertArrayEquals(naiveRoot(0, size + 1), MerkleLog.subtreeHash(0, size + 1, source));
+        }
+    }
+
+    @Test
+    void testEveryLeafHasInclusionProofInEveryTree() {
+        int max = 33;
+        List<byte[]> frontier = new ArrayList<>();
+        for (int size = 0; size < max; size++) {
+            MerkleLog.append(frontier, size, leaf(size), sink);
+        }
+        for (int size = 1; size <= max; size++) {
+            byte[] root = MerkleLog.subtreeHash(0, size, source);
+            for (int i = 0; i < size; i++) {
+                List<byte[]> proof = MerkleLog.inclusionProof(i, size, source);
+                assertTrue(MerkleLog.verifyInclusion(leaf(i), i, size, proof, root), "leaf " + i + " of " + size);
+                assertFalse(MerkleLog.verifyInclusion(leaf(i + 1), i, size, proof, root));
+            }
+        }
+    }
+
+    @Test
+    void testConsistencyBetweenAllTreeSizes() {
+        int max = 33;
+        List<byte[]> frontier = new ArrayList<>();
+        for (int size = 0; size < max; size++) {
+            MerkleLog.append(frontier, size, leaf(size), sink);
+        }
+        for (int newSize = 1; newSize <= max; newSize++) {
+            byte[] newRoot = MerkleLog.subtreeHash(0, newSize, source);
+            for (int oldSize = 1; oldSize <= newSize; oldSize++) {
+                byte[] oldRoot = MerkleLog.subtreeHash(0, oldSize, source);
+                List<byte[]> proof = MerkleLog.consistencyProof(oldSize, newSize, source);
+                assertTrue(MerkleLog.verifyConsistency(oldSize, newSize, oldRoot, newRoot, proof),
+                    oldSize + " -> " + newSize);
+                if (oldSize < newSize) {
+                    assertFalse(MerkleLog.verifyConsistency(oldSize, newSize, leaf(max), newRoot, proof));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testEmptyTreeRootIsHashOfEmptyString() {
+        assertEquals("e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855",
+            HexFormat.of().formatHex(MerkleLog.root(List.of())));
+    }
+
+    /**
+     * RFC 6962 MTH computed from the leaves, without stored nodes.
+     */
+    private byte[] naiveRoot(int start, int end) {
+        int n = end - start;
+        if (n == 1) {
+            return leaf(start);
+        }
+        int k = Integer.highestOneBit(n - 1);
+        return MerkleLog.nodeHash(naiveRoot(start, start + k), naiveRoot(start + k, end));
+    }
+
+    private static byte[] leaf(int i) {
+        return MerkleLog.leafHash(("entry-" + i).getBytes(StandardCharsets.UTF_8));
+    }
+}
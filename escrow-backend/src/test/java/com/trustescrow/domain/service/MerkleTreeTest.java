@@ -0,0 +1,53 @@
+package com.trustescrow.domain.service;
+
+import org.junit.jupiter.api.Test;
+import org.web3j.crypto.Hash;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MerkleTreeTest {
+
+    @Test
+    void testEveryLeafVerifiesAgainstRoot() {
+        for (int size = 1; size <= 9; size++) {
+            List<byte[]> leaves = leaves(size);
+            MerkleTree tree = new MerkleTree(leaves);
+            for (int i = 0; i < size; i++) {
+                assertTrue(MerkleTree.verify(leaves.get(i), tree.proof(i), tree.getRoot()),
+                    "leaf " + i + " of " + size);
+            }
+        }
+    }
+
+    @Test
+    void testSingleLeafIsRoot() {
+        List<byte[]> leaves = leaves(1);
+        MerkleTree tree = new MerkleTree(leaves);
+        assertArrayEquals(leaves.get(0), tree.getRoot());
+        assertTrue(tree.proof(0).isEmpty());
+    }
+
+    @Test
+    void testTamperedLeafOrProofFails() {
+        List<byte[]> leaves = leaves(5);
+        MerkleTree tree = new MerkleTree(leaves);
+        List<byte[]> proof = tree.proof(2);
+
+        assertFalse(MerkleTree.verify(leaves.get(3), proof, tree.getRoot()));
+        List<byte[]> tampered = new ArrayList<>(proof);
+        tampered.set(0, leaves.get(4));
+        assertFalse(MerkleTree.verify(leaves.get(2), tampered, tree.getRoot()));
+    }
+
+    private static List<byte[]> leaves(int count) {
+        List<byte[]> leaves = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            leaves.add(Hash.sha3(("record-" + i).getBytes(StandardCharsets.UTF_8)));
+        }
+        return leaves;
+    }
+}
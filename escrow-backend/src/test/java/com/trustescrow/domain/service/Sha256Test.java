@@ -0,0 +1,50 @@
+package com.trustescrow.domain.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Sha256Test {
+
+    @Test
+    void testKnownVectors() {
+        assertEquals("e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855", Sha256.hashHex(""));
+        assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad", Sha256.hashHex("abc"));
+    }
+
+    @Test
+    void testHexMatchesHexFormat() throws Exception {
+        byte[] bytes = new byte[256];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) i;
+        }
+        assertEquals(HexFormat.of().formatHex(bytes), Sha256.hex(bytes));
+
+        byte[] content = "escrow".getBytes(StandardCharsets.UTF_8);
+        assertEquals(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content)),
+            Sha256.hashHex(content));
+    }
+
+    @Test
+    void testHashAllMatchesSingleHashesAndDigestIsReset() {
+        List<byte[]> contents = List.of(
+            "a".getBytes(StandardCharsets.UTF_8),
+            new byte[0],
+            "a".getBytes(StandardCharsets.UTF_8));
+
+        // A digest left with pending input must not leak into the next hash
+        Sha256.digest().update((byte) 1);
+        List<String> hashes = Sha256.hashAll(contents);
+
+        assertEquals(3, hashes.size());
+        for (int i = 0; i < contents.size(); i++) {
+            assertEquals(Sha256.hashHex(contents.get(i)), hashes.get(i));
+        }
+        assertEquals(hashes.get(0), hashes.get(2));
+    }
+}
@@ -10,14 +10,23 @@ export async function GET(
   const { roomId } = await params
   
   try {
-    const response = await fetch(`${API_BASE_URL}/api/escrow/chat/rooms/${roomId}/messages`, {
+    // Paging: before / after cursors and limit are passed through
+    const query = request.nextUrl.searchParams.toString()
+    const response = await fetch(`${API_BASE_URL}/api/escrow/chat/rooms/${roomId}/messages${query ? `?${query}` : ''}`, {
       headers: {
         'X-User-Id': userId || '',
       },
     })
     
     const data = await response.json()
-    return NextResponse.json(data)
+    const headers = new Headers()
+    for (const name of ['X-Older-Cursor', 'X-Newer-Cursor']) {
+      const cursor = response.headers.get(name)
+      if (cursor) {
+        headers.set(name, cursor)
+      }
+    }
+    return NextResponse.json(data, { status: response.status, headers })
   } catch (error) {
     return NextResponse.json(
       { success: false, error: 'Failed to fetch messages' },
@@ -22,42 +22,98 @@ export default function ChatRoomPage() {
   const [newMessage, setNewMessage] = useState('')
   const [loading, setLoading] = useState(true)
   const [userId, setUserId] = useState<string | null>(null)
+  const [chatRoom, setChatRoom] = useState<{ buyerId: string; sellerId: string; dealId: string | null } | null>(null)
+  const [olderCursor, setOlderCursor] = useState<string | null>(null)
+  const [loadingOlder, setLoadingOlder] = useState(false)
   const messagesEndRef = useRef<HTMLDivElement>(null)
+  const listRef = useRef<HTMLDivElement>(null)
+  // Position of the newest loaded message; polls only fetch what came after it
+  const newerCursorRef = useRef<string | null>(null)
+  // Scroll height before older messages were prepended (null: scroll to bottom on change)
+  const prependHeightRef = useRef<number | null>(null)
 
   useEffect(() => {
     const storedUserId = localStorage.getItem('userId')
     setUserId(storedUserId)
-    
-    if (storedUserId && roomId) {
+    if (!storedUserId) {
+      setLoading(false)
+    }
+  }, [])
+
+  useEffect(() => {
+    if (userId && roomId) {
+      newerCursorRef.current = null
       fetchMessages()
       // Poll for new messages every 3 seconds
       const interval = setInterval(fetchMessages, 3000)
       return () => clearInterval(interval)
     }
-  }, [roomId])
+  }, [userId, roomId])
+
+  useEffect(() => {
+    if (userId && roomId) {
+      fetch(`/api/escrow/chat/rooms/${roomId}`, {
+        headers: { 'X-User-Id': userId },
+      })
+        .then(res => res.json())
+        .then(data => {
+          if (data.success) {
+            setChatRoom(data.data)
+          }
+        })
+        .catch(console.error)
+    }
+  }, [userId, roomId])
 
   const scrollToBottom = () => {
     messagesEndRef.current?.scrollIntoView({ behavior: 'smooth' })
   }
 
   useEffect(() => {
+    const list = listRef.current
+    if (prependHeightRef.current !== null && list) {
+      // Keep the viewport on the same message after older history was prepended
+      list.scrollTop += list.scrollHeight - prependHeightRef.current
+      prependHeightRef.current = null
+      return
+    }
     scrollToBottom()
   }, [messages])
 
+  const mergeNewer = (current: ChatMessage[], incoming: ChatMessage[]) => {
+    const known = new Set(current.map(m => m.id))
+    const added = incoming.filter(m => !known.has(m.id))
+    return added.length > 0 ? [...current, ...added] : current
+  }
+
+  /**
+   * First call loads the latest page; later calls fetch only messages after the newest one loaded.
+   */
   const fetchMessages = async () => {
     if (!userId || !roomId) return
     
+    const after = newerCursorRef.current
     try {
-      const response = await fetch(`/api/escrow/chat/rooms/${roomId}/messages`, {
-        headers: {
-          'X-User-Id': userId,
-        },
-      })
+      const response = await fetch(
+        `/api/escrow/chat/rooms/${roomId}/messages${after ? `?after=${encodeURIComponent(after)}` : ''}`,
+        {
+          headers: {
+            'X-User-Id': userId,
+          },
+        }
+      )
       
       if (response.ok) {
         const data = await response.json()
         if (data.success) {
-          setMessages(data.data || [])
+          const page: ChatMessage[] = data.data || []
+          if (after) {
+            setMessages(current => mergeNewer(current, page))
+          } else {
+            setMessages(page)
+            setOlderCursor(response.headers.get('X-Older-Cursor'))
+          }
+          newerCursorRef.current = response.headers.get('X-Newer-Cursor') || after
         }
       }
     } catch (error) {
@@ -67,6 +123,45 @@ export default function ChatRoomPage() {
     }
   }
 
+  const fetchOlderMessages = async () => {
+    if (!userId || !roomId || !olderCursor || loadingOlder) return
+    
+    setLoadingOlder(true)
+    try {
+      const response = await fetch(
+        `/api/escrow/chat/rooms/${roomId}/messages?before=${encodeURIComponent(olderCursor)}`,
+        {
+          headers: {
+            'X-User-Id': userId,
+          },
+        }
+      )
+      
+      if (response.ok) {
+        const data = await response.json()
+        if (data.success) {
+          const page: ChatMessage[] = data.data || []
+          prependHeightRef.current = listRef.current?.scrollHeight ?? null
+          setMessages(current => {
+            const known = new Set(current.map(m => m.id))
+            return [...page.filter(m => !known.has(m.id)), ...current]
+          })
+          setOlderCursor(response.headers.get('X-Older-Cursor'))
+        }
+      }
+    } catch (error) {
+      console.error('Failed to fetch older messages:', error)
+    } finally {
+      setLoadingOlder(false)
+    }
+  }
+
+  const handleScroll = () => {
+    if (listRef.current && listRef.current.scrollTop < 40) {
+      fetchOlderMessages()
+    }
+  }
+
   const sendMessage = async () => {
     if (!newMessage.trim() || !userId || !roomId) return
     
@@ -107,23 +202,6 @@ export default function ChatRoomPage() {
     )
   }
 
-  const [chatRoom, setChatRoom] = useState<{ buyerId: string; sellerId: string; dealId: string | null } | null>(null)
-
-  useEffect(() => {
-    if (userId && roomId) {
-      fetch(`/api/escrow/chat/rooms/${roomId}`, {
-        headers: { 'X-User-Id': userId },
-      })
-        .then(res => res.json())
-        .then(data => {
-          if (data.success) {
-            setChatRoom(data.data)
-          }
-        })
-        .catch(console.error)
-    }
-  }, [userId, roomId])
-
   const isSeller = chatRoom && userId && chatRoom.sellerId === userId
   const isBuyer = chatRoom && userId && chatRoom.buyerId === userId
   const showEscrowButton = userId && !isSeller && chatRoom?.dealId // 본인 매물 아님, 거래 미완료
@@ -164,6 +242,8 @@ export default function ChatRoomPage() {
       </div>
       
       <div
+        ref={listRef}
+        onScroll={handleScroll}
         style={{
           flex: 1,
           overflowY: 'auto',
@@ -173,6 +253,11 @@ export default function ChatRoomPage() {
           gap: '12px',
         }}
       >
+        {loadingOlder && (
+          <div style={{ textAlign: 'center', fontSize: '12px', color: '#6b7280' }}>
+            Loading earlier messages...
+          </div>
+        )}
         {messages.map((message) => {
           const isOwnMessage = message.senderId === userId
           const isSystem = message.type === 'SYSTEM'